@@ -1,13 +1,19 @@
 package com.github.tadukoo.util;
 
+import com.github.tadukoo.util.logging.AsyncFileHandler;
+import com.github.tadukoo.util.logging.OverflowPolicy;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class LoggerUtilTest{
@@ -21,4 +27,37 @@ public class LoggerUtilTest{
 		File file = new File(filepath);
 		assertTrue(file.exists());
 	}
+	
+	@Test
+	public void testCreateAsyncFileLogger() throws IOException{
+		String filepath = "target/test-files/async-test.txt";
+		Files.deleteIfExists(Paths.get(filepath));
+		Logger logger = LoggerUtil.createAsyncFileLogger(filepath, Level.FINE);
+		
+		assertEquals(Level.FINE, logger.getLevel());
+		assertEquals(1, logger.getHandlers().length);
+		AsyncFileHandler handler = assertInstanceOf(AsyncFileHandler.class, logger.getHandlers()[0]);
+		assertEquals(AsyncFileHandler.DEFAULT_CAPACITY, handler.getCapacity());
+		assertEquals(OverflowPolicy.BLOCK, handler.getOverflowPolicy());
+		
+		logger.fine("Async message");
+		handler.close();
+		assertTrue(Files.readString(Paths.get(filepath)).contains("Async message"));
+	}
+	
+	@Test
+	public void testCreateAsyncFileLoggerOptions() throws IOException{
+		String filepath = "target/test-files/async-options-test.txt";
+		Logger logger = LoggerUtil.createAsyncFileLogger(filepath, Level.INFO, 16, OverflowPolicy.DROP_BELOW_LEVEL,
+				Level.SEVERE);
+		
+		assertEquals(Level.INFO, logger.getLevel());
+		Handler handler = logger.getHandlers()[0];
+		AsyncFileHandler asyncHandler = assertInstanceOf(AsyncFileHandler.class, handler);
+		assertEquals(16, asyncHandler.getCapacity());
+		assertEquals(OverflowPolicy.DROP_BELOW_LEVEL, asyncHandler.getOverflowPolicy());
+		assertEquals(Level.SEVERE, asyncHandler.getDropLevel());
+		handler.close();
+		assertTrue(new File(filepath).exists());
+	}
 }
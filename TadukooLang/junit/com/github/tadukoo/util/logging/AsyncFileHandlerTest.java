@@ -0,0 +1,332 @@
+package com.github.tadukoo.util.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.ErrorManager;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.logging.XMLFormatter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncFileHandlerTest{
+	private final String filepath = "target/test-files/async-file-handler.log";
+	private AsyncFileHandler handler;
+	
+	// Formats records as "LEVEL message" lines, and can hold up the writer thread while formatting
+	private static class TestFormatter extends Formatter{
+		private final CountDownLatch started = new CountDownLatch(1);
+		private final CountDownLatch release;
+		
+		private TestFormatter(boolean hold){
+			release = new CountDownLatch(hold?1:0);
+		}
+		
+		@Override
+		public String format(LogRecord record){
+			started.countDown();
+			try{
+				release.await();
+			}catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+			return record.getLevel() + " " + record.getMessage() + "\n";
+		}
+	}
+	
+	// Formats records as "LEVEL message" lines, with a head and tail that can fail
+	private static class HeadTailFormatter extends Formatter{
+		private final boolean failHead;
+		private final boolean failTail;
+		
+		private HeadTailFormatter(boolean failHead, boolean failTail){
+			this.failHead = failHead;
+			this.failTail = failTail;
+		}
+		
+		@Override
+		public String getHead(Handler h){
+			if(failHead){
+				throw new IllegalStateException("No head");
+			}
+			return "HEAD\n";
+		}
+		
+		@Override
+		public String format(LogRecord record){
+			return record.getLevel() + " " + record.getMessage() + "\n";
+		}
+		
+		@Override
+		public String getTail(Handler h){
+			if(failTail){
+				throw new IllegalStateException("No tail");
+			}
+			return "TAIL\n";
+		}
+	}
+	
+	// Keeps the codes of the errors reported by the handler
+	private static class CodeErrorManager extends ErrorManager{
+		private final List<Integer> codes = new CopyOnWriteArrayList<>();
+		
+		@Override
+		public void error(String msg, Exception ex, int code){
+			codes.add(code);
+		}
+	}
+	
+	@BeforeEach
+	public void setup() throws IOException{
+		Files.deleteIfExists(Paths.get(filepath));
+	}
+	
+	@AfterEach
+	public void tearDown(){
+		if(handler != null){
+			handler.close();
+		}
+	}
+	
+	private List<String> readLines() throws IOException{
+		return Files.readAllLines(Path.of(filepath));
+	}
+	
+	@Test
+	public void testDefaults() throws IOException{
+		handler = new AsyncFileHandler(filepath);
+		assertEquals(AsyncFileHandler.DEFAULT_CAPACITY, handler.getCapacity());
+		assertEquals(OverflowPolicy.BLOCK, handler.getOverflowPolicy());
+		assertEquals(Level.WARNING, handler.getDropLevel());
+		assertEquals(0, handler.getDroppedCount());
+		assertTrue(Files.exists(Paths.get(filepath)));
+	}
+	
+	@Test
+	public void testBadCapacity(){
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> new AsyncFileHandler(filepath, 0, OverflowPolicy.DROP, null));
+		assertEquals("capacity must be at least 1, but was 0", e.getMessage());
+	}
+	
+	@Test
+	public void testMissingDropLevel(){
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> new AsyncFileHandler(filepath, 10, OverflowPolicy.DROP_BELOW_LEVEL, null));
+		assertEquals("dropLevel is required for DROP_BELOW_LEVEL", e.getMessage());
+	}
+	
+	@Test
+	public void testPublishAndFlush() throws IOException{
+		handler = new AsyncFileHandler(filepath);
+		handler.setFormatter(new TestFormatter(false));
+		for(int i = 0; i < 100; i++){
+			handler.publish(new LogRecord(Level.INFO, "Message " + i));
+		}
+		handler.flush();
+		List<String> lines = readLines();
+		assertEquals(100, lines.size());
+		for(int i = 0; i < 100; i++){
+			assertEquals("INFO Message " + i, lines.get(i));
+		}
+	}
+	
+	@Test
+	public void testSourceFoundWhenPublished() throws IOException{
+		handler = new AsyncFileHandler(filepath);
+		handler.setFormatter(new Formatter(){
+			@Override
+			public String format(LogRecord record){
+				return record.getSourceClassName() + "." + record.getSourceMethodName() + "\n";
+			}
+		});
+		Logger logger = Logger.getAnonymousLogger();
+		logger.setUseParentHandlers(false);
+		logger.addHandler(handler);
+		logger.info("Some info");
+		handler.flush();
+		assertEquals(List.of(AsyncFileHandlerTest.class.getName() + ".testSourceFoundWhenPublished"), readLines());
+	}
+	
+	@Test
+	public void testPublishBelowLevel() throws IOException{
+		handler = new AsyncFileHandler(filepath);
+		handler.setFormatter(new TestFormatter(false));
+		handler.setLevel(Level.INFO);
+		handler.publish(new LogRecord(Level.FINE, "Not logged"));
+		handler.publish(new LogRecord(Level.INFO, "Logged"));
+		handler.flush();
+		assertEquals(List.of("INFO Logged"), readLines());
+	}
+	
+	@Test
+	public void testCloseWritesBufferedRecords() throws IOException, InterruptedException{
+		handler = new AsyncFileHandler(filepath);
+		TestFormatter formatter = new TestFormatter(true);
+		handler.setFormatter(formatter);
+		handler.publish(new LogRecord(Level.INFO, "First"));
+		handler.publish(new LogRecord(Level.INFO, "Second"));
+		assertTrue(formatter.started.await(5, TimeUnit.SECONDS));
+		formatter.release.countDown();
+		handler.close();
+		assertEquals(List.of("INFO First", "INFO Second"), readLines());
+		
+		// Records published after closing are ignored
+		handler.publish(new LogRecord(Level.INFO, "Third"));
+		handler.flush();
+		assertEquals(2, readLines().size());
+	}
+	
+	@Test
+	public void testDropWhenFull() throws IOException, InterruptedException{
+		handler = new AsyncFileHandler(filepath, 2, OverflowPolicy.DROP, null);
+		TestFormatter formatter = new TestFormatter(true);
+		handler.setFormatter(formatter);
+		
+		// Hold up the writer thread on the first record, then fill the buffer
+		handler.publish(new LogRecord(Level.INFO, "First"));
+		assertTrue(formatter.started.await(5, TimeUnit.SECONDS));
+		handler.publish(new LogRecord(Level.INFO, "Second"));
+		handler.publish(new LogRecord(Level.INFO, "Third"));
+		handler.publish(new LogRecord(Level.SEVERE, "Dropped"));
+		assertEquals(1, handler.getDroppedCount());
+		
+		formatter.release.countDown();
+		handler.flush();
+		assertEquals(List.of("INFO First", "INFO Second", "INFO Third"), readLines());
+	}
+	
+	@Test
+	public void testDropBelowLevelWhenFull() throws IOException, InterruptedException{
+		handler = new AsyncFileHandler(filepath, 1, OverflowPolicy.DROP_BELOW_LEVEL, Level.WARNING);
+		TestFormatter formatter = new TestFormatter(true);
+		handler.setFormatter(formatter);
+		
+		// Hold up the writer thread on the first record, then fill the buffer
+		handler.publish(new LogRecord(Level.INFO, "First"));
+		assertTrue(formatter.started.await(5, TimeUnit.SECONDS));
+		handler.publish(new LogRecord(Level.INFO, "Second"));
+		handler.publish(new LogRecord(Level.INFO, "Dropped"));
+		assertEquals(1, handler.getDroppedCount());
+		
+		// A warning waits for space instead of being dropped
+		Thread publisher = new Thread(() -> handler.publish(new LogRecord(Level.WARNING, "Kept")));
+		publisher.start();
+		publisher.join(300);
+		assertTrue(publisher.isAlive());
+		
+		formatter.release.countDown();
+		publisher.join(5000);
+		handler.flush();
+		assertEquals(1, handler.getDroppedCount());
+		assertEquals(List.of("INFO First", "INFO Second", "WARNING Kept"), readLines());
+	}
+	
+	@Test
+	public void testBlockWhenFull() throws IOException, InterruptedException{
+		handler = new AsyncFileHandler(filepath, 1, OverflowPolicy.BLOCK, null);
+		TestFormatter formatter = new TestFormatter(true);
+		handler.setFormatter(formatter);
+		
+		// Hold up the writer thread on the first record, then fill the buffer
+		handler.publish(new LogRecord(Level.INFO, "First"));
+		assertTrue(formatter.started.await(5, TimeUnit.SECONDS));
+		handler.publish(new LogRecord(Level.INFO, "Second"));
+		
+		Thread publisher = new Thread(() -> handler.publish(new LogRecord(Level.FINE, "Third")));
+		publisher.start();
+		publisher.join(300);
+		assertTrue(publisher.isAlive());
+		
+		formatter.release.countDown();
+		publisher.join(5000);
+		handler.flush();
+		assertEquals(0, handler.getDroppedCount());
+		assertEquals(3, readLines().size());
+	}
+	
+	@Test
+	public void testHeadAndTail() throws IOException{
+		handler = new AsyncFileHandler(filepath);
+		handler.setFormatter(new HeadTailFormatter(false, false));
+		handler.publish(new LogRecord(Level.INFO, "Message"));
+		handler.close();
+		assertEquals(List.of("HEAD", "INFO Message", "TAIL"), readLines());
+	}
+	
+	@Test
+	public void testNoTailWithoutHead() throws IOException{
+		handler = new AsyncFileHandler(filepath);
+		handler.setFormatter(new XMLFormatter());
+		handler.close();
+		assertEquals(List.of(), readLines());
+	}
+	
+	@Test
+	public void testHeadFails() throws IOException{
+		handler = new AsyncFileHandler(filepath);
+		handler.setFormatter(new HeadTailFormatter(true, false));
+		CodeErrorManager errorManager = new CodeErrorManager();
+		handler.setErrorManager(errorManager);
+		handler.publish(new LogRecord(Level.INFO, "First"));
+		handler.flush();
+		handler.publish(new LogRecord(Level.INFO, "Second"));
+		handler.close();
+		assertEquals(List.of("INFO First", "INFO Second"), readLines());
+		assertEquals(List.of(ErrorManager.FORMAT_FAILURE), errorManager.codes);
+	}
+	
+	@Test
+	public void testTailFails() throws IOException{
+		handler = new AsyncFileHandler(filepath);
+		handler.setFormatter(new HeadTailFormatter(false, true));
+		CodeErrorManager errorManager = new CodeErrorManager();
+		handler.setErrorManager(errorManager);
+		handler.publish(new LogRecord(Level.INFO, "Message"));
+		handler.close();
+		assertEquals(List.of("HEAD", "INFO Message"), readLines());
+		assertEquals(List.of(ErrorManager.FORMAT_FAILURE), errorManager.codes);
+	}
+	
+	@Test
+	public void testWriterThreadDies() throws IOException, InterruptedException{
+		handler = new AsyncFileHandler(filepath, 1, OverflowPolicy.BLOCK, null);
+		CountDownLatch died = new CountDownLatch(1);
+		handler.setFormatter(new Formatter(){
+			@Override
+			public String format(LogRecord record){
+				died.countDown();
+				throw new StackOverflowError("Simulated dying writer thread");
+			}
+		});
+		handler.publish(new LogRecord(Level.INFO, "Kills the writer"));
+		assertTrue(died.await(5, TimeUnit.SECONDS));
+		
+		// Nothing takes records out of the buffer anymore, so publishing has to give up instead of waiting forever
+		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+			for(int i = 0; i < 3; i++){
+				handler.publish(new LogRecord(Level.SEVERE, "Can't be written"));
+			}
+			handler.flush();
+			handler.close();
+		});
+		assertEquals(2, handler.getDroppedCount());
+	}
+}
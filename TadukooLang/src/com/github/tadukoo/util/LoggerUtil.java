@@ -1,5 +1,8 @@
 package com.github.tadukoo.util;
 
+import com.github.tadukoo.util.logging.AsyncFileHandler;
+import com.github.tadukoo.util.logging.OverflowPolicy;
+
 import java.io.IOException;
 import java.util.logging.FileHandler;
 import java.util.logging.Level;
@@ -10,7 +13,8 @@ import java.util.logging.SimpleFormatter;
  * Util functions for dealing with Loggers.
  * 
  * @author Logan Ferree (Tadukoo)
- * @version 0.1-Alpha-SNAPSHOT
+ * @version Beta v.0.7
+ * @since 0.1-Alpha-SNAPSHOT
  */
 public final class LoggerUtil{
 	
@@ -43,4 +47,48 @@ public final class LoggerUtil{
 		// Return the newly created Logger
 		return logger;
 	}
+	
+	/**
+	 * Creates a new {@link Logger} for the given file with the given {@link Level} of logging, which writes to the
+	 * file on a background thread using an {@link AsyncFileHandler}. The handler buffers up to
+	 * {@link AsyncFileHandler#DEFAULT_CAPACITY} records, and waits for space when it's full
+	 * ({@link OverflowPolicy#BLOCK}).
+	 *
+	 * @param filepath The path to the File to be used as a log
+	 * @param level The Level to log messages at
+	 * @return The created Logger
+	 * @throws IOException If something goes wrong in creating the file logger
+	 */
+	public static Logger createAsyncFileLogger(String filepath, Level level) throws IOException{
+		return createAsyncFileLogger(filepath, level, AsyncFileHandler.DEFAULT_CAPACITY, OverflowPolicy.BLOCK,
+				Level.WARNING);
+	}
+	
+	/**
+	 * Creates a new {@link Logger} for the given file with the given {@link Level} of logging, which writes to the
+	 * file on a background thread using an {@link AsyncFileHandler}.
+	 *
+	 * @param filepath The path to the File to be used as a log
+	 * @param level The Level to log messages at
+	 * @param capacity The number of records that can be waiting to be written
+	 * @param overflowPolicy What to do with a record when there are already capacity records waiting
+	 * @param dropLevel The Level records must be at to not be dropped when using
+	 * {@link OverflowPolicy#DROP_BELOW_LEVEL} (ignored for other policies)
+	 * @return The created Logger
+	 * @throws IOException If something goes wrong in creating the file logger
+	 */
+	public static Logger createAsyncFileLogger(
+			String filepath, Level level, int capacity, OverflowPolicy overflowPolicy, Level dropLevel)
+			throws IOException{
+		// Setup an AsyncFileHandler for the File (it creates the File and uses a SimpleFormatter)
+		AsyncFileHandler handler = new AsyncFileHandler(filepath, capacity, overflowPolicy, dropLevel);
+		
+		// Create the Logger with the given level and the created AsyncFileHandler
+		Logger logger = Logger.getLogger(filepath);
+		logger.setLevel(level);
+		logger.addHandler(handler);
+		
+		// Return the newly created Logger
+		return logger;
+	}
 }
@@ -0,0 +1,342 @@
+package com.github.tadukoo.util.logging;
+
+import com.github.tadukoo.util.FileUtil;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * Async File Handler is a {@link Handler} that writes log records to a file on a background thread, so that the
+ * threads doing the logging aren't held up by disk writes. Published records go into a bounded buffer, which the
+ * background thread drains in batches, writing each batch to the file with one large buffered write and flush.
+ * <br><br>
+ * When the buffer is full, what happens to a new record depends on the {@link OverflowPolicy}, and any records
+ * that are dropped are counted (see {@link #getDroppedCount()}). {@link #flush()} waits until every record
+ * published before it was called has been written, and {@link #close()} writes any records left in the buffer
+ * before closing the file. The handler is also closed when the JVM shuts down, so buffered records aren't lost.
+ * <br><br>
+ * Like {@link java.util.logging.FileHandler}, the file is appended to and records are formatted with a
+ * {@link SimpleFormatter} by default. Records are formatted on the background thread, so the source class and
+ * method of each record are found when it's published.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public class AsyncFileHandler extends Handler{
+	/** The default number of records that can be waiting in the buffer */
+	public static final int DEFAULT_CAPACITY = 8192;
+	/** The size of the buffer used for writing to the file, in characters */
+	private static final int WRITE_BUFFER_SIZE = 64*1024;
+	/** How long to wait for space in the buffer before checking whether the handler was closed, in milliseconds */
+	private static final long CLOSED_CHECK_MILLIS = 100;
+	/** Put in the buffer to tell the background thread to finish up */
+	private static final LogRecord CLOSE = new LogRecord(Level.OFF, null);
+	
+	/** The buffer of records waiting to be written */
+	private final BlockingQueue<LogRecord> buffer;
+	/** The most records to write in one batch */
+	private final int capacity;
+	/** What to do with a record when the buffer is full */
+	private final OverflowPolicy overflowPolicy;
+	/** The {@link Level} records must be at to not be dropped when using {@link OverflowPolicy#DROP_BELOW_LEVEL} */
+	private final Level dropLevel;
+	/** The {@link Writer} for the file */
+	private final Writer writer;
+	/** The background thread that writes the records */
+	private final Thread writerThread;
+	/** Closes this handler when the JVM shuts down */
+	private final Thread shutdownHook;
+	/** The number of records that have been put in the buffer */
+	private final AtomicLong publishedCount = new AtomicLong();
+	/** The number of records that were dropped because the buffer was full */
+	private final AtomicLong droppedCount = new AtomicLong();
+	/** Used to wait for records to be written */
+	private final Object writtenLock = new Object();
+	/** The number of records that have been taken out of the buffer and written (or failed to be) */
+	private long writtenCount = 0;
+	/** Whether writing the head of the {@link java.util.logging.Formatter} has been tried yet */
+	private boolean triedHead = false;
+	/** Whether the head of the {@link java.util.logging.Formatter} has been written (so the tail should be too) */
+	private boolean wroteHead = false;
+	/** Whether this handler has been closed */
+	private volatile boolean closed = false;
+	
+	/**
+	 * Creates a new {@link AsyncFileHandler} for the given file, with a buffer of {@link #DEFAULT_CAPACITY} records
+	 * that waits for space when it's full ({@link OverflowPolicy#BLOCK})
+	 *
+	 * @param filepath The path to the file to log to
+	 * @throws IOException If something goes wrong in opening the file
+	 */
+	public AsyncFileHandler(String filepath) throws IOException{
+		this(filepath, DEFAULT_CAPACITY, OverflowPolicy.BLOCK, Level.WARNING);
+	}
+	
+	/**
+	 * Creates a new {@link AsyncFileHandler} for the given file
+	 *
+	 * @param filepath The path to the file to log to
+	 * @param capacity The number of records that can be waiting in the buffer
+	 * @param overflowPolicy What to do with a record when the buffer is full
+	 * @param dropLevel The {@link Level} records must be at to not be dropped when using
+	 * {@link OverflowPolicy#DROP_BELOW_LEVEL} (ignored for other policies)
+	 * @throws IOException If something goes wrong in opening the file
+	 */
+	public AsyncFileHandler(String filepath, int capacity, OverflowPolicy overflowPolicy, Level dropLevel)
+			throws IOException{
+		if(capacity < 1){
+			throw new IllegalArgumentException("capacity must be at least 1, but was " + capacity);
+		}
+		if(overflowPolicy == OverflowPolicy.DROP_BELOW_LEVEL && dropLevel == null){
+			throw new IllegalArgumentException("dropLevel is required for " + OverflowPolicy.DROP_BELOW_LEVEL);
+		}
+		buffer = new ArrayBlockingQueue<>(capacity);
+		this.capacity = capacity;
+		this.overflowPolicy = overflowPolicy;
+		this.dropLevel = dropLevel;
+		setFormatter(new SimpleFormatter());
+		
+		// Open the file for appending
+		FileUtil.createFile(filepath);
+		writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(filepath, true),
+				Charset.defaultCharset()), WRITE_BUFFER_SIZE);
+		
+		// Start writing records in the background
+		writerThread = new Thread(this::writeRecords, "AsyncFileHandler-" + filepath);
+		writerThread.setDaemon(true);
+		writerThread.start();
+		
+		// Make sure buffered records get written before the JVM exits
+		shutdownHook = new Thread(this::close, "AsyncFileHandler-shutdown-" + filepath);
+		Runtime.getRuntime().addShutdownHook(shutdownHook);
+	}
+	
+	/**
+	 * @return The number of records that can be waiting in the buffer
+	 */
+	public int getCapacity(){
+		return capacity;
+	}
+	
+	/**
+	 * @return What to do with a record when the buffer is full
+	 */
+	public OverflowPolicy getOverflowPolicy(){
+		return overflowPolicy;
+	}
+	
+	/**
+	 * @return The {@link Level} records must be at to not be dropped when using
+	 * {@link OverflowPolicy#DROP_BELOW_LEVEL}
+	 */
+	public Level getDropLevel(){
+		return dropLevel;
+	}
+	
+	/**
+	 * @return The number of records that were dropped because the buffer was full
+	 */
+	public long getDroppedCount(){
+		return droppedCount.get();
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public void publish(LogRecord record){
+		if(closed || !isLoggable(record)){
+			return;
+		}
+		
+		// Find the source class and method now, since they can't be found from the background thread
+		record.getSourceClassName();
+		
+		boolean wait = overflowPolicy == OverflowPolicy.BLOCK || (overflowPolicy == OverflowPolicy.DROP_BELOW_LEVEL &&
+				record.getLevel().intValue() >= dropLevel.intValue());
+		if(wait?waitToBuffer(record):buffer.offer(record)){
+			publishedCount.incrementAndGet();
+		}else{
+			droppedCount.incrementAndGet();
+		}
+	}
+	
+	/**
+	 * Waits for space in the buffer to put the given record in it, giving up if this handler is closed or the
+	 * {@link #writerThread} died (since the buffer would never have space again)
+	 *
+	 * @param record The record to put in the buffer
+	 * @return Whether the record was put in the buffer
+	 */
+	private boolean waitToBuffer(LogRecord record){
+		try{
+			while(!buffer.offer(record, CLOSED_CHECK_MILLIS, TimeUnit.MILLISECONDS)){
+				if(closed || !writerThread.isAlive()){
+					return false;
+				}
+			}
+			return true;
+		}catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+	
+	/**
+	 * Waits until every record published before this was called has been written to the file
+	 */
+	@Override
+	public void flush(){
+		if(Thread.currentThread() == writerThread){
+			return;
+		}
+		long target = publishedCount.get();
+		synchronized(writtenLock){
+			while(writtenCount < target && writerThread.isAlive()){
+				try{
+					writtenLock.wait(CLOSED_CHECK_MILLIS);
+				}catch(InterruptedException e){
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Stops accepting records, waits for the ones left in the buffer to be written, and closes the file
+	 */
+	@Override
+	public synchronized void close(){
+		if(closed){
+			return;
+		}
+		closed = true;
+		
+		// Tell the background thread to finish up (unless it died) and wait for it
+		boolean interrupted = false;
+		while(writerThread.isAlive()){
+			try{
+				if(buffer.offer(CLOSE, CLOSED_CHECK_MILLIS, TimeUnit.MILLISECONDS)){
+					break;
+				}
+			}catch(InterruptedException e){
+				interrupted = true;
+			}
+		}
+		while(writerThread.isAlive()){
+			try{
+				writerThread.join();
+			}catch(InterruptedException e){
+				interrupted = true;
+			}
+		}
+		
+		// No need to close this again when the JVM shuts down
+		try{
+			Runtime.getRuntime().removeShutdownHook(shutdownHook);
+		}catch(IllegalStateException e){
+			// The JVM is already shutting down
+		}
+		if(interrupted){
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Takes batches of records out of the buffer and writes them to the file until told to close, then writes the
+	 * rest of the records and closes the file. This is run on the {@link #writerThread}
+	 */
+	private void writeRecords(){
+		List<LogRecord> batch = new ArrayList<>();
+		boolean closing = false;
+		try{
+			while(!closing){
+				try{
+					batch.add(buffer.take());
+				}catch(InterruptedException e){
+					// Keep going until told to close, so that no records are lost
+					continue;
+				}
+				buffer.drainTo(batch, capacity - 1);
+				closing = batch.remove(CLOSE);
+				if(closing){
+					buffer.drainTo(batch);
+				}
+				writeBatch(batch);
+				batch.clear();
+			}
+		}finally{
+			// Close the file even if this thread is dying, and only end it with the tail if it started with the head
+			try{
+				if(wroteHead){
+					writer.write(getFormatter().getTail(this));
+				}
+			}catch(IOException e){
+				reportError(null, e, ErrorManager.WRITE_FAILURE);
+			}catch(RuntimeException e){
+				reportError(null, e, ErrorManager.FORMAT_FAILURE);
+			}
+			try{
+				writer.close();
+			}catch(IOException e){
+				reportError(null, e, ErrorManager.CLOSE_FAILURE);
+			}
+		}
+	}
+	
+	/**
+	 * Formats the given records and writes them to the file, then flushes it
+	 *
+	 * @param batch The records to write
+	 */
+	private void writeBatch(List<LogRecord> batch){
+		try{
+			if(!triedHead && !batch.isEmpty()){
+				triedHead = true;
+				String head;
+				try{
+					head = getFormatter().getHead(this);
+				}catch(RuntimeException e){
+					reportError(null, e, ErrorManager.FORMAT_FAILURE);
+					head = null;
+				}
+				if(head != null){
+					writer.write(head);
+					wroteHead = true;
+				}
+			}
+			for(LogRecord record: batch){
+				String formatted;
+				try{
+					formatted = getFormatter().format(record);
+				}catch(RuntimeException e){
+					reportError(null, e, ErrorManager.FORMAT_FAILURE);
+					continue;
+				}
+				writer.write(formatted);
+			}
+			writer.flush();
+		}catch(IOException e){
+			reportError(null, e, ErrorManager.WRITE_FAILURE);
+		}
+		
+		synchronized(writtenLock){
+			writtenCount += batch.size();
+			writtenLock.notifyAll();
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package com.github.tadukoo.util.logging;
+
+/**
+ * Overflow Policy determines what an {@link AsyncFileHandler} does with a log record when its buffer is full.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public enum OverflowPolicy{
+	
+	/** Wait for space in the buffer, so no records are lost (but the logging thread can be held up) */
+	BLOCK,
+	/** Drop the record, so the logging thread is never held up (but records can be lost) */
+	DROP,
+	/**
+	 * Drop the record if it's below the handler's drop level, and wait for space in the buffer if not, so that
+	 * important records are never lost
+	 */
+	DROP_BELOW_LEVEL
+}
@@ -0,0 +1,5 @@
+/**
+ * Contains {@link java.util.logging.Handler Handlers} for use with {@link java.util.logging.Logger Loggers},
+ * such as the {@link com.github.tadukoo.util.logging.AsyncFileHandler AsyncFileHandler}.
+ */
+package com.github.tadukoo.util.logging;
@@ -0,0 +1,135 @@
+package com.github.tadukoo.util.download;
+
+import com.github.tadukoo.util.FileUtil;
+import com.github.tadukoo.util.logger.EasyLogger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncDownloaderTest{
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+	private final AsyncDownloader downloader = new AsyncDownloader(new EasyLogger(Logger.getAnonymousLogger()),
+			executor, Duration.ofSeconds(5), Duration.ofMillis(500));
+	
+	@AfterEach
+	public void shutdown(){
+		executor.shutdownNow();
+	}
+	
+	private String dest(String name){
+		FileUtil.createDirectory("target/junit/async/");
+		String dest = "target/junit/async/" + name;
+		FileUtil.deleteFile(dest);
+		FileUtil.deleteFile(dest + DownloadUtil.PART_SUFFIX);
+		return dest;
+	}
+	
+	@Test
+	public void testDownloadFile() throws IOException, ExecutionException, InterruptedException, TimeoutException{
+		byte[] content = TestHttpServer.randomBytes(300 * 1024);
+		String dest = dest("async.bin");
+		List<Long> progress = new ArrayList<>();
+		try(TestHttpServer server = new TestHttpServer()){
+			CompletableFuture<Path> future = downloader.downloadFile(
+					(percent, readSoFar, expectedSize) -> progress.add(readSoFar),
+					server.addFile("/async.bin", content), dest);
+			assertEquals(new File(dest).toPath(), future.get(10, TimeUnit.SECONDS));
+		}
+		assertArrayEquals(content, FileUtil.readAsBytes(dest));
+		assertFalse(new File(dest + DownloadUtil.PART_SUFFIX).exists());
+		assertEquals(content.length, progress.get(progress.size() - 1));
+	}
+	
+	@Test
+	public void testDownloadFileMany() throws IOException, ExecutionException, InterruptedException, TimeoutException{
+		List<byte[]> contents = new ArrayList<>();
+		List<CompletableFuture<Path>> futures = new ArrayList<>();
+		try(TestHttpServer server = new TestHttpServer()){
+			for(int i = 0; i < 10; i++){
+				byte[] content = TestHttpServer.randomBytes(50000 + i);
+				contents.add(content);
+				futures.add(downloader.downloadFile(null, server.addFile("/many" + i + ".bin", content),
+						dest("many" + i + ".bin")));
+			}
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+		}
+		for(int i = 0; i < 10; i++){
+			assertArrayEquals(contents.get(i), FileUtil.readAsBytes(futures.get(i).get().toString()));
+		}
+	}
+	
+	@Test
+	public void testDownloadFileNotFound() throws IOException, InterruptedException{
+		String dest = dest("missing.bin");
+		try(TestHttpServer server = new TestHttpServer()){
+			CompletableFuture<Path> future = downloader.downloadFile(null, server.getAddress("/missing.bin"), dest);
+			ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+			assertInstanceOf(IOException.class, e.getCause());
+		}
+		assertFalse(new File(dest).exists());
+	}
+	
+	@Test
+	public void testDownloadFileReadTimeout() throws IOException, InterruptedException{
+		String dest = dest("stall.bin");
+		try(TestHttpServer server = new TestHttpServer()){
+			String fileAddress = server.addFile("/stall.bin", TestHttpServer.randomBytes(300 * 1024));
+			server.setStallAfter(1000);
+			CompletableFuture<Path> future = downloader.downloadFile(null, fileAddress, dest);
+			ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+			assertInstanceOf(HttpTimeoutException.class, e.getCause());
+		}
+		assertFalse(new File(dest).exists());
+		assertFalse(new File(dest + DownloadUtil.PART_SUFFIX).exists());
+	}
+	
+	@Test
+	public void testDownloadFileCancel() throws IOException, InterruptedException{
+		String dest = dest("cancel.bin");
+		AsyncDownloader slowDownloader = new AsyncDownloader(null, executor, Duration.ofSeconds(5),
+				Duration.ofSeconds(30));
+		try(TestHttpServer server = new TestHttpServer()){
+			String fileAddress = server.addFile("/cancel.bin", TestHttpServer.randomBytes(300 * 1024));
+			server.setStallAfter(1000);
+			CompletableFuture<Path> future = slowDownloader.downloadFile(null, fileAddress, dest);
+			
+			// Wait for the download to get going before cancelling it
+			long start = System.currentTimeMillis();
+			while(!new File(dest + DownloadUtil.PART_SUFFIX).exists() && System.currentTimeMillis() - start < 5000){
+				Thread.sleep(10);
+			}
+			assertTrue(future.cancel(true));
+			assertTrue(future.isCancelled());
+			Thread.sleep(100);
+		}
+		assertFalse(new File(dest).exists());
+		assertFalse(new File(dest + DownloadUtil.PART_SUFFIX).exists());
+	}
+	
+	@Test
+	public void testBadReadTimeout(){
+		assertThrows(IllegalArgumentException.class,
+				() -> new AsyncDownloader(null, executor, Duration.ofSeconds(1), Duration.ZERO));
+	}
+}
@@ -0,0 +1,38 @@
+package com.github.tadukoo.util.download;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class DigestReadableByteChannelWrapperTest{
+	
+	@Test
+	public void testDigest() throws IOException, NoSuchAlgorithmException{
+		byte[] content = TestHttpServer.randomBytes(10000);
+		MessageDigest digest = MessageDigest.getInstance("SHA-256");
+		try(DigestReadableByteChannelWrapper wrapper = new DigestReadableByteChannelWrapper(
+				Channels.newChannel(new ByteArrayInputStream(content)), digest)){
+			assertSame(digest, wrapper.getDigest());
+			
+			// Read into the middle of a buffer to make sure only the bytes read are digested
+			ByteBuffer buffer = ByteBuffer.allocate(777);
+			buffer.position(10);
+			int total = 0, n;
+			while((n = wrapper.read(buffer)) != -1){
+				total += n;
+				buffer.clear().position(10);
+			}
+			assertEquals(content.length, total);
+		}
+		assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(content), digest.digest());
+	}
+}
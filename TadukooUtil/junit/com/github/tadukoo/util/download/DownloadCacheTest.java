@@ -0,0 +1,136 @@
+package com.github.tadukoo.util.download;
+
+import com.github.tadukoo.util.FileUtil;
+import com.github.tadukoo.util.logger.EasyLogger;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DownloadCacheTest{
+	private final EasyLogger logger = new EasyLogger(Logger.getAnonymousLogger());
+	private final String destDir = "target/junit/cached/";
+	
+	private DownloadCache newCache(String name, long maxSize) throws IOException{
+		DownloadCache cache = new DownloadCache(logger, "target/junit/cache-" + name, maxSize);
+		cache.clear();
+		return cache;
+	}
+	
+	private String dest(String name){
+		FileUtil.createDirectory(destDir);
+		String dest = destDir + name;
+		FileUtil.deleteFile(dest);
+		return dest;
+	}
+	
+	@Test
+	public void testNegativeMaxSize(){
+		assertThrows(IllegalArgumentException.class, () -> new DownloadCache(logger, "target/junit/cache-bad", -1));
+	}
+	
+	@Test
+	public void testCacheHit() throws IOException{
+		DownloadCache cache = newCache("hit", 1024 * 1024);
+		byte[] content = TestHttpServer.randomBytes(50000);
+		String dest1 = dest("hit1.bin"), dest2 = dest("hit2.bin");
+		List<Long> progress = new ArrayList<>();
+		try(TestHttpServer server = new TestHttpServer()){
+			String fileAddress = server.addFile("/hit.bin", content);
+			cache.downloadFile(null, fileAddress, dest1);
+			assertTrue(cache.contains(fileAddress));
+			assertEquals(content.length, cache.getSize());
+			
+			// The second download is revalidated, but not downloaded again
+			cache.downloadFile((percent, readSoFar, expectedSize) -> progress.add(readSoFar), fileAddress, dest2);
+			assertEquals(1, server.getNotModifiedResponses());
+		}
+		assertArrayEquals(content, FileUtil.readAsBytes(dest1));
+		assertArrayEquals(content, FileUtil.readAsBytes(dest2));
+		assertEquals(List.of((long) content.length), progress);
+	}
+	
+	@Test
+	public void testCacheChangedFile() throws IOException{
+		DownloadCache cache = newCache("changed", 1024 * 1024);
+		byte[] content = TestHttpServer.randomBytes(50000), newContent = TestHttpServer.randomBytes(60000);
+		String dest1 = dest("changed1.bin"), dest2 = dest("changed2.bin");
+		try(TestHttpServer server = new TestHttpServer()){
+			String fileAddress = server.addFile("/changed.bin", content);
+			cache.downloadFile(null, fileAddress, dest1);
+			server.addFile("/changed.bin", newContent);
+			cache.downloadFile(null, fileAddress, dest2);
+			assertEquals(0, server.getNotModifiedResponses());
+			assertEquals(newContent.length, cache.getSize());
+		}
+		assertArrayEquals(content, FileUtil.readAsBytes(dest1));
+		assertArrayEquals(newContent, FileUtil.readAsBytes(dest2));
+	}
+	
+	@Test
+	public void testCacheEviction() throws IOException{
+		DownloadCache cache = newCache("evict", 25000);
+		try(TestHttpServer server = new TestHttpServer()){
+			String a = server.addFile("/a.bin", TestHttpServer.randomBytes(10000));
+			String b = server.addFile("/b.bin", TestHttpServer.randomBytes(10001));
+			String c = server.addFile("/c.bin", TestHttpServer.randomBytes(10002));
+			cache.downloadFile(null, a, dest("evict-a1.bin"));
+			cache.downloadFile(null, b, dest("evict-b1.bin"));
+			
+			// Using a again makes b the least recently used
+			cache.downloadFile(null, a, dest("evict-a2.bin"));
+			cache.downloadFile(null, c, dest("evict-c1.bin"));
+			assertTrue(cache.contains(a));
+			assertFalse(cache.contains(b));
+			assertTrue(cache.contains(c));
+			assertEquals(20002, cache.getSize());
+		}
+		
+		// Evicting from the cache doesn't affect the files it gave out
+		assertEquals(10001, FileUtil.readAsBytes(destDir + "evict-b1.bin").length);
+	}
+	
+	@Test
+	public void testCacheReload() throws IOException{
+		DownloadCache cache = newCache("reload", 1024 * 1024);
+		byte[] content = TestHttpServer.randomBytes(30000);
+		try(TestHttpServer server = new TestHttpServer()){
+			String fileAddress = server.addFile("/reload.bin", content);
+			cache.downloadFile(null, fileAddress, dest("reload1.bin"));
+			
+			DownloadCache reloaded = new DownloadCache(logger, "target/junit/cache-reload", 1024 * 1024);
+			assertTrue(reloaded.contains(fileAddress));
+			assertEquals(content.length, reloaded.getSize());
+			reloaded.downloadFile(null, fileAddress, dest("reload2.bin"));
+			assertEquals(1, server.getNotModifiedResponses());
+		}
+		assertArrayEquals(content, FileUtil.readAsBytes(destDir + "reload2.bin"));
+	}
+	
+	@Test
+	public void testCacheServerDown() throws IOException{
+		DownloadCache cache = newCache("down", 1024 * 1024);
+		byte[] content = TestHttpServer.randomBytes(30000);
+		String fileAddress;
+		try(TestHttpServer server = new TestHttpServer()){
+			fileAddress = server.addFile("/down.bin", content);
+			cache.downloadFile(null, fileAddress, dest("down1.bin"));
+		}
+		
+		// The server's gone, so the cached file is used
+		String dest2 = dest("down2.bin");
+		cache.downloadFile(null, fileAddress, dest2);
+		assertArrayEquals(content, FileUtil.readAsBytes(dest2));
+		
+		// But something that isn't cached can't be downloaded
+		assertThrows(IOException.class, () -> cache.downloadFile(null, fileAddress + "2", dest("down3.bin")));
+	}
+}
@@ -0,0 +1,137 @@
+package com.github.tadukoo.util.download;
+
+import com.github.tadukoo.util.FileUtil;
+import com.github.tadukoo.util.logger.EasyLogger;
+import com.github.tadukoo.util.tuple.Pair;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DownloadManagerTest{
+	private final EasyLogger logger = new EasyLogger(Logger.getAnonymousLogger());
+	private final String destDir = "target/junit/manager/";
+	
+	@Test
+	public void testConstructorBadLimits(){
+		assertThrows(IllegalArgumentException.class, () -> new DownloadManager(logger, 0, 1));
+		assertThrows(IllegalArgumentException.class, () -> new DownloadManager(logger, 1, 0));
+	}
+	
+	@Test
+	public void testDownloadAll() throws IOException, InterruptedException{
+		FileUtil.createDirectory(destDir);
+		List<Pair<String, String>> jobs = new ArrayList<>();
+		List<byte[]> contents = new ArrayList<>();
+		try(TestHttpServer server = new TestHttpServer()){
+			for(int i = 0; i < 6; i++){
+				byte[] content = TestHttpServer.randomBytes(10000 + i);
+				contents.add(content);
+				String dest = destDir + "all" + i + ".bin";
+				FileUtil.deleteFile(dest);
+				jobs.add(Pair.of(server.addFile("/all" + i + ".bin", content), dest));
+			}
+			Map<String, IOException> failures = new DownloadManager(logger, 3, 3).downloadAll(jobs);
+			assertTrue(failures.isEmpty());
+		}
+		for(int i = 0; i < 6; i++){
+			assertArrayEquals(contents.get(i), FileUtil.readAsBytes(jobs.get(i).getRight()));
+		}
+	}
+	
+	@Test
+	public void testDownloadAllPerHostLimit() throws IOException, InterruptedException{
+		FileUtil.createDirectory(destDir);
+		List<Pair<String, String>> jobs = new ArrayList<>();
+		try(TestHttpServer server = new TestHttpServer()){
+			server.setDelayMillis(100);
+			for(int i = 0; i < 8; i++){
+				String path = "/host" + i + ".bin";
+				server.addFile(path, TestHttpServer.randomBytes(1000 + i));
+				String dest = destDir + "host" + i + ".bin";
+				FileUtil.deleteFile(dest);
+				String host = i % 2 == 0?"127.0.0.1":"localhost";
+				jobs.add(Pair.of(server.getAddress(host, path), dest));
+			}
+			Map<String, IOException> failures = new DownloadManager(logger, 4, 1).downloadAll(jobs);
+			assertTrue(failures.isEmpty());
+			
+			// Both hosts were used, but never more than once at a time each
+			Map<String, Integer> maxActive = server.getMaxActivePerHost();
+			assertEquals(2, maxActive.size());
+			for(int max: maxActive.values()){
+				assertEquals(1, max);
+			}
+		}
+	}
+	
+	@Test
+	public void testDownloadAllDuplicateAddress() throws IOException, InterruptedException{
+		FileUtil.createDirectory(destDir);
+		byte[] content = TestHttpServer.randomBytes(20000);
+		String dest1 = destDir + "dup1.bin", dest2 = destDir + "dup2.bin";
+		FileUtil.deleteFile(dest1);
+		FileUtil.deleteFile(dest2);
+		try(TestHttpServer server = new TestHttpServer()){
+			String fileAddress = server.addFile("/dup.bin", content);
+			Map<String, IOException> failures = new DownloadManager(logger, 2, 2).downloadAll(
+					List.of(Pair.of(fileAddress, dest1), Pair.of(fileAddress, dest2)));
+			assertTrue(failures.isEmpty());
+			assertEquals(1, server.getGetRequests());
+		}
+		assertArrayEquals(content, FileUtil.readAsBytes(dest1));
+		assertArrayEquals(content, FileUtil.readAsBytes(dest2));
+	}
+	
+	@Test
+	public void testDownloadAllFailure() throws IOException, InterruptedException{
+		FileUtil.createDirectory(destDir);
+		byte[] content = TestHttpServer.randomBytes(5000);
+		String good = destDir + "good.bin", bad = destDir + "bad.bin";
+		FileUtil.deleteFile(good);
+		FileUtil.deleteFile(bad);
+		try(TestHttpServer server = new TestHttpServer()){
+			Map<String, IOException> failures = new DownloadManager(logger, 2, 2).downloadAll(List.of(
+					Pair.of(server.addFile("/good.bin", content), good),
+					Pair.of(server.getAddress("/missing.bin"), bad)));
+			assertEquals(1, failures.size());
+			assertTrue(failures.containsKey(bad));
+		}
+		assertArrayEquals(content, FileUtil.readAsBytes(good));
+	}
+	
+	@Test
+	public void testDownloadAllProgress() throws IOException, InterruptedException{
+		FileUtil.createDirectory(destDir);
+		List<Pair<String, String>> jobs = new ArrayList<>();
+		try(TestHttpServer server = new TestHttpServer()){
+			for(int i = 0; i < 3; i++){
+				String dest = destDir + "progress" + i + ".bin";
+				FileUtil.deleteFile(dest);
+				jobs.add(Pair.of(server.addFile("/progress" + i + ".bin", TestHttpServer.randomBytes(30000)), dest));
+			}
+			List<Long> batchProgress = new ArrayList<>();
+			Map<String, Long> fileProgress = new ConcurrentHashMap<>();
+			Map<String, IOException> failures = new DownloadManager(logger, 3, 3).downloadAll(jobs,
+					(percent, readSoFar, expectedSize) -> batchProgress.add(readSoFar),
+					job -> (percent, readSoFar, expectedSize) -> fileProgress.put(job.getRight(), readSoFar));
+			assertTrue(failures.isEmpty());
+			
+			// The batch should end with everything read, and each file should end with all of it read
+			assertEquals(90000L, batchProgress.get(batchProgress.size() - 1));
+			assertEquals(3, fileProgress.size());
+			for(long read: fileProgress.values()){
+				assertEquals(30000L, read);
+			}
+		}
+	}
+}
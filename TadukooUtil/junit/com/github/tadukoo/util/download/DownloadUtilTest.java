@@ -1,14 +1,29 @@
 package com.github.tadukoo.util.download;
 
+import com.github.tadukoo.util.ByteUtil;
 import com.github.tadukoo.util.FileUtil;
+import com.github.tadukoo.util.logger.EasyLogger;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Logger;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class DownloadUtilTest{
 	private final String address = "https://github.com/Tadukooverse/TadukooUtil/releases/download/v.0.1-alpha/" +
@@ -19,6 +34,13 @@ public class DownloadUtilTest{
 		assertEquals(37282L, DownloadUtil.getFileSize(null, new URL(address)));
 	}
 	
+	@Test
+	public void testGetFileSizeNotHttp() throws IOException{
+		URL url = new File("target/junit/").toURI().toURL();
+		assertThrows(IOException.class, () -> DownloadUtil.getFileInfo(url));
+		assertEquals(-1L, DownloadUtil.getFileSize(null, url));
+	}
+	
 	@Test
 	public void testDownloadFile() throws IOException{
 		String destDir = "target/junit/";
@@ -29,4 +51,284 @@ public class DownloadUtilTest{
 		String actual = "junit-resource/TadukooUtil-0.1-Alpha-SNAPSHOT.jar";
 		assertArrayEquals(FileUtil.readAsBytes(actual), FileUtil.readAsBytes(dest));
 	}
+	
+	@Test
+	public void testDownloadFileSegmented() throws IOException{
+		byte[] content = TestHttpServer.randomBytes(1024 * 1024 + 123);
+		String dest = "target/junit/segmented.bin";
+		FileUtil.createDirectory("target/junit/");
+		FileUtil.deleteFile(dest);
+		List<Long> progress = new ArrayList<>();
+		try(TestHttpServer server = new TestHttpServer()){
+			String fileAddress = server.addFile("/segmented.bin", content);
+			DownloadUtil.downloadFileSegmented(null, (percent, readSoFar, expectedSize) -> {
+				assertEquals(content.length, expectedSize);
+				progress.add(readSoFar);
+			}, fileAddress, dest, 4);
+			assertEquals(4, server.getRanges().size());
+		}
+		assertArrayEquals(content, FileUtil.readAsBytes(dest));
+		
+		// Progress should only go up and end at the full size
+		for(int i = 1; i < progress.size(); i++){
+			assertTrue(progress.get(i) >= progress.get(i - 1));
+		}
+		assertEquals(content.length, progress.get(progress.size() - 1));
+	}
+	
+	@Test
+	public void testDownloadFileSegmentedNoRangeSupport() throws IOException{
+		byte[] content = TestHttpServer.randomBytes(512 * 1024);
+		String dest = "target/junit/segmented-no-range.bin";
+		FileUtil.createDirectory("target/junit/");
+		FileUtil.deleteFile(dest);
+		try(TestHttpServer server = new TestHttpServer()){
+			server.setSupportRanges(false);
+			String fileAddress = server.addFile("/no-range.bin", content);
+			DownloadUtil.downloadFileSegmented(null, null, fileAddress, dest, 4);
+			assertEquals(1, server.getGetRequests());
+		}
+		assertArrayEquals(content, FileUtil.readAsBytes(dest));
+	}
+	
+	@Test
+	public void testDownloadFileSegmentedSmallFile() throws IOException{
+		byte[] content = TestHttpServer.randomBytes(1000);
+		String dest = "target/junit/segmented-small.bin";
+		FileUtil.createDirectory("target/junit/");
+		FileUtil.deleteFile(dest);
+		try(TestHttpServer server = new TestHttpServer()){
+			String fileAddress = server.addFile("/small.bin", content);
+			DownloadUtil.downloadFileSegmented(null, null, fileAddress, dest, 4);
+			assertEquals(1, server.getGetRequests());
+		}
+		assertArrayEquals(content, FileUtil.readAsBytes(dest));
+	}
+	
+	@Test
+	public void testDownloadFileSegmentedNotFound() throws IOException{
+		String dest = "target/junit/segmented-missing.bin";
+		FileUtil.createDirectory("target/junit/");
+		FileUtil.deleteFile(dest);
+		try(TestHttpServer server = new TestHttpServer()){
+			assertThrows(IOException.class, () -> DownloadUtil.downloadFileSegmented(
+					new EasyLogger(Logger.getAnonymousLogger()),
+					null, server.getAddress("/missing.bin"), dest, 4));
+		}
+		assertFalse(new File(dest).exists());
+	}
+	
+	@Test
+	public void testDownloadFileResume() throws IOException{
+		byte[] content = TestHttpServer.randomBytes(700 * 1024);
+		String dest = "target/junit/resume.bin";
+		FileUtil.createDirectory("target/junit/");
+		FileUtil.deleteFile(dest);
+		FileUtil.deleteFile(dest + DownloadUtil.PART_SUFFIX);
+		FileUtil.deleteFile(dest + DownloadUtil.PART_SUFFIX + DownloadUtil.META_SUFFIX);
+		List<Long> progress = new ArrayList<>();
+		try(TestHttpServer server = new TestHttpServer()){
+			String fileAddress = server.addFile("/resume.bin", content);
+			
+			// The first download gets cut off part way through
+			server.setFailAfter(300 * 1024);
+			assertThrows(IOException.class, () -> DownloadUtil.downloadFile(null, null, fileAddress, dest));
+			assertFalse(new File(dest).exists());
+			long partSize = new File(dest + DownloadUtil.PART_SUFFIX).length();
+			assertTrue(partSize > 0 && partSize < content.length);
+			
+			// The second download should pick up where the first left off
+			DownloadUtil.downloadFile(null, (percent, readSoFar, expectedSize) -> progress.add(readSoFar),
+					fileAddress, dest);
+			assertEquals(List.of("bytes=" + partSize + "-"), server.getRanges());
+		}
+		assertArrayEquals(content, FileUtil.readAsBytes(dest));
+		assertFalse(new File(dest + DownloadUtil.PART_SUFFIX).exists());
+		assertFalse(new File(dest + DownloadUtil.PART_SUFFIX + DownloadUtil.META_SUFFIX).exists());
+		assertEquals(content.length, progress.get(progress.size() - 1));
+	}
+	
+	@Test
+	public void testDownloadFileNotHttp() throws IOException{
+		byte[] content = TestHttpServer.randomBytes(100 * 1024);
+		String source = "target/junit/not-http-source.bin", dest = "target/junit/not-http.bin";
+		FileUtil.createDirectory("target/junit/");
+		FileUtil.deleteFile(dest);
+		Files.write(Paths.get(source), content);
+		
+		// A file: URL can't be resumed, but is still copied
+		DownloadUtil.downloadFile(null, null, new File(source).toURI().toURL().toString(), dest);
+		assertArrayEquals(content, FileUtil.readAsBytes(dest));
+		assertFalse(new File(dest + DownloadUtil.PART_SUFFIX).exists());
+		assertFalse(new File(dest + DownloadUtil.PART_SUFFIX + DownloadUtil.META_SUFFIX).exists());
+	}
+	
+	@Test
+	public void testDownloadFileResumeWrongRange() throws IOException{
+		byte[] content = TestHttpServer.randomBytes(700 * 1024);
+		String dest = "target/junit/resume-wrong-range.bin";
+		FileUtil.createDirectory("target/junit/");
+		FileUtil.deleteFile(dest);
+		FileUtil.deleteFile(dest + DownloadUtil.PART_SUFFIX);
+		FileUtil.deleteFile(dest + DownloadUtil.PART_SUFFIX + DownloadUtil.META_SUFFIX);
+		try(TestHttpServer server = new TestHttpServer()){
+			String fileAddress = server.addFile("/wrong-range.bin", content);
+			server.setFailAfter(300 * 1024);
+			assertThrows(IOException.class, () -> DownloadUtil.downloadFile(null, null, fileAddress, dest));
+			
+			// The server sends a different range than was asked for, so the download has to start over
+			server.setWrongRangeStart(true);
+			DownloadUtil.downloadFile(null, null, fileAddress, dest);
+			assertEquals(1, server.getRanges().size());
+		}
+		assertArrayEquals(content, FileUtil.readAsBytes(dest));
+	}
+	
+	@Test
+	public void testDownloadFileResumeChangedFile() throws IOException{
+		byte[] content = TestHttpServer.randomBytes(700 * 1024);
+		byte[] newContent = TestHttpServer.randomBytes(700 * 1024 + 1);
+		String dest = "target/junit/resume-changed.bin";
+		FileUtil.createDirectory("target/junit/");
+		FileUtil.deleteFile(dest);
+		FileUtil.deleteFile(dest + DownloadUtil.PART_SUFFIX);
+		FileUtil.deleteFile(dest + DownloadUtil.PART_SUFFIX + DownloadUtil.META_SUFFIX);
+		try(TestHttpServer server = new TestHttpServer()){
+			String fileAddress = server.addFile("/changed.bin", content);
+			server.setFailAfter(300 * 1024);
+			assertThrows(IOException.class, () -> DownloadUtil.downloadFile(null, null, fileAddress, dest));
+			
+			// The file changed on the server, so the download has to start over
+			server.addFile("/changed.bin", newContent);
+			DownloadUtil.downloadFile(null, null, fileAddress, dest);
+			assertTrue(server.getRanges().isEmpty());
+		}
+		assertArrayEquals(newContent, FileUtil.readAsBytes(dest));
+	}
+	
+	@Test
+	public void testDownloadFileSingleRequest() throws IOException{
+		byte[] content = TestHttpServer.randomBytes(100 * 1024);
+		String dest = "target/junit/single-request.bin";
+		FileUtil.createDirectory("target/junit/");
+		FileUtil.deleteFile(dest);
+		try(TestHttpServer server = new TestHttpServer()){
+			String fileAddress = server.addFile("/single-request.bin", content);
+			DownloadUtil.downloadFile(null, null, fileAddress, dest);
+			
+			// The size and validator come from the GET response, so there's no separate HEAD request
+			assertEquals(0, server.getHeadRequests());
+			assertEquals(1, server.getGetRequests());
+		}
+		assertArrayEquals(content, FileUtil.readAsBytes(dest));
+	}
+	
+	@Test
+	public void testDownloadFileResumeCompletePart() throws IOException{
+		byte[] content = TestHttpServer.randomBytes(100 * 1024);
+		String dest = "target/junit/resume-complete.bin";
+		FileUtil.createDirectory("target/junit/");
+		FileUtil.deleteFile(dest);
+		FileUtil.deleteFile(dest + DownloadUtil.PART_SUFFIX);
+		FileUtil.deleteFile(dest + DownloadUtil.PART_SUFFIX + DownloadUtil.META_SUFFIX);
+		try(TestHttpServer server = new TestHttpServer()){
+			String fileAddress = server.addFile("/resume-complete.bin", content);
+			DownloadUtil.downloadFile(null, null, fileAddress, dest);
+			
+			// Pretend the last download finished but never got moved into place
+			Files.move(Paths.get(dest), Paths.get(dest + DownloadUtil.PART_SUFFIX));
+			Properties meta = new Properties();
+			meta.setProperty("address", fileAddress);
+			meta.setProperty("length", String.valueOf(content.length));
+			meta.setProperty("validator", TestHttpServer.etag(content));
+			try(Writer writer = Files.newBufferedWriter(Paths.get(dest + DownloadUtil.PART_SUFFIX +
+					DownloadUtil.META_SUFFIX))){
+				meta.store(writer, null);
+			}
+			
+			// Only the last byte is asked for, to make sure the file hasn't changed
+			DownloadUtil.downloadFile(null, null, fileAddress, dest);
+			assertEquals(List.of("bytes=" + (content.length - 1) + "-"), server.getRanges());
+		}
+		assertArrayEquals(content, FileUtil.readAsBytes(dest));
+	}
+	
+	@Test
+	public void testDownloadFileAlreadyExists() throws IOException{
+		String dest = "target/junit/exists.bin";
+		FileUtil.createDirectory("target/junit/");
+		FileUtil.deleteFile(dest);
+		try(TestHttpServer server = new TestHttpServer()){
+			String fileAddress = server.addFile("/exists.bin", TestHttpServer.randomBytes(100));
+			DownloadUtil.downloadFile(null, null, fileAddress, dest);
+			DownloadUtil.downloadFile(null, null, fileAddress, dest);
+			assertEquals(1, server.getGetRequests());
+		}
+	}
+	
+	private static String sha256(byte[] content) throws NoSuchAlgorithmException{
+		return ByteUtil.toHex(MessageDigest.getInstance("SHA-256").digest(content));
+	}
+	
+	@Test
+	public void testDownloadFileHash() throws IOException, NoSuchAlgorithmException{
+		byte[] content = TestHttpServer.randomBytes(200 * 1024);
+		String dest = "target/junit/hash.bin";
+		FileUtil.createDirectory("target/junit/");
+		FileUtil.deleteFile(dest);
+		try(TestHttpServer server = new TestHttpServer()){
+			String fileAddress = server.addFile("/hash.bin", content);
+			DownloadUtil.downloadFile(null, null, fileAddress, dest, "SHA-256", sha256(content).toUpperCase());
+		}
+		assertArrayEquals(content, FileUtil.readAsBytes(dest));
+	}
+	
+	@Test
+	public void testDownloadFileHashMismatch() throws IOException, NoSuchAlgorithmException{
+		byte[] content = TestHttpServer.randomBytes(200 * 1024);
+		String dest = "target/junit/hash-mismatch.bin";
+		FileUtil.createDirectory("target/junit/");
+		FileUtil.deleteFile(dest);
+		try(TestHttpServer server = new TestHttpServer()){
+			String fileAddress = server.addFile("/hash-mismatch.bin", content);
+			String wrongHash = sha256(TestHttpServer.randomBytes(10));
+			IOException e = assertThrows(IOException.class,
+					() -> DownloadUtil.downloadFile(null, null, fileAddress, dest, "SHA-256", wrongHash));
+			assertTrue(e.getMessage().contains(wrongHash));
+		}
+		assertFalse(new File(dest).exists());
+		assertFalse(new File(dest + DownloadUtil.PART_SUFFIX).exists());
+		assertFalse(new File(dest + DownloadUtil.PART_SUFFIX + DownloadUtil.META_SUFFIX).exists());
+	}
+	
+	@Test
+	public void testDownloadFileHashResume() throws IOException, NoSuchAlgorithmException{
+		byte[] content = TestHttpServer.randomBytes(700 * 1024);
+		String dest = "target/junit/hash-resume.bin";
+		FileUtil.createDirectory("target/junit/");
+		FileUtil.deleteFile(dest);
+		FileUtil.deleteFile(dest + DownloadUtil.PART_SUFFIX);
+		FileUtil.deleteFile(dest + DownloadUtil.PART_SUFFIX + DownloadUtil.META_SUFFIX);
+		String hash = sha256(content);
+		try(TestHttpServer server = new TestHttpServer()){
+			String fileAddress = server.addFile("/hash-resume.bin", content);
+			server.setFailAfter(300 * 1024);
+			assertThrows(IOException.class,
+					() -> DownloadUtil.downloadFile(null, null, fileAddress, dest, "SHA-256", hash));
+			
+			// The hash should still cover the part that was downloaded the first time
+			DownloadUtil.downloadFile(null, null, fileAddress, dest, "SHA-256", hash);
+			assertEquals(1, server.getRanges().size());
+		}
+		assertArrayEquals(content, FileUtil.readAsBytes(dest));
+	}
+	
+	@Test
+	public void testDownloadFileBadAlgorithm() throws IOException{
+		String dest = "target/junit/bad-algorithm.bin";
+		FileUtil.createDirectory("target/junit/");
+		FileUtil.deleteFile(dest);
+		assertThrows(IllegalArgumentException.class, () -> DownloadUtil.downloadFile(null, null,
+				"http://localhost/bad-algorithm.bin", dest, "NOT-A-HASH", "00"));
+	}
 }
@@ -0,0 +1,86 @@
+package com.github.tadukoo.util.download;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ProgressReadableByteChannelWrapperTest{
+	
+	private List<Long> readAll(int size, long expectedSize, ProgressThrottle throttle) throws IOException{
+		List<Long> updates = new ArrayList<>();
+		ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(new byte[size]));
+		try(ProgressReadableByteChannelWrapper wrapper = new ProgressReadableByteChannelWrapper(channel,
+				(progress, readSoFar, expected) -> updates.add(readSoFar), expectedSize, throttle)){
+			ByteBuffer buffer = ByteBuffer.allocate(100);
+			while(wrapper.read(buffer) != -1){
+				buffer.clear();
+			}
+		}
+		return updates;
+	}
+	
+	@Test
+	public void testNoThrottle() throws IOException{
+		List<Long> updates = readAll(1000, 1000, ProgressThrottle.NONE);
+		assertEquals(10, updates.size());
+		assertEquals(1000L, updates.get(9));
+	}
+	
+	@Test
+	public void testMinBytes() throws IOException{
+		List<Long> updates = readAll(1000, 1000, new ProgressThrottle(300, 0, 0));
+		assertEquals(List.of(300L, 600L, 900L, 1000L), updates);
+	}
+	
+	@Test
+	public void testMinPercentStep() throws IOException{
+		List<Long> updates = readAll(1000, 1000, new ProgressThrottle(0, 0, 50));
+		assertEquals(List.of(500L, 1000L), updates);
+	}
+	
+	@Test
+	public void testMinPercentStepUnknownSize() throws IOException{
+		List<Long> updates = readAll(1000, -1, new ProgressThrottle(0, 0, 50));
+		assertEquals(10, updates.size());
+	}
+	
+	@Test
+	public void testMinInterval() throws IOException{
+		// Nothing takes an hour here, so only the final update is sent
+		List<Long> updates = readAll(1000, 1000, new ProgressThrottle(0, 3_600_000, 0));
+		assertEquals(List.of(1000L), updates);
+	}
+	
+	@Test
+	public void testFinalUpdateUnknownSize() throws IOException{
+		List<Long> updates = readAll(1050, -1, new ProgressThrottle(300, 0, 0));
+		assertEquals(List.of(300L, 600L, 900L, 1050L), updates);
+	}
+	
+	@Test
+	public void testFinalUpdateOnClose() throws IOException{
+		List<Long> updates = new ArrayList<>();
+		ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(new byte[1000]));
+		try(ProgressReadableByteChannelWrapper wrapper = new ProgressReadableByteChannelWrapper(channel,
+				(progress, readSoFar, expected) -> updates.add(readSoFar), -1, new ProgressThrottle(0, 3_600_000, 0))){
+			wrapper.read(ByteBuffer.allocate(100));
+		}
+		assertEquals(List.of(100L), updates);
+	}
+	
+	@Test
+	public void testNegativeThrottle(){
+		assertThrows(IllegalArgumentException.class, () -> new ProgressThrottle(-1, 0, 0));
+		assertThrows(IllegalArgumentException.class, () -> new ProgressThrottle(0, -1, 0));
+		assertThrows(IllegalArgumentException.class, () -> new ProgressThrottle(0, 0, -1));
+	}
+}
@@ -0,0 +1,93 @@
+package com.github.tadukoo.util.download;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RemoteFileInfoCacheTest{
+	
+	@Test
+	public void testGetFileInfo() throws IOException{
+		byte[] content = TestHttpServer.randomBytes(12345);
+		RemoteFileInfoCache cache = new RemoteFileInfoCache(Duration.ofMinutes(1), 10);
+		try(TestHttpServer server = new TestHttpServer()){
+			String fileAddress = server.addFile("/info.bin", content);
+			RemoteFileInfo info = cache.getFileInfo(fileAddress);
+			assertEquals(content.length, info.getSize());
+			assertEquals(TestHttpServer.etag(content), info.getETag());
+			assertEquals(TestHttpServer.etag(content), info.getValidator());
+			assertEquals("Wed, 21 Oct 2015 07:28:00 GMT", info.getLastModified());
+			assertTrue(info.acceptsRanges());
+			
+			// The second lookup comes from the cache
+			assertEquals(content.length, cache.getFileSize(fileAddress));
+			assertEquals(1, server.getHeadRequests());
+		}
+	}
+	
+	@Test
+	public void testExpired() throws IOException{
+		RemoteFileInfoCache cache = new RemoteFileInfoCache(Duration.ZERO, 10);
+		try(TestHttpServer server = new TestHttpServer()){
+			String fileAddress = server.addFile("/expired.bin", TestHttpServer.randomBytes(100));
+			cache.getFileInfo(fileAddress);
+			cache.getFileInfo(fileAddress);
+			assertEquals(2, server.getHeadRequests());
+		}
+	}
+	
+	@Test
+	public void testInvalidate() throws IOException{
+		RemoteFileInfoCache cache = new RemoteFileInfoCache(Duration.ofMinutes(1), 10);
+		try(TestHttpServer server = new TestHttpServer()){
+			String fileAddress = server.addFile("/invalidate.bin", TestHttpServer.randomBytes(100));
+			cache.getFileInfo(fileAddress);
+			server.addFile("/invalidate.bin", TestHttpServer.randomBytes(200));
+			assertEquals(100, cache.getFileSize(fileAddress));
+			cache.invalidate(fileAddress);
+			assertEquals(200, cache.getFileSize(fileAddress));
+		}
+	}
+	
+	@Test
+	public void testMaxEntries() throws IOException{
+		RemoteFileInfoCache cache = new RemoteFileInfoCache(Duration.ofMinutes(1), 2);
+		try(TestHttpServer server = new TestHttpServer()){
+			String a = server.addFile("/a.bin", TestHttpServer.randomBytes(1));
+			String b = server.addFile("/b.bin", TestHttpServer.randomBytes(2));
+			String c = server.addFile("/c.bin", TestHttpServer.randomBytes(3));
+			cache.getFileInfo(a);
+			cache.getFileInfo(b);
+			cache.getFileInfo(a);
+			cache.getFileInfo(c);
+			assertEquals(2, cache.size());
+			assertEquals(3, server.getHeadRequests());
+			
+			// b was the least recently used, so it has to be looked up again
+			cache.getFileInfo(a);
+			cache.getFileInfo(b);
+			assertEquals(4, server.getHeadRequests());
+			cache.clear();
+			assertEquals(0, cache.size());
+		}
+	}
+	
+	@Test
+	public void testNotFound() throws IOException{
+		RemoteFileInfoCache cache = new RemoteFileInfoCache(Duration.ofMinutes(1), 10);
+		try(TestHttpServer server = new TestHttpServer()){
+			assertThrows(IOException.class, () -> cache.getFileInfo(server.getAddress("/missing.bin")));
+		}
+	}
+	
+	@Test
+	public void testBadSettings(){
+		assertThrows(IllegalArgumentException.class, () -> new RemoteFileInfoCache(Duration.ofSeconds(-1), 10));
+		assertThrows(IllegalArgumentException.class, () -> new RemoteFileInfoCache(Duration.ofSeconds(1), 0));
+	}
+}
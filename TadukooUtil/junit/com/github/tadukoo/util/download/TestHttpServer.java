@@ -0,0 +1,226 @@
+package com.github.tadukoo.util.download;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A local stand-in for a file server, used to test downloads without going out to the internet
+ */
+public class TestHttpServer implements AutoCloseable{
+	private final HttpServer server;
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+	private final List<String> ranges = new CopyOnWriteArrayList<>();
+	private final AtomicInteger getRequests = new AtomicInteger();
+	private final AtomicInteger headRequests = new AtomicInteger();
+	private final AtomicInteger notModifiedResponses = new AtomicInteger();
+	private volatile boolean supportRanges = true;
+	private volatile int failAfter = -1;
+	private volatile long delayMillis = 0;
+	private volatile int stallAfter = -1;
+	private volatile boolean wrongRangeStart = false;
+	private final Map<String, AtomicInteger> activePerHost = new ConcurrentHashMap<>();
+	private final Map<String, Integer> maxActivePerHost = new ConcurrentHashMap<>();
+	
+	public TestHttpServer() throws IOException{
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/", this::handle);
+		server.setExecutor(executor);
+		server.start();
+	}
+	
+	public static byte[] randomBytes(int size){
+		byte[] bytes = new byte[size];
+		new Random(size).nextBytes(bytes);
+		return bytes;
+	}
+	
+	public String addFile(String path, byte[] content){
+		files.put(path, content);
+		return getAddress(path);
+	}
+	
+	public String getAddress(String path){
+		return getAddress(server.getAddress().getHostString(), path);
+	}
+	
+	/**
+	 * Gets an address on this server using the given host name, so it looks like a different host to clients
+	 */
+	public String getAddress(String host, String path){
+		return "http://" + host + ":" + server.getAddress().getPort() + path;
+	}
+	
+	public void setSupportRanges(boolean supportRanges){
+		this.supportRanges = supportRanges;
+	}
+	
+	/**
+	 * Makes the next GET request stop sending the file after the given number of bytes
+	 */
+	public void setFailAfter(int failAfter){
+		this.failAfter = failAfter;
+	}
+	
+	/**
+	 * Makes the next GET request stop sending data (without closing the connection) after the given number of bytes
+	 */
+	public void setStallAfter(int stallAfter){
+		this.stallAfter = stallAfter;
+	}
+	
+	/**
+	 * Makes range requests get the file from the start (with a matching Content-Range), like a misbehaving proxy
+	 */
+	public void setWrongRangeStart(boolean wrongRangeStart){
+		this.wrongRangeStart = wrongRangeStart;
+	}
+	
+	/**
+	 * Makes every GET request wait the given time before sending the file
+	 */
+	public void setDelayMillis(long delayMillis){
+		this.delayMillis = delayMillis;
+	}
+	
+	/**
+	 * @return The most GET requests that were running at the same time, by Host header
+	 */
+	public Map<String, Integer> getMaxActivePerHost(){
+		return maxActivePerHost;
+	}
+	
+	public static String etag(byte[] content){
+		return "\"" + Integer.toHexString(Arrays.hashCode(content)) + "\"";
+	}
+	
+	public List<String> getRanges(){
+		return ranges;
+	}
+	
+	public int getGetRequests(){
+		return getRequests.get();
+	}
+	
+	public int getHeadRequests(){
+		return headRequests.get();
+	}
+	
+	public int getNotModifiedResponses(){
+		return notModifiedResponses.get();
+	}
+	
+	private void handle(HttpExchange exchange) throws IOException{
+		try(exchange){
+			byte[] content = files.get(exchange.getRequestURI().getPath());
+			if(content == null){
+				exchange.sendResponseHeaders(404, -1);
+				return;
+			}
+			if(supportRanges){
+				exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+			}
+			String etag = etag(content);
+			exchange.getResponseHeaders().set("ETag", etag);
+			exchange.getResponseHeaders().set("Last-Modified", "Wed, 21 Oct 2015 07:28:00 GMT");
+			
+			if(exchange.getRequestMethod().equals("HEAD")){
+				headRequests.incrementAndGet();
+				exchange.getResponseHeaders().set("Content-Length", String.valueOf(content.length));
+				exchange.sendResponseHeaders(200, -1);
+				return;
+			}
+			getRequests.incrementAndGet();
+			String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+			if(ifNoneMatch != null && ifNoneMatch.equals(etag)){
+				notModifiedResponses.incrementAndGet();
+				exchange.sendResponseHeaders(304, -1);
+				return;
+			}
+			String host = exchange.getRequestHeaders().getFirst("Host");
+			AtomicInteger active = activePerHost.computeIfAbsent(host, h -> new AtomicInteger());
+			maxActivePerHost.merge(host, active.incrementAndGet(), Math::max);
+			try{
+				sendFile(exchange, content, etag);
+			}finally{
+				active.decrementAndGet();
+			}
+		}
+	}
+	
+	private void sendFile(HttpExchange exchange, byte[] content, String etag) throws IOException{
+		if(delayMillis > 0){
+			try{
+				Thread.sleep(delayMillis);
+			}catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+				throw new IOException(e);
+			}
+		}
+		
+		// Handle range requests
+		String range = exchange.getRequestHeaders().getFirst("Range");
+		int start = 0, end = content.length;
+		int code = 200;
+		String ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+		if(supportRanges && range != null && range.startsWith("bytes=") && (ifRange == null || ifRange.equals(etag))){
+			ranges.add(range);
+			String[] pieces = range.substring("bytes=".length()).split("-", -1);
+			start = wrongRangeStart?0:Integer.parseInt(pieces[0]);
+			end = pieces[1].isEmpty()?content.length:Math.min(Integer.parseInt(pieces[1]) + 1, content.length);
+			if(start >= content.length){
+				exchange.getResponseHeaders().set("Content-Range", "bytes */" + content.length);
+				exchange.sendResponseHeaders(416, -1);
+				return;
+			}
+			exchange.getResponseHeaders().set("Content-Range",
+					"bytes " + start + "-" + (end - 1) + "/" + content.length);
+			code = 206;
+		}
+		
+		exchange.sendResponseHeaders(code, end - start);
+		int fail = failAfter;
+		failAfter = -1;
+		try(OutputStream out = exchange.getResponseBody()){
+			int stall = stallAfter;
+			stallAfter = -1;
+			if(stall >= 0 && stall < end - start){
+				out.write(content, start, stall);
+				out.flush();
+				try{
+					Thread.sleep(60_000);
+				}catch(InterruptedException e){
+					Thread.currentThread().interrupt();
+				}
+				throw new IOException("Simulated stalled connection");
+			}
+			if(fail >= 0 && fail < end - start){
+				// Send part of the file and then cut the connection
+				out.write(content, start, fail);
+				out.flush();
+				throw new IOException("Simulated dropped connection");
+			}
+			out.write(content, start, end - start);
+		}
+	}
+	
+	@Override
+	public void close(){
+		server.stop(0);
+		executor.shutdownNow();
+	}
+}
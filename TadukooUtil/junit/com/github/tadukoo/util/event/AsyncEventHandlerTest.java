@@ -0,0 +1,342 @@
+package com.github.tadukoo.util.event;
+
+import com.github.tadukoo.util.logger.EasyLogger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncEventHandlerTest{
+	private static class TestEvent extends Event{
+		public TestEvent(String type, String message){
+			super(type, message);
+		}
+	}
+	private static class TestEventHandler extends AsyncEventHandler<TestEvent, EventListener<TestEvent>>{
+		public TestEventHandler(ExecutorService executor){
+			super(new EasyLogger(Logger.getAnonymousLogger()), executor);
+		}
+		
+		public TestEventHandler(ExecutorService executor, int defaultCapacity, EventOverflowPolicy overflowPolicy){
+			super(null, executor, defaultCapacity, overflowPolicy);
+		}
+		
+		public void createTestEvent(String message){
+			sendEventToListeners(new TestEvent("Testing", message));
+		}
+		
+		public void createTestEvent(String type, String message){
+			sendEventToListeners(new TestEvent(type, message));
+		}
+	}
+	// Records the messages of events, and can hold up handling the first event until released
+	private static class BlockingListener implements EventListener<TestEvent>{
+		private final List<String> messages = new CopyOnWriteArrayList<>();
+		private final CountDownLatch started = new CountDownLatch(1);
+		private final CountDownLatch release;
+		private final CountDownLatch done;
+		
+		private BlockingListener(boolean hold, int expected){
+			release = new CountDownLatch(hold?1:0);
+			done = new CountDownLatch(expected);
+		}
+		
+		@Override
+		public void handleEvent(TestEvent e){
+			started.countDown();
+			try{
+				release.await();
+			}catch(InterruptedException ex){
+				Thread.currentThread().interrupt();
+			}
+			messages.add(e.getMessage());
+			done.countDown();
+		}
+		
+		private void awaitDone() throws InterruptedException{
+			assertTrue(done.await(5, TimeUnit.SECONDS));
+		}
+	}
+	private ExecutorService executor;
+	
+	@BeforeEach
+	public void setup(){
+		executor = Executors.newCachedThreadPool();
+	}
+	
+	@AfterEach
+	public void tearDown(){
+		executor.shutdownNow();
+	}
+	
+	@Test
+	public void testBadCapacity(){
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> new TestEventHandler(executor, 0, EventOverflowPolicy.BLOCK));
+		assertEquals("capacity must be at least 1, but was 0", e.getMessage());
+		
+		TestEventHandler handler = new TestEventHandler(executor);
+		e = assertThrows(IllegalArgumentException.class,
+				() -> handler.registerListener(ev -> { }, -1, EventOverflowPolicy.BLOCK));
+		assertEquals("capacity must be at least 1, but was -1", e.getMessage());
+	}
+	
+	@Test
+	public void testDeliversInOrderOffSendingThread() throws InterruptedException{
+		TestEventHandler handler = new TestEventHandler(executor);
+		List<Thread> threads = new CopyOnWriteArrayList<>();
+		BlockingListener listener = new BlockingListener(false, 200){
+			@Override
+			public void handleEvent(TestEvent e){
+				threads.add(Thread.currentThread());
+				super.handleEvent(e);
+			}
+		};
+		handler.registerListener(listener);
+		for(int i = 0; i < 200; i++){
+			handler.createTestEvent("Event " + i);
+		}
+		listener.awaitDone();
+		for(int i = 0; i < 200; i++){
+			assertEquals("Event " + i, listener.messages.get(i));
+		}
+		assertTrue(threads.stream().noneMatch(thread -> thread == Thread.currentThread()));
+		
+		EventListenerStats stats = handler.getListenerStats(listener);
+		assertEquals(AsyncEventHandler.DEFAULT_QUEUE_CAPACITY, stats.getCapacity());
+		assertEquals(EventOverflowPolicy.BLOCK, stats.getOverflowPolicy());
+		assertEquals(200, stats.getDelivered());
+		assertEquals(0, stats.getDropped());
+	}
+	
+	@Test
+	public void testSlowListenerDoesNotHoldUpOthers() throws InterruptedException{
+		TestEventHandler handler = new TestEventHandler(executor, 10, EventOverflowPolicy.DROP_OLDEST);
+		BlockingListener slow = new BlockingListener(true, 1);
+		BlockingListener fast = new BlockingListener(false, 5);
+		handler.registerListener(slow);
+		handler.registerListener(fast);
+		for(int i = 0; i < 5; i++){
+			handler.createTestEvent("Event " + i);
+		}
+		fast.awaitDone();
+		assertEquals(List.of("Event 0", "Event 1", "Event 2", "Event 3", "Event 4"), fast.messages);
+		assertTrue(slow.messages.isEmpty());
+		slow.release.countDown();
+		slow.awaitDone();
+	}
+	
+	@Test
+	public void testDropOldest() throws InterruptedException{
+		TestEventHandler handler = new TestEventHandler(executor, 2, EventOverflowPolicy.DROP_OLDEST);
+		BlockingListener listener = new BlockingListener(true, 3);
+		handler.registerListener(listener);
+		
+		// Hold up the listener on the first event, then overflow its queue
+		handler.createTestEvent("Event 0");
+		assertTrue(listener.started.await(5, TimeUnit.SECONDS));
+		for(int i = 1; i <= 4; i++){
+			handler.createTestEvent("Event " + i);
+		}
+		EventListenerStats stats = handler.getListenerStats(listener);
+		assertEquals(2, stats.getDropped());
+		assertEquals(2, stats.getQueued());
+		
+		listener.release.countDown();
+		listener.awaitDone();
+		assertEquals(List.of("Event 0", "Event 3", "Event 4"), listener.messages);
+	}
+	
+	@Test
+	public void testBlock() throws InterruptedException{
+		TestEventHandler handler = new TestEventHandler(executor, 1, EventOverflowPolicy.BLOCK);
+		BlockingListener listener = new BlockingListener(true, 3);
+		handler.registerListener(listener);
+		
+		// Hold up the listener on the first event, then fill its queue
+		handler.createTestEvent("Event 0");
+		assertTrue(listener.started.await(5, TimeUnit.SECONDS));
+		handler.createTestEvent("Event 1");
+		
+		Thread sender = new Thread(() -> handler.createTestEvent("Event 2"));
+		sender.start();
+		sender.join(300);
+		assertTrue(sender.isAlive());
+		
+		listener.release.countDown();
+		sender.join(5000);
+		listener.awaitDone();
+		assertEquals(List.of("Event 0", "Event 1", "Event 2"), listener.messages);
+		assertEquals(0, handler.getListenerStats(listener).getDropped());
+	}
+	
+	@Test
+	public void testCoalesce() throws InterruptedException{
+		TestEventHandler handler = new TestEventHandler(executor, 2, EventOverflowPolicy.COALESCE);
+		BlockingListener listener = new BlockingListener(true, 3);
+		handler.registerListener(listener);
+		
+		// Hold up the listener on the first event, then send more of the same types
+		handler.createTestEvent("Progress", "First");
+		assertTrue(listener.started.await(5, TimeUnit.SECONDS));
+		handler.createTestEvent("Progress", "10%");
+		handler.createTestEvent("Status", "Running");
+		handler.createTestEvent("Progress", "20%");
+		handler.createTestEvent("Progress", "30%");
+		EventListenerStats stats = handler.getListenerStats(listener);
+		assertEquals(2, stats.getCoalesced());
+		assertEquals(2, stats.getQueued());
+		
+		listener.release.countDown();
+		listener.awaitDone();
+		assertEquals(List.of("First", "30%", "Running"), listener.messages);
+	}
+	
+	@Test
+	public void testCoalesceFullOfOtherTypes() throws InterruptedException{
+		TestEventHandler handler = new TestEventHandler(executor, 1, EventOverflowPolicy.COALESCE);
+		BlockingListener listener = new BlockingListener(true, 2);
+		handler.registerListener(listener);
+		
+		handler.createTestEvent("A", "First");
+		assertTrue(listener.started.await(5, TimeUnit.SECONDS));
+		handler.createTestEvent("B", "Dropped");
+		handler.createTestEvent("C", "Kept");
+		assertEquals(1, handler.getListenerStats(listener).getDropped());
+		
+		listener.release.countDown();
+		listener.awaitDone();
+		assertEquals(List.of("First", "Kept"), listener.messages);
+	}
+	
+	@Test
+	public void testLagStats() throws InterruptedException{
+		TestEventHandler handler = new TestEventHandler(executor);
+		BlockingListener listener = new BlockingListener(true, 2);
+		handler.registerListener(listener);
+		
+		handler.createTestEvent("Event 0");
+		assertTrue(listener.started.await(5, TimeUnit.SECONDS));
+		handler.createTestEvent("Event 1");
+		Thread.sleep(50);
+		EventListenerStats stats = handler.getListenerStats(listener);
+		assertEquals(1, stats.getQueued());
+		assertTrue(stats.getCurrentLagNanos() >= TimeUnit.MILLISECONDS.toNanos(50));
+		
+		listener.release.countDown();
+		listener.awaitDone();
+		assertEquals(2, stats.getDelivered());
+		assertEquals(0, stats.getQueued());
+		assertEquals(0, stats.getCurrentLagNanos());
+		assertTrue(stats.getMaxLagNanos() >= TimeUnit.MILLISECONDS.toNanos(50));
+		assertEquals(stats.getMaxLagNanos(), stats.getLastLagNanos());
+		assertTrue(stats.getAverageLagNanos() > 0);
+	}
+	
+	@Test
+	public void testFailingListener() throws InterruptedException{
+		TestEventHandler handler = new TestEventHandler(executor);
+		CountDownLatch done = new CountDownLatch(3);
+		List<String> messages = new CopyOnWriteArrayList<>();
+		EventListener<TestEvent> listener = e -> {
+			try{
+				if(e.getMessage().equals("Bad")){
+					throw new IllegalStateException("Derp");
+				}
+				messages.add(e.getMessage());
+			}finally{
+				done.countDown();
+			}
+		};
+		handler.registerListener(listener);
+		handler.createTestEvent("Good");
+		handler.createTestEvent("Bad");
+		handler.createTestEvent("Also good");
+		
+		// The failure is counted before the next event is handled, so it's counted once the last one is
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		assertEquals(List.of("Good", "Also good"), messages);
+		assertEquals(1, handler.getListenerStats(listener).getFailed());
+	}
+	
+	@Test
+	public void testListenerThrowsError() throws InterruptedException{
+		TestEventHandler handler = new TestEventHandler(executor);
+		CountDownLatch done = new CountDownLatch(4);
+		List<String> messages = new CopyOnWriteArrayList<>();
+		EventListener<TestEvent> listener = e -> {
+			try{
+				if(e.getMessage().equals("Bad")){
+					throw new AssertionError("Derp");
+				}
+				messages.add(e.getMessage());
+			}finally{
+				done.countDown();
+			}
+		};
+		handler.registerListener(listener);
+		handler.createTestEvent("Good");
+		handler.createTestEvent("Bad");
+		handler.createTestEvent("Also good");
+		handler.createTestEvent("Still good");
+		
+		// Events after the Error are still handled
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		assertEquals(List.of("Good", "Also good", "Still good"), messages);
+		assertEquals(1, handler.getListenerStats(listener).getFailed());
+	}
+	
+	@Test
+	public void testUnregister() throws InterruptedException{
+		TestEventHandler handler = new TestEventHandler(executor, 10, EventOverflowPolicy.BLOCK);
+		BlockingListener listener = new BlockingListener(true, 1);
+		handler.registerListener(listener);
+		assertEquals(1, handler.getListenerCount());
+		
+		handler.createTestEvent("Event 0");
+		assertTrue(listener.started.await(5, TimeUnit.SECONDS));
+		handler.createTestEvent("Event 1");
+		handler.unregisterListener(listener);
+		assertEquals(0, handler.getListenerCount());
+		assertNull(handler.getListenerStats(listener));
+		
+		// The waiting event is dropped, and new ones aren't sent
+		handler.createTestEvent("Event 2");
+		listener.release.countDown();
+		listener.awaitDone();
+		Thread.sleep(50);
+		assertEquals(List.of("Event 0"), listener.messages);
+	}
+	
+	@Test
+	public void testUnregisterWakesBlockedSender() throws InterruptedException{
+		TestEventHandler handler = new TestEventHandler(executor, 1, EventOverflowPolicy.BLOCK);
+		BlockingListener listener = new BlockingListener(true, 1);
+		handler.registerListener(listener);
+		handler.createTestEvent("Event 0");
+		assertTrue(listener.started.await(5, TimeUnit.SECONDS));
+		handler.createTestEvent("Event 1");
+		
+		Thread sender = new Thread(() -> handler.createTestEvent("Event 2"));
+		sender.start();
+		sender.join(200);
+		assertTrue(sender.isAlive());
+		handler.unregisterListener(listener);
+		sender.join(5000);
+		assertNotEquals(Thread.State.WAITING, sender.getState());
+		listener.release.countDown();
+	}
+}
@@ -0,0 +1,168 @@
+package com.github.tadukoo.util.event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentEventHandlerTest{
+	private static class TestEvent extends Event{
+		public TestEvent(String message){
+			super("Testing", message);
+		}
+	}
+	private static class TestEventHandler extends ConcurrentEventHandler<TestEvent, EventListener<TestEvent>>{
+		public void createTestEvent(String message){
+			sendEventToListeners(new TestEvent(message));
+		}
+	}
+	private Event event;
+	private EventListener<TestEvent> listener;
+	private TestEventHandler handler;
+	
+	@BeforeEach
+	public void setup(){
+		event = null;
+		
+		listener = e -> event = e;
+		
+		handler = new TestEventHandler();
+	}
+	
+	@Test
+	public void testEventHandler(){
+		assertNull(event);
+		
+		// Test register listener and it picks up the event
+		handler.registerListener(listener);
+		assertEquals(1, handler.getListenerCount());
+		handler.createTestEvent("A test");
+		assertNotNull(event);
+		assertEquals("Testing", event.getType());
+		assertEquals("A test", event.getMessage());
+		
+		// Unregister listener and make sure the event doesn't change
+		handler.unregisterListener(listener);
+		assertEquals(0, handler.getListenerCount());
+		handler.createTestEvent("Another new test");
+		assertNotNull(event);
+		assertEquals("Testing", event.getType());
+		assertEquals("A test", event.getMessage());
+	}
+	
+	@Test
+	public void testListenerOrder(){
+		List<String> calls = new ArrayList<>();
+		handler.registerListener(e -> calls.add("First " + e.getMessage()));
+		handler.registerListener(e -> calls.add("Second " + e.getMessage()));
+		handler.createTestEvent("event");
+		assertEquals(List.of("First event", "Second event"), calls);
+	}
+	
+	@Test
+	public void testUnregisterNotRegistered(){
+		handler.registerListener(listener);
+		handler.unregisterListener(e -> { });
+		assertEquals(1, handler.getListenerCount());
+	}
+	
+	@Test
+	public void testUnregisterOneRegistration(){
+		AtomicInteger count = new AtomicInteger();
+		EventListener<TestEvent> counter = e -> count.incrementAndGet();
+		handler.registerListener(counter);
+		handler.registerListener(counter);
+		handler.unregisterListener(counter);
+		handler.createTestEvent("event");
+		assertEquals(1, count.get());
+	}
+	
+	@Test
+	public void testRegisterFromListener(){
+		List<String> calls = new ArrayList<>();
+		EventListener<TestEvent> added = e -> calls.add("Added " + e.getMessage());
+		handler.registerListener(e -> {
+			calls.add("Registering " + e.getMessage());
+			if(handler.getListenerCount() == 1){
+				handler.registerListener(added);
+			}
+		});
+		
+		// The added listener only gets events sent after it was registered
+		handler.createTestEvent("1");
+		handler.createTestEvent("2");
+		assertEquals(List.of("Registering 1", "Registering 2", "Added 2"), calls);
+	}
+	
+	@Test
+	public void testUnregisterFromListener(){
+		List<String> calls = new ArrayList<>();
+		handler.registerListener(new EventListener<>(){
+			@Override
+			public void handleEvent(TestEvent e){
+				calls.add("Unregistering " + e.getMessage());
+				handler.unregisterListener(this);
+			}
+		});
+		handler.registerListener(e -> calls.add("Other " + e.getMessage()));
+		
+		handler.createTestEvent("1");
+		handler.createTestEvent("2");
+		assertEquals(List.of("Unregistering 1", "Other 1", "Other 2"), calls);
+	}
+	
+	@Test
+	public void testNestedSend(){
+		List<String> calls = new ArrayList<>();
+		handler.registerListener(e -> {
+			calls.add("First " + e.getMessage());
+			if(e.getMessage().equals("outer")){
+				handler.createTestEvent("inner");
+			}
+		});
+		handler.registerListener(e -> calls.add("Second " + e.getMessage()));
+		handler.createTestEvent("outer");
+		assertEquals(List.of("First outer", "First inner", "Second inner", "Second outer"), calls);
+	}
+	
+	@Test
+	public void testConcurrentRegisterAndSend() throws InterruptedException{
+		int threads = 8, perThread = 200;
+		AtomicInteger received = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> workers = new ArrayList<>();
+		for(int t = 0; t < threads; t++){
+			Thread worker = new Thread(() -> {
+				try{
+					start.await();
+				}catch(InterruptedException e){
+					return;
+				}
+				for(int i = 0; i < perThread; i++){
+					EventListener<TestEvent> temp = e -> received.incrementAndGet();
+					handler.registerListener(temp);
+					handler.createTestEvent("event");
+					handler.unregisterListener(temp);
+				}
+			});
+			worker.start();
+			workers.add(worker);
+		}
+		start.countDown();
+		for(Thread worker: workers){
+			worker.join(10000);
+		}
+		
+		// Every listener was unregistered, and each one at least got the event sent right after registering it
+		assertEquals(0, handler.getListenerCount());
+		assertTrue(received.get() >= threads*perThread);
+	}
+}
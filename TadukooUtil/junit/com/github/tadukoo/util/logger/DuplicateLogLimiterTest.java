@@ -0,0 +1,98 @@
+package com.github.tadukoo.util.logger;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DuplicateLogLimiterTest{
+	
+	private static IllegalStateException throwFromHere(){
+		return new IllegalStateException("Derp");
+	}
+	
+	private static IllegalStateException throwFromThere(){
+		return new IllegalStateException("Derp");
+	}
+	
+	@Test
+	public void testBadSummaryInterval(){
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> new DuplicateLogLimiter(Duration.ofSeconds(-1)));
+		assertEquals("summaryInterval can't be negative, but was PT-1S", e.getMessage());
+	}
+	
+	@Test
+	public void testBadMaxTracked(){
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> new DuplicateLogLimiter(Duration.ofSeconds(1), 0));
+		assertEquals("maxTracked must be at least 1, but was 0", e.getMessage());
+	}
+	
+	@Test
+	public void testSuppressDuplicateThrowables(){
+		DuplicateLogLimiter limiter = new DuplicateLogLimiter(Duration.ofHours(1));
+		assertEquals(0, limiter.tryAcquire("Failed", throwFromHere()));
+		assertEquals(-1, limiter.tryAcquire("Failed", throwFromHere()));
+		assertEquals(-1, limiter.tryAcquire("Failed again", throwFromHere()));
+		
+		// Thrown from somewhere else or a different class isn't a duplicate
+		assertEquals(0, limiter.tryAcquire("Failed", throwFromThere()));
+		assertEquals(0, limiter.tryAcquire("Failed", new IllegalArgumentException("Derp")));
+	}
+	
+	@Test
+	public void testSuppressDuplicateMessages(){
+		DuplicateLogLimiter limiter = new DuplicateLogLimiter(Duration.ofHours(1));
+		assertEquals(0, limiter.tryAcquire("Failed", null));
+		assertEquals(-1, limiter.tryAcquire("Failed", null));
+		assertEquals(0, limiter.tryAcquire("Failed differently", null));
+		assertEquals(0, limiter.tryAcquire(null, null));
+		assertEquals(-1, limiter.tryAcquire(null, null));
+	}
+	
+	@Test
+	public void testSummaryAfterInterval() throws InterruptedException{
+		DuplicateLogLimiter limiter = new DuplicateLogLimiter(Duration.ofMillis(50));
+		assertEquals(0, limiter.tryAcquire("Failed", throwFromHere()));
+		assertEquals(-1, limiter.tryAcquire("Failed", throwFromHere()));
+		assertEquals(-1, limiter.tryAcquire("Failed", throwFromHere()));
+		assertEquals(-1, limiter.tryAcquire("Failed", throwFromHere()));
+		Thread.sleep(60);
+		assertEquals(3, limiter.tryAcquire("Failed", throwFromHere()));
+		assertEquals(-1, limiter.tryAcquire("Failed", throwFromHere()));
+	}
+	
+	@Test
+	public void testDrainSummaries(){
+		DuplicateLogLimiter limiter = new DuplicateLogLimiter(Duration.ofHours(1));
+		assertEquals(List.of(), limiter.drainSummaries());
+		assertEquals(0, limiter.tryAcquire("Failed", throwFromHere()));
+		assertEquals(-1, limiter.tryAcquire("Failed again", throwFromHere()));
+		assertEquals(-1, limiter.tryAcquire("Failed again", throwFromHere()));
+		assertEquals(0, limiter.tryAcquire(null, null));
+		assertEquals(-1, limiter.tryAcquire(null, null));
+		assertEquals(0, limiter.tryAcquire("Only once", null));
+		assertEquals(List.of("Failed (suppressed 2 similar)", "(suppressed 1 similar)"), limiter.drainSummaries());
+		
+		// Drained summaries aren't reported again
+		assertEquals(List.of(), limiter.drainSummaries());
+		assertEquals(-1, limiter.tryAcquire("Failed", throwFromHere()));
+		assertEquals(List.of("Failed (suppressed 1 similar)"), limiter.drainSummaries());
+	}
+	
+	@Test
+	public void testMaxTracked(){
+		DuplicateLogLimiter limiter = new DuplicateLogLimiter(Duration.ofHours(1), 2);
+		assertEquals(0, limiter.tryAcquire("One", null));
+		assertEquals(0, limiter.tryAcquire("Two", null));
+		assertEquals(0, limiter.tryAcquire("Three", null));
+		
+		// "One" was dropped to make room for "Three", so it's logged again
+		assertEquals(0, limiter.tryAcquire("One", null));
+		assertEquals(-1, limiter.tryAcquire("Three", null));
+	}
+}
@@ -7,7 +7,10 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
 
 public class EasyLoggerTest{
 	// DummyLogger to test EasyLogger
@@ -81,6 +84,7 @@ public class EasyLoggerTest{
 	public void setup(){
 		className = EasyLoggerTest.class.getCanonicalName();
 		actualLogger = new DummyLogger("Logger");
+		actualLogger.setLevel(Level.ALL);
 		logger = new EasyLogger(actualLogger);
 	}
 	
@@ -89,6 +93,20 @@ public class EasyLoggerTest{
 		assertEquals(actualLogger, logger.getLogger());
 	}
 	
+	@Test
+	public void testLogDisabledLevel(){
+		actualLogger.setLevel(Level.WARNING);
+		logger.logInfo("Some info");
+		logger.logDebugFine("Some debug", new IllegalArgumentException("Derp"));
+		assertNull(actualLogger.getLevel());
+		assertNull(actualLogger.getMessage());
+		
+		logger.logWarning("Some warning");
+		assertEquals(Level.WARNING, actualLogger.getLevel());
+		assertEquals(className, actualLogger.getClassName());
+		assertEquals("testLogDisabledLevel", actualLogger.getMethodName());
+	}
+	
 	@Test
 	public void testLogInfo(){
 		logger.logInfo("Some info");
@@ -312,4 +330,152 @@ public class EasyLoggerTest{
 		assertEquals("The debug", actualLogger.getMessage());
 		assertEquals(e, actualLogger.getT());
 	}
+	
+	@Test
+	public void testIsLoggable(){
+		actualLogger.setLevel(Level.WARNING);
+		assertTrue(logger.isLoggable(Level.SEVERE));
+		assertTrue(logger.isLoggable(Level.WARNING));
+		assertFalse(logger.isLoggable(Level.INFO));
+		assertFalse(logger.isLoggable(Level.FINEST));
+	}
+	
+	@Test
+	public void testIsLoggableNoLogger(){
+		assertTrue(new EasyLogger(null).isLoggable(Level.FINEST));
+	}
+	
+	@Test
+	public void testLogInfoSupplier(){
+		logger.logInfo(() -> "Some " + "info");
+		assertEquals(Level.INFO, actualLogger.getLevel());
+		assertEquals(className, actualLogger.getClassName());
+		assertEquals("testLogInfoSupplier", actualLogger.getMethodName());
+		assertEquals("Some info", actualLogger.getMessage());
+		assertNull(actualLogger.getT());
+	}
+	
+	@Test
+	public void testLogErrorSupplierBoth(){
+		IllegalArgumentException e = new IllegalArgumentException("Derp");
+		logger.logError(() -> "The " + "error", e);
+		assertEquals(Level.SEVERE, actualLogger.getLevel());
+		assertEquals(className, actualLogger.getClassName());
+		assertEquals("testLogErrorSupplierBoth", actualLogger.getMethodName());
+		assertEquals("The error", actualLogger.getMessage());
+		assertEquals(e, actualLogger.getT());
+	}
+	
+	@Test
+	public void testLogSupplierDisabledLevel(){
+		actualLogger.setLevel(Level.INFO);
+		logger.logDebugFine(() -> fail("Supplier shouldn't be called"));
+		logger.logDebugFinest(() -> fail("Supplier shouldn't be called"), new IllegalArgumentException("Derp"));
+		assertNull(actualLogger.getLevel());
+		assertNull(actualLogger.getMessage());
+	}
+	
+	@Test
+	public void testLogWarningOneParam(){
+		logger.logWarning("Found {} problems", 5);
+		assertEquals(Level.WARNING, actualLogger.getLevel());
+		assertEquals(className, actualLogger.getClassName());
+		assertEquals("testLogWarningOneParam", actualLogger.getMethodName());
+		assertEquals("Found 5 problems", actualLogger.getMessage());
+		assertNull(actualLogger.getT());
+	}
+	
+	@Test
+	public void testLogConfigTwoParams(){
+		logger.logConfig("{} = {}", "size", null);
+		assertEquals(Level.CONFIG, actualLogger.getLevel());
+		assertEquals("testLogConfigTwoParams", actualLogger.getMethodName());
+		assertEquals("size = null", actualLogger.getMessage());
+	}
+	
+	@Test
+	public void testLogDebugFinerManyParams(){
+		logger.logDebugFiner("{}, {}, and {}", 'a', 2L, 3.0);
+		assertEquals(Level.FINER, actualLogger.getLevel());
+		assertEquals(className, actualLogger.getClassName());
+		assertEquals("testLogDebugFinerManyParams", actualLogger.getMethodName());
+		assertEquals("a, 2, and 3.0", actualLogger.getMessage());
+	}
+	
+	@Test
+	public void testLogParamsMismatched(){
+		logger.logInfo("{} and {}", "one");
+		assertEquals("one and {}", actualLogger.getMessage());
+		
+		logger.logInfo("Just {}", "one", "two", "three");
+		assertEquals("Just one", actualLogger.getMessage());
+		
+		logger.logInfo("No placeholders", "one");
+		assertEquals("No placeholders", actualLogger.getMessage());
+	}
+	
+	@Test
+	public void testLogParamsDisabledLevel(){
+		actualLogger.setLevel(Level.INFO);
+		Object param = new Object(){
+			@Override
+			public String toString(){
+				return fail("Parameter shouldn't be formatted");
+			}
+		};
+		logger.logDebugFine("Value: {}", param);
+		logger.logDebugFinest("Values: {} {}", param, param);
+		assertNull(actualLogger.getLevel());
+		assertNull(actualLogger.getMessage());
+	}
+	
+	@Test
+	public void testSetLimiter(){
+		logger.setLimiter(Level.SEVERE, new SamplingLogLimiter(1, 3));
+		for(int i = 0; i < 4; i++){
+			logger.logError("Error " + i);
+			assertEquals(i < 3?"Error 0":"Error 3 (suppressed 2 similar)", actualLogger.getMessage());
+		}
+		assertEquals("testSetLimiter", actualLogger.getMethodName());
+		
+		// Other levels aren't limited
+		logger.logWarning("Warning 1");
+		logger.logWarning("Warning 2");
+		assertEquals("Warning 2", actualLogger.getMessage());
+	}
+	
+	@Test
+	public void testSetLimiterThrowableOnly(){
+		logger.setLimiter(Level.SEVERE, new SamplingLogLimiter(1, 2));
+		IllegalStateException e = new IllegalStateException();
+		logger.logError(e);
+		assertNull(actualLogger.getMessage());
+		logger.logError(new IllegalStateException("Other"));
+		assertNull(actualLogger.getMessage());
+		logger.logError(e);
+		assertEquals("(suppressed 1 similar)", actualLogger.getMessage());
+		assertEquals(e, actualLogger.getT());
+	}
+	
+	@Test
+	public void testSetCallSiteLimiter(){
+		logger.setCallSiteLimiter(Level.INFO, () -> new SamplingLogLimiter(1, 100));
+		for(int i = 0; i < 3; i++){
+			logger.logInfo("First site " + i);
+		}
+		assertEquals("First site 0", actualLogger.getMessage());
+		logger.logInfo("Second site");
+		assertEquals("Second site", actualLogger.getMessage());
+	}
+	
+	@Test
+	public void testRemoveLimiter(){
+		logger.setLimiter(Level.INFO, new SamplingLogLimiter(1, 100));
+		logger.logInfo("Info 1");
+		logger.logInfo("Info 2");
+		assertEquals("Info 1", actualLogger.getMessage());
+		logger.removeLimiter(Level.INFO);
+		logger.logInfo("Info 3");
+		assertEquals("Info 3", actualLogger.getMessage());
+	}
 }
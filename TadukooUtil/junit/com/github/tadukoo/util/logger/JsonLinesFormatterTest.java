@@ -0,0 +1,77 @@
+package com.github.tadukoo.util.logger;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JsonLinesFormatterTest{
+	private final JsonLinesFormatter formatter = new JsonLinesFormatter();
+	
+	private static <R extends LogRecord> R setup(R record){
+		record.setInstant(Instant.parse("2024-01-02T03:04:05.678Z"));
+		record.setLoggerName("app");
+		record.setSourceClassName("a.B");
+		record.setSourceMethodName("run");
+		record.setLongThreadID(7);
+		return record;
+	}
+	
+	@Test
+	public void testFormat(){
+		LogRecord record = setup(new LogRecord(Level.INFO, "Hello"));
+		assertEquals("{\"time\":\"2024-01-02T03:04:05.678Z\",\"level\":\"INFO\",\"logger\":\"app\",\"class\":\"a.B\"," +
+				"\"method\":\"run\",\"thread\":7,\"message\":\"Hello\"}\n", formatter.format(record));
+	}
+	
+	@Test
+	public void testFormatParameters(){
+		LogRecord record = setup(new LogRecord(Level.WARNING, "Found {0} problems"));
+		record.setParameters(new Object[]{3});
+		assertTrue(formatter.format(record).contains("\"level\":\"WARNING\""));
+		assertTrue(formatter.format(record).contains("\"message\":\"Found 3 problems\""));
+	}
+	
+	@Test
+	public void testFormatNullsLeftOut(){
+		LogRecord record = new LogRecord(Level.FINE, null);
+		record.setInstant(Instant.parse("2024-01-02T03:04:05Z"));
+		record.setSourceClassName(null);
+		record.setLongThreadID(1);
+		assertEquals("{\"time\":\"2024-01-02T03:04:05Z\",\"level\":\"FINE\",\"thread\":1}\n", formatter.format(record));
+	}
+	
+	@Test
+	public void testFormatStructuredRecord(){
+		StructuredLogRecord record = setup(new StructuredLogRecord(Level.INFO, "Downloaded", "\"bytes\":512"));
+		assertEquals("{\"time\":\"2024-01-02T03:04:05.678Z\",\"level\":\"INFO\",\"logger\":\"app\",\"class\":\"a.B\"," +
+				"\"method\":\"run\",\"thread\":7,\"message\":\"Downloaded\",\"bytes\":512}\n", formatter.format(record));
+	}
+	
+	@Test
+	public void testFormatStructuredRecordNoFields(){
+		StructuredLogRecord record = setup(new StructuredLogRecord(Level.INFO, "Downloaded", ""));
+		assertTrue(formatter.format(record).endsWith("\"message\":\"Downloaded\"}\n"));
+	}
+	
+	@Test
+	public void testFormatThrown(){
+		LogRecord record = setup(new LogRecord(Level.SEVERE, "Failed"));
+		record.setThrown(new IllegalStateException("Derp"));
+		String line = formatter.format(record);
+		assertTrue(line.contains("\"message\":\"Failed\",\"thrown\":\"java.lang.IllegalStateException: Derp"));
+		assertTrue(line.endsWith("\"}\n"));
+		assertEquals(1, line.split("\n").length);
+	}
+	
+	@Test
+	public void testAppendJsonString(){
+		StringBuilder json = new StringBuilder();
+		JsonLinesFormatter.appendJsonString(json, "a\"b\\c\nd\re\tf\u0001g\u001Fh é");
+		assertEquals("\"a\\\"b\\\\c\\nd\\re\\tf\\u0001g\\u001fh é\"", json.toString());
+	}
+}
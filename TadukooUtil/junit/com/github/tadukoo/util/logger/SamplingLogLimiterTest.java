@@ -0,0 +1,53 @@
+package com.github.tadukoo.util.logger;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SamplingLogLimiterTest{
+	
+	@Test
+	public void testBadFirstN(){
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> new SamplingLogLimiter(-1, 1));
+		assertEquals("firstN can't be negative, but was -1", e.getMessage());
+	}
+	
+	@Test
+	public void testBadEveryM(){
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> new SamplingLogLimiter(1, 0));
+		assertEquals("everyM must be at least 1, but was 0", e.getMessage());
+	}
+	
+	@Test
+	public void testFirstNThenEveryM(){
+		SamplingLogLimiter limiter = new SamplingLogLimiter(2, 3);
+		List<Long> results = new ArrayList<>();
+		for(int i = 0; i < 9; i++){
+			results.add(limiter.tryAcquire("Error", null));
+		}
+		assertEquals(List.of(0L, 0L, -1L, -1L, 2L, -1L, -1L, 2L, -1L), results);
+	}
+	
+	@Test
+	public void testNoFirstN(){
+		SamplingLogLimiter limiter = new SamplingLogLimiter(0, 2);
+		assertEquals(-1, limiter.tryAcquire("Error", null));
+		assertEquals(1, limiter.tryAcquire("Error", null));
+		assertEquals(-1, limiter.tryAcquire("Error", null));
+		assertEquals(1, limiter.tryAcquire("Error", null));
+	}
+	
+	@Test
+	public void testEveryOne(){
+		SamplingLogLimiter limiter = new SamplingLogLimiter(0, 1);
+		for(int i = 0; i < 5; i++){
+			assertEquals(0, limiter.tryAcquire("Error", null));
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package com.github.tadukoo.util.logger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class StructuredLoggerTest{
+	private final List<LogRecord> records = new ArrayList<>();
+	private Logger actualLogger;
+	private StructuredLogger logger;
+	
+	@BeforeEach
+	public void setup(){
+		actualLogger = Logger.getAnonymousLogger();
+		actualLogger.setUseParentHandlers(false);
+		actualLogger.setLevel(Level.ALL);
+		actualLogger.addHandler(new Handler(){
+			@Override
+			public void publish(LogRecord record){
+				records.add(record);
+			}
+			
+			@Override
+			public void flush(){ }
+			
+			@Override
+			public void close(){ }
+		});
+		logger = new StructuredLogger(actualLogger);
+	}
+	
+	private StructuredLogRecord getOnlyRecord(){
+		assertEquals(1, records.size());
+		return assertInstanceOf(StructuredLogRecord.class, records.get(0));
+	}
+	
+	@Test
+	public void testAtInfo(){
+		logger.atInfo().with("file", "a.txt").with("bytes", 512).log("Downloaded file");
+		StructuredLogRecord record = getOnlyRecord();
+		assertEquals(Level.INFO, record.getLevel());
+		assertEquals("Downloaded file", record.getMessage());
+		assertEquals("\"file\":\"a.txt\",\"bytes\":512", record.getFields());
+		assertEquals(actualLogger.getName(), record.getLoggerName());
+		assertEquals(StructuredLoggerTest.class.getName(), record.getSourceClassName());
+		assertEquals("testAtInfo", record.getSourceMethodName());
+		assertNull(record.getThrown());
+	}
+	
+	@Test
+	public void testAtLevels(){
+		logger.atWarning().log();
+		logger.atError().log();
+		logger.atConfig().log();
+		logger.atDebugFine().log();
+		logger.atDebugFiner().log();
+		logger.atDebugFinest().log();
+		assertEquals(List.of(Level.WARNING, Level.SEVERE, Level.CONFIG, Level.FINE, Level.FINER, Level.FINEST),
+				records.stream().map(LogRecord::getLevel).toList());
+	}
+	
+	@Test
+	public void testLogWithThrowable(){
+		IllegalStateException e = new IllegalStateException("Derp");
+		logger.atError().with("attempt", 3).log("Failed", e);
+		StructuredLogRecord record = getOnlyRecord();
+		assertEquals("Failed", record.getMessage());
+		assertEquals("\"attempt\":3", record.getFields());
+		assertSame(e, record.getThrown());
+	}
+	
+	@Test
+	public void testFieldTypes(){
+		logger.atInfo()
+				.with("string", "a \"quoted\"\nvalue")
+				.with("nullString", (String) null)
+				.with("long", -5L)
+				.with("double", 1.5)
+				.with("nan", Double.NaN)
+				.with("boolean", true)
+				.with("integer", Integer.valueOf(7))
+				.with("float", Float.valueOf(2.5f))
+				.with("object", List.of(1, 2))
+				.with("nullObject", (Object) null)
+				.log();
+		assertEquals("\"string\":\"a \\\"quoted\\\"\\nvalue\",\"nullString\":null,\"long\":-5,\"double\":1.5," +
+				"\"nan\":\"NaN\",\"boolean\":true,\"integer\":7,\"float\":2.5,\"object\":\"[1, 2]\",\"nullObject\":null",
+				getOnlyRecord().getFields());
+	}
+	
+	@Test
+	public void testEventReusedOnThread(){
+		LogEvent event = logger.atInfo().with("first", 1);
+		event.log("First");
+		LogEvent event2 = logger.atInfo();
+		assertSame(event, event2);
+		event2.with("second", 2).log("Second");
+		assertEquals("\"second\":2", ((StructuredLogRecord) records.get(1)).getFields());
+	}
+	
+	@Test
+	public void testDisabledLevel(){
+		actualLogger.setLevel(Level.INFO);
+		LogEvent event = logger.atDebugFine();
+		assertFalse(event.isEnabled());
+		assertSame(event, logger.atDebugFinest());
+		event.with("key", new Object(){
+			@Override
+			public String toString(){
+				return fail("Value shouldn't be used");
+			}
+		}).log("Not logged");
+		assertTrue(records.isEmpty());
+		assertTrue(logger.atInfo().isEnabled());
+	}
+	
+	@Test
+	public void testEasyLoggerMethods(){
+		logger.logWarning("Plain {}", "warning");
+		assertEquals(1, records.size());
+		LogRecord record = records.get(0);
+		assertFalse(record instanceof StructuredLogRecord);
+		assertEquals("Plain warning", record.getMessage());
+		assertEquals("testEasyLoggerMethods", record.getSourceMethodName());
+	}
+}
@@ -0,0 +1,45 @@
+package com.github.tadukoo.util.logger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TokenBucketLogLimiterTest{
+	
+	@Test
+	public void testBadEntriesPerSecond(){
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> new TokenBucketLogLimiter(0, 1));
+		assertEquals("entriesPerSecond must be positive, but was 0.0", e.getMessage());
+	}
+	
+	@Test
+	public void testBadBurst(){
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> new TokenBucketLogLimiter(1, 0));
+		assertEquals("burst must be at least 1, but was 0", e.getMessage());
+	}
+	
+	@Test
+	public void testBurstThenSuppress(){
+		// Slow enough that no tokens are added during the test
+		TokenBucketLogLimiter limiter = new TokenBucketLogLimiter(0.001, 3);
+		assertEquals(0, limiter.tryAcquire("Error", null));
+		assertEquals(0, limiter.tryAcquire("Error", null));
+		assertEquals(0, limiter.tryAcquire("Error", null));
+		assertEquals(-1, limiter.tryAcquire("Error", null));
+		assertEquals(-1, limiter.tryAcquire("Error", null));
+	}
+	
+	@Test
+	public void testRefillReportsSuppressed() throws InterruptedException{
+		TokenBucketLogLimiter limiter = new TokenBucketLogLimiter(50, 1);
+		assertEquals(0, limiter.tryAcquire("Error", null));
+		assertEquals(-1, limiter.tryAcquire("Error", null));
+		assertEquals(-1, limiter.tryAcquire("Error", null));
+		Thread.sleep(50);
+		assertEquals(2, limiter.tryAcquire("Error", null));
+		assertEquals(-1, limiter.tryAcquire("Error", null));
+	}
+}
@@ -0,0 +1,171 @@
+package com.github.tadukoo.util.parallel;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LockFreeQueueTest{
+	private LockFreeQueue<Integer> queue;
+	
+	@BeforeEach
+	public void setup(){
+		queue = new LockFreeQueue<>(4);
+	}
+	
+	@Test
+	public void testInvalidMaxItems(){
+		assertThrows(IllegalArgumentException.class, () -> new LockFreeQueue<>(0));
+	}
+	
+	@Test
+	public void testEnqueueDequeueOrder() throws InterruptedException{
+		for(int i = 0; i < 10; i++){
+			queue.enqueue(i);
+			queue.enqueue(i + 100);
+			assertEquals(i, queue.dequeue());
+			assertEquals(i + 100, queue.dequeue());
+		}
+	}
+	
+	@Test
+	public void testOfferFull(){
+		for(int i = 0; i < 4; i++){
+			assertTrue(queue.offer(i));
+		}
+		assertFalse(queue.offer(4));
+	}
+	
+	@Test
+	public void testNullItem() throws InterruptedException{
+		queue.enqueue(null);
+		queue.enqueue(5);
+		assertNull(queue.dequeue());
+		assertEquals(5, queue.dequeue());
+	}
+	
+	@Test
+	public void testEnqueueAllDrainTo() throws InterruptedException{
+		queue.enqueueAll(List.of(1, 2, 3));
+		List<Integer> items = new ArrayList<>();
+		assertEquals(2, queue.drainTo(items, 2));
+		assertEquals(List.of(1, 2), items);
+		assertEquals(1, queue.drainTo(items, 5));
+		assertEquals(List.of(1, 2, 3), items);
+	}
+	
+	@Test
+	public void testDequeueInterrupted(){
+		Thread.currentThread().interrupt();
+		assertThrows(InterruptedException.class, () -> queue.dequeue());
+	}
+	
+	@Test
+	public void testMultipleProducersAndConsumers() throws InterruptedException{
+		int numThreads = 4, itemsPerThread = 10000;
+		AtomicLong sum = new AtomicLong();
+		List<Thread> threads = new ArrayList<>();
+		for(int i = 0; i < numThreads; i++){
+			threads.add(new Thread(() -> {
+				try{
+					for(int j = 1; j <= itemsPerThread; j++){
+						queue.enqueue(j);
+					}
+				}catch(InterruptedException e){
+					throw new RuntimeException(e);
+				}
+			}));
+			threads.add(new Thread(() -> {
+				try{
+					for(int j = 0; j < itemsPerThread; j++){
+						sum.addAndGet(queue.dequeue());
+					}
+				}catch(InterruptedException e){
+					throw new RuntimeException(e);
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		for(Thread thread: threads){
+			thread.join();
+		}
+		assertEquals((long) numThreads * itemsPerThread * (itemsPerThread + 1) / 2, sum.get());
+	}
+	
+	@Test
+	public void testClose() throws InterruptedException{
+		queue.enqueue(1);
+		queue.close();
+		assertTrue(queue.isClosed());
+		assertThrows(QueueClosedException.class, () -> queue.enqueue(2));
+		// Items already in the queue can still be taken off
+		assertEquals(1, queue.dequeue());
+		assertThrows(QueueClosedException.class, () -> queue.dequeue());
+	}
+	
+	@Test
+	public void testCloseWhileProducing() throws InterruptedException{
+		// Every item that was accepted before the queue was closed must still be taken off it
+		AtomicLong accepted = new AtomicLong();
+		List<Thread> producers = new ArrayList<>();
+		for(int i = 0; i < 4; i++){
+			Thread producer = new Thread(() -> {
+				try{
+					while(true){
+						queue.enqueue(1);
+						accepted.incrementAndGet();
+					}
+				}catch(QueueClosedException | InterruptedException e){
+					// Done producing
+				}
+			});
+			producers.add(producer);
+			producer.start();
+		}
+		long[] taken = {0};
+		Thread consumer = new Thread(() -> {
+			try{
+				while(true){
+					queue.dequeue();
+					taken[0]++;
+				}
+			}catch(QueueClosedException | InterruptedException e){
+				// Done consuming
+			}
+		});
+		consumer.start();
+		Thread.sleep(50);
+		queue.close();
+		for(Thread producer: producers){
+			producer.join(10000);
+		}
+		consumer.join(10000);
+		assertFalse(consumer.isAlive());
+		assertEquals(accepted.get(), taken[0]);
+	}
+	
+	@Test
+	public void testCloseWakesWaitingConsumer() throws InterruptedException{
+		Throwable[] thrown = new Throwable[1];
+		Thread consumer = new Thread(() -> {
+			try{
+				queue.dequeue();
+			}catch(Throwable t){
+				thrown[0] = t;
+			}
+		});
+		consumer.start();
+		Thread.sleep(50);
+		queue.close();
+		consumer.join(10000);
+		assertTrue(thrown[0] instanceof QueueClosedException);
+	}
+}
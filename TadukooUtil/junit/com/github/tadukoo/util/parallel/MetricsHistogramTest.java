@@ -0,0 +1,40 @@
+package com.github.tadukoo.util.parallel;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MetricsHistogramTest{
+	private final MetricsHistogram histogram = new MetricsHistogram();
+	
+	@Test
+	public void testEmpty(){
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getMean());
+		assertEquals(0, histogram.getPercentile(0.99));
+	}
+	
+	@Test
+	public void testRecord(){
+		for(int i = 1; i <= 100; i++){
+			histogram.record(i);
+		}
+		histogram.record(-5);
+		assertEquals(101, histogram.getCount());
+		assertEquals(5050, histogram.getSum());
+		assertEquals(100, histogram.getMax());
+		assertEquals(5050 / 101.0, histogram.getMean());
+	}
+	
+	@Test
+	public void testPercentile(){
+		for(int i = 0; i < 99; i++){
+			histogram.record(10);
+		}
+		histogram.record(1000);
+		// 10 is in the bucket for 8 to 15
+		assertEquals(15, histogram.getPercentile(0.5));
+		assertEquals(15, histogram.getPercentile(0.99));
+		assertEquals(1000, histogram.getPercentile(1));
+	}
+}
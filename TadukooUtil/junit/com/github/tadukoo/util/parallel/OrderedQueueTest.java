@@ -0,0 +1,83 @@
+package com.github.tadukoo.util.parallel;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class OrderedQueueTest{
+	private final OrderedQueue<String> queue = new OrderedQueue<>(4);
+	
+	@Test
+	public void testOutOfOrderPut() throws InterruptedException{
+		queue.put(2, "c");
+		queue.put(0, "a");
+		queue.put(1, "b");
+		assertEquals(3, queue.size());
+		assertEquals("a", queue.dequeue());
+		assertEquals("b", queue.dequeue());
+		assertEquals("c", queue.dequeue());
+	}
+	
+	@Test
+	public void testSkip() throws InterruptedException{
+		queue.put(1, "b");
+		queue.skip(0);
+		queue.skip(2);
+		queue.put(3, "d");
+		List<String> items = new ArrayList<>();
+		assertEquals(2, queue.drainTo(items, 5));
+		assertEquals(List.of("b", "d"), items);
+	}
+	
+	@Test
+	public void testWindowWait() throws InterruptedException{
+		// Sequence 4 is outside the window until sequence 0 is taken off
+		Thread putter = new Thread(() -> {
+			try{
+				queue.put(4, "e");
+			}catch(InterruptedException e){
+				throw new RuntimeException(e);
+			}
+		});
+		putter.start();
+		Thread.sleep(50);
+		assertEquals(0, queue.size());
+		queue.put(0, "a");
+		assertEquals("a", queue.dequeue());
+		putter.join(10000);
+		assertEquals(1, queue.size());
+	}
+	
+	@Test
+	public void testEnqueue() throws InterruptedException{
+		// Items added directly come after the ones that are ready, but before ones still waiting on their turn
+		queue.enqueue("first");
+		queue.put(0, "a");
+		queue.put(2, "c");
+		queue.enqueue("x");
+		queue.put(1, "b");
+		queue.enqueueAll(List.of("y", "z"));
+		assertEquals(7, queue.size());
+		List<String> items = new ArrayList<>();
+		assertEquals(7, queue.drainTo(items, 10));
+		assertEquals(List.of("first", "a", "x", "b", "c", "y", "z"), items);
+	}
+	
+	@Test
+	public void testEnqueueClosed(){
+		queue.close();
+		assertThrows(QueueClosedException.class, () -> queue.enqueue("a"));
+	}
+	
+	@Test
+	public void testClosed() throws InterruptedException{
+		queue.put(0, "a");
+		queue.close();
+		assertEquals("a", queue.dequeue());
+		assertThrows(QueueClosedException.class, queue::dequeue);
+	}
+}
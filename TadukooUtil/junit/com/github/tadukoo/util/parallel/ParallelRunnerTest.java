@@ -0,0 +1,377 @@
+package com.github.tadukoo.util.parallel;
+
+import com.github.tadukoo.util.logger.EasyLogger;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelRunnerTest{
+	
+	public static class SleepWorker extends ParallelWorker<Long>{
+		
+		public SleepWorker(EasyLogger logger, Queue<Long> todoQueue, Queue<Long> doneQueue){
+			super(logger, todoQueue, doneQueue);
+		}
+		
+		@Override
+		protected boolean checkToContinueWork(Long work){
+			return true;
+		}
+		
+		@Override
+		protected void doWork(Long work){
+			try{
+				Thread.sleep(work);
+			}catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+	private static class SleepRunner extends ParallelRunner<Long>{
+		private final long sleepMillis;
+		private final boolean cancelEarly;
+		private int numDone = 0;
+		
+		protected SleepRunner(long sleepMillis, boolean cancelEarly){
+			super(new EasyLogger(Logger.getAnonymousLogger()), 10, 2, SleepWorker.class);
+			this.sleepMillis = sleepMillis;
+			this.cancelEarly = cancelEarly;
+		}
+		
+		@Override
+		protected void doWork(Queue<Long> todoQueue, Queue<Long> doneQueue) throws InterruptedException{
+			for(int i = 0; i < 4; i++){
+				todoQueue.enqueue(sleepMillis);
+			}
+			if(cancelEarly){
+				cancel();
+			}
+			for(int i = 0; i < 4; i++){
+				doneQueue.dequeue();
+				numDone++;
+			}
+		}
+	}
+	
+	public static class IndexWorker extends ParallelWorker<Long>{
+		
+		public IndexWorker(EasyLogger logger, Queue<Long> todoQueue, Queue<Long> doneQueue){
+			super(logger, todoQueue, doneQueue);
+		}
+		
+		@Override
+		protected boolean checkToContinueWork(Long work){
+			return true;
+		}
+		
+		@Override
+		protected void doWork(Long work){
+			// Sleep a different amount based on the index, so the work finishes out of order
+			try{
+				Thread.sleep(work % 3);
+			}catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+	private static class OrderedRunner extends ParallelRunner<Long>{
+		private final List<Long> results = new ArrayList<>();
+		
+		protected OrderedRunner(int batchSize){
+			super(new EasyLogger(Logger.getAnonymousLogger()), 10, 4, IndexWorker.class, Queue::new, batchSize);
+			setReorderWindow(16);
+		}
+		
+		@Override
+		protected void doWork(Queue<Long> todoQueue, Queue<Long> doneQueue) throws InterruptedException{
+			Thread producer = new Thread(() -> {
+				try{
+					for(long i = 0; i < 200; i++){
+						todoQueue.enqueue(i);
+					}
+				}catch(InterruptedException e){
+					throw new RuntimeException(e);
+				}
+			});
+			producer.start();
+			for(int i = 0; i < 200; i++){
+				results.add(doneQueue.dequeue());
+			}
+			producer.join();
+		}
+	}
+	
+	private static final long FAILING_WORK = 5;
+	
+	public static class FailingWorker extends ParallelWorker<Long>{
+		
+		public FailingWorker(EasyLogger logger, Queue<Long> todoQueue, Queue<Long> doneQueue){
+			super(logger, todoQueue, doneQueue);
+		}
+		
+		@Override
+		protected boolean checkToContinueWork(Long work){
+			return true;
+		}
+		
+		@Override
+		protected void doWork(Long work){
+			if(work == FAILING_WORK){
+				throw new IllegalStateException("Failed on " + work);
+			}
+		}
+	}
+	
+	private static class FailingRunner extends ParallelRunner<Long>{
+		private final List<Long> results = new ArrayList<>();
+		
+		protected FailingRunner(int batchSize, boolean ordered){
+			super(new EasyLogger(Logger.getAnonymousLogger()), 10, 2, FailingWorker.class, Queue::new, batchSize);
+			if(ordered){
+				setReorderWindow(16);
+			}
+		}
+		
+		@Override
+		protected void doWork(Queue<Long> todoQueue, Queue<Long> doneQueue) throws InterruptedException{
+			Thread producer = new Thread(() -> {
+				try{
+					for(long i = 0; i < 100; i++){
+						todoQueue.enqueue(i);
+					}
+				}catch(InterruptedException e){
+					throw new RuntimeException(e);
+				}
+			});
+			producer.start();
+			// Everything but the failing work should still come out
+			for(int i = 0; i < 99; i++){
+				results.add(doneQueue.dequeue());
+			}
+			producer.join();
+		}
+	}
+	
+	public static class AfterCloseFailingWorker extends FailingWorker{
+		private final Queue<Long> todoQueue;
+		
+		public AfterCloseFailingWorker(EasyLogger logger, Queue<Long> todoQueue, Queue<Long> doneQueue){
+			super(logger, todoQueue, doneQueue);
+			this.todoQueue = todoQueue;
+		}
+		
+		@Override
+		protected void doWork(Long work){
+			// Wait for the todo queue to be closed, so the rest of a failed batch can't be put back on it
+			while(!todoQueue.isClosed()){
+				try{
+					Thread.sleep(1);
+				}catch(InterruptedException e){
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+			super.doWork(work);
+		}
+	}
+	
+	private static class AfterCloseFailingRunner extends ParallelRunner<Long>{
+		private Queue<Long> doneQueue;
+		
+		protected AfterCloseFailingRunner(){
+			super(new EasyLogger(Logger.getAnonymousLogger()), 10, 1, AfterCloseFailingWorker.class, Queue::new, 4);
+		}
+		
+		@Override
+		protected void doWork(Queue<Long> todoQueue, Queue<Long> doneQueue) throws InterruptedException{
+			this.doneQueue = doneQueue;
+			for(long i = 0; i < 8; i++){
+				todoQueue.enqueue(i);
+			}
+		}
+	}
+	
+	private static class ThrowingRunner extends ParallelRunner<Long>{
+		
+		protected ThrowingRunner(){
+			super(new EasyLogger(Logger.getAnonymousLogger()), 10, 3, SleepWorker.class);
+		}
+		
+		@Override
+		protected void doWork(Queue<Long> todoQueue, Queue<Long> doneQueue){
+			throw new IllegalStateException("Derp");
+		}
+	}
+	
+	@Test
+	public void testNoTerminateInfo()
+			throws InterruptedException, InvocationTargetException, NoSuchMethodException,
+			InstantiationException, IllegalAccessException, TimeoutException{
+		// The workers never get terminate info, so they stop by the todo queue being closed
+		SleepRunner runner = new SleepRunner(1, false);
+		runner.runParallelWork(Duration.ofMinutes(1));
+		assertEquals(4, runner.numDone);
+	}
+	
+	@Test
+	public void testTimeout(){
+		SleepRunner runner = new SleepRunner(60000, false);
+		long start = System.nanoTime();
+		assertThrows(TimeoutException.class, () -> runner.runParallelWork(Duration.ofMillis(200)));
+		assertTrue(System.nanoTime() - start < Duration.ofSeconds(30).toNanos());
+		assertEquals(0, runner.numDone);
+	}
+	
+	@Test
+	public void testCancel(){
+		SleepRunner runner = new SleepRunner(60000, true);
+		long start = System.nanoTime();
+		assertThrows(CancellationException.class, runner::runParallelWork);
+		assertTrue(System.nanoTime() - start < Duration.ofSeconds(30).toNanos());
+		assertEquals(0, runner.numDone);
+	}
+	
+	@Test
+	public void testDoWorkThrows() throws InterruptedException{
+		ThrowingRunner runner = new ThrowingRunner();
+		List<Thread> threads = new CopyOnWriteArrayList<>();
+		IllegalStateException e = assertThrows(IllegalStateException.class, () -> runner.runParallelWork(task -> {
+			Thread thread = new Thread(task);
+			threads.add(thread);
+			return thread;
+		}));
+		assertEquals("Derp", e.getMessage());
+		
+		// The workers are stopped instead of waiting on the todo queue forever
+		assertEquals(3, threads.size());
+		for(Thread thread: threads){
+			thread.join(10000);
+			assertFalse(thread.isAlive());
+		}
+	}
+	
+	@Test
+	public void testMetrics()
+			throws InterruptedException, InvocationTargetException, NoSuchMethodException,
+			InstantiationException, IllegalAccessException, JMException{
+		ParallelMetrics metrics = new ParallelMetrics();
+		SleepRunner runner = new SleepRunner(5, false);
+		runner.setMetricsListener(metrics);
+		runner.runParallelWork();
+		
+		assertEquals(2, metrics.getNumThreads());
+		assertEquals(4, metrics.getItemsDone());
+		assertTrue(metrics.getMeanWorkNanos() >= 5_000_000);
+		assertTrue(metrics.getBusyRatio() > 0);
+		Map<String, Double> workerBusyRatios = metrics.getWorkerBusyRatios();
+		assertFalse(workerBusyRatios.isEmpty());
+		for(Map.Entry<String, Double> workerBusyRatio: workerBusyRatios.entrySet()){
+			assertTrue(workerBusyRatio.getKey().startsWith(ParallelRunner.WORKER_NAME_PREFIX));
+			assertTrue(workerBusyRatio.getValue() > 0);
+			assertEquals(workerBusyRatio.getValue(), metrics.getWorkerBusyRatio(workerBusyRatio.getKey()));
+		}
+		assertEquals(0, metrics.getWorkerBusyRatio("not-a-worker"));
+		assertTrue(metrics.getItemsPerSecond() > 0);
+		ParallelMetrics.QueueMetrics todo = metrics.getQueueMetrics(ParallelRunner.TODO_QUEUE_NAME);
+		assertEquals(4, todo.getItemsEnqueued());
+		assertEquals(4, todo.getItemsDequeued());
+		assertTrue(metrics.getMaxTodoQueueSize() >= 1);
+		assertEquals(4, metrics.getQueueMetrics(ParallelRunner.DONE_QUEUE_NAME).getItemsDequeued());
+		
+		// Check the metrics can be seen through JMX
+		ObjectName name = metrics.registerMBean("testMetrics");
+		try{
+			assertEquals(4L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "ItemsDone"));
+			TabularData jmxWorkerBusyRatios = (TabularData) ManagementFactory.getPlatformMBeanServer()
+					.getAttribute(name, "WorkerBusyRatios");
+			assertEquals(workerBusyRatios.size(), jmxWorkerBusyRatios.size());
+		}finally{
+			metrics.unregisterMBean();
+		}
+		assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+	}
+	
+	@Test
+	public void testFailingWorkBatches()
+			throws InterruptedException, InvocationTargetException, NoSuchMethodException,
+			InstantiationException, IllegalAccessException, TimeoutException{
+		FailingRunner runner = new FailingRunner(4, false);
+		runner.runParallelWork(Duration.ofMinutes(1));
+		List<Long> expected = LongStream.range(0, 100).filter(i -> i != FAILING_WORK).boxed()
+				.collect(Collectors.toList());
+		runner.results.sort(null);
+		assertEquals(expected, runner.results);
+	}
+	
+	@Test
+	public void testFailingWorkAfterTodoQueueClosed()
+			throws InterruptedException, InvocationTargetException, NoSuchMethodException,
+			InstantiationException, IllegalAccessException, TimeoutException{
+		AfterCloseFailingRunner runner = new AfterCloseFailingRunner();
+		runner.runParallelWork(Duration.ofMinutes(1));
+		
+		// The rest of the batch with the failing work in it still gets done
+		List<Long> results = new ArrayList<>();
+		while(runner.doneQueue.size() > 0){
+			results.add(runner.doneQueue.dequeue());
+		}
+		results.sort(null);
+		assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 6L, 7L), results);
+	}
+	
+	@Test
+	public void testOrdered()
+			throws InterruptedException, InvocationTargetException, NoSuchMethodException,
+			InstantiationException, IllegalAccessException{
+		OrderedRunner runner = new OrderedRunner(1);
+		runner.runParallelWork();
+		assertEquals(LongStream.range(0, 200).boxed().collect(Collectors.toList()), runner.results);
+	}
+	
+	@Test
+	public void testOrderedBatches()
+			throws InterruptedException, InvocationTargetException, NoSuchMethodException,
+			InstantiationException, IllegalAccessException{
+		OrderedRunner runner = new OrderedRunner(4);
+		runner.runParallelWork();
+		assertEquals(LongStream.range(0, 200).boxed().collect(Collectors.toList()), runner.results);
+	}
+	
+	@Test
+	public void testFailingWorkOrdered()
+			throws InterruptedException, InvocationTargetException, NoSuchMethodException,
+			InstantiationException, IllegalAccessException, TimeoutException{
+		FailingRunner runner = new FailingRunner(1, true);
+		runner.runParallelWork(Duration.ofMinutes(1));
+		List<Long> expected = LongStream.range(0, 100).filter(i -> i != FAILING_WORK).boxed()
+				.collect(Collectors.toList());
+		assertEquals(expected, runner.results);
+	}
+	
+	@Test
+	public void testInvalidReorderWindow(){
+		SleepRunner runner = new SleepRunner(1, false);
+		assertThrows(IllegalArgumentException.class, () -> runner.setReorderWindow(-1));
+	}
+}
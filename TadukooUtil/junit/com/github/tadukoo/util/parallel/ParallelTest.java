@@ -1,6 +1,8 @@
 package com.github.tadukoo.util.parallel;
 
 import com.github.tadukoo.util.ListUtil;
+import com.github.tadukoo.util.functional.function.Function3;
+import com.github.tadukoo.util.functional.integer.IntFunction;
 import com.github.tadukoo.util.logger.EasyLogger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +13,8 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -130,34 +134,38 @@ public class ParallelTest{
 		}
 	}
 	
-	private class GenerateBookParallel extends ParallelRunner<ChapterWorkInfo>{
-		
-		protected GenerateBookParallel(EasyLogger logger){
-			super(logger, 150, 10, ChapterWorker.class);
+	private void generateBook(Queue<ChapterWorkInfo> todoQueue, Queue<ChapterWorkInfo> doneQueue){
+		// Send out work
+		int chps = psalmsChapterVerses.size();
+		for(int j = 1; j <= chps; j++){
+			ChapterWorkInfo work = new ChapterWorkInfo(j);
+			try{
+				todoQueue.enqueue(work);
+			}catch(InterruptedException e){
+				e.printStackTrace();
+			}
 		}
 		
-		@Override
-		protected void doWork(Queue<ChapterWorkInfo> todoQueue, Queue<ChapterWorkInfo> doneQueue){
-			// Send out work
-			int chps = psalmsChapterVerses.size();
-			for(int j = 1; j <= chps; j++){
-				ChapterWorkInfo work = new ChapterWorkInfo(j);
-				try{
-					todoQueue.enqueue(work);
-				}catch(InterruptedException e){
-					e.printStackTrace();
-				}
-			}
-			
-			// Receive work
-			Properties bookFile = new Properties();
-			int bookNum = 1, pageNum = 1;
-			int chpDone = 0;
-			List<ChapterWorkInfo> works = new ArrayList<>();
-			for(int j = 1; j <= chps; j++){
-				try{
-					ChapterWorkInfo info = doneQueue.dequeue();
-					if(info.getChapter() == chpDone + 1){
+		// Receive work
+		Properties bookFile = new Properties();
+		int bookNum = 1, pageNum = 1;
+		int chpDone = 0;
+		List<ChapterWorkInfo> works = new ArrayList<>();
+		for(int j = 1; j <= chps; j++){
+			try{
+				ChapterWorkInfo info = doneQueue.dequeue();
+				if(info.getChapter() == chpDone + 1){
+					for(String page: info.getPages()){
+						bookFile.put("Book" + bookNum + "Page" + pageNum, page);
+						pageNum++;
+						if(pageNum > 50){
+							bookNum++;
+							pageNum = 1;
+						}
+					}
+					chpDone++;
+					while(works.size() > 0 && works.get(0).getChapter() == chpDone + 1){
+						info = works.remove(0);
 						for(String page: info.getPages()){
 							bookFile.put("Book" + bookNum + "Page" + pageNum, page);
 							pageNum++;
@@ -167,36 +175,51 @@ public class ParallelTest{
 							}
 						}
 						chpDone++;
-						while(works.size() > 0 && works.get(0).getChapter() == chpDone + 1){
-							info = works.remove(0);
-							for(String page: info.getPages()){
-								bookFile.put("Book" + bookNum + "Page" + pageNum, page);
-								pageNum++;
-								if(pageNum > 50){
-									bookNum++;
-									pageNum = 1;
-								}
-							}
-							chpDone++;
-						}
-					}else{
-						boolean infoInArray = false;
-						for(int k = 0; k < works.size(); k++){
-							if(works.get(k).getChapter() > info.getChapter()){
-								works.add(k, info);
-								infoInArray = true;
-								break;
-							}
-						}
-						if(!infoInArray){
-							works.add(info);
+					}
+				}else{
+					boolean infoInArray = false;
+					for(int k = 0; k < works.size(); k++){
+						if(works.get(k).getChapter() > info.getChapter()){
+							works.add(k, info);
+							infoInArray = true;
+							break;
 						}
 					}
-				}catch(InterruptedException e){
-					e.printStackTrace();
+					if(!infoInArray){
+						works.add(info);
+					}
 				}
+			}catch(InterruptedException e){
+				e.printStackTrace();
 			}
-			result = bookFile;
+		}
+		result = bookFile;
+	}
+	
+	private class GenerateBookParallel extends ParallelRunner<ChapterWorkInfo>{
+		
+		protected GenerateBookParallel(EasyLogger logger){
+			super(logger, 150, 10, ChapterWorker.class);
+		}
+		
+		protected GenerateBookParallel(EasyLogger logger, IntFunction<Queue<ChapterWorkInfo>> queueCreator){
+			super(logger, 150, 10, ChapterWorker.class, queueCreator);
+		}
+		
+		protected GenerateBookParallel(
+				EasyLogger logger, IntFunction<Queue<ChapterWorkInfo>> queueCreator, int batchSize){
+			super(logger, 150, 10, ChapterWorker.class, queueCreator, batchSize);
+		}
+		
+		protected GenerateBookParallel(
+				EasyLogger logger,
+				Function3<EasyLogger, Queue<ChapterWorkInfo>, Queue<ChapterWorkInfo>, ChapterWorker> workerCreator){
+			super(logger, 150, 10, workerCreator);
+		}
+		
+		@Override
+		protected void doWork(Queue<ChapterWorkInfo> todoQueue, Queue<ChapterWorkInfo> doneQueue){
+			generateBook(todoQueue, doneQueue);
 		}
 		
 		@Override
@@ -205,6 +228,18 @@ public class ParallelTest{
 		}
 	}
 	
+	private class GenerateBookWorkStealing extends WorkStealingParallelRunner<ChapterWorkInfo>{
+		
+		protected GenerateBookWorkStealing(EasyLogger logger){
+			super(logger, 150, 10, ChapterWorker.class);
+		}
+		
+		@Override
+		protected void doWork(Queue<ChapterWorkInfo> todoQueue, Queue<ChapterWorkInfo> doneQueue){
+			generateBook(todoQueue, doneQueue);
+		}
+	}
+	
 	@Test
 	public void parallelTest()
 			throws InterruptedException, InvocationTargetException, NoSuchMethodException,
@@ -214,6 +249,108 @@ public class ParallelTest{
 		parallelRunner.runParallelWork();
 		
 		// Verify the result based on a pre-created result
+		verifyResult();
+	}
+	
+	@Test
+	public void parallelTestLockFreeQueue()
+			throws InterruptedException, InvocationTargetException, NoSuchMethodException,
+			InstantiationException, IllegalAccessException, IOException{
+		// Run the parallel runner using lock-free queues
+		GenerateBookParallel parallelRunner = new GenerateBookParallel(logger, LockFreeQueue::new);
+		parallelRunner.runParallelWork();
+		
+		// Verify the result based on a pre-created result
+		verifyResult();
+	}
+	
+	@Test
+	public void parallelTestBatches()
+			throws InterruptedException, InvocationTargetException, NoSuchMethodException,
+			InstantiationException, IllegalAccessException, IOException{
+		// Run the parallel runner with workers taking batches of work
+		GenerateBookParallel parallelRunner = new GenerateBookParallel(logger, Queue::new, 8);
+		parallelRunner.runParallelWork();
+		
+		// Verify the result based on a pre-created result
+		verifyResult();
+	}
+	
+	@Test
+	public void parallelTestBatchesLockFreeQueue()
+			throws InterruptedException, InvocationTargetException, NoSuchMethodException,
+			InstantiationException, IllegalAccessException, IOException{
+		// Run the parallel runner with workers taking batches of work from lock-free queues
+		GenerateBookParallel parallelRunner = new GenerateBookParallel(logger, LockFreeQueue::new, 8);
+		parallelRunner.runParallelWork();
+		
+		// Verify the result based on a pre-created result
+		verifyResult();
+	}
+	
+	@Test
+	public void parallelTestThreadFactory()
+			throws InterruptedException, InvocationTargetException, NoSuchMethodException,
+			InstantiationException, IllegalAccessException, IOException{
+		// Run the parallel runner using daemon threads from a thread factory
+		GenerateBookParallel parallelRunner = new GenerateBookParallel(logger);
+		parallelRunner.runParallelWork(runnable -> {
+			Thread thread = new Thread(runnable);
+			thread.setDaemon(true);
+			return thread;
+		});
+		
+		// Verify the result based on a pre-created result
+		verifyResult();
+	}
+	
+	@Test
+	public void parallelTestExecutorService()
+			throws InterruptedException, InvocationTargetException, NoSuchMethodException,
+			InstantiationException, IllegalAccessException, IOException{
+		// Run the parallel runner on an executor service
+		ExecutorService executor = Executors.newCachedThreadPool();
+		try{
+			GenerateBookParallel parallelRunner = new GenerateBookParallel(logger);
+			parallelRunner.runParallelWork(executor);
+		}finally{
+			executor.shutdown();
+		}
+		
+		// Verify the result based on a pre-created result
+		verifyResult();
+	}
+	
+	@Test
+	public void parallelTestWorkerCreator()
+			throws InterruptedException, InvocationTargetException, NoSuchMethodException,
+			InstantiationException, IllegalAccessException, IOException{
+		// Run the parallel runner with workers made by a worker creator instead of reflection
+		int[] numWorkers = new int[]{0};
+		GenerateBookParallel parallelRunner = new GenerateBookParallel(logger, (workerLogger, todoQueue, doneQueue) -> {
+			numWorkers[0]++;
+			return new ChapterWorker(workerLogger, todoQueue, doneQueue);
+		});
+		parallelRunner.runParallelWork();
+		assertEquals(10, numWorkers[0]);
+		
+		// Verify the result based on a pre-created result
+		verifyResult();
+	}
+	
+	@Test
+	public void parallelTestWorkStealing()
+			throws InterruptedException, InvocationTargetException, NoSuchMethodException,
+			InstantiationException, IllegalAccessException, IOException{
+		// Run the work stealing parallel runner
+		GenerateBookWorkStealing parallelRunner = new GenerateBookWorkStealing(logger);
+		parallelRunner.runParallelWork();
+		
+		// Verify the result based on a pre-created result
+		verifyResult();
+	}
+	
+	private void verifyResult() throws IOException{
 		Properties expectedProperties = new Properties();
 		expectedProperties.load(new FileInputStream("junit-resource/Psalms-MinecraftBook.properties"));
 		for(Object key: expectedProperties.keySet()){
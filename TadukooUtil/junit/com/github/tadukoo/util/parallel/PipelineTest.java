@@ -0,0 +1,100 @@
+package com.github.tadukoo.util.parallel;
+
+import com.github.tadukoo.util.logger.EasyLogger;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PipelineTest{
+	private final EasyLogger logger = new EasyLogger(Logger.getAnonymousLogger());
+	
+	@Test
+	public void testRun() throws InterruptedException, ExecutionException{
+		Pipeline<Integer, String> pipeline = Pipeline.<Integer>builder(logger)
+				.stage("double", 4, 10, i -> i * 2)
+				.stage("add one", 2, 5, i -> i + 1)
+				.stage("to string", 1, 5, String::valueOf)
+				.build();
+		List<Integer> inputs = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+		List<String> outputs = new ArrayList<>();
+		pipeline.run(inputs, outputs::add);
+		
+		List<Integer> results = outputs.stream().map(Integer::parseInt).sorted().collect(Collectors.toList());
+		assertEquals(inputs.stream().map(i -> i * 2 + 1).collect(Collectors.toList()), results);
+		
+		// Check the stats
+		List<PipelineStageStats> stats = pipeline.getStageStats();
+		assertEquals(3, stats.size());
+		assertEquals("double", stats.get(0).getName());
+		assertEquals(4, stats.get(0).getNumThreads());
+		for(PipelineStageStats stageStats: stats){
+			assertEquals(1000, stageStats.getItemsProcessed());
+			assertTrue(stageStats.getItemsPerSecond() > 0);
+		}
+	}
+	
+	@Test
+	public void testEmptyInputs() throws InterruptedException, ExecutionException{
+		Pipeline<Integer, Integer> pipeline = Pipeline.<Integer>builder(logger)
+				.stage("double", 2, 10, i -> i * 2)
+				.queueCreator(LockFreeQueue::new)
+				.build();
+		List<Integer> outputs = new ArrayList<>();
+		pipeline.run(Collections.emptyList(), outputs::add);
+		assertTrue(outputs.isEmpty());
+	}
+	
+	@Test
+	public void testBackPressure() throws InterruptedException, ExecutionException{
+		// The slow last stage should make the fast first stage wait on it
+		Pipeline<Integer, Integer> pipeline = Pipeline.<Integer>builder(logger)
+				.stage("fast", 1, 2, i -> i)
+				.stage("slow", 1, 2, i -> {
+					Thread.sleep(5);
+					return i;
+				})
+				.build();
+		List<Integer> outputs = new ArrayList<>();
+		pipeline.run(IntStream.range(0, 20).boxed().collect(Collectors.toList()), outputs::add);
+		assertEquals(20, outputs.size());
+		PipelineStageStats fast = pipeline.getStageStats().get(0);
+		assertTrue(fast.getBlockedNanos() > fast.getBusyNanos());
+	}
+	
+	@Test
+	public void testStageFailure(){
+		Pipeline<Integer, Integer> pipeline = Pipeline.<Integer>builder(logger)
+				.stage("fail", 2, 10, i -> {
+					if(i == 50){
+						throw new IOException("Failed on 50");
+					}
+					return i;
+				})
+				.build();
+		ExecutionException e = assertThrows(ExecutionException.class,
+				() -> pipeline.run(IntStream.range(0, 1000).boxed().collect(Collectors.toList()), i -> { }));
+		assertTrue(e.getCause() instanceof IOException);
+		assertEquals("Failed on 50", e.getCause().getMessage());
+	}
+	
+	@Test
+	public void testNoStages(){
+		assertThrows(IllegalStateException.class, () -> Pipeline.builder(logger).build());
+	}
+	
+	@Test
+	public void testInvalidNumThreads(){
+		assertThrows(IllegalArgumentException.class, () -> Pipeline.<Integer>builder(logger).stage("bad", 0, 10, i -> i));
+	}
+}
@@ -0,0 +1,84 @@
+package com.github.tadukoo.util.parallel;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QueueTest{
+	private Queue<Integer> queue;
+	
+	@BeforeEach
+	public void setup(){
+		queue = new Queue<>(4);
+	}
+	
+	@Test
+	public void testEnqueueDequeue() throws InterruptedException{
+		queue.enqueue(1);
+		queue.enqueue(2);
+		assertEquals(1, queue.dequeue());
+		assertEquals(2, queue.dequeue());
+	}
+	
+	@Test
+	public void testEnqueueAllDrainTo() throws InterruptedException{
+		queue.enqueueAll(List.of(1, 2, 3));
+		List<Integer> items = new ArrayList<>();
+		assertEquals(2, queue.drainTo(items, 2));
+		assertEquals(List.of(1, 2), items);
+		assertEquals(1, queue.drainTo(items, 5));
+		assertEquals(List.of(1, 2, 3), items);
+	}
+	
+	@Test
+	public void testEnqueueAllMoreThanMaxItems() throws InterruptedException{
+		List<Integer> drained = new ArrayList<>();
+		Thread consumer = new Thread(() -> {
+			try{
+				while(drained.size() < 10){
+					queue.drainTo(drained, 3);
+				}
+			}catch(InterruptedException e){
+				throw new RuntimeException(e);
+			}
+		});
+		consumer.start();
+		queue.enqueueAll(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+		consumer.join();
+		assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), drained);
+	}
+	
+	@Test
+	public void testClose() throws InterruptedException{
+		queue.enqueue(1);
+		queue.close();
+		assertTrue(queue.isClosed());
+		assertThrows(QueueClosedException.class, () -> queue.enqueue(2));
+		// Items already in the queue can still be taken off
+		assertEquals(1, queue.dequeue());
+		assertThrows(QueueClosedException.class, () -> queue.dequeue());
+	}
+	
+	@Test
+	public void testCloseWakesWaitingConsumer() throws InterruptedException{
+		Throwable[] thrown = new Throwable[1];
+		Thread consumer = new Thread(() -> {
+			try{
+				queue.dequeue();
+			}catch(Throwable t){
+				thrown[0] = t;
+			}
+		});
+		consumer.start();
+		Thread.sleep(50);
+		queue.close();
+		consumer.join(10000);
+		assertTrue(thrown[0] instanceof QueueClosedException);
+	}
+}
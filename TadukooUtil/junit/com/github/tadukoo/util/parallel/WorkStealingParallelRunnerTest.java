@@ -0,0 +1,172 @@
+package com.github.tadukoo.util.parallel;
+
+import com.github.tadukoo.util.functional.function.Function3;
+import com.github.tadukoo.util.logger.EasyLogger;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+public class WorkStealingParallelRunnerTest{
+	
+	public static class CountdownWorker extends ParallelWorker<Integer>{
+		
+		public CountdownWorker(EasyLogger logger, Queue<Integer> todoQueue, Queue<Integer> doneQueue){
+			super(logger, todoQueue, doneQueue);
+		}
+		
+		@Override
+		protected boolean checkToContinueWork(Integer work){
+			return work >= 0;
+		}
+		
+		@Override
+		protected void doWork(Integer work){
+			// Each piece of work submits the next smaller piece of work as sub-work
+			if(work > 0){
+				try{
+					submitWork(work - 1);
+				}catch(InterruptedException e){
+					throw new RuntimeException(e);
+				}
+			}
+		}
+	}
+	
+	private static class CountdownRunner extends WorkStealingParallelRunner<Integer>{
+		private int numDone = 0;
+		private long sum = 0;
+		
+		protected CountdownRunner(EasyLogger logger){
+			super(logger, 250, 4, CountdownWorker.class);
+		}
+		
+		protected CountdownRunner(
+				EasyLogger logger,
+				Function3<EasyLogger, Queue<Integer>, Queue<Integer>, CountdownWorker> workerCreator){
+			super(logger, 250, 4, workerCreator);
+		}
+		
+		@Override
+		protected void doWork(Queue<Integer> todoQueue, Queue<Integer> doneQueue) throws InterruptedException{
+			for(int i = 0; i < 20; i++){
+				todoQueue.enqueue(i);
+			}
+			// Each starting piece of work i results in i + 1 finished pieces of work
+			for(int i = 0; i < 210; i++){
+				sum += doneQueue.dequeue();
+				numDone++;
+			}
+		}
+	}
+	
+	public static class LatchWorker extends ParallelWorker<Integer>{
+		private final CountDownLatch latch;
+		
+		public LatchWorker(EasyLogger logger, Queue<Integer> todoQueue, Queue<Integer> doneQueue, CountDownLatch latch){
+			super(logger, todoQueue, doneQueue);
+			this.latch = latch;
+		}
+		
+		@Override
+		protected boolean checkToContinueWork(Integer work){
+			return true;
+		}
+		
+		@Override
+		protected void doWork(Integer work){
+			try{
+				latch.await();
+			}catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+	private static class TakeBackRunner extends WorkStealingParallelRunner<Integer>{
+		private final CountDownLatch latch;
+		private final List<Integer> done = new ArrayList<>();
+		private int waiting;
+		private int takenBack;
+		
+		protected TakeBackRunner(CountDownLatch latch){
+			super(new EasyLogger(Logger.getAnonymousLogger()), 10, 1,
+					(logger, todoQueue, doneQueue) -> new LatchWorker(logger, todoQueue, doneQueue, latch));
+			this.latch = latch;
+		}
+		
+		@Override
+		protected void doWork(Queue<Integer> todoQueue, Queue<Integer> doneQueue) throws InterruptedException{
+			for(int i = 0; i < 5; i++){
+				todoQueue.enqueue(i);
+			}
+			// Wait for the first piece of work to be started
+			while(todoQueue.size() > 4){
+				Thread.sleep(1);
+			}
+			waiting = todoQueue.size();
+			takenBack = todoQueue.dequeue();
+			latch.countDown();
+			for(int i = 0; i < 4; i++){
+				done.add(doneQueue.dequeue());
+			}
+		}
+	}
+	
+	private static class FullDoneQueueRunner extends WorkStealingParallelRunner<Integer>{
+		
+		protected FullDoneQueueRunner(){
+			super(new EasyLogger(Logger.getAnonymousLogger()), 2, 2, CountdownWorker.class);
+		}
+		
+		@Override
+		protected void doWork(Queue<Integer> todoQueue, Queue<Integer> doneQueue) throws InterruptedException{
+			// Never takes the finished work off the done queue
+			todoQueue.enqueue(10);
+		}
+	}
+	
+	@Test
+	public void testSubWork()
+			throws InterruptedException, InvocationTargetException, NoSuchMethodException,
+			InstantiationException, IllegalAccessException{
+		CountdownRunner runner = new CountdownRunner(new EasyLogger(Logger.getAnonymousLogger()));
+		runner.runParallelWork();
+		assertEquals(210, runner.numDone);
+		assertEquals(1330, runner.sum);
+	}
+	
+	@Test
+	public void testWorkerCreator()
+			throws InterruptedException, InvocationTargetException, NoSuchMethodException,
+			InstantiationException, IllegalAccessException{
+		CountdownRunner runner = new CountdownRunner(new EasyLogger(Logger.getAnonymousLogger()), CountdownWorker::new);
+		runner.runParallelWork();
+		assertEquals(210, runner.numDone);
+		assertEquals(1330, runner.sum);
+	}
+	
+	@Test
+	public void testTakeBackWaitingWork()
+			throws InterruptedException, InvocationTargetException, NoSuchMethodException,
+			InstantiationException, IllegalAccessException{
+		TakeBackRunner runner = new TakeBackRunner(new CountDownLatch(1));
+		runner.runParallelWork();
+		assertEquals(4, runner.waiting);
+		assertEquals(1, runner.takenBack);
+		assertEquals(List.of(0, 2, 3, 4), runner.done);
+	}
+	
+	@Test
+	public void testFullDoneQueueDoesNotHang(){
+		FullDoneQueueRunner runner = new FullDoneQueueRunner();
+		assertTimeoutPreemptively(Duration.ofSeconds(30), runner::runParallelWork);
+	}
+}
@@ -3,10 +3,38 @@ package com.github.tadukoo.util.stack;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class StackUtilTest{
 	
-	private Class<?> test() throws ClassNotFoundException{
+	private static class Wrapper{
+		private static Class<?> getCallingClass(int depth){
+			return StackUtil.getCallingClass(depth);
+		}
+		
+		private static String getCallingClassName(int depth){
+			return StackUtil.getCallingClassName(depth);
+		}
+		
+		private static String getCallingMethodName(int depth){
+			return StackUtil.getCallingMethodName(depth);
+		}
+		
+		private static Class<?> wrapClass(int depth){
+			return getCallingClass(depth);
+		}
+		
+		private static String wrapClassName(int depth){
+			return getCallingClassName(depth);
+		}
+		
+		private static String wrapMethodName(int depth){
+			return getCallingMethodName(depth);
+		}
+	}
+	
+	private Class<?> test(){
 		return StackUtil.getCallingClass();
 	}
 	
@@ -16,7 +44,7 @@ public class StackUtilTest{
 	}
 	
 	@Test
-	public void testGetCallingClass() throws ClassNotFoundException{
+	public void testGetCallingClass(){
 		assertEquals(StackUtilTest.class, test());
 	}
 	
@@ -24,4 +52,34 @@ public class StackUtilTest{
 	public void testGetCallingClassMethodName(){
 		assertEquals("invoke0", StackUtil.getCallingMethodName());
 	}
+	
+	@Test
+	public void testGetCallingClassDepth(){
+		assertEquals(Wrapper.class, Wrapper.wrapClass(0));
+		assertEquals(StackUtilTest.class, Wrapper.wrapClass(1));
+	}
+	
+	@Test
+	public void testGetCallingClassNameDepth(){
+		assertEquals(Wrapper.class.getName(), Wrapper.wrapClassName(0));
+		assertEquals(StackUtilTest.class.getName(), Wrapper.wrapClassName(1));
+	}
+	
+	@Test
+	public void testGetCallingMethodNameDepth(){
+		assertEquals("wrapMethodName", Wrapper.wrapMethodName(0));
+		assertEquals("testGetCallingMethodNameDepth", Wrapper.wrapMethodName(1));
+	}
+	
+	@Test
+	public void testGetCallingClassTooDeep(){
+		assertNull(StackUtil.getCallingClass(Integer.MAX_VALUE));
+	}
+	
+	@Test
+	public void testGetCallingClassNegativeDepth(){
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> StackUtil.getCallingClass(-1));
+		assertEquals("depth can't be negative, but was -1", e.getMessage());
+	}
 }
@@ -0,0 +1,288 @@
+package com.github.tadukoo.util.download;
+
+import com.github.tadukoo.util.logger.EasyLogger;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Async Downloader is used to download files without blocking the calling thread, using a {@link HttpClient}
+ * running on a given {@link Executor}. Each download returns a {@link CompletableFuture} that's completed with the
+ * {@link Path} to the downloaded file, or completed exceptionally if the download fails, so many downloads can be
+ * started at once (e.g. from an event loop) without tying up a thread for each one.
+ * <br><br>
+ * A download can be stopped by cancelling its {@link CompletableFuture}, which stops the transfer and closes the
+ * file. Downloads fail with a {@link HttpTimeoutException} if connecting takes longer than the connect timeout, or
+ * if no data is received for longer than the read timeout. Like {@link DownloadUtil#downloadFile}, the download is
+ * written to a temporary ({@code .part}) file that's only moved to the filepath once it's complete, but downloads
+ * made here aren't resumed.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public class AsyncDownloader{
+	/** The {@link EasyLogger logger} to use for logging */
+	private final EasyLogger logger;
+	/** The {@link Executor} to run the downloads on */
+	private final Executor executor;
+	/** The {@link HttpClient} to use for the downloads */
+	private final HttpClient client;
+	/** The longest time to go without receiving any data before a download fails */
+	private final Duration readTimeout;
+	
+	/**
+	 * Creates a new {@link AsyncDownloader}
+	 *
+	 * @param logger The {@link EasyLogger logger} to use for logging
+	 * @param executor The {@link Executor} to run the downloads on
+	 * @param connectTimeout The longest time to wait to connect to a server
+	 * @param readTimeout The longest time to go without receiving any data before a download fails
+	 */
+	public AsyncDownloader(EasyLogger logger, Executor executor, Duration connectTimeout, Duration readTimeout){
+		if(readTimeout.isNegative() || readTimeout.isZero()){
+			throw new IllegalArgumentException("readTimeout must be positive, but was " + readTimeout);
+		}
+		this.logger = logger;
+		this.executor = executor;
+		this.readTimeout = readTimeout;
+		client = HttpClient.newBuilder()
+				.executor(executor)
+				.connectTimeout(connectTimeout)
+				.followRedirects(HttpClient.Redirect.NORMAL)
+				.build();
+	}
+	
+	/**
+	 * @return The {@link HttpClient} used for the downloads
+	 */
+	public HttpClient getClient(){
+		return client;
+	}
+	
+	/**
+	 * Starts downloading the file at the given address to the given filepath. If the file already exists at the
+	 * filepath, nothing is downloaded and the returned {@link CompletableFuture} is already complete. Progress is
+	 * sent to the given {@link ProgressRBCWrapperListener} as often as the
+	 * {@link ProgressThrottle#DEFAULT default ProgressThrottle} allows
+	 *
+	 * @param listener The {@link ProgressRBCWrapperListener progress listener} to send updates to
+	 * (can be {@code null})
+	 * @param address The URL for the file to be downloaded
+	 * @param filepath The local filepath for the file
+	 * @return A {@link CompletableFuture} for the {@link Path} to the downloaded file, which can be cancelled to
+	 * stop the download
+	 */
+	public CompletableFuture<Path> downloadFile(ProgressRBCWrapperListener listener, String address, String filepath){
+		// Check if file already exists so we don't need to download it
+		Path path = Paths.get(filepath);
+		if(Files.exists(path)){
+			return CompletableFuture.completedFuture(path);
+		}
+		
+		HttpRequest request;
+		try{
+			request = HttpRequest.newBuilder(URI.create(address)).timeout(readTimeout).GET().build();
+		}catch(IllegalArgumentException e){
+			return CompletableFuture.failedFuture(new IOException("Invalid address: " + address, e));
+		}
+		CompletableFuture<Path> result = new CompletableFuture<>();
+		AtomicReference<FileSubscriber> subscriber = new AtomicReference<>();
+		CompletableFuture<HttpResponse<Path>> response = client.sendAsync(request, responseInfo -> {
+			if(responseInfo.statusCode() >= 400){
+				return HttpResponse.BodySubscribers.replacing(null);
+			}
+			long expectedSize = responseInfo.headers().firstValueAsLong("Content-Length").orElse(-1);
+			FileSubscriber fileSubscriber = new FileSubscriber(path, new ProgressTracker(listener, expectedSize,
+					ProgressThrottle.DEFAULT));
+			subscriber.set(fileSubscriber);
+			return fileSubscriber;
+		});
+		response.whenComplete((httpResponse, error) -> {
+			if(error != null){
+				result.completeExceptionally(
+						error instanceof CompletionException && error.getCause() != null?error.getCause():error);
+			}else if(httpResponse.statusCode() >= 400){
+				result.completeExceptionally(new IOException("Failed to download " + address + ": got response code " +
+						httpResponse.statusCode()));
+			}else{
+				result.complete(httpResponse.body());
+			}
+		});
+		
+		// Stop the download if it's cancelled
+		result.whenComplete((downloaded, error) -> {
+			if(error instanceof CancellationException){
+				response.cancel(true);
+				FileSubscriber fileSubscriber = subscriber.get();
+				if(fileSubscriber != null){
+					fileSubscriber.abort(error);
+				}
+			}
+		});
+		return result;
+	}
+	
+	/**
+	 * File Subscriber receives the body of a download and writes it to a temporary file, moving it into place
+	 * once it's complete. It fails the download if no data is received for longer than the {@link #readTimeout}
+	 */
+	private class FileSubscriber implements HttpResponse.BodySubscriber<Path>{
+		/** The {@link Path} to move the finished download to */
+		private final Path path;
+		/** The {@link Path} to the temporary file */
+		private final Path partPath;
+		/** The {@link ProgressTracker} to send progress updates with */
+		private final ProgressTracker tracker;
+		/** The {@link CompletableFuture} for the {@link Path} to the finished download */
+		private final CompletableFuture<Path> body = new CompletableFuture<>();
+		/** The {@link FileChannel} to write the temporary file with */
+		private volatile FileChannel fileChannel;
+		/** The {@link Flow.Subscription} to request the body with */
+		private volatile Flow.Subscription subscription;
+		/** The time (from {@link System#nanoTime()}) data was last received */
+		private volatile long lastReceived;
+		
+		/**
+		 * Creates a new {@link FileSubscriber}
+		 *
+		 * @param path The {@link Path} to move the finished download to
+		 * @param tracker The {@link ProgressTracker} to send progress updates with
+		 */
+		private FileSubscriber(Path path, ProgressTracker tracker){
+			this.path = path;
+			partPath = Paths.get(path + DownloadUtil.PART_SUFFIX);
+			this.tracker = tracker;
+		}
+		
+		/** {@inheritDoc} */
+		@Override
+		public CompletionStage<Path> getBody(){
+			return body;
+		}
+		
+		/** {@inheritDoc} */
+		@Override
+		public void onSubscribe(Flow.Subscription subscription){
+			this.subscription = subscription;
+			try{
+				fileChannel = FileChannel.open(partPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+						StandardOpenOption.TRUNCATE_EXISTING);
+			}catch(IOException e){
+				subscription.cancel();
+				body.completeExceptionally(e);
+				return;
+			}
+			lastReceived = System.nanoTime();
+			scheduleReadTimeoutCheck(readTimeout.toNanos());
+			subscription.request(1);
+		}
+		
+		/** {@inheritDoc} */
+		@Override
+		public void onNext(List<ByteBuffer> buffers){
+			if(body.isDone()){
+				return;
+			}
+			lastReceived = System.nanoTime();
+			try{
+				for(ByteBuffer buffer: buffers){
+					int n = buffer.remaining();
+					while(buffer.hasRemaining()){
+						fileChannel.write(buffer);
+					}
+					tracker.bytesRead(n);
+				}
+			}catch(IOException e){
+				abort(e);
+				return;
+			}
+			subscription.request(1);
+		}
+		
+		/** {@inheritDoc} */
+		@Override
+		public void onError(Throwable throwable){
+			abort(throwable);
+		}
+		
+		/** {@inheritDoc} */
+		@Override
+		public synchronized void onComplete(){
+			if(body.isDone()){
+				return;
+			}
+			try{
+				fileChannel.close();
+				tracker.finish();
+				DownloadUtil.moveIntoPlace(partPath, path);
+				body.complete(path);
+			}catch(IOException e){
+				abort(e);
+			}
+		}
+		
+		/**
+		 * Stops the download, closing and deleting the temporary file before failing it
+		 *
+		 * @param cause Why the download was stopped
+		 */
+		private synchronized void abort(Throwable cause){
+			if(body.isDone()){
+				return;
+			}
+			Flow.Subscription currentSubscription = subscription;
+			if(currentSubscription != null){
+				currentSubscription.cancel();
+			}
+			try{
+				if(fileChannel != null){
+					fileChannel.close();
+				}
+				Files.deleteIfExists(partPath);
+			}catch(IOException e){
+				logger.logWarning("Failed to clean up " + partPath, e);
+			}
+			body.completeExceptionally(cause);
+		}
+		
+		/**
+		 * Checks after the given delay whether any data was received in the last {@link #readTimeout}, failing the
+		 * download if not, or checking again later if so
+		 *
+		 * @param delayNanos How long to wait before checking
+		 */
+		private void scheduleReadTimeoutCheck(long delayNanos){
+			CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, executor).execute(() -> {
+				if(body.isDone()){
+					return;
+				}
+				long idle = System.nanoTime() - lastReceived;
+				if(idle >= readTimeout.toNanos()){
+					abort(new HttpTimeoutException("No data received for " + readTimeout.toMillis() + " ms"));
+				}else{
+					scheduleReadTimeoutCheck(readTimeout.toNanos() - idle);
+				}
+			});
+		}
+	}
+}
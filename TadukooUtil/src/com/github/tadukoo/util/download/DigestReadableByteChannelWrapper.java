@@ -0,0 +1,79 @@
+package com.github.tadukoo.util.download;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+
+/**
+ * Digest Readable Byte Channel Wrapper is a wrapper around {@link ReadableByteChannel} that will update a
+ * {@link MessageDigest} with every byte that's read through it, so that e.g. a checksum of a download can be
+ * found while downloading it, instead of reading the whole file again afterwards.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public class DigestReadableByteChannelWrapper implements ReadableByteChannel{
+	/** The underlying {@link ReadableByteChannel} to use for reading */
+	private final ReadableByteChannel byteChannel;
+	/** The {@link MessageDigest} to update with the bytes read */
+	private final MessageDigest digest;
+	
+	/**
+	 * Wraps the given {@link ReadableByteChannel} so we can update the given {@link MessageDigest} with the bytes
+	 * read through it
+	 *
+	 * @param byteChannel The underlying {@link ReadableByteChannel} to be wrapped
+	 * @param digest The {@link MessageDigest} to update with the bytes read
+	 */
+	public DigestReadableByteChannelWrapper(ReadableByteChannel byteChannel, MessageDigest digest){
+		this.byteChannel = byteChannel;
+		this.digest = digest;
+	}
+	
+	/**
+	 * @return The {@link MessageDigest} being updated with the bytes read
+	 */
+	public MessageDigest getDigest(){
+		return digest;
+	}
+	
+	/**
+	 * Closes the underlying {@link #byteChannel}
+	 *
+	 * @throws IOException If anything goes wrong in closing the byte channel
+	 */
+	@Override
+	public void close() throws IOException{
+		byteChannel.close();
+	}
+	
+	/**
+	 * @return Whether the underlying {@link #byteChannel} is open or not
+	 */
+	@Override
+	public boolean isOpen(){
+		return byteChannel.isOpen();
+	}
+	
+	/**
+	 * Reads bytes from the underlying {@link #byteChannel} into the given {@link ByteBuffer} and updates the
+	 * {@link #digest} with them
+	 *
+	 * @param bb The {@link ByteBuffer} to be read into
+	 * @return The number of bytes read, possibly 0 or -1 if we're at the end of stream
+	 * @throws IOException If anything goes wrong in reading bytes
+	 */
+	@Override
+	public int read(ByteBuffer bb) throws IOException{
+		int start = bb.position();
+		int n = byteChannel.read(bb);
+		if(n > 0){
+			// Digest just the bytes that were read, without changing the buffer's position
+			ByteBuffer readBytes = bb.duplicate();
+			readBytes.position(start).limit(start + n);
+			digest.update(readBytes);
+		}
+		return n;
+	}
+}
@@ -0,0 +1,413 @@
+package com.github.tadukoo.util.download;
+
+import com.github.tadukoo.util.ByteUtil;
+import com.github.tadukoo.util.logger.EasyLogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Download Cache is a local on-disk cache for downloads, so that files that are downloaded more than once (e.g.
+ * by different programs into their own folders) only need to be downloaded once. Files are cached by their
+ * address, along with their validator (ETag and/or Last-Modified), and when a cached file is asked for again
+ * it's revalidated with a conditional GET (If-None-Match/If-Modified-Since). If the server says it hasn't changed,
+ * the cached file is hard linked (or copied, if hard links aren't supported) to the filepath, without downloading
+ * it again. If the server can't be reached, the cached file is used as is.
+ * <br><br>
+ * The cache is kept under a size budget by evicting the least recently used files. Evicting a file doesn't
+ * affect any copies that were made from it, but since a hard link shares its contents with the cached file,
+ * files gotten from the cache should not be modified in place.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public class DownloadCache{
+	/** The suffix for the metadata file kept next to each cached file */
+	private static final String META_SUFFIX = ".meta";
+	/** The suffix for temporary files used while downloading into the cache */
+	private static final String TEMP_SUFFIX = ".tmp";
+	/** The metadata key for the address of the cached file */
+	private static final String META_ADDRESS = "address";
+	/** The metadata key for the ETag of the cached file */
+	private static final String META_ETAG = "etag";
+	/** The metadata key for the Last-Modified of the cached file */
+	private static final String META_LAST_MODIFIED = "lastModified";
+	/** The size of the buffer to use for downloading into the cache */
+	private static final int BUFFER_SIZE = 64 * 1024;
+	
+	/** The {@link EasyLogger logger} to use for logging */
+	private final EasyLogger logger;
+	/** The directory to keep the cached files in */
+	private final Path directory;
+	/** The maximum total size in bytes of the cached files */
+	private final long maxSize;
+	/** The sizes of the cached files by their key, in order from least to most recently used */
+	private final Map<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+	/** The total size in bytes of the cached files */
+	private long size = 0;
+	
+	/**
+	 * Creates a new {@link DownloadCache}, picking up any files already cached in the given directory
+	 *
+	 * @param logger The {@link EasyLogger logger} to use for logging
+	 * @param directory The directory to keep the cached files in
+	 * @param maxSize The maximum total size in bytes of the cached files
+	 * @throws IOException If anything goes wrong in reading the directory
+	 */
+	public DownloadCache(EasyLogger logger, String directory, long maxSize) throws IOException{
+		if(maxSize < 0){
+			throw new IllegalArgumentException("maxSize can't be negative, but was " + maxSize);
+		}
+		this.logger = logger;
+		this.directory = Paths.get(directory);
+		this.maxSize = maxSize;
+		Files.createDirectories(this.directory);
+		loadEntries();
+	}
+	
+	/**
+	 * @return The maximum total size in bytes of the cached files
+	 */
+	public long getMaxSize(){
+		return maxSize;
+	}
+	
+	/**
+	 * @return The total size in bytes of the cached files
+	 */
+	public synchronized long getSize(){
+		return size;
+	}
+	
+	/**
+	 * Checks if the file at the given address is in the cache (without checking if it's still up to date)
+	 *
+	 * @param address The URL of the file
+	 * @return Whether the file is in the cache or not
+	 */
+	public synchronized boolean contains(String address){
+		return entries.containsKey(getKey(address));
+	}
+	
+	/**
+	 * If the file already exists at the given filepath, nothing happens. Otherwise, the file at the given address
+	 * is gotten from the cache (if it's there and still up to date) or downloaded into the cache, and then linked
+	 * or copied to the filepath. Progress is sent to the given {@link ProgressRBCWrapperListener} while
+	 * downloading, and a single update is sent when the file comes from the cache
+	 *
+	 * @param listener The {@link ProgressRBCWrapperListener progress listener} to send updates to
+	 * (can be {@code null})
+	 * @param address The URL for the file to be downloaded
+	 * @param filepath The local filepath for the file
+	 * @throws IOException If anything goes wrong in downloading the file
+	 */
+	public void downloadFile(ProgressRBCWrapperListener listener, String address, String filepath) throws IOException{
+		// Check if file already exists so we don't need to download it
+		Path path = Paths.get(filepath);
+		if(Files.exists(path)){
+			return;
+		}
+		String key = getKey(address);
+		Path entryPath = directory.resolve(key), metaPath = directory.resolve(key + META_SUFFIX);
+		Properties meta = contains(address)?readMeta(metaPath):null;
+		
+		// Ask for the file, only getting it if it changed since it was cached
+		HttpURLConnection.setFollowRedirects(true);
+		HttpURLConnection connection = null;
+		int responseCode;
+		try{
+			connection = (HttpURLConnection) new URL(address).openConnection();
+			connection.setUseCaches(false);
+			if(meta != null){
+				if(meta.getProperty(META_ETAG) != null){
+					connection.setRequestProperty("If-None-Match", meta.getProperty(META_ETAG));
+				}
+				if(meta.getProperty(META_LAST_MODIFIED) != null){
+					connection.setRequestProperty("If-Modified-Since", meta.getProperty(META_LAST_MODIFIED));
+				}
+			}
+			responseCode = connection.getResponseCode();
+		}catch(IOException e){
+			if(meta == null){
+				throw e;
+			}
+			// Can't revalidate, so use what we have
+			logger.logWarning("Failed to revalidate " + address + ", using the cached file", e);
+			connection = null;
+			responseCode = HttpURLConnection.HTTP_NOT_MODIFIED;
+		}
+		
+		if(meta != null && responseCode == HttpURLConnection.HTTP_NOT_MODIFIED){
+			if(connection != null){
+				connection.getInputStream().close();
+			}
+			if(serve(key, entryPath, metaPath, path, listener)){
+				return;
+			}
+			
+			// The cached file was evicted while we were checking it, so download it again
+			connection = (HttpURLConnection) new URL(address).openConnection();
+			connection.setUseCaches(false);
+			responseCode = connection.getResponseCode();
+		}
+		if(responseCode >= HttpURLConnection.HTTP_BAD_REQUEST){
+			connection.disconnect();
+			throw new IOException("Failed to download " + address + ": got response code " + responseCode);
+		}
+		
+		// Download the file into the cache
+		Path tempPath = Files.createTempFile(directory, key, TEMP_SUFFIX);
+		try{
+			long fileSize = connection.getContentLengthLong();
+			try(ReadableByteChannel body = new ProgressReadableByteChannelWrapper(
+					Channels.newChannel(connection.getInputStream()), listener, fileSize, ProgressThrottle.DEFAULT);
+				FileChannel fileChannel = FileChannel.open(tempPath, StandardOpenOption.WRITE)){
+				ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+				while(body.read(buffer) != -1){
+					buffer.flip();
+					while(buffer.hasRemaining()){
+						fileChannel.write(buffer);
+					}
+					buffer.clear();
+				}
+			}
+			Properties newMeta = new Properties();
+			newMeta.setProperty(META_ADDRESS, address);
+			if(connection.getHeaderField("ETag") != null){
+				newMeta.setProperty(META_ETAG, connection.getHeaderField("ETag"));
+			}
+			if(connection.getHeaderField("Last-Modified") != null){
+				newMeta.setProperty(META_LAST_MODIFIED, connection.getHeaderField("Last-Modified"));
+			}
+			
+			// Put the file in the cache and then give it out
+			synchronized(this){
+				writeMeta(metaPath, newMeta);
+				DownloadUtil.moveIntoPlace(tempPath, entryPath);
+				long entrySize = Files.size(entryPath);
+				Long oldSize = entries.put(key, entrySize);
+				size += entrySize - (oldSize == null?0:oldSize);
+				linkOrCopy(entryPath, path);
+				evict();
+			}
+		}finally{
+			Files.deleteIfExists(tempPath);
+		}
+	}
+	
+	/**
+	 * Removes all the files from the cache
+	 *
+	 * @throws IOException If anything goes wrong in deleting the files
+	 */
+	public synchronized void clear() throws IOException{
+		for(String key: new ArrayList<>(entries.keySet())){
+			remove(key);
+		}
+	}
+	
+	/**
+	 * Gives out a cached file, sending a single progress update for it
+	 *
+	 * @param key The key of the cached file
+	 * @param entryPath The {@link Path} to the cached file
+	 * @param metaPath The {@link Path} to the metadata of the cached file
+	 * @param path The {@link Path} to give the file out to
+	 * @param listener The {@link ProgressRBCWrapperListener progress listener} to send the update to
+	 * (can be {@code null})
+	 * @return Whether the file was given out or not (it won't be if it was evicted)
+	 * @throws IOException If anything goes wrong in linking or copying the file
+	 */
+	private boolean serve(
+			String key, Path entryPath, Path metaPath, Path path,
+			ProgressRBCWrapperListener listener) throws IOException{
+		long fileSize;
+		synchronized(this){
+			Long entrySize = entries.get(key);
+			if(entrySize == null){
+				return false;
+			}
+			fileSize = entrySize;
+			// Keep track of when it was last used, in case the cache is reloaded
+			Files.setLastModifiedTime(metaPath, FileTime.fromMillis(System.currentTimeMillis()));
+			linkOrCopy(entryPath, path);
+		}
+		if(listener != null){
+			listener.progressUpdate(100.0, fileSize, fileSize);
+		}
+		return true;
+	}
+	
+	/**
+	 * Makes a hard link to the given cached file, or copies it if a hard link can't be made
+	 *
+	 * @param entryPath The {@link Path} to the cached file
+	 * @param path The {@link Path} to link or copy the file to
+	 * @throws IOException If anything goes wrong in copying the file
+	 */
+	private void linkOrCopy(Path entryPath, Path path) throws IOException{
+		try{
+			Files.createLink(path, entryPath);
+		}catch(IOException | UnsupportedOperationException e){
+			Files.copy(entryPath, path, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+	
+	/**
+	 * Removes the least recently used files from the cache until it's under the {@link #maxSize}. Must be called
+	 * while synchronized on this cache
+	 *
+	 * @throws IOException If anything goes wrong in deleting the files
+	 */
+	private void evict() throws IOException{
+		Iterator<Map.Entry<String, Long>> leastRecentlyUsed = entries.entrySet().iterator();
+		while(size > maxSize && leastRecentlyUsed.hasNext()){
+			Map.Entry<String, Long> entry = leastRecentlyUsed.next();
+			size -= entry.getValue();
+			leastRecentlyUsed.remove();
+			deleteEntry(entry.getKey());
+		}
+	}
+	
+	/**
+	 * Removes the file with the given key from the cache. Must be called while synchronized on this cache
+	 *
+	 * @param key The key of the file to remove
+	 * @throws IOException If anything goes wrong in deleting the file
+	 */
+	private void remove(String key) throws IOException{
+		Long entrySize = entries.remove(key);
+		if(entrySize != null){
+			size -= entrySize;
+			deleteEntry(key);
+		}
+	}
+	
+	/**
+	 * Deletes the cached file with the given key and its metadata
+	 *
+	 * @param key The key of the file to delete
+	 * @throws IOException If anything goes wrong in deleting the file
+	 */
+	private void deleteEntry(String key) throws IOException{
+		Files.deleteIfExists(directory.resolve(key + META_SUFFIX));
+		Files.deleteIfExists(directory.resolve(key));
+	}
+	
+	/**
+	 * Loads the files already in the cache {@link #directory}, ordering them by when they were last used, and
+	 * cleans up anything left over from downloads that didn't finish
+	 *
+	 * @throws IOException If anything goes wrong in reading the directory
+	 */
+	private void loadEntries() throws IOException{
+		List<Path> metaPaths = new ArrayList<>();
+		try(Stream<Path> files = Files.list(directory)){
+			for(Path file: (Iterable<Path>) files::iterator){
+				String name = file.getFileName().toString();
+				if(name.endsWith(TEMP_SUFFIX)){
+					Files.deleteIfExists(file);
+				}else if(name.endsWith(META_SUFFIX)){
+					metaPaths.add(file);
+				}
+			}
+		}
+		metaPaths.sort(Comparator.comparing(DownloadCache::getLastModifiedTime));
+		for(Path metaPath: metaPaths){
+			String metaName = metaPath.getFileName().toString();
+			String key = metaName.substring(0, metaName.length() - META_SUFFIX.length());
+			File entryFile = directory.resolve(key).toFile();
+			if(entryFile.exists()){
+				entries.put(key, entryFile.length());
+				size += entryFile.length();
+			}else{
+				Files.deleteIfExists(metaPath);
+			}
+		}
+		evict();
+	}
+	
+	/**
+	 * Gets when the given file was last modified, for sorting the cached files by when they were last used
+	 *
+	 * @param path The {@link Path} to the file
+	 * @return When the file was last modified (or the earliest possible time if it can't be found)
+	 */
+	private static FileTime getLastModifiedTime(Path path){
+		try{
+			return Files.getLastModifiedTime(path);
+		}catch(IOException e){
+			return FileTime.fromMillis(0);
+		}
+	}
+	
+	/**
+	 * Finds the key to cache the file at the given address under
+	 *
+	 * @param address The URL of the file
+	 * @return The key for the file (the SHA-256 hash of the address, in hex)
+	 */
+	private static String getKey(String address){
+		try{
+			return ByteUtil.toHex(MessageDigest.getInstance("SHA-256")
+					.digest(address.getBytes(StandardCharsets.UTF_8)));
+		}catch(NoSuchAlgorithmException e){
+			// Every Java platform has to support SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	/**
+	 * Reads the metadata of a cached file
+	 *
+	 * @param metaPath The {@link Path} to the metadata
+	 * @return The metadata, or {@code null} if it couldn't be read
+	 */
+	private static Properties readMeta(Path metaPath){
+		Properties meta = new Properties();
+		try(Reader reader = Files.newBufferedReader(metaPath)){
+			meta.load(reader);
+			return meta;
+		}catch(IOException e){
+			return null;
+		}
+	}
+	
+	/**
+	 * Writes the metadata of a cached file
+	 *
+	 * @param metaPath The {@link Path} to write the metadata to
+	 * @param meta The metadata to write
+	 * @throws IOException If anything goes wrong in writing the metadata
+	 */
+	private static void writeMeta(Path metaPath, Properties meta) throws IOException{
+		try(Writer writer = Files.newBufferedWriter(metaPath)){
+			meta.store(writer, "Cached download of " + meta.getProperty(META_ADDRESS));
+		}
+	}
+}
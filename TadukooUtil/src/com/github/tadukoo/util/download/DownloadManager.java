@@ -0,0 +1,282 @@
+package com.github.tadukoo.util.download;
+
+import com.github.tadukoo.util.functional.function.Function;
+import com.github.tadukoo.util.logger.EasyLogger;
+import com.github.tadukoo.util.tuple.Pair;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Download Manager is used to download a whole batch of files at once, running a bounded number of downloads at
+ * the same time overall and for each host (so that a single server isn't hammered with connections). Each file is
+ * downloaded with {@link DownloadUtil#downloadFile}, so interrupted downloads can be resumed by running the batch
+ * again, and connections to the same host are reused through HTTP keep-alive.
+ * <br><br>
+ * If the same address shows up more than once in a batch, it's only downloaded once, and then copied to the other
+ * filepaths. Progress can be tracked for each file and for the batch as a whole with
+ * {@link ProgressRBCWrapperListener ProgressRBCWrapperListeners}.
+ * <br><br>
+ * <b>Note:</b> {@link java.net.HttpURLConnection} only keeps up to {@code http.maxConnections} (5 by default) idle
+ * connections per host alive, so a per-host limit above that won't get any more connection reuse.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public class DownloadManager{
+	
+	/** The {@link EasyLogger logger} to use for logging */
+	private final EasyLogger logger;
+	/** The maximum number of downloads to run at the same time */
+	private final int maxConcurrent;
+	/** The maximum number of downloads to run at the same time from a single host */
+	private final int maxPerHost;
+	
+	/**
+	 * Creates a new {@link DownloadManager}
+	 *
+	 * @param logger The {@link EasyLogger logger} to use for logging
+	 * @param maxConcurrent The maximum number of downloads to run at the same time
+	 * @param maxPerHost The maximum number of downloads to run at the same time from a single host
+	 */
+	public DownloadManager(EasyLogger logger, int maxConcurrent, int maxPerHost){
+		if(maxConcurrent < 1){
+			throw new IllegalArgumentException("maxConcurrent must be at least 1, but was " + maxConcurrent);
+		}
+		if(maxPerHost < 1){
+			throw new IllegalArgumentException("maxPerHost must be at least 1, but was " + maxPerHost);
+		}
+		this.logger = logger;
+		this.maxConcurrent = maxConcurrent;
+		this.maxPerHost = maxPerHost;
+	}
+	
+	/**
+	 * Downloads all the given files, without tracking progress
+	 *
+	 * @param jobs The files to download, as pairs of the address to download from and the local filepath to
+	 * download to
+	 * @return Any failures, as a map of the filepath to the exception it failed with (empty if nothing failed)
+	 * @throws InterruptedException If the calling thread is interrupted while waiting on the downloads
+	 */
+	public Map<String, IOException> downloadAll(Collection<Pair<String, String>> jobs) throws InterruptedException{
+		return downloadAll(jobs, null, null);
+	}
+	
+	/**
+	 * Downloads all the given files. The progress of the whole batch is sent to the given batch
+	 * {@link ProgressRBCWrapperListener}, where the expected size is the total size of the files that have been
+	 * started so far (so it grows as more downloads start). The progress of each file can be tracked by giving
+	 * a function that makes a {@link ProgressRBCWrapperListener} for each file.
+	 * <br><br>
+	 * A failed download doesn't stop the rest of the batch; failures are returned once everything is done
+	 *
+	 * @param jobs The files to download, as pairs of the address to download from and the local filepath to
+	 * download to
+	 * @param batchListener The {@link ProgressRBCWrapperListener} to send the progress of the whole batch to
+	 * (can be {@code null})
+	 * @param fileListeners Makes the {@link ProgressRBCWrapperListener} to send the progress of each file to,
+	 * given the pair of its address and filepath (can be {@code null}, and can return {@code null})
+	 * @return Any failures, as a map of the filepath to the exception it failed with (empty if nothing failed)
+	 * @throws InterruptedException If the calling thread is interrupted while waiting on the downloads
+	 */
+	public Map<String, IOException> downloadAll(
+			Collection<Pair<String, String>> jobs, ProgressRBCWrapperListener batchListener,
+			Function<Pair<String, String>, ProgressRBCWrapperListener> fileListeners) throws InterruptedException{
+		Map<String, IOException> failures = new ConcurrentHashMap<>();
+		
+		// Group the jobs by address, so each address is only downloaded once
+		Map<String, List<Pair<String, String>>> jobsByAddress = new LinkedHashMap<>();
+		for(Pair<String, String> job: jobs){
+			jobsByAddress.computeIfAbsent(job.getLeft(), address -> new ArrayList<>()).add(job);
+		}
+		List<List<Pair<String, String>>> pending = new ArrayList<>(jobsByAddress.values());
+		
+		// Tracks the progress of the whole batch
+		BatchProgress batchProgress = new BatchProgress(batchListener, pending.size());
+		
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(maxConcurrent, Math.max(1, pending.size())));
+		Object lock = new Object();
+		Map<String, Integer> runningPerHost = new HashMap<>();
+		int[] running = {0};
+		try{
+			synchronized(lock){
+				while(!pending.isEmpty() || running[0] > 0){
+					// Start as many downloads as we're allowed to
+					Iterator<List<Pair<String, String>>> iterator = pending.iterator();
+					int index = batchProgress.numStarted();
+					while(running[0] < maxConcurrent && iterator.hasNext()){
+						List<Pair<String, String>> addressJobs = iterator.next();
+						String host = getHost(addressJobs.get(0).getLeft());
+						if(runningPerHost.getOrDefault(host, 0) >= maxPerHost){
+							continue;
+						}
+						iterator.remove();
+						running[0]++;
+						runningPerHost.merge(host, 1, Integer::sum);
+						int jobIndex = index++;
+						batchProgress.started();
+						executor.execute(() -> {
+							try{
+								download(addressJobs, batchProgress, jobIndex, fileListeners, failures);
+							}finally{
+								synchronized(lock){
+									running[0]--;
+									runningPerHost.merge(host, -1, Integer::sum);
+									lock.notifyAll();
+								}
+							}
+						});
+					}
+					
+					// Wait for a download to finish
+					lock.wait();
+				}
+			}
+		}finally{
+			executor.shutdownNow();
+		}
+		return failures;
+	}
+	
+	/**
+	 * Downloads the file at a single address, then copies it to any other filepaths it's wanted at
+	 *
+	 * @param addressJobs The jobs for the address, as pairs of the address and the local filepath
+	 * @param batchProgress Tracks the progress of the whole batch
+	 * @param jobIndex The index of the address in the {@link BatchProgress}
+	 * @param fileListeners Makes the {@link ProgressRBCWrapperListener} for each file (can be {@code null})
+	 * @param failures Where to put any failures, as the filepath to the exception it failed with
+	 */
+	private void download(
+			List<Pair<String, String>> addressJobs, BatchProgress batchProgress, int jobIndex,
+			Function<Pair<String, String>, ProgressRBCWrapperListener> fileListeners,
+			Map<String, IOException> failures){
+		Pair<String, String> firstJob = addressJobs.get(0);
+		String address = firstJob.getLeft(), filepath = firstJob.getRight();
+		ProgressRBCWrapperListener fileListener = fileListeners == null?null:fileListeners.apply(firstJob);
+		try{
+			DownloadUtil.downloadFile(logger, (progress, readSoFar, expectedSize) -> {
+				if(fileListener != null){
+					fileListener.progressUpdate(progress, readSoFar, expectedSize);
+				}
+				batchProgress.update(jobIndex, readSoFar, expectedSize);
+			}, address, filepath);
+		}catch(IOException | RuntimeException e){
+			logger.logWarning("Failed to download " + address + " to " + filepath, e);
+			IOException failure = e instanceof IOException ioException?ioException:new IOException(e);
+			for(Pair<String, String> job: addressJobs){
+				failures.put(job.getRight(), failure);
+			}
+			return;
+		}
+		
+		// Copy the file to anywhere else it's wanted
+		for(int i = 1; i < addressJobs.size(); i++){
+			String otherFilepath = addressJobs.get(i).getRight();
+			if(otherFilepath.equals(filepath) || new File(otherFilepath).exists()){
+				continue;
+			}
+			try{
+				Files.copy(Paths.get(filepath), Paths.get(otherFilepath), StandardCopyOption.REPLACE_EXISTING);
+			}catch(IOException e){
+				logger.logWarning("Failed to copy " + filepath + " to " + otherFilepath, e);
+				failures.put(otherFilepath, e);
+			}
+		}
+	}
+	
+	/**
+	 * Finds the host for the given address, to limit the downloads per host
+	 *
+	 * @param address The address to find the host of
+	 * @return The host (and port, if there is one) of the address, or the address itself if it's not a valid URL
+	 */
+	private static String getHost(String address){
+		try{
+			return new URL(address).getAuthority();
+		}catch(MalformedURLException e){
+			// It'll fail when downloaded, so just give it its own "host"
+			return address;
+		}
+	}
+	
+	/**
+	 * Batch Progress keeps track of the progress of each download in a batch, to send the progress of the whole
+	 * batch to a {@link ProgressRBCWrapperListener}
+	 */
+	private static class BatchProgress{
+		/** The {@link ProgressRBCWrapperListener} to send the progress of the whole batch to */
+		private final ProgressRBCWrapperListener listener;
+		/** The number of bytes read so far for each download */
+		private final long[] readSoFar;
+		/** The expected size of each download (0 if it's unknown so far) */
+		private final long[] expectedSizes;
+		/** The number of downloads that have been started */
+		private int numStarted = 0;
+		
+		/**
+		 * Creates a new {@link BatchProgress}
+		 *
+		 * @param listener The {@link ProgressRBCWrapperListener} to send the progress of the whole batch to
+		 * @param numDownloads The number of downloads in the batch
+		 */
+		private BatchProgress(ProgressRBCWrapperListener listener, int numDownloads){
+			this.listener = listener;
+			readSoFar = new long[numDownloads];
+			expectedSizes = new long[numDownloads];
+		}
+		
+		/**
+		 * @return The number of downloads that have been started
+		 */
+		private synchronized int numStarted(){
+			return numStarted;
+		}
+		
+		/**
+		 * Records that another download was started
+		 */
+		private synchronized void started(){
+			numStarted++;
+		}
+		
+		/**
+		 * Updates the progress of a single download, and sends the progress of the whole batch to the
+		 * {@link #listener}
+		 *
+		 * @param index The index of the download
+		 * @param read The number of bytes read so far for the download
+		 * @param expectedSize The expected size of the download (or -1 if it's unknown)
+		 */
+		private synchronized void update(int index, long read, long expectedSize){
+			if(listener == null){
+				return;
+			}
+			readSoFar[index] = read;
+			expectedSizes[index] = Math.max(0, expectedSize);
+			long totalRead = 0, totalExpected = 0;
+			for(int i = 0; i < readSoFar.length; i++){
+				totalRead += readSoFar[i];
+				totalExpected += expectedSizes[i];
+			}
+			listener.progressUpdate(totalExpected > 0?(double) totalRead / (double) totalExpected * 100.0:-1.0,
+					totalRead, totalExpected);
+		}
+	}
+}
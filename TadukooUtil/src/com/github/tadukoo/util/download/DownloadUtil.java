@@ -1,24 +1,64 @@
 package com.github.tadukoo.util.download;
 
+import com.github.tadukoo.util.ByteUtil;
 import com.github.tadukoo.util.logger.EasyLogger;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Download Util contains utilities used for downloading files
  *
  * @author Logan Ferree
- * @version Beta v.0.5.2
+ * @version Beta v.0.7
+ * @since Beta v.0.5.2
  */
 public class DownloadUtil{
 	
+	/** The smallest segment (in bytes) to split a file into for a segmented download */
+	private static final long MIN_SEGMENT_SIZE = 64 * 1024;
+	/** The size (in bytes) of the buffer used to copy each segment of a segmented download */
+	private static final int SEGMENT_BUFFER_SIZE = 64 * 1024;
+	
+	/** The suffix added to the filepath for the temporary file a download is written to */
+	public static final String PART_SUFFIX = ".part";
+	/** The suffix added to the temporary file's path for the sidecar file that tracks a partial download */
+	public static final String META_SUFFIX = ".meta";
+	/** The key in the sidecar file for the URL being downloaded */
+	private static final String META_ADDRESS = "address";
+	/** The key in the sidecar file for the expected size of the file */
+	private static final String META_LENGTH = "length";
+	/** The key in the sidecar file for the ETag or Last-Modified value of the file */
+	private static final String META_VALIDATOR = "validator";
+	
+	/** The response code for a range request that can't be satisfied (not in {@link HttpURLConnection}) */
+	private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+	
 	/** Not allowed to instantiate DownloadUtil */
 	private DownloadUtil(){ }
 	
@@ -26,36 +66,64 @@ public class DownloadUtil{
 	 * Attempts to grab the file size for the file at the given {@link URL}. If it fails, a warning
 	 * will be logged, but it will not error out and return -1
 	 *
-	 * @param logger The {@link EasyLogger logger} to use for logging if we fail
+	 * @param logger The {@link EasyLogger logger} to use for logging if we fail (can be {@code null})
 	 * @param url The {@link URL} the file is located at
 	 * @return The size of the file in bytes, or -1 if we fail to retrieve it
 	 */
-	public static int getFileSize(EasyLogger logger, URL url){
-		// Set file size default to -1 (so we can at least return something if it fails)
-		int fileLength = -1;
-		
+	public static long getFileSize(EasyLogger logger, URL url){
 		try{
-			// Follow redirects for grabbing file size (set in case something else set it to false)
-			HttpURLConnection.setFollowRedirects(true);
-			
-			// Setup a connection to get the HEAD for the file
-			HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-			connection.setRequestMethod("HEAD");
-			
-			// Grab the file size from the connection
-			fileLength = connection.getContentLength();
-		}catch(Exception e){
+			return getFileInfo(url).getSize();
+		}catch(IOException | RuntimeException e){
 			// Log warning that we couldn't get file size + notify user
-			logger.logWarning("Failed to get file size at url: " + url.getPath(), e);
+			if(logger != null){
+				logger.logWarning("Failed to get file size at url: " + url.getPath(), e);
+			}
+			return -1;
 		}
+	}
+	
+	/**
+	 * Grabs the info for the file at the given {@link URL} (its size, validators, and whether it supports range
+	 * requests) with a HEAD request. To avoid making the same request over and over, see {@link RemoteFileInfoCache}
+	 *
+	 * @param url The {@link URL} the file is located at
+	 * @return The {@link RemoteFileInfo} for the file
+	 * @throws IOException If the {@link URL} isn't an HTTP one, anything goes wrong in making the request, or the
+	 * server responds with an error
+	 */
+	public static RemoteFileInfo getFileInfo(URL url) throws IOException{
+		// Follow redirects for grabbing file info (set in case something else set it to false)
+		HttpURLConnection.setFollowRedirects(true);
 		
-		return fileLength;
+		// Setup a connection to get the HEAD for the file
+		URLConnection urlConnection = url.openConnection();
+		if(!(urlConnection instanceof HttpURLConnection connection)){
+			throw new IOException("Can't get file info for " + url + ": " + url.getProtocol() + " isn't supported");
+		}
+		connection.setRequestMethod("HEAD");
+		try{
+			int responseCode = connection.getResponseCode();
+			if(responseCode >= HttpURLConnection.HTTP_BAD_REQUEST){
+				throw new IOException("Failed to get file info at " + url + ": got response code " + responseCode);
+			}
+			return new RemoteFileInfo(connection.getContentLengthLong(), connection.getHeaderField("ETag"),
+					connection.getHeaderField("Last-Modified"),
+					"bytes".equalsIgnoreCase(connection.getHeaderField("Accept-Ranges")));
+		}finally{
+			connection.disconnect();
+		}
 	}
 	
 	/**
 	 * If the file already exists at the given filepath, nothing happens. Otherwise, we download it from the
 	 * given address, and progress will be updated by sending this as a {@link ProgressRBCWrapperListener} to
-	 * the {@link ProgressReadableByteChannelWrapper} we use
+	 * the {@link ProgressReadableByteChannelWrapper} we use.
+	 * <br><br>
+	 * An interrupted download is picked up where it left off by the next call; see
+	 * {@link #downloadFile(EasyLogger, ProgressRBCWrapperListener, ProgressThrottle, String, String, String, String)}
+	 * for how partial downloads are kept.
+	 * <br><br>
+	 * Progress updates are throttled with the {@link ProgressThrottle#DEFAULT default ProgressThrottle}
 	 *
 	 * @param logger The {@link EasyLogger logger} to use for logging
 	 * @param listener The {@link ProgressRBCWrapperListener progress listener} to send updates to
@@ -65,27 +133,550 @@ public class DownloadUtil{
 	 */
 	public static void downloadFile(
 			EasyLogger logger, ProgressRBCWrapperListener listener, String address, String filepath) throws IOException{
+		downloadFile(logger, listener, ProgressThrottle.DEFAULT, address, filepath);
+	}
+	
+	/**
+	 * If the file already exists at the given filepath, nothing happens. Otherwise, we download it from the
+	 * given address, and progress will be updated by sending this as a {@link ProgressRBCWrapperListener} to
+	 * the {@link ProgressReadableByteChannelWrapper} we use.
+	 * <br><br>
+	 * An interrupted download is picked up where it left off by the next call; see
+	 * {@link #downloadFile(EasyLogger, ProgressRBCWrapperListener, ProgressThrottle, String, String, String, String)}
+	 * for how partial downloads are kept.
+	 * <br><br>
+	 * Progress updates are only sent as often as the given {@link ProgressThrottle} allows
+	 *
+	 * @param logger The {@link EasyLogger logger} to use for logging
+	 * @param listener The {@link ProgressRBCWrapperListener progress listener} to send updates to
+	 * @param throttle The {@link ProgressThrottle} to limit how often progress updates are sent
+	 * @param address The URL for the file to be downloaded
+	 * @param filepath The local filepath for the file
+	 * @throws IOException If anything goes wrong in downloading the file
+	 */
+	public static void downloadFile(
+			EasyLogger logger, ProgressRBCWrapperListener listener, ProgressThrottle throttle,
+			String address, String filepath) throws IOException{
+		downloadFile(logger, listener, throttle, address, filepath, null, null);
+	}
+	
+	/**
+	 * If the file already exists at the given filepath, nothing happens. Otherwise, we download it from the
+	 * given address, and progress will be updated by sending this as a {@link ProgressRBCWrapperListener} to
+	 * the {@link ProgressReadableByteChannelWrapper} we use.
+	 * <br><br>
+	 * An interrupted download is picked up where it left off by the next call; see
+	 * {@link #downloadFile(EasyLogger, ProgressRBCWrapperListener, ProgressThrottle, String, String, String, String)}
+	 * for how partial downloads are kept.
+	 * <br><br>
+	 * Progress updates are throttled with the {@link ProgressThrottle#DEFAULT default ProgressThrottle}.
+	 * <br><br>
+	 * The file is checked against the given expected hash as it's downloaded; see
+	 * {@link #downloadFile(EasyLogger, ProgressRBCWrapperListener, ProgressThrottle, String, String, String, String)}
+	 * for what happens if it doesn't match
+	 *
+	 * @param logger The {@link EasyLogger logger} to use for logging
+	 * @param listener The {@link ProgressRBCWrapperListener progress listener} to send updates to
+	 * @param address The URL for the file to be downloaded
+	 * @param filepath The local filepath for the file
+	 * @param algorithm The {@link MessageDigest} algorithm to find the hash with (e.g. SHA-256)
+	 * @param expectedHash The expected hash of the file, in hex (or {@code null} to not check it)
+	 * @throws IOException If anything goes wrong in downloading the file, or the hash doesn't match
+	 */
+	public static void downloadFile(
+			EasyLogger logger, ProgressRBCWrapperListener listener, String address, String filepath,
+			String algorithm, String expectedHash) throws IOException{
+		downloadFile(logger, listener, ProgressThrottle.DEFAULT, address, filepath, algorithm, expectedHash);
+	}
+	
+	/**
+	 * If the file already exists at the given filepath, nothing happens. Otherwise, we download it from the
+	 * given address, and progress will be updated by sending this as a {@link ProgressRBCWrapperListener} to
+	 * the {@link ProgressReadableByteChannelWrapper} we use.
+	 * <br><br>
+	 * The download is written to a temporary ({@code .part}) file next to the filepath, which is only moved to
+	 * the filepath once it's complete, so a file at the filepath is never a partial download. Alongside the
+	 * temporary file, a sidecar ({@code .part.meta}) file keeps track of the expected size and the validator
+	 * (ETag or Last-Modified) of the file. If a download is interrupted, the next call picks up from where it
+	 * left off with a range request, as long as the file on the server hasn't changed (otherwise it starts over).
+	 * Addresses that aren't HTTP (e.g. {@code file:} or {@code jar:} URLs) are always copied from the start.
+	 * <br><br>
+	 * Progress updates are only sent as often as the given {@link ProgressThrottle} allows.
+	 * <br><br>
+	 * The file is checked against the given expected hash (found with the given {@link MessageDigest} algorithm,
+	 * e.g. SHA-256) as it's downloaded, so the file doesn't need to be read again afterwards. If it doesn't match,
+	 * the download is deleted and an {@link IOException} is thrown. A file that already exists at the filepath
+	 * isn't checked
+	 *
+	 * @param logger The {@link EasyLogger logger} to use for logging
+	 * @param listener The {@link ProgressRBCWrapperListener progress listener} to send updates to
+	 * @param throttle The {@link ProgressThrottle} to limit how often progress updates are sent
+	 * @param address The URL for the file to be downloaded
+	 * @param filepath The local filepath for the file
+	 * @param algorithm The {@link MessageDigest} algorithm to find the hash with (e.g. SHA-256)
+	 * @param expectedHash The expected hash of the file, in hex (or {@code null} to not check it)
+	 * @throws IOException If anything goes wrong in downloading the file, or the hash doesn't match
+	 */
+	public static void downloadFile(
+			EasyLogger logger, ProgressRBCWrapperListener listener, ProgressThrottle throttle,
+			String address, String filepath, String algorithm, String expectedHash) throws IOException{
 		// Check if file already exists so we don't need to download it
 		File file = new File(filepath);
 		if(file.exists()){
 			return;
 		}
+		MessageDigest digest = expectedHash == null?null:getMessageDigest(algorithm);
+		Path partPath = Paths.get(filepath + PART_SUFFIX), metaPath = Paths.get(filepath + PART_SUFFIX + META_SUFFIX);
 		
-		// Setup the download, including setting this as the listener for progress updates
+		// Check if we can pick up from a previous partial download (using what was saved about it, so the file
+		// doesn't need to be looked up separately before downloading)
+		long resumeFrom = 0;
+		Properties meta = readPartMeta(metaPath);
+		String savedValidator = meta == null?null:meta.getProperty(META_VALIDATOR);
+		long savedLength = meta == null?-1:parseLength(meta.getProperty(META_LENGTH));
+		if(savedValidator != null && savedLength > 0 && Files.exists(partPath) &&
+				address.equals(meta.getProperty(META_ADDRESS))){
+			// Always ask for at least the last byte, so the server can tell us if the file changed
+			resumeFrom = Math.min(Files.size(partPath), savedLength - 1);
+		}
+		
+		// Request the file (or the rest of it)
 		URL url = new URL(address);
 		// Follow redirects for the file (set in case something else sets it to false)
 		HttpURLConnection.setFollowRedirects(true);
-		ReadableByteChannel fileDownload = new ProgressReadableByteChannelWrapper(
-				Channels.newChannel(url.openStream()), listener, getFileSize(logger, url));
+		URLConnection urlConnection = url.openConnection();
+		long fileSize;
+		if(urlConnection instanceof HttpURLConnection connection){
+			if(resumeFrom > 0){
+				// Only use the range if the file hasn't changed since the partial download
+				connection.setRequestProperty("Range", "bytes=" + resumeFrom + "-");
+				connection.setRequestProperty("If-Range", savedValidator);
+			}
+			int responseCode = connection.getResponseCode();
+			if(resumeFrom > 0 && (responseCode == HTTP_RANGE_NOT_SATISFIABLE ||
+					(responseCode == HttpURLConnection.HTTP_PARTIAL &&
+							!isRangeFrom(connection, resumeFrom, savedLength)))){
+				// The file got shorter since the partial download, or the server sent a different range than we
+				// asked for (which would corrupt the partial download), so ask for the whole thing
+				connection.disconnect();
+				resumeFrom = 0;
+				connection = (HttpURLConnection) url.openConnection();
+				responseCode = connection.getResponseCode();
+			}
+			if(responseCode >= HttpURLConnection.HTTP_BAD_REQUEST){
+				connection.disconnect();
+				throw new IOException("Failed to download " + address + ": got response code " + responseCode);
+			}
+			
+			// Grab the expected size and validator of the file from the response
+			if(resumeFrom > 0 && responseCode == HttpURLConnection.HTTP_PARTIAL){
+				fileSize = savedLength;
+			}else{
+				// The server sent the whole file, so start over
+				resumeFrom = 0;
+				fileSize = connection.getContentLengthLong();
+				String validator = connection.getHeaderField("ETag");
+				if(validator == null){
+					validator = connection.getHeaderField("Last-Modified");
+				}
+				writePartMeta(metaPath, address, fileSize, validator);
+			}
+			urlConnection = connection;
+		}else{
+			// Not an HTTP address (e.g. a file: or jar: URL), so there's no way to resume: copy the whole thing
+			resumeFrom = 0;
+			fileSize = urlConnection.getContentLengthLong();
+			Files.deleteIfExists(metaPath);
+		}
+		if(digest != null && resumeFrom > 0){
+			digestPart(digest, partPath, resumeFrom);
+		}
 		
-		// Perform the file transfer from the URL to our local filepath
-		FileOutputStream fileOutputStream = new FileOutputStream(filepath);
-		FileChannel fileChannel = fileOutputStream.getChannel();
-		fileChannel.transferFrom(fileDownload, 0, Long.MAX_VALUE);
+		// Perform the file transfer from the URL to the temporary file
+		try(FileChannel fileChannel = FileChannel.open(partPath, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE)){
+			fileChannel.truncate(resumeFrom);
+			writeSegment(urlConnection, fileChannel, resumeFrom, fileSize > 0?fileSize:Long.MAX_VALUE,
+					resumedListener(listener, resumeFrom, fileSize), throttle, digest);
+		}
+		
+		// Check the hash of the download
+		if(digest != null){
+			String actualHash = ByteUtil.toHex(digest.digest());
+			if(!actualHash.equalsIgnoreCase(expectedHash)){
+				Files.deleteIfExists(partPath);
+				Files.deleteIfExists(metaPath);
+				throw new IOException("Hash of " + address + " didn't match: expected " + expectedHash + ", but got " +
+						actualHash);
+			}
+		}
 		
-		// Close the file channels and output stream now that we're done
-		fileDownload.close();
-		fileChannel.close();
-		fileOutputStream.close();
+		// Move the finished download into place
+		moveIntoPlace(partPath, file.toPath());
+		Files.deleteIfExists(metaPath);
+	}
+	
+	/**
+	 * If the file already exists at the given filepath, nothing happens. Otherwise, we download it from the
+	 * given address in (up to) the given number of segments at the same time, using HTTP range requests, which
+	 * can be a lot faster than {@link #downloadFile} for large files. Each segment is written straight into its
+	 * place in the file, and the progress of all the segments together is sent to the given
+	 * {@link ProgressRBCWrapperListener}.
+	 * <br><br>
+	 * If the file size can't be found, or the server doesn't support range requests, the file is downloaded
+	 * in one go instead. Files are never split into segments smaller than 64 KB. Like {@link #downloadFile}, the
+	 * download is written to a temporary file that's only moved to the filepath once it's complete, and progress
+	 * updates are throttled with the {@link ProgressThrottle#DEFAULT default ProgressThrottle}
+	 *
+	 * @param logger The {@link EasyLogger logger} to use for logging
+	 * @param listener The {@link ProgressRBCWrapperListener progress listener} to send updates to
+	 * @param address The URL for the file to be downloaded
+	 * @param filepath The local filepath for the file
+	 * @param numSegments The maximum number of segments to download at the same time
+	 * @throws IOException If anything goes wrong in downloading the file
+	 */
+	public static void downloadFileSegmented(
+			EasyLogger logger, ProgressRBCWrapperListener listener, String address, String filepath,
+			int numSegments) throws IOException{
+		downloadFileSegmented(logger, listener, ProgressThrottle.DEFAULT, address, filepath, numSegments);
+	}
+	
+	/**
+	 * If the file already exists at the given filepath, nothing happens. Otherwise, we download it from the
+	 * given address in (up to) the given number of segments at the same time, using HTTP range requests, which
+	 * can be a lot faster than {@link #downloadFile} for large files. Each segment is written straight into its
+	 * place in the file, and the progress of all the segments together is sent to the given
+	 * {@link ProgressRBCWrapperListener}.
+	 * <br><br>
+	 * If the file size can't be found, or the server doesn't support range requests, the file is downloaded
+	 * in one go instead. Files are never split into segments smaller than 64 KB. Like {@link #downloadFile}, the
+	 * download is written to a temporary file that's only moved to the filepath once it's complete. Progress
+	 * updates for each segment are only sent as often as the given {@link ProgressThrottle} allows
+	 *
+	 * @param logger The {@link EasyLogger logger} to use for logging
+	 * @param listener The {@link ProgressRBCWrapperListener progress listener} to send updates to
+	 * @param throttle The {@link ProgressThrottle} to limit how often progress updates are sent
+	 * @param address The URL for the file to be downloaded
+	 * @param filepath The local filepath for the file
+	 * @param numSegments The maximum number of segments to download at the same time
+	 * @throws IOException If anything goes wrong in downloading the file
+	 */
+	public static void downloadFileSegmented(
+			EasyLogger logger, ProgressRBCWrapperListener listener, ProgressThrottle throttle,
+			String address, String filepath, int numSegments) throws IOException{
+		if(numSegments < 1){
+			throw new IllegalArgumentException("numSegments must be at least 1, but was " + numSegments);
+		}
+		
+		// Check if file already exists so we don't need to download it
+		File file = new File(filepath);
+		if(file.exists()){
+			return;
+		}
+		
+		// Any partial download from downloadFile can't be resumed by this
+		Path partPath = Paths.get(filepath + PART_SUFFIX);
+		Files.deleteIfExists(Paths.get(filepath + PART_SUFFIX + META_SUFFIX));
+		
+		// Figure out the segments
+		URL url = new URL(address);
+		HttpURLConnection.setFollowRedirects(true);
+		long fileSize = getFileSize(logger, url);
+		int segments = fileSize <= 0?1:(int) Math.max(1, Math.min(numSegments, fileSize / MIN_SEGMENT_SIZE));
+		long segmentSize = fileSize <= 0?0:(fileSize + segments - 1) / segments;
+		
+		// Tracks the progress of each segment, to send the total to the listener
+		AtomicLongArray segmentProgress = new AtomicLongArray(segments);
+		
+		boolean success = false;
+		ExecutorService executor = null;
+		try(FileChannel fileChannel = FileChannel.open(partPath, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+			// Request the first segment here, to check if the server supports range requests
+			HttpURLConnection firstConnection = (HttpURLConnection) url.openConnection();
+			if(fileSize > 0){
+				firstConnection.setRequestProperty("Range", "bytes=0-" + (Math.min(segmentSize, fileSize) - 1));
+			}
+			if(fileSize <= 0 || firstConnection.getResponseCode() != HttpURLConnection.HTTP_PARTIAL){
+				// Download the whole file in one go
+				writeSegment(firstConnection, fileChannel, 0, fileSize <= 0?Long.MAX_VALUE:fileSize,
+						segmentListener(listener, segmentProgress, 0, fileSize), throttle, null);
+			}else{
+				// Download the rest of the segments in the background
+				List<Future<?>> futures = new ArrayList<>();
+				if(segments > 1){
+					executor = Executors.newFixedThreadPool(segments - 1);
+				}
+				for(int i = 1; i < segments; i++){
+					long start = i * segmentSize, end = Math.min(start + segmentSize, fileSize);
+					ProgressRBCWrapperListener segListener = segmentListener(listener, segmentProgress, i, fileSize);
+					futures.add(executor.submit(() -> {
+						HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+						connection.setRequestProperty("Range", "bytes=" + start + "-" + (end - 1));
+						if(connection.getResponseCode() != HttpURLConnection.HTTP_PARTIAL){
+							connection.disconnect();
+							throw new IOException("Expected a partial response for bytes " + start + "-" + (end - 1) +
+									" of " + address + ", but got " + connection.getResponseCode());
+						}
+						writeSegment(connection, fileChannel, start, end, segListener, throttle, null);
+						return null;
+					}));
+				}
+				
+				// Download the first segment on this thread
+				writeSegment(firstConnection, fileChannel, 0, Math.min(segmentSize, fileSize),
+						segmentListener(listener, segmentProgress, 0, fileSize), throttle, null);
+				
+				// Wait for the rest of the segments
+				for(Future<?> future: futures){
+					try{
+						future.get();
+					}catch(ExecutionException e){
+						throw e.getCause() instanceof IOException ioException?ioException:new IOException(e.getCause());
+					}catch(InterruptedException e){
+						Thread.currentThread().interrupt();
+						throw new IOException("Interrupted while downloading " + address, e);
+					}
+				}
+			}
+			success = true;
+		}finally{
+			if(executor != null){
+				executor.shutdownNow();
+			}
+			// Don't leave a partial file behind
+			if(!success){
+				Files.deleteIfExists(partPath);
+			}
+		}
+		
+		// Move the finished download into place
+		moveIntoPlace(partPath, file.toPath());
+	}
+	
+	/**
+	 * Makes a {@link ProgressRBCWrapperListener} for the rest of a resumed download, which sends progress for the
+	 * whole file (including the part that was already downloaded) to the given {@link ProgressRBCWrapperListener}
+	 *
+	 * @param listener The {@link ProgressRBCWrapperListener} to send the progress to (can be {@code null})
+	 * @param resumeFrom The number of bytes that were already downloaded
+	 * @param fileSize The total size of the file (or -1 if it's unknown)
+	 * @return The {@link ProgressRBCWrapperListener} for the rest of the download, or {@code null} if there's no
+	 * listener
+	 */
+	private static ProgressRBCWrapperListener resumedListener(
+			ProgressRBCWrapperListener listener, long resumeFrom, long fileSize){
+		if(listener == null || resumeFrom == 0){
+			return listener;
+		}
+		return (progress, readSoFar, expectedSize) -> {
+			long total = resumeFrom + readSoFar;
+			listener.progressUpdate(fileSize > 0?(double) total / (double) fileSize * 100.0:-1.0, total, fileSize);
+		};
+	}
+	
+	/**
+	 * Reads the sidecar file for a partial download
+	 *
+	 * @param metaPath The {@link Path} to the sidecar file
+	 * @return The {@link Properties} from the sidecar file, or {@code null} if there isn't one (or it can't be read)
+	 */
+	private static Properties readPartMeta(Path metaPath){
+		if(!Files.exists(metaPath)){
+			return null;
+		}
+		Properties meta = new Properties();
+		try(Reader reader = Files.newBufferedReader(metaPath)){
+			meta.load(reader);
+			return meta;
+		}catch(IOException e){
+			return null;
+		}
+	}
+	
+	/**
+	 * Checks that the Content-Range of a partial response starts where we asked it to, and is for a file of the
+	 * expected size (if the server says what size it is)
+	 *
+	 * @param connection The {@link HttpURLConnection} that got a partial response
+	 * @param start Where the range should start
+	 * @param fileSize The expected size of the whole file
+	 * @return Whether the Content-Range matches what we asked for
+	 */
+	private static boolean isRangeFrom(HttpURLConnection connection, long start, long fileSize){
+		// The Content-Range should look like "bytes <start>-<end>/<size>" (or "*" for an unknown size)
+		String contentRange = connection.getHeaderField("Content-Range");
+		if(contentRange == null || !contentRange.startsWith("bytes ")){
+			return false;
+		}
+		int dash = contentRange.indexOf('-'), slash = contentRange.indexOf('/');
+		if(dash < 0 || slash < dash){
+			return false;
+		}
+		try{
+			String size = contentRange.substring(slash + 1).trim();
+			return Long.parseLong(contentRange.substring("bytes ".length(), dash).trim()) == start &&
+					(size.equals("*") || Long.parseLong(size) == fileSize);
+		}catch(NumberFormatException e){
+			return false;
+		}
+	}
+	
+	/**
+	 * Parses the expected size saved in the sidecar file for a partial download
+	 *
+	 * @param length The saved expected size (can be {@code null})
+	 * @return The expected size, or -1 if it's missing or not a number
+	 */
+	private static long parseLength(String length){
+		try{
+			return length == null?-1:Long.parseLong(length);
+		}catch(NumberFormatException e){
+			return -1;
+		}
+	}
+	
+	/**
+	 * Writes the sidecar file for a partial download
+	 *
+	 * @param metaPath The {@link Path} to the sidecar file
+	 * @param address The URL for the file being downloaded
+	 * @param fileSize The expected size of the file (or -1 if it's unknown)
+	 * @param validator The ETag or Last-Modified value of the file (or {@code null} if there isn't one)
+	 * @throws IOException If anything goes wrong in writing the sidecar file
+	 */
+	private static void writePartMeta(Path metaPath, String address, long fileSize, String validator)
+			throws IOException{
+		Properties meta = new Properties();
+		meta.setProperty(META_ADDRESS, address);
+		meta.setProperty(META_LENGTH, String.valueOf(fileSize));
+		if(validator != null){
+			meta.setProperty(META_VALIDATOR, validator);
+		}
+		try(Writer writer = Files.newBufferedWriter(metaPath)){
+			meta.store(writer, "Partial download of " + address);
+		}
+	}
+	
+	/**
+	 * Moves a finished download from its temporary file to its actual filepath, atomically if the file system
+	 * supports it
+	 *
+	 * @param partPath The {@link Path} to the temporary file
+	 * @param path The {@link Path} to move the finished download to
+	 * @throws IOException If anything goes wrong in moving the file
+	 */
+	static void moveIntoPlace(Path partPath, Path path) throws IOException{
+		try{
+			Files.move(partPath, path, StandardCopyOption.ATOMIC_MOVE);
+		}catch(AtomicMoveNotSupportedException e){
+			Files.move(partPath, path, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+	
+	/**
+	 * Makes a {@link ProgressRBCWrapperListener} for a single segment of a segmented download, which sends the
+	 * total progress of all the segments to the given {@link ProgressRBCWrapperListener}
+	 *
+	 * @param listener The {@link ProgressRBCWrapperListener} to send the total progress to (can be {@code null})
+	 * @param segmentProgress The number of bytes read so far for each segment
+	 * @param segment The index of the segment
+	 * @param fileSize The total size of the file (or -1 if it's unknown)
+	 * @return The {@link ProgressRBCWrapperListener} for the segment, or {@code null} if there's no listener
+	 */
+	private static ProgressRBCWrapperListener segmentListener(
+			ProgressRBCWrapperListener listener, AtomicLongArray segmentProgress, int segment, long fileSize){
+		if(listener == null){
+			return null;
+		}
+		return (progress, readSoFar, expectedSize) -> {
+			// Send the updates one at a time, so the listener sees the total only going up
+			synchronized(segmentProgress){
+				segmentProgress.set(segment, readSoFar);
+				long total = 0;
+				for(int i = 0; i < segmentProgress.length(); i++){
+					total += segmentProgress.get(i);
+				}
+				listener.progressUpdate(fileSize > 0?(double) total / (double) fileSize * 100.0:-1.0,
+						total, fileSize);
+			}
+		};
+	}
+	
+	/**
+	 * Reads the body of the given {@link URLConnection} and writes it into the given {@link FileChannel},
+	 * starting at the given position
+	 *
+	 * @param connection The {@link URLConnection} to read the segment from
+	 * @param fileChannel The {@link FileChannel} to write the segment to
+	 * @param start The position in the file the segment starts at
+	 * @param end The position in the file the segment ends at (exclusive)
+	 * @param listener The {@link ProgressRBCWrapperListener} to send progress updates to (can be {@code null})
+	 * @param throttle The {@link ProgressThrottle} to limit how often progress updates are sent
+	 * @param digest The {@link MessageDigest} to update with the segment (can be {@code null})
+	 * @throws IOException If anything goes wrong in reading or writing the segment, or the segment is cut short
+	 */
+	private static void writeSegment(
+			URLConnection connection, FileChannel fileChannel, long start, long end,
+			ProgressRBCWrapperListener listener, ProgressThrottle throttle, MessageDigest digest) throws IOException{
+		ReadableByteChannel body = Channels.newChannel(connection.getInputStream());
+		if(digest != null){
+			body = new DigestReadableByteChannelWrapper(body, digest);
+		}
+		try(ReadableByteChannel segment = new ProgressReadableByteChannelWrapper(
+				body, listener, end == Long.MAX_VALUE?-1:end - start, throttle)){
+			ByteBuffer buffer = ByteBuffer.allocate(SEGMENT_BUFFER_SIZE);
+			long position = start;
+			while(position < end && segment.read(buffer) != -1){
+				buffer.flip();
+				while(buffer.hasRemaining()){
+					position += fileChannel.write(buffer, position);
+				}
+				buffer.clear();
+			}
+			if(end != Long.MAX_VALUE && position != end){
+				throw new IOException("Download of bytes " + start + "-" + (end - 1) + " ended early at " + position);
+			}
+		}
+	}
+	
+	/**
+	 * Gets a {@link MessageDigest} for the given algorithm
+	 *
+	 * @param algorithm The {@link MessageDigest} algorithm (e.g. SHA-256)
+	 * @return A new {@link MessageDigest} for the algorithm
+	 * @throws IllegalArgumentException If the algorithm isn't supported
+	 */
+	private static MessageDigest getMessageDigest(String algorithm){
+		try{
+			return MessageDigest.getInstance(algorithm);
+		}catch(NoSuchAlgorithmException e){
+			throw new IllegalArgumentException("Unsupported hash algorithm: " + algorithm, e);
+		}
+	}
+	
+	/**
+	 * Updates the given {@link MessageDigest} with the start of a partial download that's being resumed, so
+	 * that the hash covers the whole file
+	 *
+	 * @param digest The {@link MessageDigest} to update
+	 * @param partPath The {@link Path} to the partial download
+	 * @param length The number of bytes at the start of the partial download to update it with
+	 * @throws IOException If anything goes wrong in reading the partial download
+	 */
+	private static void digestPart(MessageDigest digest, Path partPath, long length) throws IOException{
+		try(ReadableByteChannel part = new DigestReadableByteChannelWrapper(FileChannel.open(partPath), digest)){
+			ByteBuffer buffer = ByteBuffer.allocate(SEGMENT_BUFFER_SIZE);
+			long remaining = length;
+			while(remaining > 0){
+				buffer.limit((int) Math.min(buffer.capacity(), remaining));
+				int n = part.read(buffer);
+				if(n == -1){
+					throw new IOException("Partial download " + partPath + " is shorter than " + length + " bytes");
+				}
+				remaining -= n;
+				buffer.clear();
+			}
+		}
 	}
 }
@@ -6,24 +6,22 @@ import java.nio.channels.ReadableByteChannel;
 
 /**
  * Progress Readable Byte Channel Wrapper is a wrapper around {@link ReadableByteChannel} that will send
- * progress updates to a {@link ProgressRBCWrapperListener}, which is keeping track of progress.
+ * progress updates to a {@link ProgressRBCWrapperListener}, which is keeping track of progress. How often
+ * updates are sent can be limited with a {@link ProgressThrottle}.
  *
  * @author Logan Ferree (Tadukoo)
- * @version Beta v.0.5
+ * @version Beta v.0.7
+ * @since Beta v.0.5
  */
 public class ProgressReadableByteChannelWrapper implements ReadableByteChannel{
 	/** The underlying {@link ReadableByteChannel} to use for reading */
 	private final ReadableByteChannel byteChannel;
-	/** The {@link ProgressRBCWrapperListener} that is keeping track of progress */
-	private final ProgressRBCWrapperListener listener;
-	/** The expected total size in bytes to be read */
-	private final long expectedSize;
-	/** The amount of bytes read so far */
-	private long readSoFar;
+	/** The {@link ProgressTracker} that sends progress updates to the {@link ProgressRBCWrapperListener} */
+	private final ProgressTracker tracker;
 	
 	/**
 	 * Wraps the given {@link ReadableByteChannel} so we can send progress updates to the given
-	 * {@link ProgressRBCWrapperListener}, which is keeping track of progress
+	 * {@link ProgressRBCWrapperListener}, which is keeping track of progress. An update is sent on every read
 	 *
 	 * @param byteChannel The underlying {@link ReadableByteChannel} to be wrapped
 	 * @param listener The {@link ProgressRBCWrapperListener} which will track progress
@@ -31,18 +29,34 @@ public class ProgressReadableByteChannelWrapper implements ReadableByteChannel{
 	 */
 	public ProgressReadableByteChannelWrapper(
 			ReadableByteChannel byteChannel, ProgressRBCWrapperListener listener, long expectedSize){
+		this(byteChannel, listener, expectedSize, ProgressThrottle.NONE);
+	}
+	
+	/**
+	 * Wraps the given {@link ReadableByteChannel} so we can send progress updates to the given
+	 * {@link ProgressRBCWrapperListener}, which is keeping track of progress. Updates are only sent as often as
+	 * the given {@link ProgressThrottle} allows, but the final update is always sent
+	 *
+	 * @param byteChannel The underlying {@link ReadableByteChannel} to be wrapped
+	 * @param listener The {@link ProgressRBCWrapperListener} which will track progress
+	 * @param expectedSize The expected total size in bytes to be read
+	 * @param throttle The {@link ProgressThrottle} to limit how often progress updates are sent
+	 */
+	public ProgressReadableByteChannelWrapper(
+			ReadableByteChannel byteChannel, ProgressRBCWrapperListener listener, long expectedSize,
+			ProgressThrottle throttle){
 		this.byteChannel = byteChannel;
-		this.listener = listener;
-		this.expectedSize = expectedSize;
+		tracker = new ProgressTracker(listener, expectedSize, throttle);
 	}
 	
 	/**
-	 * Closes the underlying {@link #byteChannel}
+	 * Sends any progress that hasn't been sent yet, then closes the underlying {@link #byteChannel}
 	 *
 	 * @throws IOException If anything goes wrong in closing the byte channel
 	 */
 	@Override
 	public void close() throws IOException{
+		tracker.finish();
 		byteChannel.close();
 	}
 	
@@ -56,7 +70,8 @@ public class ProgressReadableByteChannelWrapper implements ReadableByteChannel{
 	
 	/**
 	 * Reads bytes from the underlying {@link #byteChannel} into the given {@link ByteBuffer} and
-	 * will send a progress update to the {@link #listener} that is keeping track of progress
+	 * will send a progress update to the {@link ProgressRBCWrapperListener} that is keeping track of progress
+	 * (if enough has been read since the last one, or this is the end of the read)
 	 *
 	 * @param bb The {@link ByteBuffer} to be read into
 	 * @return The number of bytes read, possibly 0 or -1 if we're at the end of stream
@@ -64,15 +79,12 @@ public class ProgressReadableByteChannelWrapper implements ReadableByteChannel{
 	 */
 	@Override
 	public int read(ByteBuffer bb) throws IOException{
-		int n;
-		double progress;
-		
-		if((n = byteChannel.read(bb)) > 0 && listener != null){
-			readSoFar += n;
-			progress = expectedSize > 0 ? (double) readSoFar/(double) expectedSize * 100.0:-1.0;
-			listener.progressUpdate(progress, readSoFar, expectedSize);
+		int n = byteChannel.read(bb);
+		if(n > 0){
+			tracker.bytesRead(n);
+		}else if(n == -1){
+			tracker.finish();
 		}
-		
 		return n;
 	}
 }
@@ -0,0 +1,86 @@
+package com.github.tadukoo.util.download;
+
+/**
+ * Progress Throttle is used by a {@link ProgressReadableByteChannelWrapper} to decide how often to send progress
+ * updates to its {@link ProgressRBCWrapperListener}. Without a throttle, an update is sent on every read, which
+ * can mean hundreds of thousands of updates for a single file. With a throttle, an update is only sent once
+ * enough has been read since the last one was sent:
+ * <ul>
+ *     <li>At least {@link #getMinBytes() minBytes} bytes</li>
+ *     <li>At least {@link #getMinIntervalMillis() minIntervalMillis} milliseconds</li>
+ *     <li>At least {@link #getMinPercentStep() minPercentStep} percent of the expected size (ignored if the
+ *     expected size isn't known)</li>
+ * </ul>
+ * Any of these can be 0 to not require it. The last update is always sent, whether it meets these or not, so
+ * that listeners always see the download finish.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public class ProgressThrottle{
+	/** A {@link ProgressThrottle} that doesn't throttle anything, so an update is sent on every read */
+	public static final ProgressThrottle NONE = new ProgressThrottle(0, 0, 0);
+	/** The {@link ProgressThrottle} used by {@link DownloadUtil} by default: at most one update every 100 ms */
+	public static final ProgressThrottle DEFAULT = new ProgressThrottle(0, 100, 0);
+	
+	/** The minimum number of bytes to read between updates */
+	private final long minBytes;
+	/** The minimum number of milliseconds between updates */
+	private final long minIntervalMillis;
+	/** The minimum percent of the expected size to read between updates */
+	private final double minPercentStep;
+	
+	/**
+	 * Creates a new {@link ProgressThrottle}. Any of the parameters can be 0 to not require it
+	 *
+	 * @param minBytes The minimum number of bytes to read between updates
+	 * @param minIntervalMillis The minimum number of milliseconds between updates
+	 * @param minPercentStep The minimum percent of the expected size to read between updates (e.g. 1.0 for
+	 * an update at most every 1%)
+	 */
+	public ProgressThrottle(long minBytes, long minIntervalMillis, double minPercentStep){
+		if(minBytes < 0 || minIntervalMillis < 0 || minPercentStep < 0){
+			throw new IllegalArgumentException("Progress throttle settings can't be negative, but got minBytes = " +
+					minBytes + ", minIntervalMillis = " + minIntervalMillis + ", minPercentStep = " + minPercentStep);
+		}
+		this.minBytes = minBytes;
+		this.minIntervalMillis = minIntervalMillis;
+		this.minPercentStep = minPercentStep;
+	}
+	
+	/**
+	 * @return The minimum number of bytes to read between updates
+	 */
+	public long getMinBytes(){
+		return minBytes;
+	}
+	
+	/**
+	 * @return The minimum number of milliseconds between updates
+	 */
+	public long getMinIntervalMillis(){
+		return minIntervalMillis;
+	}
+	
+	/**
+	 * @return The minimum percent of the expected size to read between updates
+	 */
+	public double getMinPercentStep(){
+		return minPercentStep;
+	}
+	
+	/**
+	 * Figures out the minimum number of bytes to read between updates for a read of the given expected size,
+	 * combining {@link #minBytes} and {@link #minPercentStep}, so that the percent doesn't need to be calculated
+	 * on every read
+	 *
+	 * @param expectedSize The expected total size in bytes to be read (or -1 if it's unknown)
+	 * @return The minimum number of bytes to read between updates
+	 */
+	long getMinBytes(long expectedSize){
+		if(expectedSize <= 0 || minPercentStep == 0){
+			return minBytes;
+		}
+		return Math.max(minBytes, (long) Math.ceil(expectedSize * minPercentStep / 100.0));
+	}
+}
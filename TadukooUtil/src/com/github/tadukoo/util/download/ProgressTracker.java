@@ -0,0 +1,87 @@
+package com.github.tadukoo.util.download;
+
+/**
+ * Progress Tracker keeps track of how many bytes have been read and sends progress updates to a
+ * {@link ProgressRBCWrapperListener} as often as a {@link ProgressThrottle} allows. It's what
+ * {@link ProgressReadableByteChannelWrapper} uses to send its updates, and can be used by anything else that
+ * reads bytes without a {@link java.nio.channels.ReadableByteChannel}.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+class ProgressTracker{
+	/** The {@link ProgressRBCWrapperListener} that is keeping track of progress */
+	private final ProgressRBCWrapperListener listener;
+	/** The expected total size in bytes to be read */
+	private final long expectedSize;
+	/** The minimum number of bytes to read between progress updates */
+	private final long minBytes;
+	/** The minimum number of nanoseconds between progress updates */
+	private final long minIntervalNanos;
+	/** The amount of bytes read so far */
+	private long readSoFar = 0;
+	/** The amount of bytes read when the last progress update was sent */
+	private long lastSentReadSoFar = 0;
+	/** The time (from {@link System#nanoTime()}) the last progress update was sent */
+	private long lastSentTime;
+	
+	/**
+	 * Creates a new {@link ProgressTracker}
+	 *
+	 * @param listener The {@link ProgressRBCWrapperListener} which will track progress (can be {@code null})
+	 * @param expectedSize The expected total size in bytes to be read
+	 * @param throttle The {@link ProgressThrottle} to limit how often progress updates are sent
+	 */
+	ProgressTracker(ProgressRBCWrapperListener listener, long expectedSize, ProgressThrottle throttle){
+		this.listener = listener;
+		this.expectedSize = expectedSize;
+		minBytes = throttle.getMinBytes(expectedSize);
+		minIntervalNanos = throttle.getMinIntervalMillis() * 1_000_000L;
+		lastSentTime = minIntervalNanos > 0?System.nanoTime():0;
+	}
+	
+	/**
+	 * Records that the given number of bytes were read, sending a progress update to the {@link #listener} if
+	 * enough has been read since the last one (or everything expected has been read)
+	 *
+	 * @param n The number of bytes read
+	 */
+	void bytesRead(long n){
+		if(listener == null || n <= 0){
+			return;
+		}
+		readSoFar += n;
+		if(readSoFar == expectedSize){
+			sendUpdate();
+		}else if(readSoFar - lastSentReadSoFar >= minBytes){
+			if(minIntervalNanos == 0){
+				sendUpdate();
+			}else{
+				long now = System.nanoTime();
+				if(now - lastSentTime >= minIntervalNanos){
+					lastSentTime = now;
+					sendUpdate();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Sends a progress update to the {@link #listener} if there's been any progress since the last one was sent,
+	 * so that the final progress is always sent
+	 */
+	void finish(){
+		if(listener != null && readSoFar > lastSentReadSoFar){
+			sendUpdate();
+		}
+	}
+	
+	/**
+	 * Sends a progress update to the {@link #listener}
+	 */
+	private void sendUpdate(){
+		lastSentReadSoFar = readSoFar;
+		double progress = expectedSize > 0 ? (double) readSoFar/(double) expectedSize * 100.0:-1.0;
+		listener.progressUpdate(progress, readSoFar, expectedSize);
+	}
+}
@@ -0,0 +1,71 @@
+package com.github.tadukoo.util.download;
+
+/**
+ * Remote File Info holds what a server says about a file in response to a HEAD request: its size, its validators
+ * (ETag and Last-Modified), and whether it supports range requests. It's gotten from
+ * {@link DownloadUtil#getFileInfo} or a {@link RemoteFileInfoCache}.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public class RemoteFileInfo{
+	/** The size of the file in bytes (or -1 if it's unknown) */
+	private final long size;
+	/** The ETag of the file (can be {@code null}) */
+	private final String eTag;
+	/** The Last-Modified of the file (can be {@code null}) */
+	private final String lastModified;
+	/** Whether the server supports range requests for the file */
+	private final boolean acceptsRanges;
+	
+	/**
+	 * Creates a new {@link RemoteFileInfo}
+	 *
+	 * @param size The size of the file in bytes (or -1 if it's unknown)
+	 * @param eTag The ETag of the file (can be {@code null})
+	 * @param lastModified The Last-Modified of the file (can be {@code null})
+	 * @param acceptsRanges Whether the server supports range requests for the file
+	 */
+	public RemoteFileInfo(long size, String eTag, String lastModified, boolean acceptsRanges){
+		this.size = size;
+		this.eTag = eTag;
+		this.lastModified = lastModified;
+		this.acceptsRanges = acceptsRanges;
+	}
+	
+	/**
+	 * @return The size of the file in bytes (or -1 if it's unknown)
+	 */
+	public long getSize(){
+		return size;
+	}
+	
+	/**
+	 * @return The ETag of the file (can be {@code null})
+	 */
+	public String getETag(){
+		return eTag;
+	}
+	
+	/**
+	 * @return The Last-Modified of the file (can be {@code null})
+	 */
+	public String getLastModified(){
+		return lastModified;
+	}
+	
+	/**
+	 * @return Whether the server supports range requests for the file
+	 */
+	public boolean acceptsRanges(){
+		return acceptsRanges;
+	}
+	
+	/**
+	 * @return The validator to use for the file: the ETag if there is one, or the Last-Modified if not
+	 * (can be {@code null})
+	 */
+	public String getValidator(){
+		return eTag != null?eTag:lastModified;
+	}
+}
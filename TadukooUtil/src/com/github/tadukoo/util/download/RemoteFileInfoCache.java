@@ -0,0 +1,135 @@
+package com.github.tadukoo.util.download;
+
+import java.io.IOException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remote File Info Cache is a small in-memory cache of {@link RemoteFileInfo}, for callers that want to know
+ * about files (e.g. their sizes) before downloading them, without making a HEAD request every time. Info is
+ * kept for a set time to live, after which it's looked up again, and only up to a set number of files are kept
+ * (dropping the least recently used).
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public class RemoteFileInfoCache{
+	
+	/**
+	 * A {@link RemoteFileInfo} in the cache, along with when it expires
+	 */
+	private static class CachedInfo{
+		/** The cached {@link RemoteFileInfo} */
+		private final RemoteFileInfo info;
+		/** The time (from {@link System#nanoTime()}) the info expires */
+		private final long expiresAt;
+		
+		/**
+		 * Creates a new {@link CachedInfo}
+		 *
+		 * @param info The cached {@link RemoteFileInfo}
+		 * @param expiresAt The time (from {@link System#nanoTime()}) the info expires
+		 */
+		private CachedInfo(RemoteFileInfo info, long expiresAt){
+			this.info = info;
+			this.expiresAt = expiresAt;
+		}
+	}
+	
+	/** How long to keep info before looking it up again, in nanoseconds */
+	private final long ttlNanos;
+	/** The most files to keep info for */
+	private final int maxEntries;
+	/** The cached info by address, in order from least to most recently used */
+	private final Map<String, CachedInfo> cache;
+	
+	/**
+	 * Creates a new {@link RemoteFileInfoCache}
+	 *
+	 * @param ttl How long to keep info before looking it up again
+	 * @param maxEntries The most files to keep info for
+	 */
+	public RemoteFileInfoCache(Duration ttl, int maxEntries){
+		if(ttl.isNegative()){
+			throw new IllegalArgumentException("ttl can't be negative, but was " + ttl);
+		}
+		if(maxEntries < 1){
+			throw new IllegalArgumentException("maxEntries must be at least 1, but was " + maxEntries);
+		}
+		ttlNanos = ttl.toNanos();
+		this.maxEntries = maxEntries;
+		cache = new LinkedHashMap<>(16, 0.75f, true){
+			/** {@inheritDoc} */
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedInfo> eldest){
+				return size() > RemoteFileInfoCache.this.maxEntries;
+			}
+		};
+	}
+	
+	/**
+	 * Gets the {@link RemoteFileInfo} for the file at the given address, from the cache if it's there and hasn't
+	 * expired, or with a HEAD request (see {@link DownloadUtil#getFileInfo}) if not
+	 *
+	 * @param address The URL of the file
+	 * @return The {@link RemoteFileInfo} for the file
+	 * @throws IOException If anything goes wrong in looking up the file
+	 */
+	public RemoteFileInfo getFileInfo(String address) throws IOException{
+		synchronized(cache){
+			CachedInfo cached = cache.get(address);
+			if(cached != null && System.nanoTime() - cached.expiresAt < 0){
+				return cached.info;
+			}
+		}
+		
+		// Look it up without holding the lock, so other lookups don't wait on it
+		RemoteFileInfo info = DownloadUtil.getFileInfo(new URL(address));
+		synchronized(cache){
+			cache.put(address, new CachedInfo(info, System.nanoTime() + ttlNanos));
+		}
+		return info;
+	}
+	
+	/**
+	 * Gets the size of the file at the given address (see {@link #getFileInfo(String)})
+	 *
+	 * @param address The URL of the file
+	 * @return The size of the file in bytes (or -1 if it's unknown)
+	 * @throws IOException If anything goes wrong in looking up the file
+	 */
+	public long getFileSize(String address) throws IOException{
+		return getFileInfo(address).getSize();
+	}
+	
+	/**
+	 * Removes the info for the file at the given address, so it's looked up again next time
+	 *
+	 * @param address The URL of the file
+	 */
+	public void invalidate(String address){
+		synchronized(cache){
+			cache.remove(address);
+		}
+	}
+	
+	/**
+	 * Removes all the cached info
+	 */
+	public void clear(){
+		synchronized(cache){
+			cache.clear();
+		}
+	}
+	
+	/**
+	 * @return The number of files info is cached for (including any that have expired)
+	 */
+	public int size(){
+		synchronized(cache){
+			return cache.size();
+		}
+	}
+}
@@ -0,0 +1,390 @@
+package com.github.tadukoo.util.event;
+
+import com.github.tadukoo.util.logger.EasyLogger;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An asynchronous version of {@link EventHandler}, which handles the creation of {@link Event Events} and sends them
+ * out to the various {@link EventListener EventListeners} without running them on the sending thread.
+ * <br><br>
+ * Each registered {@link EventListener} gets its own bounded queue of {@link Event Events}, which is drained on the
+ * given {@link Executor}, so a slow listener only holds up itself. Each listener gets its {@link Event Events} in the
+ * order they were sent, one at a time, while different listeners run in parallel (as the {@link Executor} allows).
+ * A listener's queue is drained a batch at a time, so listeners sharing a small thread pool all get a turn.
+ * <br><br>
+ * When a listener's queue is full, what happens to a new {@link Event} depends on the listener's
+ * {@link EventOverflowPolicy}. Note that with {@link EventOverflowPolicy#BLOCK}, a listener that sends
+ * {@link Event Events} to its own full queue will wait forever. How well each listener is keeping up can be checked
+ * with {@link #getListenerStats}. Exceptions thrown by listeners are logged and counted, and don't stop later
+ * {@link Event Events} from being handled.
+ *
+ * @param <EventType> The {@link Event} subclass to handle events for
+ * @param <Listener> The {@link EventListener} implementation to send {@link Event Events} to
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public abstract class AsyncEventHandler<EventType extends Event, Listener extends EventListener<EventType>>{
+	/** The default number of {@link Event Events} that can be waiting for each listener */
+	public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+	/** The most {@link Event Events} to hand a listener before letting other listeners use the thread */
+	private static final int MAX_BATCH = 64;
+	
+	/**
+	 * An {@link Event} waiting in a listener's queue, along with when it was sent
+	 *
+	 * @param <EventType> The {@link Event} subclass being handled
+	 */
+	private static class PendingEvent<EventType extends Event>{
+		/** The {@link Event} to handle (replaced when coalescing) */
+		private EventType event;
+		/** The time (from {@link System#nanoTime()}) the event was sent */
+		private final long sentNanos;
+		
+		/**
+		 * Creates a new {@link PendingEvent}
+		 *
+		 * @param event The {@link Event} to handle
+		 * @param sentNanos The time (from {@link System#nanoTime()}) the event was sent
+		 */
+		private PendingEvent(EventType event, long sentNanos){
+			this.event = event;
+			this.sentNanos = sentNanos;
+		}
+	}
+	
+	/**
+	 * The queue of {@link Event Events} for a single listener, which drains itself on the {@link #executor}
+	 */
+	private class ListenerQueue implements Runnable{
+		/** The listener to send {@link Event Events} to */
+		private final Listener listener;
+		/** The number of {@link Event Events} that can be waiting */
+		private final int capacity;
+		/** What to do with a new {@link Event} when the queue is full */
+		private final EventOverflowPolicy overflowPolicy;
+		/** The stats for the listener */
+		private final EventListenerStats stats;
+		/** The {@link Event Events} waiting to be handled */
+		private final ArrayDeque<PendingEvent<EventType>> pending = new ArrayDeque<>();
+		/** Guards the queue */
+		private final ReentrantLock lock = new ReentrantLock();
+		/** Signalled when there's space in the queue */
+		private final Condition notFull = lock.newCondition();
+		/** Whether the queue is waiting to be drained or being drained on the {@link #executor} */
+		private boolean scheduled = false;
+		/** Whether the listener was unregistered */
+		private boolean closed = false;
+		
+		/**
+		 * Creates a new {@link ListenerQueue}
+		 *
+		 * @param listener The listener to send {@link Event Events} to
+		 * @param capacity The number of {@link Event Events} that can be waiting
+		 * @param overflowPolicy What to do with a new {@link Event} when the queue is full
+		 */
+		private ListenerQueue(Listener listener, int capacity, EventOverflowPolicy overflowPolicy){
+			this.listener = listener;
+			this.capacity = capacity;
+			this.overflowPolicy = overflowPolicy;
+			stats = new EventListenerStats(capacity, overflowPolicy);
+		}
+		
+		/**
+		 * Adds the given {@link Event} to the queue, following the {@link #overflowPolicy} if it's full, and makes
+		 * sure the queue will be drained
+		 *
+		 * @param e The {@link Event} to add
+		 */
+		private void offer(EventType e){
+			long now = System.nanoTime();
+			lock.lock();
+			try{
+				if(closed){
+					return;
+				}
+				if(overflowPolicy == EventOverflowPolicy.COALESCE){
+					for(PendingEvent<EventType> waiting: pending){
+						if(Objects.equals(waiting.event.getType(), e.getType())){
+							waiting.event = e;
+							stats.recordCoalesced();
+							return;
+						}
+					}
+				}
+				while(pending.size() >= capacity){
+					if(overflowPolicy == EventOverflowPolicy.BLOCK){
+						try{
+							notFull.await();
+						}catch(InterruptedException ex){
+							Thread.currentThread().interrupt();
+							stats.recordDropped();
+							return;
+						}
+						if(closed){
+							return;
+						}
+					}else{
+						pending.pollFirst();
+						stats.recordDropped();
+					}
+				}
+				pending.addLast(new PendingEvent<>(e, now));
+				recordQueue();
+				if(scheduled){
+					return;
+				}
+				scheduled = true;
+			}finally{
+				lock.unlock();
+			}
+			schedule();
+		}
+		
+		/**
+		 * Hands a batch of waiting {@link Event Events} to the listener, then schedules itself again if there are
+		 * more waiting
+		 */
+		@Override
+		public void run(){
+			for(int i = 0; i < MAX_BATCH; i++){
+				PendingEvent<EventType> next;
+				lock.lock();
+				try{
+					next = closed?null:pending.pollFirst();
+					if(next == null){
+						scheduled = false;
+						return;
+					}
+					recordQueue();
+					notFull.signal();
+				}finally{
+					lock.unlock();
+				}
+				
+				stats.recordDelivered(System.nanoTime() - next.sentNanos);
+				try{
+					listener.handleEvent(next.event);
+				}catch(RuntimeException ex){
+					stats.recordFailed();
+					if(logger != null){
+						logger.logError("Event listener failed to handle " + next.event.getType() + " event", ex);
+					}
+				}catch(Error err){
+					// Count it, but let it go up to the executor after making sure the queue isn't left stuck
+					stats.recordFailed();
+					reschedule(err);
+					throw err;
+				}
+			}
+			
+			// Let other listeners have a turn before handling the rest
+			schedule();
+		}
+		
+		/**
+		 * Submits this queue to be drained on the {@link #executor}
+		 */
+		private void schedule(){
+			try{
+				executor.execute(this);
+			}catch(RejectedExecutionException e){
+				lock.lock();
+				try{
+					scheduled = false;
+				}finally{
+					lock.unlock();
+				}
+				throw e;
+			}
+		}
+		
+		/**
+		 * Called when the listener threw an {@link Error} out of {@link #run()}, to make sure the rest of the queue
+		 * still gets drained, since it would otherwise stay {@link #scheduled} with nothing draining it
+		 *
+		 * @param err The {@link Error} thrown by the listener (any failure to reschedule is added to it)
+		 */
+		private void reschedule(Error err){
+			boolean more;
+			lock.lock();
+			try{
+				more = !closed && !pending.isEmpty();
+				scheduled = more;
+			}finally{
+				lock.unlock();
+			}
+			if(more){
+				try{
+					schedule();
+				}catch(RejectedExecutionException e){
+					err.addSuppressed(e);
+				}
+			}
+		}
+		
+		/**
+		 * Stops the queue, dropping any waiting {@link Event Events} and waking up any threads waiting for space
+		 */
+		private void close(){
+			lock.lock();
+			try{
+				closed = true;
+				pending.clear();
+				recordQueue();
+				notFull.signalAll();
+			}finally{
+				lock.unlock();
+			}
+		}
+		
+		/**
+		 * Updates the {@link #stats} with the current state of the queue (must hold the {@link #lock})
+		 */
+		private void recordQueue(){
+			PendingEvent<EventType> oldest = pending.peekFirst();
+			stats.recordQueue(pending.size(), oldest == null?0:oldest.sentNanos);
+		}
+	}
+	
+	/** The {@link EasyLogger logger} to log listener failures to (can be {@code null}) */
+	private final EasyLogger logger;
+	/** The {@link Executor} to run the listeners on */
+	private final Executor executor;
+	/** The number of {@link Event Events} that can be waiting for a listener, unless given when registering it */
+	private final int defaultCapacity;
+	/** What to do with a new {@link Event} when a listener's queue is full, unless given when registering it */
+	private final EventOverflowPolicy defaultOverflowPolicy;
+	/** The queues for the registered {@link EventListener EventListeners} */
+	private final List<ListenerQueue> queues = new CopyOnWriteArrayList<>();
+	
+	/**
+	 * Creates a new {@link AsyncEventHandler}, with listener queues that hold {@link #DEFAULT_QUEUE_CAPACITY}
+	 * {@link Event Events} and wait for space when they're full ({@link EventOverflowPolicy#BLOCK})
+	 *
+	 * @param logger The {@link EasyLogger logger} to log listener failures to (can be {@code null})
+	 * @param executor The {@link Executor} to run the listeners on
+	 */
+	protected AsyncEventHandler(EasyLogger logger, Executor executor){
+		this(logger, executor, DEFAULT_QUEUE_CAPACITY, EventOverflowPolicy.BLOCK);
+	}
+	
+	/**
+	 * Creates a new {@link AsyncEventHandler}
+	 *
+	 * @param logger The {@link EasyLogger logger} to log listener failures to (can be {@code null})
+	 * @param executor The {@link Executor} to run the listeners on
+	 * @param defaultCapacity The number of {@link Event Events} that can be waiting for a listener, unless given
+	 * when registering it
+	 * @param defaultOverflowPolicy What to do with a new {@link Event} when a listener's queue is full, unless given
+	 * when registering it
+	 */
+	protected AsyncEventHandler(
+			EasyLogger logger, Executor executor, int defaultCapacity, EventOverflowPolicy defaultOverflowPolicy){
+		checkCapacity(defaultCapacity);
+		this.logger = logger;
+		this.executor = executor;
+		this.defaultCapacity = defaultCapacity;
+		this.defaultOverflowPolicy = defaultOverflowPolicy;
+	}
+	
+	/**
+	 * Register a {@link EventListener} so it will be notified of {@link Event Events}
+	 * handled by this class, using the default queue capacity and {@link EventOverflowPolicy}.
+	 *
+	 * @param listener The EventListener to register
+	 */
+	public final void registerListener(Listener listener){
+		registerListener(listener, defaultCapacity, defaultOverflowPolicy);
+	}
+	
+	/**
+	 * Register a {@link EventListener} so it will be notified of {@link Event Events}
+	 * handled by this class.
+	 *
+	 * @param listener The EventListener to register
+	 * @param capacity The number of {@link Event Events} that can be waiting for the listener
+	 * @param overflowPolicy What to do with a new {@link Event} when the listener's queue is full
+	 */
+	public final void registerListener(Listener listener, int capacity, EventOverflowPolicy overflowPolicy){
+		checkCapacity(capacity);
+		queues.add(new ListenerQueue(listener, capacity, overflowPolicy));
+	}
+	
+	/**
+	 * Unregisters a {@link EventListener} so it will no longer be notified about
+	 * {@link Event Events} handled by this class. Any {@link Event Events} still waiting for it are dropped.
+	 *
+	 * @param listener The EventListener to unregister
+	 */
+	public final void unregisterListener(Listener listener){
+		ListenerQueue queue = findQueue(listener);
+		if(queue != null && queues.remove(queue)){
+			queue.close();
+		}
+	}
+	
+	/**
+	 * @return The number of {@link EventListener EventListeners} currently registered
+	 */
+	public final int getListenerCount(){
+		return queues.size();
+	}
+	
+	/**
+	 * Gets the {@link EventListenerStats} for the given {@link EventListener}, to see how well it's keeping up
+	 *
+	 * @param listener The EventListener to get the stats for
+	 * @return The {@link EventListenerStats} for the listener, or {@code null} if it's not registered
+	 */
+	public final EventListenerStats getListenerStats(Listener listener){
+		ListenerQueue queue = findQueue(listener);
+		return queue == null?null:queue.stats;
+	}
+	
+	/**
+	 * Sends the given {@link Event} to the queues of all of the registered {@link EventListener EventListeners}.
+	 * This only waits if a listener's queue is full and it uses {@link EventOverflowPolicy#BLOCK}.
+	 *
+	 * @param e The Event to send out
+	 */
+	protected final void sendEventToListeners(EventType e){
+		for(ListenerQueue queue: queues){
+			queue.offer(e);
+		}
+	}
+	
+	/**
+	 * Finds the queue for the given {@link EventListener}
+	 *
+	 * @param listener The EventListener to find the queue for
+	 * @return The queue for the listener, or {@code null} if it's not registered
+	 */
+	private ListenerQueue findQueue(Listener listener){
+		for(ListenerQueue queue: queues){
+			if(Objects.equals(queue.listener, listener)){
+				return queue;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Checks that the given queue capacity is valid
+	 *
+	 * @param capacity The queue capacity to check
+	 */
+	private static void checkCapacity(int capacity){
+		if(capacity < 1){
+			throw new IllegalArgumentException("capacity must be at least 1, but was " + capacity);
+		}
+	}
+}
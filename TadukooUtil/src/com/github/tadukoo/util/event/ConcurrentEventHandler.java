@@ -0,0 +1,102 @@
+package com.github.tadukoo.util.event;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A thread-safe version of {@link EventHandler}, which handles the creation of {@link Event Events} and sends them
+ * out to the various {@link EventListener EventListeners} to handle them appropriately.
+ * <br><br>
+ * The registered {@link EventListener EventListeners} are kept in an array that's never changed: registering or
+ * unregistering one creates a new array and swaps it in atomically. Sending an {@link Event} just loops over the
+ * current array, so it never locks or creates garbage, and {@link Event Events} can be sent from any number of
+ * threads at once. Listeners can be registered or unregistered from any thread, including from inside a listener
+ * while an {@link Event} is being sent, in which case the change applies to the next {@link Event} sent.
+ *
+ * @param <EventType> The {@link Event} subclass to handle events for
+ * @param <Listener> The {@link EventListener} implementation to send {@link Event Events} to
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public abstract class ConcurrentEventHandler<EventType extends Event, Listener extends EventListener<EventType>>{
+	/** The array used when no {@link EventListener EventListeners} are registered */
+	private static final EventListener<?>[] NO_LISTENERS = new EventListener<?>[0];
+	
+	/** The registered {@link EventListener EventListeners} to be notified of {@link Event Events} */
+	private final AtomicReference<EventListener<?>[]> listeners = new AtomicReference<>(NO_LISTENERS);
+	
+	/**
+	 * Register a {@link EventListener} so it will be notified of {@link Event Events}
+	 * handled by this class.
+	 *
+	 * @param listener The EventListener to register
+	 */
+	public final void registerListener(Listener listener){
+		EventListener<?>[] current, updated;
+		do{
+			current = listeners.get();
+			updated = Arrays.copyOf(current, current.length + 1);
+			updated[current.length] = listener;
+		}while(!listeners.compareAndSet(current, updated));
+	}
+	
+	/**
+	 * Unregisters a {@link EventListener} so it will no longer be notified about
+	 * {@link Event Events} handled by this class. If it was registered more than once, only
+	 * one registration is removed.
+	 *
+	 * @param listener The EventListener to unregister
+	 */
+	public final void unregisterListener(Listener listener){
+		EventListener<?>[] current, updated;
+		do{
+			current = listeners.get();
+			int index = indexOf(current, listener);
+			if(index == -1){
+				return;
+			}
+			updated = new EventListener<?>[current.length - 1];
+			System.arraycopy(current, 0, updated, 0, index);
+			System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+		}while(!listeners.compareAndSet(current, updated));
+	}
+	
+	/**
+	 * @return The number of {@link EventListener EventListeners} currently registered
+	 */
+	public final int getListenerCount(){
+		return listeners.get().length;
+	}
+	
+	/**
+	 * Sends the given {@link Event} out to all of the {@link EventListener EventListeners} registered
+	 * when this is called.
+	 *
+	 * @param e The Event to send out
+	 */
+	@SuppressWarnings("unchecked")
+	protected final void sendEventToListeners(EventType e){
+		EventListener<?>[] snapshot = listeners.get();
+		for(EventListener<?> listener: snapshot){
+			((EventListener<EventType>) listener).handleEvent(e);
+		}
+	}
+	
+	/**
+	 * Finds the index of the given {@link EventListener} in the given array
+	 *
+	 * @param array The array to search
+	 * @param listener The EventListener to find
+	 * @return The index of the EventListener, or -1 if it's not in the array
+	 */
+	private static int indexOf(EventListener<?>[] array, EventListener<?> listener){
+		for(int i = 0; i < array.length; i++){
+			if(Objects.equals(array[i], listener)){
+				return i;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,175 @@
+package com.github.tadukoo.util.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Event Listener Stats keeps track of how an {@link EventListener} registered in an {@link AsyncEventHandler} is
+ * keeping up with the {@link Event Events} sent to it. The stats are updated live as {@link Event Events} are sent
+ * and handled.
+ * <br><br>
+ * The lag of an {@link Event} is the time between it being sent and the listener starting to handle it. A listener
+ * whose lag keeps growing (or that drops a lot of {@link Event Events}) can't keep up with how fast they're sent.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public class EventListenerStats{
+	
+	/** The number of {@link Event Events} that can be waiting in the listener's queue */
+	private final int capacity;
+	/** What's done with a new {@link Event} when the listener's queue is full */
+	private final EventOverflowPolicy overflowPolicy;
+	/** The number of {@link Event Events} handed to the listener */
+	private final LongAdder delivered = new LongAdder();
+	/** The number of {@link Event Events} dropped because the listener's queue was full */
+	private final LongAdder dropped = new LongAdder();
+	/** The number of {@link Event Events} that replaced a waiting {@link Event} of the same type */
+	private final LongAdder coalesced = new LongAdder();
+	/** The number of {@link Event Events} the listener threw an exception for */
+	private final LongAdder failed = new LongAdder();
+	/** The total lag (in nanoseconds) of all the delivered {@link Event Events} */
+	private final LongAdder totalLagNanos = new LongAdder();
+	/** The largest lag (in nanoseconds) of any delivered {@link Event} */
+	private final AtomicLong maxLagNanos = new AtomicLong();
+	/** The lag (in nanoseconds) of the last delivered {@link Event} */
+	private volatile long lastLagNanos = 0;
+	/** The number of {@link Event Events} waiting in the listener's queue */
+	private volatile int queued = 0;
+	/** The time (from {@link System#nanoTime()}) the oldest waiting {@link Event} was sent */
+	private volatile long oldestQueuedNanos = 0;
+	
+	/**
+	 * Creates a new {@link EventListenerStats}
+	 *
+	 * @param capacity The number of {@link Event Events} that can be waiting in the listener's queue
+	 * @param overflowPolicy What's done with a new {@link Event} when the listener's queue is full
+	 */
+	EventListenerStats(int capacity, EventOverflowPolicy overflowPolicy){
+		this.capacity = capacity;
+		this.overflowPolicy = overflowPolicy;
+	}
+	
+	/**
+	 * @return The number of {@link Event Events} that can be waiting in the listener's queue
+	 */
+	public int getCapacity(){
+		return capacity;
+	}
+	
+	/**
+	 * @return What's done with a new {@link Event} when the listener's queue is full
+	 */
+	public EventOverflowPolicy getOverflowPolicy(){
+		return overflowPolicy;
+	}
+	
+	/**
+	 * @return The number of {@link Event Events} waiting in the listener's queue
+	 */
+	public int getQueued(){
+		return queued;
+	}
+	
+	/**
+	 * @return How long (in nanoseconds) the oldest waiting {@link Event} has been waiting, or 0 if none are waiting
+	 */
+	public long getCurrentLagNanos(){
+		long oldest = oldestQueuedNanos;
+		return queued == 0 || oldest == 0?0:System.nanoTime() - oldest;
+	}
+	
+	/**
+	 * @return The number of {@link Event Events} handed to the listener
+	 */
+	public long getDelivered(){
+		return delivered.sum();
+	}
+	
+	/**
+	 * @return The number of {@link Event Events} dropped because the listener's queue was full
+	 */
+	public long getDropped(){
+		return dropped.sum();
+	}
+	
+	/**
+	 * @return The number of {@link Event Events} that replaced a waiting {@link Event} of the same type
+	 */
+	public long getCoalesced(){
+		return coalesced.sum();
+	}
+	
+	/**
+	 * @return The number of {@link Event Events} the listener threw an exception for
+	 */
+	public long getFailed(){
+		return failed.sum();
+	}
+	
+	/**
+	 * @return The lag (in nanoseconds) of the last delivered {@link Event}
+	 */
+	public long getLastLagNanos(){
+		return lastLagNanos;
+	}
+	
+	/**
+	 * @return The largest lag (in nanoseconds) of any delivered {@link Event}
+	 */
+	public long getMaxLagNanos(){
+		return maxLagNanos.get();
+	}
+	
+	/**
+	 * @return The average lag (in nanoseconds) of the delivered {@link Event Events}
+	 */
+	public long getAverageLagNanos(){
+		long count = delivered.sum();
+		return count == 0?0:totalLagNanos.sum()/count;
+	}
+	
+	/**
+	 * Records the current state of the listener's queue
+	 *
+	 * @param queued The number of {@link Event Events} waiting in the queue
+	 * @param oldestQueuedNanos The time (from {@link System#nanoTime()}) the oldest waiting {@link Event} was sent
+	 */
+	void recordQueue(int queued, long oldestQueuedNanos){
+		this.oldestQueuedNanos = oldestQueuedNanos;
+		this.queued = queued;
+	}
+	
+	/**
+	 * Records that an {@link Event} was handed to the listener
+	 *
+	 * @param lagNanos The lag (in nanoseconds) of the {@link Event}
+	 */
+	void recordDelivered(long lagNanos){
+		delivered.increment();
+		totalLagNanos.add(lagNanos);
+		lastLagNanos = lagNanos;
+		maxLagNanos.accumulateAndGet(lagNanos, Math::max);
+	}
+	
+	/**
+	 * Records that an {@link Event} was dropped because the listener's queue was full
+	 */
+	void recordDropped(){
+		dropped.increment();
+	}
+	
+	/**
+	 * Records that an {@link Event} replaced a waiting {@link Event} of the same type
+	 */
+	void recordCoalesced(){
+		coalesced.increment();
+	}
+	
+	/**
+	 * Records that the listener threw an exception for an {@link Event}
+	 */
+	void recordFailed(){
+		failed.increment();
+	}
+}
@@ -0,0 +1,21 @@
+package com.github.tadukoo.util.event;
+
+/**
+ * Event Overflow Policy determines what an {@link AsyncEventHandler} does with a new {@link Event} when an
+ * {@link EventListener EventListener's} queue is full.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public enum EventOverflowPolicy{
+	
+	/** Wait for space in the queue, so no {@link Event Events} are lost (but the sending thread can be held up) */
+	BLOCK,
+	/** Drop the oldest {@link Event} in the queue to make room, so the listener gets the newest ones */
+	DROP_OLDEST,
+	/**
+	 * Replace a waiting {@link Event} of the same {@link Event#getType() type} with the new one, so the listener only
+	 * gets the latest of each type, and drop the oldest {@link Event} if the queue is full of other types
+	 */
+	COALESCE
+}
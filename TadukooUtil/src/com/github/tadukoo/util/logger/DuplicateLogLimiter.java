@@ -0,0 +1,150 @@
+package com.github.tadukoo.util.logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Duplicate Log Limiter is a {@link LogLimiter} that suppresses entries similar to one that was logged recently.
+ * Entries with a {@link Throwable} are similar if their Throwables are the same class and were thrown from the same
+ * place, and entries without one are similar if they have the same message. The first of a kind of entry is logged,
+ * then similar ones are suppressed until the summary interval has passed, at which point the next one is logged
+ * with a summary of how many were suppressed.
+ * <br><br>
+ * If similar entries stop coming, the ones suppressed since the last one was logged won't be summarized by a later
+ * entry. To not lose track of them, {@link #drainSummaries()} can be called on a timer or when shutting down, and
+ * the summaries it returns logged (at a {@link java.util.logging.Level} this limiter isn't used for).
+ * <br><br>
+ * Only a set number of kinds of entries are tracked, dropping the least recently seen ones (along with how many of
+ * them were suppressed).
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public class DuplicateLogLimiter implements LogLimiter{
+	/** The default number of kinds of entries to track */
+	public static final int DEFAULT_MAX_TRACKED = 1024;
+	
+	/**
+	 * Tracks a kind of entry: when one was last logged and how many were suppressed since
+	 */
+	private static class Tracked{
+		/** The time (from {@link System#nanoTime()}) one of these entries was last logged */
+		private long lastLogged;
+		/** The message of the last one of these entries that was logged (can be {@code null}) */
+		private String message;
+		/** The number of these entries suppressed since the last one was logged */
+		private long suppressed = 0;
+		
+		/**
+		 * Creates a new {@link Tracked}
+		 *
+		 * @param lastLogged The time (from {@link System#nanoTime()}) one of these entries was last logged
+		 * @param message The message of the last one of these entries that was logged (can be {@code null})
+		 */
+		private Tracked(long lastLogged, String message){
+			this.lastLogged = lastLogged;
+			this.message = message;
+		}
+	}
+	
+	/** How long to suppress similar entries before logging one with a summary, in nanoseconds */
+	private final long summaryIntervalNanos;
+	/** The tracked kinds of entries, in order from least to most recently seen */
+	private final Map<String, Tracked> tracked;
+	
+	/**
+	 * Creates a new {@link DuplicateLogLimiter}, tracking up to {@link #DEFAULT_MAX_TRACKED} kinds of entries
+	 *
+	 * @param summaryInterval How long to suppress similar entries before logging one with a summary
+	 */
+	public DuplicateLogLimiter(Duration summaryInterval){
+		this(summaryInterval, DEFAULT_MAX_TRACKED);
+	}
+	
+	/**
+	 * Creates a new {@link DuplicateLogLimiter}
+	 *
+	 * @param summaryInterval How long to suppress similar entries before logging one with a summary
+	 * @param maxTracked The most kinds of entries to track
+	 */
+	public DuplicateLogLimiter(Duration summaryInterval, int maxTracked){
+		if(summaryInterval.isNegative()){
+			throw new IllegalArgumentException("summaryInterval can't be negative, but was " + summaryInterval);
+		}
+		if(maxTracked < 1){
+			throw new IllegalArgumentException("maxTracked must be at least 1, but was " + maxTracked);
+		}
+		summaryIntervalNanos = summaryInterval.toNanos();
+		tracked = new LinkedHashMap<>(16, 0.75f, true){
+			/** {@inheritDoc} */
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Tracked> eldest){
+				return size() > maxTracked;
+			}
+		};
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public long tryAcquire(String message, Throwable t){
+		String key = getKey(message, t);
+		long now = System.nanoTime();
+		synchronized(tracked){
+			Tracked entry = tracked.get(key);
+			if(entry == null){
+				tracked.put(key, new Tracked(now, message));
+				return 0;
+			}
+			if(now - entry.lastLogged < summaryIntervalNanos){
+				entry.suppressed++;
+				return -1;
+			}
+			long suppressed = entry.suppressed;
+			entry.lastLogged = now;
+			entry.message = message;
+			entry.suppressed = 0;
+			return suppressed;
+		}
+	}
+	
+	/**
+	 * Takes summaries of the entries suppressed since the last similar one was logged, which would otherwise only
+	 * be reported once another similar entry comes along after the summary interval. Each summary is the message
+	 * of the last similar entry logged, followed by how many were suppressed (the same way {@link EasyLogger} adds
+	 * it), and the counts start over, so suppressed entries are only summarized once
+	 *
+	 * @return The summaries of the suppressed entries, for kinds of entries that have any
+	 */
+	public List<String> drainSummaries(){
+		List<String> summaries = new ArrayList<>();
+		synchronized(tracked){
+			for(Tracked entry: tracked.values()){
+				if(entry.suppressed > 0){
+					summaries.add((entry.message == null?"":entry.message + " ") +
+							"(suppressed " + entry.suppressed + " similar)");
+					entry.suppressed = 0;
+				}
+			}
+		}
+		return summaries;
+	}
+	
+	/**
+	 * Figures out the key for the kind of the given entry: the class of the {@link Throwable} and where it was
+	 * thrown from if there is one, or the message if not
+	 *
+	 * @param message The message of the entry (can be {@code null})
+	 * @param t The {@link Throwable} of the entry (can be {@code null})
+	 * @return The key for the kind of entry
+	 */
+	private static String getKey(String message, Throwable t){
+		if(t == null){
+			return "message:" + message;
+		}
+		StackTraceElement[] stackTrace = t.getStackTrace();
+		return t.getClass().getName() + "@" + (stackTrace.length == 0?"":stackTrace[0].toString());
+	}
+}
@@ -1,21 +1,69 @@
 package com.github.tadukoo.util.logger;
 
-import com.github.tadukoo.util.stack.StackUtil;
+import com.github.tadukoo.util.functional.supplier.Supplier;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * EasyLogger is a wrapper around {@link Logger} that provides methods to simplify logging operations
+ * EasyLogger is a wrapper around {@link Logger} that provides methods to simplify logging operations.
+ * {@link LogLimiter LogLimiters} can be set for each {@link Level} to keep repeated messages from flooding the log.
  *
  * @author Logan Ferree (Tadukoo)
- * @version Beta v.0.6
+ * @version Beta v.0.7
  * @since Alpha v.0.2
  */
 public class EasyLogger{
 	
+	/** Used to find the class and method that called this EasyLogger, only walking as far up the stack as needed */
+	private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+	
+	/**
+	 * The {@link LogLimiter} setting for a {@link Level}: either one {@link LogLimiter} shared by all calls, or one
+	 * for each call site
+	 */
+	private static class LimiterSetting{
+		/** The {@link LogLimiter} shared by all calls (or {@code null} if there's one for each call site) */
+		private final LogLimiter limiter;
+		/** Creates a {@link LogLimiter} for each call site (or {@code null} if one is shared by all calls) */
+		private final Supplier<LogLimiter> limiterCreator;
+		/** The {@link LogLimiter} for each call site, by class, method, and line number */
+		private final Map<String, LogLimiter> callSiteLimiters = new ConcurrentHashMap<>();
+		
+		/**
+		 * Creates a new {@link LimiterSetting}
+		 *
+		 * @param limiter The {@link LogLimiter} shared by all calls (or {@code null} if there's one for each call site)
+		 * @param limiterCreator Creates a {@link LogLimiter} for each call site (or {@code null} if one is shared by
+		 * all calls)
+		 */
+		private LimiterSetting(LogLimiter limiter, Supplier<LogLimiter> limiterCreator){
+			this.limiter = limiter;
+			this.limiterCreator = limiterCreator;
+		}
+		
+		/**
+		 * Gets the {@link LogLimiter} to use for the given call site
+		 *
+		 * @param caller The {@link StackWalker.StackFrame frame} of the call site (can be {@code null})
+		 * @return The {@link LogLimiter} to use
+		 */
+		private LogLimiter getLimiter(StackWalker.StackFrame caller){
+			if(limiter != null){
+				return limiter;
+			}
+			String callSite = caller == null?"":
+					caller.getClassName() + "." + caller.getMethodName() + ":" + caller.getLineNumber();
+			return callSiteLimiters.computeIfAbsent(callSite, key -> limiterCreator.get());
+		}
+	}
+	
 	/** The {@link Logger} wrapped in this EasyLogger */
 	private final Logger logger;
+	/** The {@link LimiterSetting LogLimiter settings} for each {@link Level} that has one */
+	private final Map<Level, LimiterSetting> limiters = new ConcurrentHashMap<>();
 	
 	/**
 	 * Wraps the given {@link Logger} as an EasyLogger.
@@ -33,13 +81,56 @@ public class EasyLogger{
 		return logger;
 	}
 	
+	/**
+	 * Checks whether a message at the given {@link Level} would be logged by the {@link Logger}. If there's no
+	 * {@link Logger} (e.g. in a subclass that handles logging itself), everything is treated as loggable
+	 *
+	 * @param level The {@link Level} to check
+	 * @return Whether a message at the given {@link Level} would be logged
+	 */
+	public boolean isLoggable(Level level){
+		return logger == null || logger.isLoggable(level);
+	}
+	
+	/**
+	 * Sets a {@link LogLimiter} to decide whether messages at the given {@link Level} are logged, shared by every
+	 * call at that {@link Level} (replacing any {@link LogLimiter} already set for it)
+	 *
+	 * @param level The {@link Level} to limit
+	 * @param limiter The {@link LogLimiter} to use
+	 */
+	public void setLimiter(Level level, LogLimiter limiter){
+		limiters.put(level, new LimiterSetting(limiter, null));
+	}
+	
+	/**
+	 * Sets up a separate {@link LogLimiter} for each place messages at the given {@link Level} are logged from
+	 * (by class, method, and line number), so that one noisy call site doesn't suppress the others (replacing any
+	 * {@link LogLimiter} already set for the {@link Level})
+	 *
+	 * @param level The {@link Level} to limit
+	 * @param limiterCreator Creates the {@link LogLimiter} for each call site
+	 */
+	public void setCallSiteLimiter(Level level, Supplier<LogLimiter> limiterCreator){
+		limiters.put(level, new LimiterSetting(null, limiterCreator));
+	}
+	
+	/**
+	 * Removes any {@link LogLimiter} for the given {@link Level}, so all its messages are logged again
+	 *
+	 * @param level The {@link Level} to stop limiting
+	 */
+	public void removeLimiter(Level level){
+		limiters.remove(level);
+	}
+	
 	/**
 	 * Logs the given {@link Level#INFO info} message to the {@link Logger}
 	 *
 	 * @param info The message to be logged
 	 */
 	public void logInfo(String info){
-		logger.logp(Level.INFO, StackUtil.getCallingClassName(), StackUtil.getCallingMethodName(), info);
+		log(Level.INFO, info);
 	}
 	
 	/**
@@ -49,7 +140,7 @@ public class EasyLogger{
 	 * @param t The {@link Throwable} to be logged
 	 */
 	public void logInfo(Throwable t){
-		logger.logp(Level.INFO, StackUtil.getCallingClassName(), StackUtil.getCallingMethodName(), t.getMessage(), t);
+		log(Level.INFO, t.getMessage(), t);
 	}
 	
 	/**
@@ -59,7 +150,72 @@ public class EasyLogger{
 	 * @param t The {@link Throwable} to be logged
 	 */
 	public void logInfo(String info, Throwable t){
-		logger.logp(Level.INFO, StackUtil.getCallingClassName(), StackUtil.getCallingMethodName(), info, t);
+		log(Level.INFO, info, t);
+	}
+	
+	/**
+	 * Logs the {@link Level#INFO info} message from the given {@link Supplier} to the {@link Logger}. The message
+	 * is only built if it would be logged
+	 *
+	 * @param info A {@link Supplier} for the message to be logged
+	 */
+	public void logInfo(Supplier<String> info){
+		if(isLoggable(Level.INFO)){
+			logInfo(info.get());
+		}
+	}
+	
+	/**
+	 * Logs the {@link Level#INFO info} message from the given {@link Supplier} with the given {@link Throwable} to
+	 * the {@link Logger}. The message is only built if it would be logged
+	 *
+	 * @param info A {@link Supplier} for the message to be logged
+	 * @param t The {@link Throwable} to be logged
+	 */
+	public void logInfo(Supplier<String> info, Throwable t){
+		if(isLoggable(Level.INFO)){
+			logInfo(info.get(), t);
+		}
+	}
+	
+	/**
+	 * Logs the given {@link Level#INFO info} message to the {@link Logger}, with the first {@code {}} in it
+	 * replaced by the given parameter. The message is only formatted if it would be logged
+	 *
+	 * @param format The message to be logged, with {@code {}} where the parameter goes
+	 * @param param The parameter to put in the message
+	 */
+	public void logInfo(String format, Object param){
+		if(isLoggable(Level.INFO)){
+			logInfo(formatMessage(format, param));
+		}
+	}
+	
+	/**
+	 * Logs the given {@link Level#INFO info} message to the {@link Logger}, with the first two {@code {}}s in it
+	 * replaced by the given parameters. The message is only formatted if it would be logged
+	 *
+	 * @param format The message to be logged, with {@code {}} where each parameter goes
+	 * @param param1 The first parameter to put in the message
+	 * @param param2 The second parameter to put in the message
+	 */
+	public void logInfo(String format, Object param1, Object param2){
+		if(isLoggable(Level.INFO)){
+			logInfo(formatMessage(format, param1, param2));
+		}
+	}
+	
+	/**
+	 * Logs the given {@link Level#INFO info} message to the {@link Logger}, with each {@code {}} in it replaced by
+	 * the given parameters in order. The message is only formatted if it would be logged
+	 *
+	 * @param format The message to be logged, with {@code {}} where each parameter goes
+	 * @param params The parameters to put in the message
+	 */
+	public void logInfo(String format, Object ... params){
+		if(isLoggable(Level.INFO)){
+			logInfo(formatMessage(format, params));
+		}
 	}
 	
 	/**
@@ -68,7 +224,7 @@ public class EasyLogger{
 	 * @param warning The message to be logged
 	 */
 	public void logWarning(String warning){
-		logger.logp(Level.WARNING, StackUtil.getCallingClassName(), StackUtil.getCallingMethodName(), warning);
+		log(Level.WARNING, warning);
 	}
 	
 	/**
@@ -78,7 +234,7 @@ public class EasyLogger{
 	 * @param t The {@link Throwable} to be logged
 	 */
 	public void logWarning(Throwable t){
-		logger.logp(Level.WARNING, StackUtil.getCallingClassName(), StackUtil.getCallingMethodName(), t.getMessage(), t);
+		log(Level.WARNING, t.getMessage(), t);
 	}
 	
 	/**
@@ -88,7 +244,72 @@ public class EasyLogger{
 	 * @param t The {@link Throwable} to be logged
 	 */
 	public void logWarning(String warning, Throwable t){
-		logger.logp(Level.WARNING, StackUtil.getCallingClassName(), StackUtil.getCallingMethodName(), warning, t);
+		log(Level.WARNING, warning, t);
+	}
+	
+	/**
+	 * Logs the {@link Level#WARNING warning} message from the given {@link Supplier} to the {@link Logger}. The
+	 * message is only built if it would be logged
+	 *
+	 * @param warning A {@link Supplier} for the message to be logged
+	 */
+	public void logWarning(Supplier<String> warning){
+		if(isLoggable(Level.WARNING)){
+			logWarning(warning.get());
+		}
+	}
+	
+	/**
+	 * Logs the {@link Level#WARNING warning} message from the given {@link Supplier} with the given
+	 * {@link Throwable} to the {@link Logger}. The message is only built if it would be logged
+	 *
+	 * @param warning A {@link Supplier} for the message to be logged
+	 * @param t The {@link Throwable} to be logged
+	 */
+	public void logWarning(Supplier<String> warning, Throwable t){
+		if(isLoggable(Level.WARNING)){
+			logWarning(warning.get(), t);
+		}
+	}
+	
+	/**
+	 * Logs the given {@link Level#WARNING warning} message to the {@link Logger}, with the first {@code {}} in it
+	 * replaced by the given parameter. The message is only formatted if it would be logged
+	 *
+	 * @param format The message to be logged, with {@code {}} where the parameter goes
+	 * @param param The parameter to put in the message
+	 */
+	public void logWarning(String format, Object param){
+		if(isLoggable(Level.WARNING)){
+			logWarning(formatMessage(format, param));
+		}
+	}
+	
+	/**
+	 * Logs the given {@link Level#WARNING warning} message to the {@link Logger}, with the first two {@code {}}s
+	 * in it replaced by the given parameters. The message is only formatted if it would be logged
+	 *
+	 * @param format The message to be logged, with {@code {}} where each parameter goes
+	 * @param param1 The first parameter to put in the message
+	 * @param param2 The second parameter to put in the message
+	 */
+	public void logWarning(String format, Object param1, Object param2){
+		if(isLoggable(Level.WARNING)){
+			logWarning(formatMessage(format, param1, param2));
+		}
+	}
+	
+	/**
+	 * Logs the given {@link Level#WARNING warning} message to the {@link Logger}, with each {@code {}} in it
+	 * replaced by the given parameters in order. The message is only formatted if it would be logged
+	 *
+	 * @param format The message to be logged, with {@code {}} where each parameter goes
+	 * @param params The parameters to put in the message
+	 */
+	public void logWarning(String format, Object ... params){
+		if(isLoggable(Level.WARNING)){
+			logWarning(formatMessage(format, params));
+		}
 	}
 	
 	/**
@@ -97,7 +318,7 @@ public class EasyLogger{
 	 * @param error The message to be logged
 	 */
 	public void logError(String error){
-		logger.logp(Level.SEVERE, StackUtil.getCallingClassName(), StackUtil.getCallingMethodName(), error);
+		log(Level.SEVERE, error);
 	}
 	
 	/**
@@ -107,7 +328,7 @@ public class EasyLogger{
 	 * @param t The {@link Throwable} to be logged
 	 */
 	public void logError(Throwable t){
-		logger.logp(Level.SEVERE, StackUtil.getCallingClassName(), StackUtil.getCallingMethodName(), t.getMessage(), t);
+		log(Level.SEVERE, t.getMessage(), t);
 	}
 	
 	/**
@@ -117,7 +338,72 @@ public class EasyLogger{
 	 * @param t The {@link Throwable} to be logged
 	 */
 	public void logError(String error, Throwable t){
-		logger.logp(Level.SEVERE, StackUtil.getCallingClassName(), StackUtil.getCallingMethodName(), error, t);
+		log(Level.SEVERE, error, t);
+	}
+	
+	/**
+	 * Logs the {@link Level#SEVERE error} message from the given {@link Supplier} to the {@link Logger}. The
+	 * message is only built if it would be logged
+	 *
+	 * @param error A {@link Supplier} for the message to be logged
+	 */
+	public void logError(Supplier<String> error){
+		if(isLoggable(Level.SEVERE)){
+			logError(error.get());
+		}
+	}
+	
+	/**
+	 * Logs the {@link Level#SEVERE error} message from the given {@link Supplier} with the given {@link Throwable}
+	 * to the {@link Logger}. The message is only built if it would be logged
+	 *
+	 * @param error A {@link Supplier} for the message to be logged
+	 * @param t The {@link Throwable} to be logged
+	 */
+	public void logError(Supplier<String> error, Throwable t){
+		if(isLoggable(Level.SEVERE)){
+			logError(error.get(), t);
+		}
+	}
+	
+	/**
+	 * Logs the given {@link Level#SEVERE error} message to the {@link Logger}, with the first {@code {}} in it
+	 * replaced by the given parameter. The message is only formatted if it would be logged
+	 *
+	 * @param format The message to be logged, with {@code {}} where the parameter goes
+	 * @param param The parameter to put in the message
+	 */
+	public void logError(String format, Object param){
+		if(isLoggable(Level.SEVERE)){
+			logError(formatMessage(format, param));
+		}
+	}
+	
+	/**
+	 * Logs the given {@link Level#SEVERE error} message to the {@link Logger}, with the first two {@code {}}s in
+	 * it replaced by the given parameters. The message is only formatted if it would be logged
+	 *
+	 * @param format The message to be logged, with {@code {}} where each parameter goes
+	 * @param param1 The first parameter to put in the message
+	 * @param param2 The second parameter to put in the message
+	 */
+	public void logError(String format, Object param1, Object param2){
+		if(isLoggable(Level.SEVERE)){
+			logError(formatMessage(format, param1, param2));
+		}
+	}
+	
+	/**
+	 * Logs the given {@link Level#SEVERE error} message to the {@link Logger}, with each {@code {}} in it replaced
+	 * by the given parameters in order. The message is only formatted if it would be logged
+	 *
+	 * @param format The message to be logged, with {@code {}} where each parameter goes
+	 * @param params The parameters to put in the message
+	 */
+	public void logError(String format, Object ... params){
+		if(isLoggable(Level.SEVERE)){
+			logError(formatMessage(format, params));
+		}
 	}
 	
 	/**
@@ -126,7 +412,7 @@ public class EasyLogger{
 	 * @param config The message to be logged
 	 */
 	public void logConfig(String config){
-		logger.logp(Level.CONFIG, StackUtil.getCallingClassName(), StackUtil.getCallingMethodName(), config);
+		log(Level.CONFIG, config);
 	}
 	
 	/**
@@ -136,7 +422,7 @@ public class EasyLogger{
 	 * @param t The {@link Throwable} to be logged
 	 */
 	public void logConfig(Throwable t){
-		logger.logp(Level.CONFIG, StackUtil.getCallingClassName(), StackUtil.getCallingMethodName(), t.getMessage(), t);
+		log(Level.CONFIG, t.getMessage(), t);
 	}
 	
 	/**
@@ -146,7 +432,72 @@ public class EasyLogger{
 	 * @param t The {@link Throwable} to be logged
 	 */
 	public void logConfig(String config, Throwable t){
-		logger.logp(Level.CONFIG, StackUtil.getCallingClassName(), StackUtil.getCallingMethodName(), config, t);
+		log(Level.CONFIG, config, t);
+	}
+	
+	/**
+	 * Logs the {@link Level#CONFIG config} message from the given {@link Supplier} to the {@link Logger}. The
+	 * message is only built if it would be logged
+	 *
+	 * @param config A {@link Supplier} for the message to be logged
+	 */
+	public void logConfig(Supplier<String> config){
+		if(isLoggable(Level.CONFIG)){
+			logConfig(config.get());
+		}
+	}
+	
+	/**
+	 * Logs the {@link Level#CONFIG config} message from the given {@link Supplier} with the given
+	 * {@link Throwable} to the {@link Logger}. The message is only built if it would be logged
+	 *
+	 * @param config A {@link Supplier} for the message to be logged
+	 * @param t The {@link Throwable} to be logged
+	 */
+	public void logConfig(Supplier<String> config, Throwable t){
+		if(isLoggable(Level.CONFIG)){
+			logConfig(config.get(), t);
+		}
+	}
+	
+	/**
+	 * Logs the given {@link Level#CONFIG config} message to the {@link Logger}, with the first {@code {}} in it
+	 * replaced by the given parameter. The message is only formatted if it would be logged
+	 *
+	 * @param format The message to be logged, with {@code {}} where the parameter goes
+	 * @param param The parameter to put in the message
+	 */
+	public void logConfig(String format, Object param){
+		if(isLoggable(Level.CONFIG)){
+			logConfig(formatMessage(format, param));
+		}
+	}
+	
+	/**
+	 * Logs the given {@link Level#CONFIG config} message to the {@link Logger}, with the first two {@code {}}s in
+	 * it replaced by the given parameters. The message is only formatted if it would be logged
+	 *
+	 * @param format The message to be logged, with {@code {}} where each parameter goes
+	 * @param param1 The first parameter to put in the message
+	 * @param param2 The second parameter to put in the message
+	 */
+	public void logConfig(String format, Object param1, Object param2){
+		if(isLoggable(Level.CONFIG)){
+			logConfig(formatMessage(format, param1, param2));
+		}
+	}
+	
+	/**
+	 * Logs the given {@link Level#CONFIG config} message to the {@link Logger}, with each {@code {}} in it
+	 * replaced by the given parameters in order. The message is only formatted if it would be logged
+	 *
+	 * @param format The message to be logged, with {@code {}} where each parameter goes
+	 * @param params The parameters to put in the message
+	 */
+	public void logConfig(String format, Object ... params){
+		if(isLoggable(Level.CONFIG)){
+			logConfig(formatMessage(format, params));
+		}
 	}
 	
 	/**
@@ -155,7 +506,7 @@ public class EasyLogger{
 	 * @param debug The message to be logged
 	 */
 	public void logDebugFine(String debug){
-		logger.logp(Level.FINE, StackUtil.getCallingClassName(), StackUtil.getCallingMethodName(), debug);
+		log(Level.FINE, debug);
 	}
 	
 	/**
@@ -165,7 +516,7 @@ public class EasyLogger{
 	 * @param t The {@link Throwable} to be logged
 	 */
 	public void logDebugFine(Throwable t){
-		logger.logp(Level.FINE, StackUtil.getCallingClassName(), StackUtil.getCallingMethodName(), t.getMessage(), t);
+		log(Level.FINE, t.getMessage(), t);
 	}
 	
 	/**
@@ -175,7 +526,72 @@ public class EasyLogger{
 	 * @param t The {@link Throwable} to be logged
 	 */
 	public void logDebugFine(String debug, Throwable t){
-		logger.logp(Level.FINE, StackUtil.getCallingClassName(), StackUtil.getCallingMethodName(), debug, t);
+		log(Level.FINE, debug, t);
+	}
+	
+	/**
+	 * Logs the debug message from the given {@link Supplier} to the {@link Logger} at {@link Level#FINE}. The
+	 * message is only built if it would be logged
+	 *
+	 * @param debug A {@link Supplier} for the message to be logged
+	 */
+	public void logDebugFine(Supplier<String> debug){
+		if(isLoggable(Level.FINE)){
+			logDebugFine(debug.get());
+		}
+	}
+	
+	/**
+	 * Logs the debug message from the given {@link Supplier} with the given {@link Throwable} to the
+	 * {@link Logger} at {@link Level#FINE}. The message is only built if it would be logged
+	 *
+	 * @param debug A {@link Supplier} for the message to be logged
+	 * @param t The {@link Throwable} to be logged
+	 */
+	public void logDebugFine(Supplier<String> debug, Throwable t){
+		if(isLoggable(Level.FINE)){
+			logDebugFine(debug.get(), t);
+		}
+	}
+	
+	/**
+	 * Logs the given debug message to the {@link Logger} at {@link Level#FINE}, with the first {@code {}} in it
+	 * replaced by the given parameter. The message is only formatted if it would be logged
+	 *
+	 * @param format The message to be logged, with {@code {}} where the parameter goes
+	 * @param param The parameter to put in the message
+	 */
+	public void logDebugFine(String format, Object param){
+		if(isLoggable(Level.FINE)){
+			logDebugFine(formatMessage(format, param));
+		}
+	}
+	
+	/**
+	 * Logs the given debug message to the {@link Logger} at {@link Level#FINE}, with the first two {@code {}}s in
+	 * it replaced by the given parameters. The message is only formatted if it would be logged
+	 *
+	 * @param format The message to be logged, with {@code {}} where each parameter goes
+	 * @param param1 The first parameter to put in the message
+	 * @param param2 The second parameter to put in the message
+	 */
+	public void logDebugFine(String format, Object param1, Object param2){
+		if(isLoggable(Level.FINE)){
+			logDebugFine(formatMessage(format, param1, param2));
+		}
+	}
+	
+	/**
+	 * Logs the given debug message to the {@link Logger} at {@link Level#FINE}, with each {@code {}} in it
+	 * replaced by the given parameters in order. The message is only formatted if it would be logged
+	 *
+	 * @param format The message to be logged, with {@code {}} where each parameter goes
+	 * @param params The parameters to put in the message
+	 */
+	public void logDebugFine(String format, Object ... params){
+		if(isLoggable(Level.FINE)){
+			logDebugFine(formatMessage(format, params));
+		}
 	}
 	
 	/**
@@ -184,7 +600,7 @@ public class EasyLogger{
 	 * @param debug The message to be logged
 	 */
 	public void logDebugFiner(String debug){
-		logger.logp(Level.FINER, StackUtil.getCallingClassName(), StackUtil.getCallingMethodName(), debug);
+		log(Level.FINER, debug);
 	}
 	
 	/**
@@ -194,7 +610,7 @@ public class EasyLogger{
 	 * @param t The {@link Throwable} to be logged
 	 */
 	public void logDebugFiner(Throwable t){
-		logger.logp(Level.FINER, StackUtil.getCallingClassName(), StackUtil.getCallingMethodName(), t.getMessage(), t);
+		log(Level.FINER, t.getMessage(), t);
 	}
 	
 	/**
@@ -204,7 +620,72 @@ public class EasyLogger{
 	 * @param t The {@link Throwable} to be logged
 	 */
 	public void logDebugFiner(String debug, Throwable t){
-		logger.logp(Level.FINER, StackUtil.getCallingClassName(), StackUtil.getCallingMethodName(), debug, t);
+		log(Level.FINER, debug, t);
+	}
+	
+	/**
+	 * Logs the debug message from the given {@link Supplier} to the {@link Logger} at {@link Level#FINER}. The
+	 * message is only built if it would be logged
+	 *
+	 * @param debug A {@link Supplier} for the message to be logged
+	 */
+	public void logDebugFiner(Supplier<String> debug){
+		if(isLoggable(Level.FINER)){
+			logDebugFiner(debug.get());
+		}
+	}
+	
+	/**
+	 * Logs the debug message from the given {@link Supplier} with the given {@link Throwable} to the
+	 * {@link Logger} at {@link Level#FINER}. The message is only built if it would be logged
+	 *
+	 * @param debug A {@link Supplier} for the message to be logged
+	 * @param t The {@link Throwable} to be logged
+	 */
+	public void logDebugFiner(Supplier<String> debug, Throwable t){
+		if(isLoggable(Level.FINER)){
+			logDebugFiner(debug.get(), t);
+		}
+	}
+	
+	/**
+	 * Logs the given debug message to the {@link Logger} at {@link Level#FINER}, with the first {@code {}} in it
+	 * replaced by the given parameter. The message is only formatted if it would be logged
+	 *
+	 * @param format The message to be logged, with {@code {}} where the parameter goes
+	 * @param param The parameter to put in the message
+	 */
+	public void logDebugFiner(String format, Object param){
+		if(isLoggable(Level.FINER)){
+			logDebugFiner(formatMessage(format, param));
+		}
+	}
+	
+	/**
+	 * Logs the given debug message to the {@link Logger} at {@link Level#FINER}, with the first two {@code {}}s in
+	 * it replaced by the given parameters. The message is only formatted if it would be logged
+	 *
+	 * @param format The message to be logged, with {@code {}} where each parameter goes
+	 * @param param1 The first parameter to put in the message
+	 * @param param2 The second parameter to put in the message
+	 */
+	public void logDebugFiner(String format, Object param1, Object param2){
+		if(isLoggable(Level.FINER)){
+			logDebugFiner(formatMessage(format, param1, param2));
+		}
+	}
+	
+	/**
+	 * Logs the given debug message to the {@link Logger} at {@link Level#FINER}, with each {@code {}} in it
+	 * replaced by the given parameters in order. The message is only formatted if it would be logged
+	 *
+	 * @param format The message to be logged, with {@code {}} where each parameter goes
+	 * @param params The parameters to put in the message
+	 */
+	public void logDebugFiner(String format, Object ... params){
+		if(isLoggable(Level.FINER)){
+			logDebugFiner(formatMessage(format, params));
+		}
 	}
 	
 	/**
@@ -213,7 +694,7 @@ public class EasyLogger{
 	 * @param debug The message to be logged
 	 */
 	public void logDebugFinest(String debug){
-		logger.logp(Level.FINEST, StackUtil.getCallingClassName(), StackUtil.getCallingMethodName(), debug);
+		log(Level.FINEST, debug);
 	}
 	
 	/**
@@ -223,7 +704,7 @@ public class EasyLogger{
 	 * @param t The {@link Throwable} to be logged
 	 */
 	public void logDebugFinest(Throwable t){
-		logger.logp(Level.FINEST, StackUtil.getCallingClassName(), StackUtil.getCallingMethodName(), t.getMessage(), t);
+		log(Level.FINEST, t.getMessage(), t);
 	}
 	
 	/**
@@ -233,6 +714,156 @@ public class EasyLogger{
 	 * @param t The {@link Throwable} to be logged
 	 */
 	public void logDebugFinest(String debug, Throwable t){
-		logger.logp(Level.FINEST, StackUtil.getCallingClassName(), StackUtil.getCallingMethodName(), debug, t);
+		log(Level.FINEST, debug, t);
+	}
+	
+	/**
+	 * Logs the debug message from the given {@link Supplier} to the {@link Logger} at {@link Level#FINEST}. The
+	 * message is only built if it would be logged
+	 *
+	 * @param debug A {@link Supplier} for the message to be logged
+	 */
+	public void logDebugFinest(Supplier<String> debug){
+		if(isLoggable(Level.FINEST)){
+			logDebugFinest(debug.get());
+		}
+	}
+	
+	/**
+	 * Logs the debug message from the given {@link Supplier} with the given {@link Throwable} to the
+	 * {@link Logger} at {@link Level#FINEST}. The message is only built if it would be logged
+	 *
+	 * @param debug A {@link Supplier} for the message to be logged
+	 * @param t The {@link Throwable} to be logged
+	 */
+	public void logDebugFinest(Supplier<String> debug, Throwable t){
+		if(isLoggable(Level.FINEST)){
+			logDebugFinest(debug.get(), t);
+		}
+	}
+	
+	/**
+	 * Logs the given debug message to the {@link Logger} at {@link Level#FINEST}, with the first {@code {}} in it
+	 * replaced by the given parameter. The message is only formatted if it would be logged
+	 *
+	 * @param format The message to be logged, with {@code {}} where the parameter goes
+	 * @param param The parameter to put in the message
+	 */
+	public void logDebugFinest(String format, Object param){
+		if(isLoggable(Level.FINEST)){
+			logDebugFinest(formatMessage(format, param));
+		}
+	}
+	
+	/**
+	 * Logs the given debug message to the {@link Logger} at {@link Level#FINEST}, with the first two {@code {}}s
+	 * in it replaced by the given parameters. The message is only formatted if it would be logged
+	 *
+	 * @param format The message to be logged, with {@code {}} where each parameter goes
+	 * @param param1 The first parameter to put in the message
+	 * @param param2 The second parameter to put in the message
+	 */
+	public void logDebugFinest(String format, Object param1, Object param2){
+		if(isLoggable(Level.FINEST)){
+			logDebugFinest(formatMessage(format, param1, param2));
+		}
+	}
+	
+	/**
+	 * Logs the given debug message to the {@link Logger} at {@link Level#FINEST}, with each {@code {}} in it
+	 * replaced by the given parameters in order. The message is only formatted if it would be logged
+	 *
+	 * @param format The message to be logged, with {@code {}} where each parameter goes
+	 * @param params The parameters to put in the message
+	 */
+	public void logDebugFinest(String format, Object ... params){
+		if(isLoggable(Level.FINEST)){
+			logDebugFinest(formatMessage(format, params));
+		}
+	}
+	
+	/**
+	 * Logs the given message to the {@link Logger} at the given {@link Level} (see
+	 * {@link #log(Level, String, Throwable)})
+	 *
+	 * @param level The {@link Level} to log at
+	 * @param message The message to be logged
+	 */
+	private void log(Level level, String message){
+		log(level, message, null);
+	}
+	
+	/**
+	 * Logs the given message with the given {@link Throwable} to the {@link Logger} at the given {@link Level},
+	 * along with the class and method that called this EasyLogger. If the {@link Logger} won't log at the given
+	 * {@link Level}, this returns right away, without looking at the stack. If there's a {@link LogLimiter} for the
+	 * {@link Level}, it decides whether the message is logged, and a summary of how many similar messages it
+	 * suppressed is added to the message
+	 *
+	 * @param level The {@link Level} to log at
+	 * @param message The message to be logged
+	 * @param t The {@link Throwable} to be logged (can be {@code null})
+	 */
+	private void log(Level level, String message, Throwable t){
+		if(!logger.isLoggable(level)){
+			return;
+		}
+		StackWalker.StackFrame caller = findCaller();
+		LimiterSetting limiterSetting = limiters.get(level);
+		if(limiterSetting != null){
+			long suppressed = limiterSetting.getLimiter(caller).tryAcquire(message, t);
+			if(suppressed < 0){
+				return;
+			}
+			if(suppressed > 0){
+				message = (message == null?"":message + " ") + "(suppressed " + suppressed + " similar)";
+			}
+		}
+		String className = caller == null?null:caller.getClassName();
+		String methodName = caller == null?null:caller.getMethodName();
+		if(t == null){
+			logger.logp(level, className, methodName, message);
+		}else{
+			logger.logp(level, className, methodName, message, t);
+		}
+	}
+	
+	/**
+	 * Finds the first frame on the stack outside of EasyLogger (and {@link LogEvent}), walking only as many frames
+	 * as it takes
+	 *
+	 * @return The {@link StackWalker.StackFrame frame} that called this EasyLogger (or {@code null} if there isn't one)
+	 */
+	static StackWalker.StackFrame findCaller(){
+		return STACK_WALKER.walk(frames -> frames
+				.dropWhile(frame -> frame.getClassName().equals(EasyLogger.class.getName()) ||
+						frame.getClassName().equals(LogEvent.class.getName()))
+				.findFirst()
+				.orElse(null));
+	}
+	
+	/**
+	 * Formats the given message by replacing each {@code {}} in it with the given parameters in order. If there
+	 * are more {@code {}}s than parameters, the extra ones are left as-is, and extra parameters are ignored
+	 *
+	 * @param format The message to format, with {@code {}} where each parameter goes
+	 * @param params The parameters to put in the message
+	 * @return The formatted message
+	 */
+	private static String formatMessage(String format, Object ... params){
+		if(format == null || params == null || params.length == 0){
+			return format;
+		}
+		StringBuilder message = new StringBuilder(format.length() + 16*params.length);
+		int start = 0;
+		for(Object param: params){
+			int placeholder = format.indexOf("{}", start);
+			if(placeholder == -1){
+				break;
+			}
+			message.append(format, start, placeholder).append(param);
+			start = placeholder + 2;
+		}
+		return message.append(format, start, format.length()).toString();
 	}
 }
@@ -0,0 +1,100 @@
+package com.github.tadukoo.util.logger;
+
+import com.github.tadukoo.util.ExceptionUtil;
+
+import java.time.format.DateTimeFormatter;
+import java.util.logging.Formatter;
+import java.util.logging.LogRecord;
+
+/**
+ * JSON Lines Formatter formats each {@link LogRecord} as one line of JSON, so logs can be read by log shippers
+ * without having to parse messages with regexes. Each line has the time, level, logger, source class and method,
+ * thread ID, and message of the record, along with the fields of a {@link StructuredLogRecord} and the stack trace
+ * of any {@link Throwable}, e.g.
+ * <pre>{@code {"time":"2024-01-01T00:00:00Z","level":"INFO","logger":"app","class":"a.B","method":"run",
+ * "thread":1,"message":"Downloaded file","file":"a.txt","bytes":512}}</pre>
+ * (all on one line). Anything that's {@code null} is left out. This can be used with any
+ * {@link java.util.logging.Handler}, such as an {@link com.github.tadukoo.util.logging.AsyncFileHandler}. Lines
+ * are built in a builder that's reused by each thread.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public class JsonLinesFormatter extends Formatter{
+	/** The largest builder to keep around for reuse, so that one huge record doesn't hold on to its memory */
+	private static final int MAX_KEPT_CAPACITY = 16*1024;
+	/** The builder for each thread, which is reused for every line formatted on that thread */
+	private static final ThreadLocal<StringBuilder> BUILDERS = ThreadLocal.withInitial(() -> new StringBuilder(512));
+	/** Hex digits for escaping control characters */
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+	
+	/** {@inheritDoc} */
+	@Override
+	public String format(LogRecord record){
+		StringBuilder json = BUILDERS.get();
+		json.setLength(0);
+		json.append("{\"time\":\"");
+		DateTimeFormatter.ISO_INSTANT.formatTo(record.getInstant(), json);
+		json.append('"');
+		appendField(json, "level", record.getLevel().getName());
+		appendField(json, "logger", record.getLoggerName());
+		appendField(json, "class", record.getSourceClassName());
+		appendField(json, "method", record.getSourceMethodName());
+		json.append(",\"thread\":").append(record.getLongThreadID());
+		appendField(json, "message", formatMessage(record));
+		if(record instanceof StructuredLogRecord structuredRecord && !structuredRecord.getFields().isEmpty()){
+			json.append(',').append(structuredRecord.getFields());
+		}
+		if(record.getThrown() != null){
+			appendField(json, "thrown", ExceptionUtil.getStackTraceAsString(record.getThrown()));
+		}
+		json.append("}\n");
+		
+		String line = json.toString();
+		if(json.capacity() > MAX_KEPT_CAPACITY){
+			BUILDERS.remove();
+		}
+		return line;
+	}
+	
+	/**
+	 * Appends a field with the given String value to the given JSON, if the value isn't {@code null}
+	 *
+	 * @param json The JSON to append to
+	 * @param name The name of the field
+	 * @param value The value of the field
+	 */
+	private static void appendField(StringBuilder json, String name, String value){
+		if(value != null){
+			json.append(",\"").append(name).append("\":");
+			appendJsonString(json, value);
+		}
+	}
+	
+	/**
+	 * Appends the given value to the given JSON as a JSON String, in quotes and with any special characters escaped
+	 *
+	 * @param json The JSON to append to
+	 * @param value The value to append
+	 */
+	static void appendJsonString(StringBuilder json, CharSequence value){
+		json.append('"');
+		for(int i = 0; i < value.length(); i++){
+			char c = value.charAt(i);
+			if(c == '"' || c == '\\'){
+				json.append('\\').append(c);
+			}else if(c == '\n'){
+				json.append("\\n");
+			}else if(c == '\r'){
+				json.append("\\r");
+			}else if(c == '\t'){
+				json.append("\\t");
+			}else if(c < 0x20){
+				json.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+			}else{
+				json.append(c);
+			}
+		}
+		json.append('"');
+	}
+}
@@ -0,0 +1,208 @@
+package com.github.tadukoo.util.logger;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Log Event is used to build a structured entry for a {@link StructuredLogger}: key/value fields are added with the
+ * with methods, and then it's logged with a message. The fields are encoded as JSON as they're added, into a builder
+ * that's reused for every Log Event on the same thread, so building one doesn't create any garbage besides the
+ * {@link StructuredLogRecord} that's logged in the end.
+ * <br><br>
+ * Since it's reused, a Log Event should be logged right away, and not kept around or passed to another thread. If
+ * the level isn't being logged, the Log Event is disabled, and ignores everything.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public final class LogEvent{
+	/** A Log Event for levels that aren't being logged, which ignores everything */
+	static final LogEvent DISABLED = new LogEvent(false);
+	/** The Log Event for each thread, which is reused for every entry built on that thread */
+	private static final ThreadLocal<LogEvent> EVENTS = ThreadLocal.withInitial(() -> new LogEvent(true));
+	
+	/** Whether this Log Event will be logged */
+	private final boolean enabled;
+	/** The fields added so far, encoded as JSON object members */
+	private final StringBuilder fields = new StringBuilder();
+	/** The {@link Logger} to log to */
+	private Logger logger;
+	/** The {@link Level} to log at */
+	private Level level;
+	
+	/**
+	 * Creates a new {@link LogEvent}
+	 *
+	 * @param enabled Whether this Log Event will be logged
+	 */
+	private LogEvent(boolean enabled){
+		this.enabled = enabled;
+	}
+	
+	/**
+	 * Starts a new entry using this thread's {@link LogEvent}
+	 *
+	 * @param logger The {@link Logger} to log to
+	 * @param level The {@link Level} to log at
+	 * @return This thread's {@link LogEvent}, ready for fields to be added
+	 */
+	static LogEvent start(Logger logger, Level level){
+		LogEvent event = EVENTS.get();
+		event.logger = logger;
+		event.level = level;
+		event.fields.setLength(0);
+		return event;
+	}
+	
+	/**
+	 * @return Whether this Log Event will be logged (if not, everything done with it is ignored)
+	 */
+	public boolean isEnabled(){
+		return enabled;
+	}
+	
+	/**
+	 * Adds a field with a String value
+	 *
+	 * @param key The name of the field
+	 * @param value The value of the field (can be {@code null})
+	 * @return This {@link LogEvent}, to continue building it
+	 */
+	public LogEvent with(String key, String value){
+		if(enabled){
+			startField(key);
+			if(value == null){
+				fields.append("null");
+			}else{
+				JsonLinesFormatter.appendJsonString(fields, value);
+			}
+		}
+		return this;
+	}
+	
+	/**
+	 * Adds a field with a whole number value
+	 *
+	 * @param key The name of the field
+	 * @param value The value of the field
+	 * @return This {@link LogEvent}, to continue building it
+	 */
+	public LogEvent with(String key, long value){
+		if(enabled){
+			startField(key);
+			fields.append(value);
+		}
+		return this;
+	}
+	
+	/**
+	 * Adds a field with a decimal number value. JSON doesn't allow NaN or infinite numbers, so those are added as
+	 * Strings
+	 *
+	 * @param key The name of the field
+	 * @param value The value of the field
+	 * @return This {@link LogEvent}, to continue building it
+	 */
+	public LogEvent with(String key, double value){
+		if(enabled){
+			startField(key);
+			if(Double.isFinite(value)){
+				fields.append(value);
+			}else{
+				fields.append('"').append(value).append('"');
+			}
+		}
+		return this;
+	}
+	
+	/**
+	 * Adds a field with a boolean value
+	 *
+	 * @param key The name of the field
+	 * @param value The value of the field
+	 * @return This {@link LogEvent}, to continue building it
+	 */
+	public LogEvent with(String key, boolean value){
+		if(enabled){
+			startField(key);
+			fields.append(value);
+		}
+		return this;
+	}
+	
+	/**
+	 * Adds a field with any other value. {@link Number Numbers} and {@link Boolean Booleans} are added as-is, and
+	 * anything else is added as the String from its toString
+	 *
+	 * @param key The name of the field
+	 * @param value The value of the field (can be {@code null})
+	 * @return This {@link LogEvent}, to continue building it
+	 */
+	public LogEvent with(String key, Object value){
+		if(!enabled){
+			return this;
+		}
+		if(value instanceof Double || value instanceof Float){
+			return with(key, ((Number) value).doubleValue());
+		}
+		if(value == null || value instanceof Number || value instanceof Boolean){
+			startField(key);
+			fields.append(value);
+			return this;
+		}
+		return with(key, value.toString());
+	}
+	
+	/**
+	 * Starts a field by adding its key to the {@link #fields}
+	 *
+	 * @param key The name of the field
+	 */
+	private void startField(String key){
+		if(fields.length() > 0){
+			fields.append(',');
+		}
+		JsonLinesFormatter.appendJsonString(fields, key);
+		fields.append(':');
+	}
+	
+	/**
+	 * Logs this entry without a message
+	 */
+	public void log(){
+		log(null, null);
+	}
+	
+	/**
+	 * Logs this entry with the given message
+	 *
+	 * @param message The message to be logged
+	 */
+	public void log(String message){
+		log(message, null);
+	}
+	
+	/**
+	 * Logs this entry with the given message and {@link Throwable}
+	 *
+	 * @param message The message to be logged (can be {@code null})
+	 * @param t The {@link Throwable} to be logged (can be {@code null})
+	 */
+	public void log(String message, Throwable t){
+		if(!enabled){
+			return;
+		}
+		StructuredLogRecord record = new StructuredLogRecord(level, message, fields.toString());
+		record.setThrown(t);
+		record.setLoggerName(logger.getName());
+		StackWalker.StackFrame caller = EasyLogger.findCaller();
+		record.setSourceClassName(caller == null?null:caller.getClassName());
+		record.setSourceMethodName(caller == null?null:caller.getMethodName());
+		
+		// Clear this event before logging, since a handler could start another one on this thread
+		Logger currentLogger = logger;
+		logger = null;
+		fields.setLength(0);
+		currentLogger.log(record);
+	}
+}
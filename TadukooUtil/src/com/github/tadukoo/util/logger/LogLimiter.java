@@ -0,0 +1,31 @@
+package com.github.tadukoo.util.logger;
+
+/**
+ * Log Limiter is used by an {@link EasyLogger} to decide whether an entry should actually be logged, so that a
+ * storm of repeated entries (e.g. the same error logged thousands of times a second) doesn't turn into a storm of
+ * disk writes. When an entry is allowed, the limiter reports how many entries it suppressed since the last one it
+ * allowed, which is added to the logged message as a summary.
+ * <br><br>
+ * Limiters are set on an {@link EasyLogger} for a {@link java.util.logging.Level}, either shared by every call at
+ * that level ({@link EasyLogger#setLimiter}) or with a separate one for each place it's called from
+ * ({@link EasyLogger#setCallSiteLimiter}). Limiters must be thread-safe.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ * @see TokenBucketLogLimiter
+ * @see SamplingLogLimiter
+ * @see DuplicateLogLimiter
+ */
+@FunctionalInterface
+public interface LogLimiter{
+	
+	/**
+	 * Decides whether the given entry should be logged
+	 *
+	 * @param message The message of the entry (can be {@code null})
+	 * @param t The {@link Throwable} of the entry (can be {@code null})
+	 * @return -1 if the entry should be suppressed, or the number of similar entries suppressed since the last
+	 * one was logged if it should be logged
+	 */
+	long tryAcquire(String message, Throwable t);
+}
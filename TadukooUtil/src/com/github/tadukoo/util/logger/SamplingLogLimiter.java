@@ -0,0 +1,49 @@
+package com.github.tadukoo.util.logger;
+
+/**
+ * Sampling Log Limiter is a {@link LogLimiter} that allows the first N entries, and then only every Mth entry after
+ * that, so there's still a sample of entries in the log during a storm.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public class SamplingLogLimiter implements LogLimiter{
+	/** The number of entries to allow before sampling */
+	private final long firstN;
+	/** Allow every this many entries after the first {@link #firstN} */
+	private final long everyM;
+	/** The number of entries seen so far */
+	private long count = 0;
+	/** The number of entries suppressed since the last one was logged */
+	private long suppressed = 0;
+	
+	/**
+	 * Creates a new {@link SamplingLogLimiter}
+	 *
+	 * @param firstN The number of entries to allow before sampling
+	 * @param everyM Allow every this many entries after the first N (1 allows every entry)
+	 */
+	public SamplingLogLimiter(long firstN, long everyM){
+		if(firstN < 0){
+			throw new IllegalArgumentException("firstN can't be negative, but was " + firstN);
+		}
+		if(everyM < 1){
+			throw new IllegalArgumentException("everyM must be at least 1, but was " + everyM);
+		}
+		this.firstN = firstN;
+		this.everyM = everyM;
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public synchronized long tryAcquire(String message, Throwable t){
+		count++;
+		if(count > firstN && (count - firstN) % everyM != 0){
+			suppressed++;
+			return -1;
+		}
+		long suppressedSoFar = suppressed;
+		suppressed = 0;
+		return suppressedSoFar;
+	}
+}
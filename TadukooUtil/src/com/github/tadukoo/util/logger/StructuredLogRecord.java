@@ -0,0 +1,40 @@
+package com.github.tadukoo.util.logger;
+
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * Structured Log Record is a {@link LogRecord} that also has key/value fields, logged by a {@link StructuredLogger}.
+ * The fields are kept already encoded as JSON object members (e.g. {@code "file":"a.txt","bytes":512}), so that a
+ * {@link JsonLinesFormatter} can write them out as they are.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public class StructuredLogRecord extends LogRecord{
+	/** The version of this class, for serialization */
+	private static final long serialVersionUID = 1L;
+	
+	/** The fields of this record, encoded as JSON object members */
+	private final String fields;
+	
+	/**
+	 * Creates a new {@link StructuredLogRecord}
+	 *
+	 * @param level The {@link Level} of the record
+	 * @param message The message of the record (can be {@code null})
+	 * @param fields The fields of the record, encoded as JSON object members (empty if there are none)
+	 */
+	public StructuredLogRecord(Level level, String message, String fields){
+		super(level, message);
+		this.fields = fields;
+	}
+	
+	/**
+	 * @return The fields of this record, encoded as JSON object members (e.g. {@code "file":"a.txt","bytes":512}),
+	 * or an empty String if there are none
+	 */
+	public String getFields(){
+		return fields;
+	}
+}
@@ -0,0 +1,105 @@
+package com.github.tadukoo.util.logger;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Structured Logger is an {@link EasyLogger} that can also log structured entries: key/value fields along with a
+ * message, rather than everything formatted into one String. A structured entry is built with a {@link LogEvent}
+ * from one of the at methods, e.g.
+ * <pre>{@code logger.atInfo().with("file", filepath).with("bytes", size).log("Downloaded file");}</pre>
+ * The fields are encoded to JSON as they're added, using a builder that's reused by each thread, and are logged in a
+ * {@link StructuredLogRecord}. A {@link JsonLinesFormatter} writes them out as JSON lines, so they don't have to be
+ * parsed back out of a message. If the level isn't being logged, nothing is built at all.
+ * <br><br>
+ * All the usual EasyLogger methods (e.g. {@link #logInfo(String)}) can be used as well.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public class StructuredLogger extends EasyLogger{
+	
+	/**
+	 * Wraps the given {@link Logger} as a StructuredLogger.
+	 *
+	 * @param logger The {@link Logger} to be wrapped
+	 */
+	public StructuredLogger(Logger logger){
+		super(logger);
+	}
+	
+	/**
+	 * Starts a structured entry at the given {@link Level}. If the level isn't being logged, the returned
+	 * {@link LogEvent} is disabled and ignores everything
+	 *
+	 * @param level The {@link Level} to log at
+	 * @return The {@link LogEvent} to add fields to and log
+	 */
+	public LogEvent at(Level level){
+		Logger logger = getLogger();
+		return logger != null && logger.isLoggable(level)?LogEvent.start(logger, level):LogEvent.DISABLED;
+	}
+	
+	/**
+	 * Starts a structured {@link Level#INFO info} entry
+	 *
+	 * @return The {@link LogEvent} to add fields to and log
+	 */
+	public LogEvent atInfo(){
+		return at(Level.INFO);
+	}
+	
+	/**
+	 * Starts a structured {@link Level#WARNING warning} entry
+	 *
+	 * @return The {@link LogEvent} to add fields to and log
+	 */
+	public LogEvent atWarning(){
+		return at(Level.WARNING);
+	}
+	
+	/**
+	 * Starts a structured {@link Level#SEVERE error} entry
+	 *
+	 * @return The {@link LogEvent} to add fields to and log
+	 */
+	public LogEvent atError(){
+		return at(Level.SEVERE);
+	}
+	
+	/**
+	 * Starts a structured {@link Level#CONFIG config} entry
+	 *
+	 * @return The {@link LogEvent} to add fields to and log
+	 */
+	public LogEvent atConfig(){
+		return at(Level.CONFIG);
+	}
+	
+	/**
+	 * Starts a structured debug entry at {@link Level#FINE}
+	 *
+	 * @return The {@link LogEvent} to add fields to and log
+	 */
+	public LogEvent atDebugFine(){
+		return at(Level.FINE);
+	}
+	
+	/**
+	 * Starts a structured debug entry at {@link Level#FINER}
+	 *
+	 * @return The {@link LogEvent} to add fields to and log
+	 */
+	public LogEvent atDebugFiner(){
+		return at(Level.FINER);
+	}
+	
+	/**
+	 * Starts a structured debug entry at {@link Level#FINEST}
+	 *
+	 * @return The {@link LogEvent} to add fields to and log
+	 */
+	public LogEvent atDebugFinest(){
+		return at(Level.FINEST);
+	}
+}
@@ -0,0 +1,57 @@
+package com.github.tadukoo.util.logger;
+
+/**
+ * Token Bucket Log Limiter is a {@link LogLimiter} that allows entries at a steady rate, while still allowing short
+ * bursts. It holds up to a set number of tokens, which are refilled at a set rate, and each entry logged uses one
+ * up. Entries are suppressed while there are no tokens left.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public class TokenBucketLogLimiter implements LogLimiter{
+	/** The number of tokens added per nanosecond */
+	private final double tokensPerNano;
+	/** The most tokens that can be held (the largest burst of entries that will be logged) */
+	private final int burst;
+	/** The number of tokens currently held */
+	private double tokens;
+	/** The time (from {@link System#nanoTime()}) tokens were last added */
+	private long lastRefill;
+	/** The number of entries suppressed since the last one was logged */
+	private long suppressed = 0;
+	
+	/**
+	 * Creates a new {@link TokenBucketLogLimiter}, starting with a full bucket
+	 *
+	 * @param entriesPerSecond The number of entries to allow per second over time
+	 * @param burst The largest burst of entries to allow at once
+	 */
+	public TokenBucketLogLimiter(double entriesPerSecond, int burst){
+		if(!(entriesPerSecond > 0)){
+			throw new IllegalArgumentException("entriesPerSecond must be positive, but was " + entriesPerSecond);
+		}
+		if(burst < 1){
+			throw new IllegalArgumentException("burst must be at least 1, but was " + burst);
+		}
+		tokensPerNano = entriesPerSecond/1_000_000_000.0;
+		this.burst = burst;
+		tokens = burst;
+		lastRefill = System.nanoTime();
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public synchronized long tryAcquire(String message, Throwable t){
+		long now = System.nanoTime();
+		tokens = Math.min(burst, tokens + (now - lastRefill)*tokensPerNano);
+		lastRefill = now;
+		if(tokens < 1){
+			suppressed++;
+			return -1;
+		}
+		tokens--;
+		long suppressedSoFar = suppressed;
+		suppressed = 0;
+		return suppressedSoFar;
+	}
+}
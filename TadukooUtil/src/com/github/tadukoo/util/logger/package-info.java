@@ -1,4 +1,6 @@
 /**
- * Contains {@link com.github.tadukoo.util.logger.EasyLogger EasyLogger}, which makes it easier to log information.
+ * Contains {@link com.github.tadukoo.util.logger.EasyLogger EasyLogger}, which makes it easier to log information,
+ * and {@link com.github.tadukoo.util.logger.StructuredLogger StructuredLogger}, which can also log key/value fields
+ * to be written as JSON lines by a {@link com.github.tadukoo.util.logger.JsonLinesFormatter JsonLinesFormatter}.
  */
-package com.github.tadukoo.util.logger;
\ No newline at end of file
+package com.github.tadukoo.util.logger;
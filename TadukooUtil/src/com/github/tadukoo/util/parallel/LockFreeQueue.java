@@ -0,0 +1,325 @@
+package com.github.tadukoo.util.parallel;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock Free Queue is a bounded, array-backed {@link Queue} that allows multiple producers and multiple consumers
+ * to add and take items without ever acquiring a lock. Each slot in the ring buffer has a sequence number that
+ * tells producers and consumers whether the slot is ready to be written or read, so threads only ever race on
+ * a single compare-and-set of the head or tail counter.
+ * <br><br>
+ * When the queue is full (on {@link #enqueue(Object)}) or empty (on {@link #dequeue()}), the calling thread
+ * spins briefly and then parks for increasingly longer periods instead of waiting on a monitor, so there is no
+ * thundering herd of woken threads when an item becomes available.
+ * <br><br>
+ * Closing the queue sets a bit in the tail counter, so a producer either claims its slot before the queue is closed
+ * (and its item will be taken off) or fails to claim one at all. Consumers only give up once the queue is closed
+ * and every claimed slot has been taken, so no item that was accepted is ever left behind.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ *
+ * @param <E> The type of item stored in this {@link LockFreeQueue}
+ */
+public class LockFreeQueue<E> extends Queue<E>{
+	
+	/** The number of longs between the counters, so that the head and tail don't share a cache line */
+	private static final int PADDING = 16;
+	/** The index of the head (next position to take from) in {@link #counters} */
+	private static final int HEAD = PADDING;
+	/** The index of the tail (next position to add to) in {@link #counters} */
+	private static final int TAIL = PADDING * 2;
+	/** The number of times to spin before starting to yield while waiting */
+	private static final int SPIN_TRIES = 64;
+	/** The number of times to yield before starting to park while waiting */
+	private static final int YIELD_TRIES = 128;
+	/** The maximum amount of time (in nanoseconds) to park for in one go while waiting */
+	private static final long MAX_PARK_NANOS = 1_000_000L;
+	/** Set in the tail counter once the {@link LockFreeQueue} is closed, so no more slots can be claimed */
+	private static final long CLOSED_BIT = 1L << 62;
+	/** Stored in place of {@code null} items, so that an empty slot can be told apart from a {@code null} item */
+	private static final Object NULL_ITEM = new Object();
+	
+	/** The number of slots in the ring buffer */
+	private final int capacity;
+	/** The items in the ring buffer */
+	private final Object[] items;
+	/** The sequence number of each slot, used to tell if it's ready to be written to or read from */
+	private final AtomicLongArray sequences;
+	/** The padded head and tail counters */
+	private final AtomicLongArray counters;
+	
+	/**
+	 * Creates a new {@link LockFreeQueue}
+	 *
+	 * @param maxItems The maximum number of items that can be in the {@link LockFreeQueue}
+	 */
+	public LockFreeQueue(int maxItems){
+		super(maxItems);
+		if(maxItems < 1){
+			throw new IllegalArgumentException("maxItems must be at least 1, but was " + maxItems);
+		}
+		capacity = maxItems;
+		items = new Object[maxItems];
+		sequences = new AtomicLongArray(maxItems);
+		for(int i = 0; i < maxItems; i++){
+			sequences.set(i, i);
+		}
+		counters = new AtomicLongArray(PADDING * 3);
+	}
+	
+	/**
+	 * Adds the given item to the {@link LockFreeQueue}, waiting for space to open up if it's full
+	 *
+	 * @param item The item to add to the {@link LockFreeQueue}
+	 * @throws InterruptedException If the thread is interrupted while waiting for space
+	 * @throws QueueClosedException If the {@link LockFreeQueue} is closed (or gets closed while waiting for space)
+	 */
+	@Override
+	public void enqueue(E item) throws InterruptedException{
+		long start = startMetricsTimer();
+		int tries = 0;
+		while(!tryOffer(item)){
+			tries = backoff(tries);
+		}
+		if(isMetricsEnabled()){
+			recordEnqueued(1, size(), start);
+		}
+	}
+	
+	/**
+	 * Takes an item off the {@link LockFreeQueue}, waiting for an item to be added if it's empty
+	 *
+	 * @return The item taken off the {@link LockFreeQueue}
+	 * @throws InterruptedException If the thread is interrupted while waiting for an item
+	 * @throws QueueClosedException If the {@link LockFreeQueue} is closed and has no items left in it
+	 */
+	@Override
+	public E dequeue() throws InterruptedException{
+		long start = startMetricsTimer();
+		E item = unmask(takeWaiting());
+		if(isMetricsEnabled()){
+			recordDequeued(1, size(), start);
+		}
+		return item;
+	}
+	
+	/**
+	 * Adds all the given items to the {@link LockFreeQueue}, in the order returned by the {@link Collection}'s
+	 * iterator, waiting for space to open up whenever it's full. Items from other producers may be interleaved
+	 * with the given items
+	 *
+	 * @param items The items to add to the {@link LockFreeQueue}
+	 * @throws InterruptedException If the thread is interrupted while waiting for space
+	 * @throws QueueClosedException If the {@link LockFreeQueue} is closed (or gets closed while waiting for space)
+	 */
+	@Override
+	public void enqueueAll(Collection<? extends E> items) throws InterruptedException{
+		for(E item: items){
+			enqueue(item);
+		}
+	}
+	
+	/**
+	 * Takes up to the given maximum number of items off the {@link LockFreeQueue} and adds them to the given
+	 * {@link Collection}. This waits until there's at least one item in the {@link LockFreeQueue}, but will not
+	 * wait for more than that
+	 *
+	 * @param items The {@link Collection} to add the items taken off the {@link LockFreeQueue} to
+	 * @param max The maximum number of items to take off the {@link LockFreeQueue}
+	 * @return The number of items taken off the {@link LockFreeQueue}
+	 * @throws InterruptedException If the thread is interrupted while waiting for an item
+	 * @throws QueueClosedException If the {@link LockFreeQueue} is closed and has no items left in it
+	 */
+	@Override
+	public int drainTo(Collection<? super E> items, int max) throws InterruptedException{
+		if(max <= 0){
+			return 0;
+		}
+		long start = startMetricsTimer();
+		items.add(unmask(takeWaiting()));
+		int count = 1;
+		Object item;
+		while(count < max && (item = take()) != null){
+			items.add(unmask(item));
+			count++;
+		}
+		if(isMetricsEnabled()){
+			recordDequeued(count, size(), start);
+		}
+		return count;
+	}
+	
+	/**
+	 * Returns the number of items currently in the {@link LockFreeQueue}. Since other threads may be adding and
+	 * taking items at the same time, this is only an estimate
+	 *
+	 * @return The number of items currently in the {@link LockFreeQueue}
+	 */
+	@Override
+	public int size(){
+		long size = (counters.get(TAIL) & ~CLOSED_BIT) - counters.get(HEAD);
+		return (int) Math.max(0, Math.min(size, capacity));
+	}
+	
+	/**
+	 * Attempts to add the given item to the {@link LockFreeQueue} without waiting
+	 *
+	 * @param item The item to add to the {@link LockFreeQueue}
+	 * @return {@code true} if the item was added, {@code false} if the {@link LockFreeQueue} is full
+	 * @throws QueueClosedException If the {@link LockFreeQueue} is closed
+	 */
+	public boolean offer(E item){
+		if(!tryOffer(item)){
+			return false;
+		}
+		if(isMetricsEnabled()){
+			recordEnqueued(1, size(), startMetricsTimer());
+		}
+		return true;
+	}
+	
+	/**
+	 * Attempts to add the given item to the {@link LockFreeQueue} without waiting (and without reporting it
+	 * to the {@link ParallelMetricsListener})
+	 *
+	 * @param item The item to add to the {@link LockFreeQueue}
+	 * @return {@code true} if the item was added, {@code false} if the {@link LockFreeQueue} is full
+	 * @throws QueueClosedException If the {@link LockFreeQueue} is closed
+	 */
+	private boolean tryOffer(E item){
+		long pos = counters.get(TAIL);
+		while(true){
+			if((pos & CLOSED_BIT) != 0){
+				throw new QueueClosedException("The queue has been closed");
+			}
+			int index = (int) (pos % capacity);
+			long diff = sequences.getAcquire(index) - pos;
+			if(diff == 0){
+				// The slot is free for this position, try to claim it
+				long witness = counters.compareAndExchange(TAIL, pos, pos + 1);
+				if(witness == pos){
+					items[index] = item == null?NULL_ITEM:item;
+					sequences.setRelease(index, pos + 1);
+					return true;
+				}
+				pos = witness;
+			}else if(diff < 0){
+				// The slot still holds an item from the previous lap, so we're full
+				return false;
+			}else{
+				// Another producer got here first
+				pos = counters.get(TAIL);
+			}
+		}
+	}
+	
+	/**
+	 * Takes an item off the {@link LockFreeQueue}, waiting for an item to be added if it's empty
+	 *
+	 * @return The item taken off the {@link LockFreeQueue} (or {@link #NULL_ITEM} for a {@code null} item)
+	 * @throws InterruptedException If the thread is interrupted while waiting for an item
+	 * @throws QueueClosedException If the {@link LockFreeQueue} is closed and has no items left in it
+	 */
+	private Object takeWaiting() throws InterruptedException{
+		int tries = 0;
+		Object item;
+		while((item = take()) == null){
+			if(isDrained()){
+				throw new QueueClosedException("The queue has been closed");
+			}
+			tries = backoff(tries);
+		}
+		return item;
+	}
+	
+	/**
+	 * Checks whether the {@link LockFreeQueue} is closed and every slot claimed before it was closed has been
+	 * taken, so that no more items will ever be taken off it. A producer that claimed a slot before the
+	 * {@link LockFreeQueue} was closed may still be writing its item, in which case this returns {@code false}
+	 *
+	 * @return Whether the {@link LockFreeQueue} is closed and has no items left in it
+	 */
+	private boolean isDrained(){
+		long tail = counters.get(TAIL);
+		return (tail & CLOSED_BIT) != 0 && counters.get(HEAD) >= (tail & ~CLOSED_BIT);
+	}
+	
+	/**
+	 * Attempts to take an item off the {@link LockFreeQueue} without waiting
+	 *
+	 * @return The item taken off the {@link LockFreeQueue} (or {@link #NULL_ITEM} for a {@code null} item),
+	 * or {@code null} if it's empty
+	 */
+	private Object take(){
+		long pos = counters.get(HEAD);
+		while(true){
+			int index = (int) (pos % capacity);
+			long diff = sequences.getAcquire(index) - (pos + 1);
+			if(diff == 0){
+				// The slot has been written for this position, try to claim it
+				long witness = counters.compareAndExchange(HEAD, pos, pos + 1);
+				if(witness == pos){
+					Object item = items[index];
+					items[index] = null;
+					sequences.setRelease(index, pos + capacity);
+					return item;
+				}
+				pos = witness;
+			}else if(diff < 0){
+				// Nothing has been written to the slot yet, so we're empty
+				return null;
+			}else{
+				// Another consumer got here first
+				pos = counters.get(HEAD);
+			}
+		}
+	}
+	
+	/**
+	 * Closes the {@link LockFreeQueue}. No more items can be added to it, but the items already in it (including
+	 * ones that producers are still in the middle of adding) can still be taken off. Once it's empty, trying to
+	 * take an item off it throws a {@link QueueClosedException} instead of waiting
+	 */
+	@Override
+	public void close(){
+		counters.accumulateAndGet(TAIL, CLOSED_BIT, (tail, bit) -> tail | bit);
+		super.close();
+	}
+	
+	/**
+	 * Converts an item stored in the ring buffer back to the actual item
+	 *
+	 * @param item The item stored in the ring buffer
+	 * @return The actual item ({@code null} if it was stored as {@link #NULL_ITEM})
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E> E unmask(Object item){
+		return item == NULL_ITEM?null:(E) item;
+	}
+	
+	/**
+	 * Waits a little while before trying again, starting with spinning, then yielding, and then parking
+	 *
+	 * @param tries The number of times we've tried so far
+	 * @return The new number of tries
+	 * @throws InterruptedException If the thread was interrupted while waiting
+	 */
+	private static int backoff(int tries) throws InterruptedException{
+		if(Thread.interrupted()){
+			throw new InterruptedException();
+		}
+		if(tries < SPIN_TRIES){
+			Thread.onSpinWait();
+		}else if(tries < SPIN_TRIES + YIELD_TRIES){
+			Thread.yield();
+		}else{
+			// Park for longer the more times we've failed, up to the max park time
+			int parks = Math.min(tries - SPIN_TRIES - YIELD_TRIES, 10);
+			LockSupport.parkNanos(Math.min(MAX_PARK_NANOS, 1000L << parks));
+		}
+		return tries == Integer.MAX_VALUE?tries:tries + 1;
+	}
+}
@@ -0,0 +1,98 @@
+package com.github.tadukoo.util.parallel;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics Histogram is a lock-free histogram of non-negative values (e.g. wait times in nanoseconds or
+ * {@link Queue} sizes). Values are counted in power-of-two buckets, so recording a value is just a couple of
+ * atomic increments, and percentiles are accurate to within a factor of two.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public class MetricsHistogram{
+	
+	/** The number of buckets: bucket 0 is for 0, and bucket i is for values from 2^(i-1) up to 2^i - 1 */
+	private static final int NUM_BUCKETS = 64;
+	
+	/** The number of values recorded in each bucket */
+	private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+	/** The number of values recorded */
+	private final LongAdder count = new LongAdder();
+	/** The sum of all the values recorded */
+	private final LongAdder sum = new LongAdder();
+	/** The largest value recorded */
+	private final AtomicLong max = new AtomicLong();
+	
+	/**
+	 * Records the given value in the histogram
+	 *
+	 * @param value The value to record (negative values are recorded as 0)
+	 */
+	public void record(long value){
+		long val = Math.max(0, value);
+		buckets.incrementAndGet(NUM_BUCKETS - Long.numberOfLeadingZeros(val));
+		count.increment();
+		sum.add(val);
+		max.accumulateAndGet(val, Math::max);
+	}
+	
+	/**
+	 * @return The number of values recorded
+	 */
+	public long getCount(){
+		return count.sum();
+	}
+	
+	/**
+	 * @return The sum of all the values recorded
+	 */
+	public long getSum(){
+		return sum.sum();
+	}
+	
+	/**
+	 * @return The largest value recorded
+	 */
+	public long getMax(){
+		return max.get();
+	}
+	
+	/**
+	 * @return The average of the values recorded, or 0 if none have been recorded
+	 */
+	public double getMean(){
+		long num = getCount();
+		return num == 0?0:(double) getSum() / num;
+	}
+	
+	/**
+	 * Finds the (approximate) value that the given fraction of the recorded values are at or below. This is the
+	 * upper end of the bucket the percentile falls in (capped at the largest value recorded)
+	 *
+	 * @param fraction The fraction of values, from 0 to 1 (e.g. 0.99 for the 99th percentile)
+	 * @return The value that the given fraction of the recorded values are at or below, or 0 if none have been
+	 * recorded
+	 */
+	public long getPercentile(double fraction){
+		long total = 0;
+		for(int i = 0; i < NUM_BUCKETS; i++){
+			total += buckets.get(i);
+		}
+		if(total == 0){
+			return 0;
+		}
+		long target = (long) Math.ceil(Math.min(1, Math.max(0, fraction)) * total);
+		long seen = 0;
+		for(int i = 0; i < NUM_BUCKETS; i++){
+			seen += buckets.get(i);
+			if(seen >= target && seen > 0){
+				long upper = i == 0?0:(i == NUM_BUCKETS - 1?Long.MAX_VALUE:(1L << i) - 1);
+				return Math.min(upper, getMax());
+			}
+		}
+		return getMax();
+	}
+}
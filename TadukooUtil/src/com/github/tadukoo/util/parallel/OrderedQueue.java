@@ -0,0 +1,336 @@
+package com.github.tadukoo.util.parallel;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+
+/**
+ * Ordered Queue is the done {@link Queue} used by {@link ParallelRunner} in ordered mode. The
+ * {@link ParallelWorker workers} put finished work in it along with the sequence number it was given in the
+ * {@link SequencedQueue}, and it's only taken off in sequence order, no matter what order the work finished in.
+ * <br><br>
+ * Finished work waits in a bounded reorder window until everything before it has been taken off. A worker that
+ * finishes work too far ahead of the oldest unfinished work (a full window ahead) waits until the window catches
+ * up, so the memory used stays bounded no matter how much work is done.
+ * <br><br>
+ * Items can also be added directly with {@link #enqueue(Object)} (e.g. by the {@link ParallelRunner}'s doWork).
+ * Since they have no sequence number, they're taken off after everything that could already be taken off when they
+ * were added, but before any work that was still waiting on its turn, just like adding to the end of a normal
+ * {@link Queue}. Up to a window's worth of these items can be waiting at once.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ *
+ * @param <E> The type of item stored in this {@link OrderedQueue}
+ */
+class OrderedQueue<E> extends Queue<E>{
+	
+	/**
+	 * An item added without a sequence number, along with the sequence number of the first item it comes before
+	 *
+	 * @param <E> The type of the item
+	 */
+	private static class Unsequenced<E>{
+		/** The sequence number of the first item this item is taken off before */
+		private final long before;
+		/** The actual item */
+		private final E item;
+		
+		/**
+		 * Creates a new {@link Unsequenced} item
+		 *
+		 * @param before The sequence number of the first item this item is taken off before
+		 * @param item The actual item
+		 */
+		private Unsequenced(long before, E item){
+			this.before = before;
+			this.item = item;
+		}
+	}
+	
+	/** Marks a slot in the window that's still waiting on its item */
+	private static final byte EMPTY = 0;
+	/** Marks a slot in the window that has its item */
+	private static final byte READY = 1;
+	/** Marks a slot in the window whose item will never come (e.g. it was a terminate work object) */
+	private static final byte SKIPPED = 2;
+	
+	/** An object to use as a lock for synchronizing while running in parallel */
+	private final Object lock = new Object();
+	/** The size of the reorder window */
+	private final int window;
+	/** The items in the reorder window, indexed by sequence number modulo the {@link #window} */
+	private final Object[] items;
+	/** The state of each slot in the reorder window */
+	private final byte[] states;
+	/** The sequence number of the next item to be taken off */
+	private long nextSequence = 0;
+	/** The items added without a sequence number, in the order they were added */
+	private final ArrayDeque<Unsequenced<E>> unsequenced = new ArrayDeque<>();
+	/** The number of items in the reorder window (including the {@link #unsequenced} ones) */
+	private int numItems = 0;
+	
+	/**
+	 * Creates a new {@link OrderedQueue}
+	 *
+	 * @param window The size of the reorder window, i.e. how far ahead of the oldest unfinished work other work
+	 * can finish before it has to wait
+	 */
+	OrderedQueue(int window){
+		super(window);
+		if(window < 1){
+			throw new IllegalArgumentException("window must be at least 1, but was " + window);
+		}
+		this.window = window;
+		items = new Object[window];
+		states = new byte[window];
+	}
+	
+	/**
+	 * Adds the given item without a sequence number. It's taken off after everything that could already be taken
+	 * off, but before any item that's still waiting on its turn. This waits if there's already a window's worth of
+	 * items added this way waiting to be taken off
+	 *
+	 * @param item The item to add to the {@link OrderedQueue}
+	 * @throws InterruptedException If something goes wrong in waiting for the lock
+	 * @throws QueueClosedException If the {@link OrderedQueue} is closed (or gets closed while waiting)
+	 */
+	@Override
+	public void enqueue(E item) throws InterruptedException{
+		long start = startMetricsTimer();
+		int size;
+		synchronized(lock){
+			checkOpen();
+			while(unsequenced.size() >= window){
+				lock.wait();
+				checkOpen();
+			}
+			unsequenced.addLast(new Unsequenced<>(endOfReady(), item));
+			size = ++numItems;
+			lock.notifyAll();
+		}
+		recordEnqueued(1, size, start);
+	}
+	
+	/**
+	 * Adds all the given items without sequence numbers, in the order returned by the {@link Collection}'s
+	 * iterator (see {@link #enqueue(Object)})
+	 *
+	 * @param items The items to add to the {@link OrderedQueue}
+	 * @throws InterruptedException If something goes wrong in waiting for the lock
+	 * @throws QueueClosedException If the {@link OrderedQueue} is closed (or gets closed while waiting)
+	 */
+	@Override
+	public void enqueueAll(Collection<? extends E> items) throws InterruptedException{
+		for(E item: items){
+			enqueue(item);
+		}
+	}
+	
+	/**
+	 * Puts the given item in its place in the {@link OrderedQueue}, waiting if it's too far ahead of the oldest
+	 * item that hasn't been put in yet
+	 *
+	 * @param sequence The sequence number of the item
+	 * @param item The item to put in the {@link OrderedQueue}
+	 * @throws InterruptedException If something goes wrong in waiting for the lock
+	 * @throws QueueClosedException If the {@link OrderedQueue} is closed (or gets closed while waiting)
+	 */
+	void put(long sequence, E item) throws InterruptedException{
+		long start = startMetricsTimer();
+		int size;
+		synchronized(lock){
+			waitForSlot(sequence);
+			int index = (int) (sequence % window);
+			items[index] = item;
+			states[index] = READY;
+			size = ++numItems;
+			lock.notifyAll();
+		}
+		recordEnqueued(1, size, start);
+	}
+	
+	/**
+	 * Marks that the item with the given sequence number will never be put in the {@link OrderedQueue}, so that
+	 * the items after it don't wait on it
+	 *
+	 * @param sequence The sequence number of the item that won't be put in
+	 * @throws InterruptedException If something goes wrong in waiting for the lock
+	 * @throws QueueClosedException If the {@link OrderedQueue} is closed (or gets closed while waiting)
+	 */
+	void skip(long sequence) throws InterruptedException{
+		synchronized(lock){
+			waitForSlot(sequence);
+			states[(int) (sequence % window)] = SKIPPED;
+			skipSkipped();
+			lock.notifyAll();
+		}
+	}
+	
+	/**
+	 * Takes the next item (in sequence order) off the {@link OrderedQueue}, waiting for it to be put in if needed
+	 *
+	 * @return The item taken off the {@link OrderedQueue}
+	 * @throws InterruptedException If something goes wrong in waiting for the lock
+	 * @throws QueueClosedException If the {@link OrderedQueue} is closed and the next item isn't in it
+	 */
+	@Override
+	public E dequeue() throws InterruptedException{
+		long start = startMetricsTimer();
+		E item;
+		int size;
+		synchronized(lock){
+			waitForNext();
+			item = takeNext();
+			size = numItems;
+			lock.notifyAll();
+		}
+		recordDequeued(1, size, start);
+		return item;
+	}
+	
+	/**
+	 * Takes up to the given maximum number of items (in sequence order) off the {@link OrderedQueue} and adds
+	 * them to the given {@link Collection}. This waits until the next item is in the {@link OrderedQueue}, but
+	 * will not wait for more than that
+	 *
+	 * @param items The {@link Collection} to add the items taken off the {@link OrderedQueue} to
+	 * @param max The maximum number of items to take off the {@link OrderedQueue}
+	 * @return The number of items taken off the {@link OrderedQueue}
+	 * @throws InterruptedException If something goes wrong in waiting for the lock
+	 * @throws QueueClosedException If the {@link OrderedQueue} is closed and the next item isn't in it
+	 */
+	@Override
+	public int drainTo(Collection<? super E> items, int max) throws InterruptedException{
+		if(max <= 0){
+			return 0;
+		}
+		long start = startMetricsTimer();
+		int count = 0, size;
+		synchronized(lock){
+			waitForNext();
+			do{
+				items.add(takeNext());
+				count++;
+				skipSkipped();
+			}while(count < max && hasNext());
+			size = numItems;
+			lock.notifyAll();
+		}
+		recordDequeued(count, size, start);
+		return count;
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public void close(){
+		super.close();
+		synchronized(lock){
+			lock.notifyAll();
+		}
+	}
+	
+	/**
+	 * @return The number of items waiting in the reorder window (including ones that can't be taken off yet)
+	 */
+	@Override
+	public int size(){
+		synchronized(lock){
+			return numItems;
+		}
+	}
+	
+	/**
+	 * Waits until the given sequence number is within the reorder window. Must be called while holding the lock
+	 *
+	 * @param sequence The sequence number to wait on
+	 * @throws InterruptedException If something goes wrong in waiting for the lock
+	 * @throws QueueClosedException If the {@link OrderedQueue} is closed (or gets closed while waiting)
+	 */
+	private void waitForSlot(long sequence) throws InterruptedException{
+		checkOpen();
+		while(sequence >= nextSequence + window){
+			lock.wait();
+			checkOpen();
+		}
+	}
+	
+	/**
+	 * Waits until the next item is in the {@link OrderedQueue}. Must be called while holding the lock
+	 *
+	 * @throws InterruptedException If something goes wrong in waiting for the lock
+	 * @throws QueueClosedException If the {@link OrderedQueue} is closed and the next item isn't in it
+	 */
+	private void waitForNext() throws InterruptedException{
+		skipSkipped();
+		while(!hasNext()){
+			checkOpen();
+			lock.wait();
+			skipSkipped();
+		}
+	}
+	
+	/**
+	 * Moves past any skipped slots at the front of the reorder window. Must be called while holding the lock
+	 */
+	private void skipSkipped(){
+		int index;
+		while(states[index = (int) (nextSequence % window)] == SKIPPED){
+			states[index] = EMPTY;
+			nextSequence++;
+		}
+	}
+	
+	/**
+	 * Checks whether the next item can be taken off. Must be called while holding the lock
+	 *
+	 * @return Whether the next item can be taken off
+	 */
+	private boolean hasNext(){
+		return isUnsequencedNext() || states[(int) (nextSequence % window)] == READY;
+	}
+	
+	/**
+	 * Checks whether the next item to be taken off is one that was added without a sequence number. Must be called
+	 * while holding the lock
+	 *
+	 * @return Whether the next item to be taken off is one of the {@link #unsequenced} items
+	 */
+	private boolean isUnsequencedNext(){
+		Unsequenced<E> first = unsequenced.peekFirst();
+		return first != null && first.before <= nextSequence;
+	}
+	
+	/**
+	 * Finds the sequence number of the first item that can't be taken off yet (i.e. the end of the items that are
+	 * ready or skipped at the front of the reorder window). Must be called while holding the lock
+	 *
+	 * @return The sequence number of the first item that isn't ready or skipped
+	 */
+	private long endOfReady(){
+		long sequence = nextSequence;
+		while(sequence < nextSequence + window && states[(int) (sequence % window)] != EMPTY){
+			sequence++;
+		}
+		return sequence;
+	}
+	
+	/**
+	 * Takes the next item out of the reorder window, which must be ready. Must be called while holding the lock
+	 *
+	 * @return The next item
+	 */
+	@SuppressWarnings("unchecked")
+	private E takeNext(){
+		if(isUnsequencedNext()){
+			numItems--;
+			return unsequenced.removeFirst().item;
+		}
+		int index = (int) (nextSequence % window);
+		E item = (E) items[index];
+		items[index] = null;
+		states[index] = EMPTY;
+		numItems--;
+		nextSequence++;
+		return item;
+	}
+}
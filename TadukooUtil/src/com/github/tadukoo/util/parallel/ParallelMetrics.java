@@ -0,0 +1,331 @@
+package com.github.tadukoo.util.parallel;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parallel Metrics is a {@link ParallelMetricsListener} that keeps counters and {@link MetricsHistogram histograms}
+ * of everything it's told about: how full each {@link Queue} gets, how long producers are blocked and consumers
+ * are idle on each {@link Queue}, how long each piece of work takes, and how busy each worker is. This can be used
+ * to size the number of threads and the max number of items in the {@link Queue queues} of a {@link ParallelRunner}
+ * from data.
+ * <br><br>
+ * The metrics can be read directly, or through JMX after calling {@link #registerMBean(String)}
+ * (see {@link ParallelMetricsMXBean}).
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public class ParallelMetrics implements ParallelMetricsListener, ParallelMetricsMXBean{
+	
+	/**
+	 * Queue Metrics are the metrics for a single {@link Queue}
+	 *
+	 * @author Logan Ferree (Tadukoo)
+	 * @version Beta v.0.7
+	 */
+	public static class QueueMetrics{
+		/** The number of items added to the {@link Queue} */
+		private final LongAdder itemsEnqueued = new LongAdder();
+		/** The number of items taken off the {@link Queue} */
+		private final LongAdder itemsDequeued = new LongAdder();
+		/** The number of items in the {@link Queue} each time it changes */
+		private final MetricsHistogram occupancy = new MetricsHistogram();
+		/** How long (in nanoseconds) producers were blocked adding to the {@link Queue} */
+		private final MetricsHistogram producerBlockedNanos = new MetricsHistogram();
+		/** How long (in nanoseconds) consumers were idle waiting on the {@link Queue} */
+		private final MetricsHistogram consumerIdleNanos = new MetricsHistogram();
+		/** The number of items in the {@link Queue} the last time it changed */
+		private volatile int size = 0;
+		
+		/**
+		 * @return The number of items added to the {@link Queue}
+		 */
+		public long getItemsEnqueued(){
+			return itemsEnqueued.sum();
+		}
+		
+		/**
+		 * @return The number of items taken off the {@link Queue}
+		 */
+		public long getItemsDequeued(){
+			return itemsDequeued.sum();
+		}
+		
+		/**
+		 * @return The number of items in the {@link Queue} each time it changes
+		 */
+		public MetricsHistogram getOccupancy(){
+			return occupancy;
+		}
+		
+		/**
+		 * @return How long (in nanoseconds) producers were blocked adding to the {@link Queue}
+		 */
+		public MetricsHistogram getProducerBlockedNanos(){
+			return producerBlockedNanos;
+		}
+		
+		/**
+		 * @return How long (in nanoseconds) consumers were idle waiting on the {@link Queue}
+		 */
+		public MetricsHistogram getConsumerIdleNanos(){
+			return consumerIdleNanos;
+		}
+		
+		/**
+		 * @return The number of items in the {@link Queue} the last time it changed
+		 */
+		public int getSize(){
+			return size;
+		}
+	}
+	
+	/** The {@link QueueMetrics} for each {@link Queue}, by name */
+	private final Map<String, QueueMetrics> queueMetrics = new ConcurrentHashMap<>();
+	/** How long (in nanoseconds) each piece of work took */
+	private final MetricsHistogram workNanos = new MetricsHistogram();
+	/** The total time (in nanoseconds) each worker spent doing work in the current (or last) run, by worker name */
+	private final Map<String, LongAdder> workerBusyNanos = new ConcurrentHashMap<>();
+	/** The number of worker threads in the current (or last) run */
+	private volatile int numThreads = 0;
+	/** The time (from {@link System#nanoTime()}) the current (or last) run started, or 0 if there hasn't been one */
+	private volatile long startNanos = 0;
+	/** The time (from {@link System#nanoTime()}) the last run ended, or 0 if it's still running */
+	private volatile long endNanos = 0;
+	/** The name this is registered in JMX under, or {@code null} if it's not registered */
+	private ObjectName mBeanName = null;
+	
+	/** {@inheritDoc} */
+	@Override
+	public void runStarted(int numThreads){
+		this.numThreads = numThreads;
+		workerBusyNanos.clear();
+		endNanos = 0;
+		startNanos = System.nanoTime();
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public void runFinished(){
+		endNanos = System.nanoTime();
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public void itemsEnqueued(String queueName, int numItems, int queueSize, long blockedNanos){
+		QueueMetrics metrics = getQueueMetrics(queueName);
+		metrics.itemsEnqueued.add(numItems);
+		metrics.occupancy.record(queueSize);
+		metrics.producerBlockedNanos.record(blockedNanos);
+		metrics.size = queueSize;
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public void itemsDequeued(String queueName, int numItems, int queueSize, long idleNanos){
+		QueueMetrics metrics = getQueueMetrics(queueName);
+		metrics.itemsDequeued.add(numItems);
+		metrics.occupancy.record(queueSize);
+		metrics.consumerIdleNanos.record(idleNanos);
+		metrics.size = queueSize;
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public void workDone(String workerName, long workNanos){
+		this.workNanos.record(workNanos);
+		if(workerName != null){
+			workerBusyNanos.computeIfAbsent(workerName, name -> new LongAdder()).add(workNanos);
+		}
+	}
+	
+	/**
+	 * Gets the {@link QueueMetrics} for the {@link Queue} with the given name (e.g.
+	 * {@link ParallelRunner#TODO_QUEUE_NAME}), starting empty ones if there aren't any yet
+	 *
+	 * @param queueName The name of the {@link Queue}
+	 * @return The {@link QueueMetrics} for the {@link Queue}
+	 */
+	public QueueMetrics getQueueMetrics(String queueName){
+		return queueMetrics.computeIfAbsent(queueName, name -> new QueueMetrics());
+	}
+	
+	/**
+	 * @return The {@link QueueMetrics} for every {@link Queue} that's been reported on, by name
+	 */
+	public Map<String, QueueMetrics> getAllQueueMetrics(){
+		return Collections.unmodifiableMap(queueMetrics);
+	}
+	
+	/**
+	 * @return How long (in nanoseconds) each piece of work took
+	 */
+	public MetricsHistogram getWorkNanos(){
+		return workNanos;
+	}
+	
+	/**
+	 * @return The time (in nanoseconds) the current run has taken so far, or the last run took in total
+	 */
+	public long getElapsedNanos(){
+		long start = startNanos, end = endNanos;
+		if(start == 0){
+			return 0;
+		}
+		return (end == 0?System.nanoTime():end) - start;
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public int getNumThreads(){
+		return numThreads;
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public long getItemsDone(){
+		return workNanos.getCount();
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public double getItemsPerSecond(){
+		long elapsed = getElapsedNanos();
+		return elapsed <= 0?0:getItemsDone() * 1_000_000_000.0 / elapsed;
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public double getBusyRatio(){
+		long available = getElapsedNanos() * numThreads;
+		return available <= 0?0:Math.min(1, (double) workNanos.getSum() / available);
+	}
+	
+	/**
+	 * Gets the fraction of the given worker's time spent doing work over the current (or last) run
+	 *
+	 * @param workerName The name of the worker (e.g. {@code worker-0})
+	 * @return The fraction of the worker's time spent doing work, or 0 if it hasn't done any work
+	 */
+	public double getWorkerBusyRatio(String workerName){
+		LongAdder busy = workerBusyNanos.get(workerName);
+		long elapsed = getElapsedNanos();
+		return busy == null || elapsed <= 0?0:Math.min(1, (double) busy.sum() / elapsed);
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public Map<String, Double> getWorkerBusyRatios(){
+		Map<String, Double> ratios = new TreeMap<>();
+		for(String workerName: workerBusyNanos.keySet()){
+			ratios.put(workerName, getWorkerBusyRatio(workerName));
+		}
+		return ratios;
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public double getMeanWorkNanos(){
+		return workNanos.getMean();
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public long getP99WorkNanos(){
+		return workNanos.getPercentile(0.99);
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public long getMaxWorkNanos(){
+		return workNanos.getMax();
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public int getTodoQueueSize(){
+		return getQueueMetrics(ParallelRunner.TODO_QUEUE_NAME).getSize();
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public double getMeanTodoQueueSize(){
+		return getQueueMetrics(ParallelRunner.TODO_QUEUE_NAME).getOccupancy().getMean();
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public long getMaxTodoQueueSize(){
+		return getQueueMetrics(ParallelRunner.TODO_QUEUE_NAME).getOccupancy().getMax();
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public long getTodoProducerBlockedNanos(){
+		return getQueueMetrics(ParallelRunner.TODO_QUEUE_NAME).getProducerBlockedNanos().getSum();
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public long getTodoConsumerIdleNanos(){
+		return getQueueMetrics(ParallelRunner.TODO_QUEUE_NAME).getConsumerIdleNanos().getSum();
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public int getDoneQueueSize(){
+		return getQueueMetrics(ParallelRunner.DONE_QUEUE_NAME).getSize();
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public long getDoneProducerBlockedNanos(){
+		return getQueueMetrics(ParallelRunner.DONE_QUEUE_NAME).getProducerBlockedNanos().getSum();
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public long getDoneConsumerIdleNanos(){
+		return getQueueMetrics(ParallelRunner.DONE_QUEUE_NAME).getConsumerIdleNanos().getSum();
+	}
+	
+	/**
+	 * Registers these metrics with the platform MBean server, under
+	 * {@code com.github.tadukoo.util.parallel:type=ParallelMetrics,name=<name>}
+	 *
+	 * @param name The name to register the metrics under (e.g. the name of the {@link ParallelRunner})
+	 * @return The {@link ObjectName} the metrics were registered under
+	 * @throws JMException If the metrics couldn't be registered (e.g. the name is already taken)
+	 */
+	public synchronized ObjectName registerMBean(String name) throws JMException{
+		unregisterMBean();
+		ObjectName objectName = new ObjectName("com.github.tadukoo.util.parallel:type=ParallelMetrics,name=" +
+				ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+		mBeanName = objectName;
+		return objectName;
+	}
+	
+	/**
+	 * Unregisters these metrics from the platform MBean server, if they were registered
+	 *
+	 * @throws JMException If the metrics couldn't be unregistered
+	 */
+	public synchronized void unregisterMBean() throws JMException{
+		if(mBeanName != null){
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if(server.isRegistered(mBeanName)){
+				server.unregisterMBean(mBeanName);
+			}
+			mBeanName = null;
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package com.github.tadukoo.util.parallel;
+
+/**
+ * Parallel Metrics Listener is used to see what's happening inside a {@link ParallelRunner} and its
+ * {@link Queue queues} while it runs: how full the {@link Queue queues} get, how long producers are blocked
+ * adding to them, how long consumers sit idle waiting on them, and how long each piece of work takes.
+ * <br><br>
+ * Metrics are opt-in: nothing is measured unless a listener is set, e.g. with
+ * {@link ParallelRunner#setMetricsListener(ParallelMetricsListener)}. All the methods do nothing by default, so
+ * only the ones that are needed have to be implemented. See {@link ParallelMetrics} for a listener that keeps
+ * counters and histograms of everything (and can be exposed through JMX).
+ * <br><br>
+ * <b>Note:</b> These methods are called from the threads doing the work, so they should be quick and thread-safe.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public interface ParallelMetricsListener{
+	
+	/**
+	 * Called when a {@link ParallelRunner} starts running
+	 *
+	 * @param numThreads The number of worker threads being run
+	 */
+	default void runStarted(int numThreads){ }
+	
+	/**
+	 * Called when a {@link ParallelRunner} is done running
+	 */
+	default void runFinished(){ }
+	
+	/**
+	 * Called when items are added to a {@link Queue}
+	 *
+	 * @param queueName The name of the {@link Queue} (e.g. {@link ParallelRunner#TODO_QUEUE_NAME})
+	 * @param numItems The number of items added
+	 * @param queueSize The number of items in the {@link Queue} after they were added
+	 * @param blockedNanos How long (in nanoseconds) the producer waited to add them (e.g. because it was full)
+	 */
+	default void itemsEnqueued(String queueName, int numItems, int queueSize, long blockedNanos){ }
+	
+	/**
+	 * Called when items are taken off a {@link Queue}
+	 *
+	 * @param queueName The name of the {@link Queue} (e.g. {@link ParallelRunner#TODO_QUEUE_NAME})
+	 * @param numItems The number of items taken off
+	 * @param queueSize The number of items in the {@link Queue} after they were taken off
+	 * @param idleNanos How long (in nanoseconds) the consumer waited for them (e.g. because it was empty)
+	 */
+	default void itemsDequeued(String queueName, int numItems, int queueSize, long idleNanos){ }
+	
+	/**
+	 * Called when a {@link ParallelWorker} finishes doing a piece of work
+	 *
+	 * @param workerName The name of the {@link ParallelWorker} that did the work (e.g. {@code worker-0}), which is
+	 * the same for every piece of work the worker does in a run
+	 * @param workNanos How long (in nanoseconds) {@link ParallelWorker#doWork(Object)} took
+	 */
+	default void workDone(String workerName, long workNanos){ }
+}
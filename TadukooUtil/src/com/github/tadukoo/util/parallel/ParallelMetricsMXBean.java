@@ -0,0 +1,94 @@
+package com.github.tadukoo.util.parallel;
+
+import java.util.Map;
+
+/**
+ * Parallel Metrics MXBean is the JMX view of {@link ParallelMetrics}, so that a running {@link ParallelRunner} can
+ * be watched with e.g. JConsole or VisualVM. It's registered with {@link ParallelMetrics#registerMBean(String)}.
+ * All times are in nanoseconds.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public interface ParallelMetricsMXBean{
+	
+	/**
+	 * @return The number of worker threads in the current (or last) run
+	 */
+	int getNumThreads();
+	
+	/**
+	 * @return The number of pieces of work done
+	 */
+	long getItemsDone();
+	
+	/**
+	 * @return The number of pieces of work done per second over the current (or last) run
+	 */
+	double getItemsPerSecond();
+	
+	/**
+	 * @return The fraction of the workers' time spent doing work (as opposed to waiting on the {@link Queue queues})
+	 */
+	double getBusyRatio();
+	
+	/**
+	 * @return The fraction of each worker's time spent doing work over the current (or last) run, by worker name
+	 */
+	Map<String, Double> getWorkerBusyRatios();
+	
+	/**
+	 * @return The average time a piece of work took
+	 */
+	double getMeanWorkNanos();
+	
+	/**
+	 * @return The (approximate) time that 99% of the pieces of work took at most
+	 */
+	long getP99WorkNanos();
+	
+	/**
+	 * @return The longest time a piece of work took
+	 */
+	long getMaxWorkNanos();
+	
+	/**
+	 * @return The number of items in the todo {@link Queue} the last time it changed
+	 */
+	int getTodoQueueSize();
+	
+	/**
+	 * @return The average number of items in the todo {@link Queue}
+	 */
+	double getMeanTodoQueueSize();
+	
+	/**
+	 * @return The most items there have been in the todo {@link Queue}
+	 */
+	long getMaxTodoQueueSize();
+	
+	/**
+	 * @return The total time producers spent blocked adding to the todo {@link Queue}
+	 */
+	long getTodoProducerBlockedNanos();
+	
+	/**
+	 * @return The total time workers spent idle waiting on the todo {@link Queue}
+	 */
+	long getTodoConsumerIdleNanos();
+	
+	/**
+	 * @return The number of items in the done {@link Queue} the last time it changed
+	 */
+	int getDoneQueueSize();
+	
+	/**
+	 * @return The total time workers spent blocked adding to the done {@link Queue}
+	 */
+	long getDoneProducerBlockedNanos();
+	
+	/**
+	 * @return The total time spent waiting on finished work from the done {@link Queue}
+	 */
+	long getDoneConsumerIdleNanos();
+}
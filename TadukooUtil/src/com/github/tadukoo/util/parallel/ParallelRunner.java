@@ -1,32 +1,87 @@
 package com.github.tadukoo.util.parallel;
 
+import com.github.tadukoo.util.functional.function.Function;
+import com.github.tadukoo.util.functional.function.Function3;
+import com.github.tadukoo.util.functional.integer.IntFunction;
 import com.github.tadukoo.util.logger.EasyLogger;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Parallel Runner is a generic class for running parallel code using the {@link ParallelWorker} and {@link Queue}
  * classes to assist in the parallel operation
+ * <br><br>
+ * To see what's happening inside while it runs (how full the {@link Queue queues} get, how long the workers wait
+ * on them, and how long each piece of work takes), set a {@link ParallelMetricsListener} (e.g.
+ * {@link ParallelMetrics}) with {@link #setMetricsListener(ParallelMetricsListener)}. Metrics are off by default,
+ * and cost nothing more than a null check when they're off
+ * <br><br>
+ * By default, finished work comes off the done {@link Queue} in whatever order the workers finish it. If it's
+ * needed in the same order it was added to the todo {@link Queue}, set a reorder window with
+ * {@link #setReorderWindow(int)}, and the finished work will be held back until everything before it is done
  *
  * @param <E> The type argument for the work object to be used in the {@link Queue queues}
  * and used by the {@link ParallelWorker}
  * @author Logan Ferree (Tadukoo)
- * @version Beta v.0.6
+ * @version Beta v.0.7
+ * @since Beta v.0.6
  */
 public abstract class ParallelRunner<E>{
+	/** The name of the todo {@link Queue} given to the {@link ParallelMetricsListener} */
+	public static final String TODO_QUEUE_NAME = "todo";
+	/** The name of the done {@link Queue} given to the {@link ParallelMetricsListener} */
+	public static final String DONE_QUEUE_NAME = "done";
+	/** The start of the names the {@link ParallelWorker workers} are given to the {@link ParallelMetricsListener} */
+	public static final String WORKER_NAME_PREFIX = "worker-";
+	
 	/** The {@link EasyLogger logger} to use for logging */
 	private final EasyLogger logger;
 	/** The maximum number of items that can be in the queues */
 	private final int maxQueueItems;
 	/** The number of threads to use to run the parallel operation */
 	private final int numThreads;
-	/** The {@link ParallelWorker} class to use for doing the actual work */
+	/** The {@link ParallelWorker} class to use for doing the actual work, if no {@link #workerCreator} is set */
 	private final Class<? extends ParallelWorker<E>> workerClass;
+	/** Creates the {@link ParallelWorker workers} from the logger, todo {@link Queue}, and done {@link Queue} */
+	private final Function3<EasyLogger, Queue<E>, Queue<E>, ? extends ParallelWorker<E>> workerCreator;
+	/** Creates the {@link Queue queues} to use, given the maximum number of items that can be in them */
+	private final IntFunction<Queue<E>> queueCreator;
+	/** The maximum number of work objects each {@link ParallelWorker} takes off the todo {@link Queue} at once */
+	private final int batchSize;
+	/** The {@link ParallelMetricsListener} to report to, or {@code null} if metrics are disabled */
+	private volatile ParallelMetricsListener metricsListener = null;
+	/** The size of the reorder window in ordered mode, or 0 if finished work can come off in any order */
+	private volatile int reorderWindow = 0;
+	/** Used to synchronize access to the state of the current run */
+	private final Object runLock = new Object();
+	/** The number of times this runner has been run, used to tell if a timeout is for the current run */
+	private long runCount = 0;
+	/** The todo {@link Queue} for the current run, or {@code null} if it's not running */
+	private Queue<E> runTodoQueue = null;
+	/** The done {@link Queue} for the current run, or {@code null} if it's not running */
+	private Queue<E> runDoneQueue = null;
+	/** The {@link Future futures} for the workers of the current run */
+	private List<Future<?>> runWorkers = new ArrayList<>();
+	/** Whether the current run has been cancelled */
+	private boolean cancelled = false;
+	/** Whether the current run was cancelled because it timed out */
+	private boolean timedOut = false;
 	
 	/**
-	 * Constructs a new {@link ParallelRunner} with the given parameters
+	 * Constructs a new {@link ParallelRunner} with the given parameters, using the standard {@link Queue}
 	 *
 	 * @param logger The {@link EasyLogger logger} to use for logging
 	 * @param maxQueueItems The maximum number of items that can be in the queues
@@ -35,46 +90,454 @@ public abstract class ParallelRunner<E>{
 	 */
 	protected ParallelRunner(
 			EasyLogger logger, int maxQueueItems, int numThreads, Class<? extends ParallelWorker<E>> workerClass){
+		this(logger, maxQueueItems, numThreads, workerClass, Queue::new);
+	}
+	
+	/**
+	 * Constructs a new {@link ParallelRunner} with the given parameters
+	 *
+	 * @param logger The {@link EasyLogger logger} to use for logging
+	 * @param maxQueueItems The maximum number of items that can be in the queues
+	 * @param numThreads The number of threads to use to run the parallel operation
+	 * @param workerClass The {@link ParallelWorker} class to use for doing the actual work
+	 * @param queueCreator Creates the {@link Queue queues} to use, given the maximum number of items that can be
+	 * in them (e.g. {@code LockFreeQueue::new} to use a {@link LockFreeQueue})
+	 */
+	protected ParallelRunner(
+			EasyLogger logger, int maxQueueItems, int numThreads, Class<? extends ParallelWorker<E>> workerClass,
+			IntFunction<Queue<E>> queueCreator){
+		this(logger, maxQueueItems, numThreads, workerClass, queueCreator, 1);
+	}
+	
+	/**
+	 * Constructs a new {@link ParallelRunner} with the given parameters
+	 *
+	 * @param logger The {@link EasyLogger logger} to use for logging
+	 * @param maxQueueItems The maximum number of items that can be in the queues
+	 * @param numThreads The number of threads to use to run the parallel operation
+	 * @param workerClass The {@link ParallelWorker} class to use for doing the actual work
+	 * @param queueCreator Creates the {@link Queue queues} to use, given the maximum number of items that can be
+	 * in them (e.g. {@code LockFreeQueue::new} to use a {@link LockFreeQueue})
+	 * @param batchSize The maximum number of work objects each {@link ParallelWorker} takes off the todo
+	 * {@link Queue} at once (1 to take them one at a time)
+	 */
+	protected ParallelRunner(
+			EasyLogger logger, int maxQueueItems, int numThreads, Class<? extends ParallelWorker<E>> workerClass,
+			IntFunction<Queue<E>> queueCreator, int batchSize){
+		this(logger, maxQueueItems, numThreads, workerClass, null, queueCreator, batchSize);
+	}
+	
+	/**
+	 * Constructs a new {@link ParallelRunner} with the given parameters, using the standard {@link Queue}
+	 *
+	 * @param logger The {@link EasyLogger logger} to use for logging
+	 * @param maxQueueItems The maximum number of items that can be in the queues
+	 * @param numThreads The number of threads to use to run the parallel operation
+	 * @param workerCreator Creates the {@link ParallelWorker workers} from the logger, todo {@link Queue}, and
+	 * done {@link Queue} (e.g. {@code MyWorker::new}, or a lambda that passes extra dependencies to the worker)
+	 */
+	protected ParallelRunner(
+			EasyLogger logger, int maxQueueItems, int numThreads,
+			Function3<EasyLogger, Queue<E>, Queue<E>, ? extends ParallelWorker<E>> workerCreator){
+		this(logger, maxQueueItems, numThreads, workerCreator, Queue::new);
+	}
+	
+	/**
+	 * Constructs a new {@link ParallelRunner} with the given parameters
+	 *
+	 * @param logger The {@link EasyLogger logger} to use for logging
+	 * @param maxQueueItems The maximum number of items that can be in the queues
+	 * @param numThreads The number of threads to use to run the parallel operation
+	 * @param workerCreator Creates the {@link ParallelWorker workers} from the logger, todo {@link Queue}, and
+	 * done {@link Queue} (e.g. {@code MyWorker::new}, or a lambda that passes extra dependencies to the worker)
+	 * @param queueCreator Creates the {@link Queue queues} to use, given the maximum number of items that can be
+	 * in them (e.g. {@code LockFreeQueue::new} to use a {@link LockFreeQueue})
+	 */
+	protected ParallelRunner(
+			EasyLogger logger, int maxQueueItems, int numThreads,
+			Function3<EasyLogger, Queue<E>, Queue<E>, ? extends ParallelWorker<E>> workerCreator,
+			IntFunction<Queue<E>> queueCreator){
+		this(logger, maxQueueItems, numThreads, workerCreator, queueCreator, 1);
+	}
+	
+	/**
+	 * Constructs a new {@link ParallelRunner} with the given parameters
+	 *
+	 * @param logger The {@link EasyLogger logger} to use for logging
+	 * @param maxQueueItems The maximum number of items that can be in the queues
+	 * @param numThreads The number of threads to use to run the parallel operation
+	 * @param workerCreator Creates the {@link ParallelWorker workers} from the logger, todo {@link Queue}, and
+	 * done {@link Queue} (e.g. {@code MyWorker::new}, or a lambda that passes extra dependencies to the worker)
+	 * @param queueCreator Creates the {@link Queue queues} to use, given the maximum number of items that can be
+	 * in them (e.g. {@code LockFreeQueue::new} to use a {@link LockFreeQueue})
+	 * @param batchSize The maximum number of work objects each {@link ParallelWorker} takes off the todo
+	 * {@link Queue} at once (1 to take them one at a time)
+	 */
+	protected ParallelRunner(
+			EasyLogger logger, int maxQueueItems, int numThreads,
+			Function3<EasyLogger, Queue<E>, Queue<E>, ? extends ParallelWorker<E>> workerCreator,
+			IntFunction<Queue<E>> queueCreator, int batchSize){
+		this(logger, maxQueueItems, numThreads, null, workerCreator, queueCreator, batchSize);
+	}
+	
+	/**
+	 * Constructs a new {@link ParallelRunner} with the given parameters. Only one of the worker class
+	 * and worker creator should be set
+	 *
+	 * @param logger The {@link EasyLogger logger} to use for logging
+	 * @param maxQueueItems The maximum number of items that can be in the queues
+	 * @param numThreads The number of threads to use to run the parallel operation
+	 * @param workerClass The {@link ParallelWorker} class to use for doing the actual work
+	 * @param workerCreator Creates the {@link ParallelWorker workers} from the logger, todo {@link Queue}, and
+	 * done {@link Queue}
+	 * @param queueCreator Creates the {@link Queue queues} to use, given the maximum number of items that can be
+	 * in them
+	 * @param batchSize The maximum number of work objects each {@link ParallelWorker} takes off the todo
+	 * {@link Queue} at once (1 to take them one at a time)
+	 */
+	private ParallelRunner(
+			EasyLogger logger, int maxQueueItems, int numThreads, Class<? extends ParallelWorker<E>> workerClass,
+			Function3<EasyLogger, Queue<E>, Queue<E>, ? extends ParallelWorker<E>> workerCreator,
+			IntFunction<Queue<E>> queueCreator, int batchSize){
+		if(batchSize < 1){
+			throw new IllegalArgumentException("batchSize must be at least 1, but was " + batchSize);
+		}
 		this.logger = logger;
 		this.maxQueueItems = maxQueueItems;
 		this.numThreads = numThreads;
 		this.workerClass = workerClass;
+		this.workerCreator = workerCreator;
+		this.queueCreator = queueCreator;
+		this.batchSize = batchSize;
 	}
 	
 	/**
-	 * This method runs the parallel operation as a whole and handles setting up and joining the threads
+	 * Sets the {@link ParallelMetricsListener} to report the activity of the {@link Queue queues} and the
+	 * {@link ParallelWorker workers} to. This takes effect the next time the parallel operation is run
+	 *
+	 * @param metricsListener The {@link ParallelMetricsListener} to report to, or {@code null} to disable metrics
+	 */
+	public void setMetricsListener(ParallelMetricsListener metricsListener){
+		this.metricsListener = metricsListener;
+	}
+	
+	/**
+	 * Sets the size of the reorder window, to turn on ordered mode. In ordered mode, work objects are given a
+	 * sequence number as they're added to the todo {@link Queue}, and the done {@link Queue} gives back finished
+	 * work in that same order, no matter what order the workers finish it in. Finished work waits in the reorder
+	 * window until everything before it is done, and workers that get a full window ahead of the oldest unfinished
+	 * work wait for it to catch up, so memory stays bounded.
+	 * <br><br>
+	 * A window of at least {@link #numThreads} times the batch size keeps all the workers busy, while a bigger
+	 * window lets fast work get further ahead of slow work. This takes effect the next time the parallel operation
+	 * is run
+	 *
+	 * @param reorderWindow The size of the reorder window, or 0 to turn off ordered mode
+	 */
+	public void setReorderWindow(int reorderWindow){
+		if(reorderWindow < 0){
+			throw new IllegalArgumentException("reorderWindow must not be negative, but was " + reorderWindow);
+		}
+		this.reorderWindow = reorderWindow;
+	}
+	
+	/**
+	 * This method runs the parallel operation as a whole and handles setting up and joining the threads.
+	 * Each {@link ParallelWorker} is run on its own new platform {@link Thread}
 	 *
 	 * @throws NoSuchMethodException If your {@link #workerClass} doesn't have a constructor matching the base class
 	 * @throws InvocationTargetException If your {@link #workerClass} constructor throws an exception
 	 * @throws InstantiationException If your {@link #workerClass} fails to instantiate
 	 * @throws IllegalAccessException If your {@link #workerClass} constructor is not public
 	 * @throws InterruptedException If something goes wrong in enqueue/dequeue calls to the {@link Queue queues}
+	 * @throws CancellationException If the parallel operation was {@link #cancel() cancelled}
 	 */
 	public void runParallelWork()
 			throws NoSuchMethodException, InvocationTargetException, InstantiationException,
 			IllegalAccessException, InterruptedException{
-		Queue<E> todoQueue = new Queue<>(maxQueueItems), doneQueue = new Queue<>(maxQueueItems);
-		
-		// Start worker threads
-		List<Thread> threads = new ArrayList<>();
-		for(int i = 0; i < numThreads; i++){
-			ParallelWorker<E> worker = workerClass.getConstructor(EasyLogger.class, Queue.class, Queue.class)
-					.newInstance(logger, todoQueue, doneQueue);
-			threads.add(new Thread(worker));
-			threads.get(i).start();
+		runParallelWork(Thread::new);
+	}
+	
+	/**
+	 * This method runs the parallel operation as a whole, running each {@link ParallelWorker} on a {@link Thread}
+	 * made by the given {@link ThreadFactory}. This can be used to run the workers on virtual threads
+	 * (e.g. {@code Thread.ofVirtual().factory()} on Java 21+), which is useful for I/O-bound workers that spend
+	 * most of their time blocked
+	 *
+	 * @param threadFactory The {@link ThreadFactory} to use to make the {@link Thread threads} for the workers
+	 * @throws NoSuchMethodException If your {@link #workerClass} doesn't have a constructor matching the base class
+	 * @throws InvocationTargetException If your {@link #workerClass} constructor throws an exception
+	 * @throws InstantiationException If your {@link #workerClass} fails to instantiate
+	 * @throws IllegalAccessException If your {@link #workerClass} constructor is not public
+	 * @throws InterruptedException If something goes wrong in enqueue/dequeue calls to the {@link Queue queues}
+	 * @throws CancellationException If the parallel operation was {@link #cancel() cancelled}
+	 */
+	public void runParallelWork(ThreadFactory threadFactory)
+			throws NoSuchMethodException, InvocationTargetException, InstantiationException,
+			IllegalAccessException, InterruptedException{
+		runParallelWorkWith(threadStarter(threadFactory), null);
+	}
+	
+	/**
+	 * This method runs the parallel operation as a whole, submitting each {@link ParallelWorker} to the given
+	 * {@link ExecutorService} (e.g. {@code Executors.newVirtualThreadPerTaskExecutor()} on Java 21+). The
+	 * {@link ExecutorService} is not shut down when the work is done.
+	 * <br><br>
+	 * <b>Note:</b> The {@link ExecutorService} must be able to run {@link #numThreads} tasks at the same time,
+	 * since the workers run until the todo {@link Queue} is closed
+	 *
+	 * @param executor The {@link ExecutorService} to run the workers on
+	 * @throws NoSuchMethodException If your {@link #workerClass} doesn't have a constructor matching the base class
+	 * @throws InvocationTargetException If your {@link #workerClass} constructor throws an exception
+	 * @throws InstantiationException If your {@link #workerClass} fails to instantiate
+	 * @throws IllegalAccessException If your {@link #workerClass} constructor is not public
+	 * @throws InterruptedException If something goes wrong in enqueue/dequeue calls to the {@link Queue queues}
+	 * @throws CancellationException If the parallel operation was {@link #cancel() cancelled}
+	 */
+	public void runParallelWork(ExecutorService executor)
+			throws NoSuchMethodException, InvocationTargetException, InstantiationException,
+			IllegalAccessException, InterruptedException{
+		runParallelWorkWith(executor::submit, null);
+	}
+	
+	/**
+	 * This method runs the parallel operation as a whole like {@link #runParallelWork()}, but gives up if it
+	 * doesn't finish within the given timeout. When the timeout is up, the run is {@link #cancel() cancelled}
+	 *
+	 * @param timeout The maximum amount of time the parallel operation is allowed to take
+	 * @throws NoSuchMethodException If your {@link #workerClass} doesn't have a constructor matching the base class
+	 * @throws InvocationTargetException If your {@link #workerClass} constructor throws an exception
+	 * @throws InstantiationException If your {@link #workerClass} fails to instantiate
+	 * @throws IllegalAccessException If your {@link #workerClass} constructor is not public
+	 * @throws InterruptedException If something goes wrong in enqueue/dequeue calls to the {@link Queue queues}
+	 * @throws TimeoutException If the parallel operation didn't finish before the timeout (in which case it's been
+	 * {@link #cancel() cancelled})
+	 * @throws CancellationException If the parallel operation was {@link #cancel() cancelled}
+	 */
+	public void runParallelWork(Duration timeout)
+			throws NoSuchMethodException, InvocationTargetException, InstantiationException,
+			IllegalAccessException, InterruptedException, TimeoutException{
+		runParallelWork(Thread::new, timeout);
+	}
+	
+	/**
+	 * This method runs the parallel operation as a whole like {@link #runParallelWork(ThreadFactory)}, but gives up
+	 * if it doesn't finish within the given timeout. When the timeout is up, the run is {@link #cancel() cancelled}
+	 *
+	 * @param threadFactory The {@link ThreadFactory} to use to make the {@link Thread threads} for the workers
+	 * @param timeout The maximum amount of time the parallel operation is allowed to take
+	 * @throws NoSuchMethodException If your {@link #workerClass} doesn't have a constructor matching the base class
+	 * @throws InvocationTargetException If your {@link #workerClass} constructor throws an exception
+	 * @throws InstantiationException If your {@link #workerClass} fails to instantiate
+	 * @throws IllegalAccessException If your {@link #workerClass} constructor is not public
+	 * @throws InterruptedException If something goes wrong in enqueue/dequeue calls to the {@link Queue queues}
+	 * @throws TimeoutException If the parallel operation didn't finish before the timeout (in which case it's been
+	 * {@link #cancel() cancelled})
+	 * @throws CancellationException If the parallel operation was {@link #cancel() cancelled}
+	 */
+	public void runParallelWork(ThreadFactory threadFactory, Duration timeout)
+			throws NoSuchMethodException, InvocationTargetException, InstantiationException,
+			IllegalAccessException, InterruptedException, TimeoutException{
+		if(!runParallelWorkWith(threadStarter(threadFactory), timeout)){
+			throw new TimeoutException("The parallel work did not finish within " + timeout);
+		}
+	}
+	
+	/**
+	 * This method runs the parallel operation as a whole like {@link #runParallelWork(ExecutorService)}, but gives
+	 * up if it doesn't finish within the given timeout. When the timeout is up, the run is
+	 * {@link #cancel() cancelled}
+	 *
+	 * @param executor The {@link ExecutorService} to run the workers on
+	 * @param timeout The maximum amount of time the parallel operation is allowed to take
+	 * @throws NoSuchMethodException If your {@link #workerClass} doesn't have a constructor matching the base class
+	 * @throws InvocationTargetException If your {@link #workerClass} constructor throws an exception
+	 * @throws InstantiationException If your {@link #workerClass} fails to instantiate
+	 * @throws IllegalAccessException If your {@link #workerClass} constructor is not public
+	 * @throws InterruptedException If something goes wrong in enqueue/dequeue calls to the {@link Queue queues}
+	 * @throws TimeoutException If the parallel operation didn't finish before the timeout (in which case it's been
+	 * {@link #cancel() cancelled})
+	 * @throws CancellationException If the parallel operation was {@link #cancel() cancelled}
+	 */
+	public void runParallelWork(ExecutorService executor, Duration timeout)
+			throws NoSuchMethodException, InvocationTargetException, InstantiationException,
+			IllegalAccessException, InterruptedException, TimeoutException{
+		if(!runParallelWorkWith(executor::submit, timeout)){
+			throw new TimeoutException("The parallel work did not finish within " + timeout);
+		}
+	}
+	
+	/**
+	 * Cancels the current run of the parallel operation (if there is one). Both {@link Queue queues} are closed,
+	 * so anything waiting on them stops waiting, and the workers are interrupted so that they stop without
+	 * finishing the remaining work. The run then ends by throwing a {@link CancellationException}
+	 * (or a {@link TimeoutException} if it was cancelled because it timed out)
+	 */
+	public void cancel(){
+		synchronized(runLock){
+			cancelRun(runCount, false);
+		}
+	}
+	
+	/**
+	 * Cancels the given run of the parallel operation, if it's still the current run. Must be called while
+	 * holding the {@link #runLock}
+	 *
+	 * @param run The number of the run to be cancelled
+	 * @param timeout Whether the run is being cancelled because it timed out
+	 */
+	private void cancelRun(long run, boolean timeout){
+		if(run != runCount || runTodoQueue == null || cancelled){
+			return;
+		}
+		cancelled = true;
+		timedOut = timeout;
+		runTodoQueue.close();
+		runDoneQueue.close();
+		for(Future<?> worker: runWorkers){
+			worker.cancel(true);
+		}
+	}
+	
+	/**
+	 * Creates a starter for {@link ParallelWorker workers} that runs each one on a new {@link Thread} made by
+	 * the given {@link ThreadFactory}
+	 *
+	 * @param threadFactory The {@link ThreadFactory} to use to make the {@link Thread threads} for the workers
+	 * @return A starter that runs the given {@link ParallelWorker} and returns a {@link Future} for it
+	 */
+	private Function<ParallelWorker<E>, Future<?>> threadStarter(ThreadFactory threadFactory){
+		return worker -> {
+			FutureTask<Void> task = new FutureTask<>(worker, null);
+			threadFactory.newThread(task).start();
+			return task;
+		};
+	}
+	
+	/**
+	 * Runs the parallel operation as a whole, using the given starter to start running each {@link ParallelWorker}.
+	 * Once {@link #doWork(Queue, Queue)} is done, the todo {@link Queue} is closed, so the workers finish the work
+	 * that's left in it and then stop
+	 *
+	 * @param workerStarter Starts running the given {@link ParallelWorker} and returns a {@link Future} for it
+	 * @param timeout The maximum amount of time the parallel operation is allowed to take, or {@code null} for no
+	 * limit
+	 * @return {@code true} if the parallel operation finished, or {@code false} if it timed out
+	 * @throws NoSuchMethodException If your {@link #workerClass} doesn't have a constructor matching the base class
+	 * @throws InvocationTargetException If your {@link #workerClass} constructor throws an exception
+	 * @throws InstantiationException If your {@link #workerClass} fails to instantiate
+	 * @throws IllegalAccessException If your {@link #workerClass} constructor is not public
+	 * @throws InterruptedException If something goes wrong in enqueue/dequeue calls to the {@link Queue queues}
+	 * @throws CancellationException If the parallel operation was {@link #cancel() cancelled}
+	 */
+	private boolean runParallelWorkWith(Function<ParallelWorker<E>, Future<?>> workerStarter, Duration timeout)
+			throws NoSuchMethodException, InvocationTargetException, InstantiationException,
+			IllegalAccessException, InterruptedException{
+		long deadline = timeout == null?0:System.nanoTime() + timeout.toNanos();
+		int window = reorderWindow;
+		Queue<E> todoQueue = window == 0?queueCreator.apply(maxQueueItems):
+				new SequencedQueue<>(maxQueueItems, queueCreator);
+		Queue<E> doneQueue = window == 0?queueCreator.apply(maxQueueItems):new OrderedQueue<>(window);
+		ParallelMetricsListener metrics = metricsListener;
+		if(metrics != null){
+			todoQueue.setMetricsListener(TODO_QUEUE_NAME, metrics);
+			doneQueue.setMetricsListener(DONE_QUEUE_NAME, metrics);
+			metrics.runStarted(numThreads);
+		}
+		List<Future<?>> workers = new ArrayList<>();
+		long run;
+		synchronized(runLock){
+			run = ++runCount;
+			runTodoQueue = todoQueue;
+			runDoneQueue = doneQueue;
+			runWorkers = workers;
+			cancelled = false;
+			timedOut = false;
 		}
 		
-		// Do the work
-		doWork(todoQueue, doneQueue);
+		// Cancel the run if it's still going once the timeout is up
+		if(timeout != null){
+			CompletableFuture.delayedExecutor(timeout.toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+				synchronized(runLock){
+					cancelRun(run, true);
+				}
+			});
+		}
 		
-		// Send terminate infos
-		for(int i = 0; i < numThreads; i++){
-			sendTerminateInfo(todoQueue);
+		boolean finished = false;
+		try{
+			// Only look up the worker class's constructor if we don't have a worker creator
+			Constructor<? extends ParallelWorker<E>> workerConstructor = workerCreator != null?null:
+					workerClass.getConstructor(EasyLogger.class, Queue.class, Queue.class);
+			
+			// Start workers
+			for(int i = 0; i < numThreads; i++){
+				ParallelWorker<E> worker = workerConstructor == null?
+						workerCreator.apply(logger, todoQueue, doneQueue):
+						workerConstructor.newInstance(logger, todoQueue, doneQueue);
+				worker.setBatchSize(batchSize);
+				worker.setMetricsListener(metrics, WORKER_NAME_PREFIX + i);
+				Future<?> future = workerStarter.apply(worker);
+				synchronized(runLock){
+					workers.add(future);
+					if(cancelled){
+						future.cancel(true);
+					}
+				}
+			}
+			
+			// Do the work
+			doWork(todoQueue, doneQueue);
+			
+			// No more work is coming, so the workers can finish what's left and stop
+			todoQueue.close();
+			
+			// Wait for the workers to finish
+			for(Future<?> worker: workers){
+				try{
+					if(timeout == null){
+						worker.get();
+					}else{
+						worker.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+					}
+				}catch(ExecutionException e){
+					logger.logError("A worker failed while running", e.getCause());
+				}catch(CancellationException e){
+					// The run was cancelled, which is handled below
+				}catch(TimeoutException e){
+					synchronized(runLock){
+						cancelRun(run, true);
+					}
+				}
+			}
+			doneQueue.close();
+			finished = true;
+		}catch(QueueClosedException e){
+			// If the run was cancelled, this is just from the queues being closed, which is handled below
+			synchronized(runLock){
+				if(!cancelled){
+					throw e;
+				}
+			}
+		}finally{
+			synchronized(runLock){
+				if(!finished){
+					// Something went wrong (or the run was cancelled), so make sure the workers stop
+					cancelRun(run, false);
+				}
+				runTodoQueue = null;
+				runDoneQueue = null;
+			}
+			if(metrics != null){
+				metrics.runFinished();
+			}
 		}
 		
-		// End worker threads
-		for(int i = 0; i < numThreads; i++){
-			threads.get(i).join();
+		synchronized(runLock){
+			if(cancelled && !timedOut){
+				throw new CancellationException("The parallel work was cancelled");
+			}
+			return !cancelled;
 		}
 	}
 	
@@ -82,8 +545,8 @@ public abstract class ParallelRunner<E>{
 	 * This method is where the work is performed. In this method, you should add the necessary work to the
 	 * todoQueue, receive the finished work from the doneQueue, and process that completed work.
 	 * <br><br>
-	 * <b>Note: DO NOT</b> send the work to terminate the processes in this code,
-	 * that is handled in {@link #sendTerminateInfo(Queue)}
+	 * Once this method returns, the todoQueue is closed, and the workers stop once they've finished the work
+	 * that's left in it, so there's no need to send any work to terminate the workers
 	 *
 	 * @param todoQueue The {@link Queue} to send work to that needs to be executed
 	 * @param doneQueue The {@link Queue} to receive work from once it's completed
@@ -92,11 +555,14 @@ public abstract class ParallelRunner<E>{
 	protected abstract void doWork(Queue<E> todoQueue, Queue<E> doneQueue) throws InterruptedException;
 	
 	/**
-	 * This method is where you send out the work that tells the threads to stop running their loops. It should line
-	 * up with what's defined in {@link ParallelWorker#checkToContinueWork(Object)} on your worker class
+	 * This method used to be where you send out the work that tells the threads to stop running their loops.
+	 * It is no longer called, as the todo {@link Queue} is now closed once {@link #doWork(Queue, Queue)} is done,
+	 * which stops the workers without having to put more work on a possibly full {@link Queue}
 	 *
 	 * @param todoQueue The {@link Queue} to send work to that tells the threads to stop running their loops
 	 * @throws InterruptedException If anything goes wrong in enqueue calls to the {@link Queue}
+	 * @deprecated The workers are stopped by closing the todo {@link Queue}, so this is no longer needed
 	 */
-	protected abstract void sendTerminateInfo(Queue<E> todoQueue) throws InterruptedException;
+	@Deprecated
+	protected void sendTerminateInfo(Queue<E> todoQueue) throws InterruptedException{ }
 }
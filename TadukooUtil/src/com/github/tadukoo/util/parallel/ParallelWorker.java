@@ -2,15 +2,26 @@ package com.github.tadukoo.util.parallel;
 
 import com.github.tadukoo.util.logger.EasyLogger;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Parallel Worker is the class involved in parallel programming that actually does the work involved in the
  * parallel operation.
  * <br><br>
- * Subclasses you make of this class should have a constructor matching this class's constructor, because of
- * how {@link ParallelRunner} works for instantiating an instance of this class.
+ * Subclasses you make of this class should have a constructor matching this class's constructor if you give
+ * {@link ParallelRunner} the worker class, because it instantiates the class by reflection. If you give it a
+ * worker creator instead (e.g. a constructor reference or a lambda), the constructor can take whatever else the
+ * worker needs, such as shared buffers or connection pools.
+ * <br><br>
+ * By default, a worker takes one work object at a time off the todo {@link Queue}. If a batch size greater than 1
+ * is set (see {@link #setBatchSize(int)}), it will instead take up to that many work objects at once and put
+ * all the finished work on the done {@link Queue} at once, which cuts down on the overhead of the {@link Queue}
+ * for small pieces of work.
  *
  * @author Logan Ferree (Tadukoo)
- * @version Beta v.0.6
+ * @version Beta v.0.7
+ * @since Beta v.0.6
  *
  * @param <E> The type of the work object
  */
@@ -22,6 +33,12 @@ public abstract class ParallelWorker<E> implements Runnable{
 	private final Queue<E> todoQueue;
 	/** The {@link Queue} to put finished work into */
 	private final Queue<E> doneQueue;
+	/** The maximum number of work objects to take off the {@link #todoQueue} at once */
+	private int batchSize = 1;
+	/** The {@link ParallelMetricsListener} to report how long each piece of work takes to, or {@code null} */
+	private ParallelMetricsListener metricsListener = null;
+	/** The name this worker is reported to the {@link #metricsListener} under */
+	private String workerName = null;
 	
 	/**
 	 * Constructs a new {@link ParallelWorker} with the given parameters
@@ -37,31 +54,302 @@ public abstract class ParallelWorker<E> implements Runnable{
 	}
 	
 	/**
-	 * Used to run the actual worker. Runs forever until {@link #checkToContinueWork(Object)} returns false.
+	 * @return The maximum number of work objects to take off the todo {@link Queue} at once
+	 */
+	public int getBatchSize(){
+		return batchSize;
+	}
+	
+	/**
+	 * Sets the maximum number of work objects to take off the todo {@link Queue} at once. This is set by
+	 * {@link ParallelRunner} before the worker is started
+	 *
+	 * @param batchSize The maximum number of work objects to take off the todo {@link Queue} at once
+	 */
+	void setBatchSize(int batchSize){
+		if(batchSize < 1){
+			throw new IllegalArgumentException("batchSize must be at least 1, but was " + batchSize);
+		}
+		this.batchSize = batchSize;
+	}
+	
+	/**
+	 * Sets the {@link ParallelMetricsListener} to report how long each piece of work takes to. This is set by
+	 * {@link ParallelRunner} before the worker is started
+	 *
+	 * @param metricsListener The {@link ParallelMetricsListener} to report to, or {@code null} to disable metrics
+	 * @param workerName The name to report this worker to the {@link ParallelMetricsListener} under
+	 */
+	void setMetricsListener(ParallelMetricsListener metricsListener, String workerName){
+		this.metricsListener = metricsListener;
+		this.workerName = workerName;
+	}
+	
+	/**
+	 * Used to run the actual worker. Runs until the {@link #todoQueue} is closed and empty, the thread is
+	 * interrupted (e.g. the run was cancelled), or {@link #checkToContinueWork(Object)} returns false.
 	 * Each iteration it grabs work off the {@link #todoQueue}, checks if it is an object to terminate work,
 	 * and if not will call {@link #doWork(Object)} with the work object, then add that work to the {@link #doneQueue}
+	 * <br><br>
+	 * If the {@link #batchSize} is greater than 1, each iteration grabs up to that many work objects at once
+	 * instead, and adds all the finished work to the {@link #doneQueue} at once
+	 * <br><br>
+	 * If the {@link ParallelRunner} is in ordered mode, the finished work is put in its place in the
+	 * {@link #doneQueue} by its sequence number instead
 	 */
 	@Override
 	public void run(){
+		if(todoQueue instanceof SequencedQueue<E> sequencedQueue &&
+				doneQueue instanceof OrderedQueue<E> orderedQueue){
+			runOrdered(sequencedQueue, orderedQueue);
+		}else if(batchSize > 1){
+			runBatches();
+		}else{
+			runSingles();
+		}
+	}
+	
+	/**
+	 * Runs the worker, taking one work object at a time off the {@link #todoQueue}
+	 */
+	private void runSingles(){
 		boolean cont = true;
-		while(cont){
+		while(cont && !Thread.currentThread().isInterrupted()){
 			try{
 				E work = todoQueue.dequeue();
 				if(checkToContinueWork(work)){
 					// Do the actual work
-					doWork(work);
+					timeWork(work);
 					doneQueue.enqueue(work);
 				}else{
 					cont = false;
 				}
+			}catch(QueueClosedException e){
+				// The todo queue is closed and empty (or the run was cancelled), so there's no more work
+				cont = false;
 			}catch(InterruptedException e){
-				logger.logError(e);
+				// We've been cancelled, so stop working and keep the interrupt status
+				Thread.currentThread().interrupt();
+				cont = false;
 			}
 		}
 	}
 	
 	/**
-	 * Checks if the passed in work object is a terminate work object and returns {@code false} if it is
+	 * Runs the worker, taking up to {@link #batchSize} work objects at a time off the {@link #todoQueue}.
+	 * If a terminate work object is found in a batch, any work objects after it (e.g. the terminate work objects
+	 * meant for other workers) are put back on the {@link #todoQueue}. If {@link #doWork(Object)} fails, the work
+	 * finished before it is still put on the {@link #doneQueue} and the rest of the batch is put back on the
+	 * {@link #todoQueue} (or done by this worker if the {@link #todoQueue} is closed), so only the work that failed
+	 * is lost
+	 */
+	private void runBatches(){
+		List<E> batch = new ArrayList<>(batchSize);
+		List<E> finished = new ArrayList<>(batchSize);
+		boolean cont = true;
+		while(cont && !Thread.currentThread().isInterrupted()){
+			try{
+				batch.clear();
+				finished.clear();
+				todoQueue.drainTo(batch, batchSize);
+				int index = 0;
+				try{
+					while(cont && index < batch.size()){
+						E work = batch.get(index++);
+						if(checkToContinueWork(work)){
+							// Do the actual work
+							timeWork(work);
+							finished.add(work);
+						}else{
+							cont = false;
+						}
+					}
+				}catch(RuntimeException | Error e){
+					// Only the work that failed is lost, so still publish the rest of the batch before stopping
+					try{
+						returnBatch(finished, batch.subList(index, batch.size()));
+					}catch(RuntimeException | Error | InterruptedException e2){
+						e.addSuppressed(e2);
+					}
+					throw e;
+				}
+				
+				// Publish the finished work and return any work we didn't get to
+				returnBatch(finished, batch.subList(index, batch.size()));
+			}catch(QueueClosedException e){
+				// The todo queue is closed and empty (or the run was cancelled), so there's no more work
+				cont = false;
+			}catch(InterruptedException e){
+				// We've been cancelled, so stop working and keep the interrupt status
+				Thread.currentThread().interrupt();
+				cont = false;
+			}
+		}
+	}
+	
+	/**
+	 * Puts the finished work from a batch on the {@link #doneQueue}, and puts the work from the batch that wasn't
+	 * gotten to back on the {@link #todoQueue}. If the {@link #todoQueue} is closed (because no more work is coming),
+	 * the work that wasn't gotten to is done by this worker instead, so it isn't lost
+	 *
+	 * @param finished The finished work from the batch
+	 * @param unfinished The work from the batch that wasn't gotten to
+	 * @throws InterruptedException If something goes wrong in adding the work to the {@link Queue queues}
+	 */
+	private void returnBatch(List<E> finished, List<E> unfinished) throws InterruptedException{
+		if(!finished.isEmpty()){
+			doneQueue.enqueueAll(finished);
+		}
+		if(!unfinished.isEmpty()){
+			try{
+				todoQueue.enqueueAll(unfinished);
+			}catch(QueueClosedException e){
+				doRest(unfinished);
+			}
+		}
+	}
+	
+	/**
+	 * Does the given work from a batch on this worker and puts it on the {@link #doneQueue}, for when it can't be
+	 * put back on the {@link #todoQueue}. Terminate work objects are skipped, and work that fails doesn't stop the
+	 * rest from being done: the first failure is thrown once all the work has been tried (with any later ones
+	 * suppressed in it)
+	 *
+	 * @param rest The work from the batch to be done
+	 * @throws InterruptedException If something goes wrong in adding the work to the {@link #doneQueue}
+	 */
+	private void doRest(List<E> rest) throws InterruptedException{
+		Throwable failure = null;
+		for(E work: rest){
+			try{
+				if(checkToContinueWork(work)){
+					timeWork(work);
+					doneQueue.enqueue(work);
+				}
+			}catch(QueueClosedException e){
+				// The run was cancelled, so nothing is taking the work anymore
+				throw e;
+			}catch(RuntimeException | Error e){
+				if(failure == null){
+					failure = e;
+				}else{
+					failure.addSuppressed(e);
+				}
+			}
+		}
+		if(failure instanceof RuntimeException runtimeException){
+			throw runtimeException;
+		}else if(failure != null){
+			throw (Error) failure;
+		}
+	}
+	
+	/**
+	 * Runs the worker in ordered mode, taking up to {@link #batchSize} work objects at a time off the
+	 * {@link #todoQueue} along with their sequence numbers, and putting the finished work in its place in the
+	 * {@link #doneQueue}. Terminate work objects are skipped in the {@link #doneQueue} so the work after them isn't
+	 * held up, and the rest of the batch is still finished before the worker stops (so no work is put back on the
+	 * {@link #todoQueue} out of order). If {@link #doWork(Object)} fails, the failed work and the rest of the batch
+	 * are skipped, so the work after them isn't held up forever
+	 *
+	 * @param sequencedQueue The {@link #todoQueue}, as a {@link SequencedQueue}
+	 * @param orderedQueue The {@link #doneQueue}, as an {@link OrderedQueue}
+	 */
+	private void runOrdered(SequencedQueue<E> sequencedQueue, OrderedQueue<E> orderedQueue){
+		List<SequencedQueue.Sequenced<E>> batch = new ArrayList<>(batchSize);
+		boolean cont = true;
+		while(cont && !Thread.currentThread().isInterrupted()){
+			try{
+				batch.clear();
+				sequencedQueue.drainSequencedTo(batch, batchSize);
+				int index = 0;
+				try{
+					while(index < batch.size()){
+						SequencedQueue.Sequenced<E> sequencedWork = batch.get(index);
+						E work = sequencedWork.getItem();
+						if(checkToContinueWork(work)){
+							// Do the actual work
+							timeWork(work);
+							orderedQueue.put(sequencedWork.getSequence(), work);
+						}else{
+							orderedQueue.skip(sequencedWork.getSequence());
+							cont = false;
+						}
+						index++;
+					}
+				}finally{
+					// If we stopped partway through the batch, skip the rest so the work after it isn't held up
+					skipRest(orderedQueue, batch, index);
+				}
+			}catch(QueueClosedException e){
+				// The todo queue is closed and empty (or the run was cancelled), so there's no more work
+				cont = false;
+			}catch(InterruptedException e){
+				// We've been cancelled, so stop working and keep the interrupt status
+				Thread.currentThread().interrupt();
+				cont = false;
+			}
+		}
+	}
+	
+	/**
+	 * Skips the sequence numbers of the work in the given batch from the given index on in the {@link #doneQueue},
+	 * so that the work after the batch isn't held up waiting on it. Any problem in skipping them (e.g. the
+	 * {@link #doneQueue} being closed because the run was cancelled) is ignored, so that the reason the batch wasn't
+	 * finished isn't hidden
+	 *
+	 * @param orderedQueue The {@link #doneQueue}, as an {@link OrderedQueue}
+	 * @param batch The batch of work with sequence numbers
+	 * @param index The index in the batch to start skipping from
+	 */
+	private void skipRest(OrderedQueue<E> orderedQueue, List<SequencedQueue.Sequenced<E>> batch, int index){
+		try{
+			for(int i = index; i < batch.size(); i++){
+				orderedQueue.skip(batch.get(i).getSequence());
+			}
+		}catch(QueueClosedException e){
+			// The run is over, so nothing is waiting on the rest of the batch
+		}catch(InterruptedException e){
+			// We've been cancelled, so keep the interrupt status
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Calls {@link #doWork(Object)} with the given work object, reporting how long it took to the
+	 * {@link #metricsListener} if there is one
+	 *
+	 * @param work The work object to use to do the work
+	 */
+	private void timeWork(E work){
+		if(metricsListener == null){
+			doWork(work);
+		}else{
+			long start = System.nanoTime();
+			doWork(work);
+			metricsListener.workDone(workerName, System.nanoTime() - start);
+		}
+	}
+	
+	/**
+	 * Submits more work to be done, e.g. sub-work found while doing a piece of work. When run by a
+	 * {@link WorkStealingParallelRunner}, this work goes onto the local deque of the current worker thread,
+	 * where idle workers can steal it. Otherwise, it's added to the todo {@link Queue}
+	 * <br><br>
+	 * <b>Note:</b> In a {@link ParallelRunner}, this blocks while the todo {@link Queue} is full, so workers
+	 * should not submit more work than the todo {@link Queue} can hold
+	 *
+	 * @param work The work object to be done
+	 * @throws InterruptedException If something goes wrong in adding the work to the todo {@link Queue}
+	 */
+	protected void submitWork(E work) throws InterruptedException{
+		todoQueue.enqueue(work);
+	}
+	
+	/**
+	 * Checks if the passed in work object is a terminate work object and returns {@code false} if it is.
+	 * Workers also stop once the todo {@link Queue} is closed, so this can just return {@code true} if you don't
+	 * use terminate work objects
 	 *
 	 * @param work The work object to check
 	 * @return {@code true} if the object is a valid work object, {@code false} if it is a terminate work object
@@ -0,0 +1,363 @@
+package com.github.tadukoo.util.parallel;
+
+import com.github.tadukoo.util.functional.consumer.Consumer;
+import com.github.tadukoo.util.functional.function.ThrowingFunction;
+import com.github.tadukoo.util.functional.integer.IntFunction;
+import com.github.tadukoo.util.logger.EasyLogger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pipeline is used to run a chain of stages (e.g. download, then parse, then transform, then write) in parallel,
+ * where each stage takes the items made by the stage before it. The stages are connected by bounded
+ * {@link Queue queues}, so a slow stage makes the stages before it wait (back-pressure) instead of piling up items,
+ * and each stage has its own number of threads, so slow stages can be scaled up on their own.
+ * <br><br>
+ * Once all the inputs have been given to the first stage, the end of the stream is passed down the stages
+ * automatically: when every thread of a stage has finished, the {@link Queue} to the next stage is closed.
+ * If any stage fails, the whole run is stopped and {@link #run(Iterable, Consumer)} throws an
+ * {@link ExecutionException} with the failure as the cause.
+ * <br><br>
+ * Pipelines are made with a {@link PipelineBuilder}, e.g.
+ * <pre>{@code
+ * Pipeline<URL, Path> pipeline = Pipeline.<URL>builder(logger)
+ *         .stage("download", 8, 100, url -> download(url))
+ *         .stage("parse", 2, 100, file -> parse(file))
+ *         .stage("write", 1, 20, parsed -> write(parsed))
+ *         .build();
+ * pipeline.run(urls, path -> logger.logInfo("Wrote " + path));
+ * }</pre>
+ * The {@link PipelineStageStats stats} for each stage of the current (or last) run can be found with
+ * {@link #getStageStats()}.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ *
+ * @param <I> The type of the inputs to the first stage
+ * @param <O> The type of the outputs from the last stage
+ */
+public class Pipeline<I, O>{
+	
+	/**
+	 * Pipeline Builder is used to build a {@link Pipeline}, one stage at a time. Each call to
+	 * {@link #stage(String, int, int, ThrowingFunction)} adds a stage taking the outputs of the previous stage.
+	 *
+	 * @author Logan Ferree (Tadukoo)
+	 * @version Beta v.0.7
+	 *
+	 * @param <I> The type of the inputs to the first stage
+	 * @param <O> The type of the outputs from the last stage added so far
+	 */
+	public static class PipelineBuilder<I, O>{
+		/** The {@link EasyLogger logger} to use for logging */
+		private final EasyLogger logger;
+		/** The stages added so far */
+		private final List<Stage> stages = new ArrayList<>();
+		/** The {@link ThreadFactory} used to make the threads for the stages */
+		private ThreadFactory threadFactory = Thread::new;
+		/** Used to create the {@link Queue queues} between the stages, given the max number of items */
+		private IntFunction<Queue<Object>> queueCreator = Queue::new;
+		
+		/**
+		 * Creates a new {@link PipelineBuilder}
+		 *
+		 * @param logger The {@link EasyLogger logger} to use for logging
+		 */
+		private PipelineBuilder(EasyLogger logger){
+			this.logger = logger;
+		}
+		
+		/**
+		 * Adds a stage to the {@link Pipeline}, taking the outputs of the previous stage (or the inputs to the
+		 * {@link Pipeline} if it's the first stage)
+		 *
+		 * @param <N> The type of the outputs of the new stage
+		 * @param name The name of the stage, used in logging and the {@link PipelineStageStats stats}
+		 * @param numThreads The number of threads to run the stage on
+		 * @param queueSize The maximum number of items waiting to go into this stage
+		 * @param function The function to run on each item
+		 * @return this, to continue building
+		 */
+		@SuppressWarnings("unchecked")
+		public <N> PipelineBuilder<I, N> stage(
+				String name, int numThreads, int queueSize,
+				ThrowingFunction<? super O, ? extends N, ? extends Exception> function){
+			if(numThreads < 1){
+				throw new IllegalArgumentException("numThreads must be at least 1, but was " + numThreads);
+			}
+			if(queueSize < 1){
+				throw new IllegalArgumentException("queueSize must be at least 1, but was " + queueSize);
+			}
+			stages.add(new Stage(
+					name, numThreads, queueSize, (ThrowingFunction<Object, Object, Exception>) function));
+			return (PipelineBuilder<I, N>) this;
+		}
+		
+		/**
+		 * Sets the {@link ThreadFactory} used to make the threads for the stages (defaults to making new platform
+		 * threads). This can be used to run the stages on virtual threads (e.g. {@code Thread.ofVirtual().factory()}
+		 * on Java 21+), which is useful for I/O-bound stages like downloads
+		 *
+		 * @param threadFactory The {@link ThreadFactory} used to make the threads for the stages
+		 * @return this, to continue building
+		 */
+		public PipelineBuilder<I, O> threadFactory(ThreadFactory threadFactory){
+			this.threadFactory = threadFactory;
+			return this;
+		}
+		
+		/**
+		 * Sets how the {@link Queue queues} between the stages are created (defaults to {@link Queue#Queue(int)}),
+		 * e.g. {@code LockFreeQueue::new}
+		 *
+		 * @param queueCreator Used to create the {@link Queue queues} between the stages, given the max number of items
+		 * @return this, to continue building
+		 */
+		public PipelineBuilder<I, O> queueCreator(IntFunction<Queue<Object>> queueCreator){
+			this.queueCreator = queueCreator;
+			return this;
+		}
+		
+		/**
+		 * Builds the {@link Pipeline}
+		 *
+		 * @return The new {@link Pipeline}
+		 * @throws IllegalStateException If no stages were added
+		 */
+		public Pipeline<I, O> build(){
+			if(stages.isEmpty()){
+				throw new IllegalStateException("A Pipeline must have at least one stage");
+			}
+			return new Pipeline<>(logger, stages, threadFactory, queueCreator);
+		}
+	}
+	
+	/**
+	 * A single stage of the {@link Pipeline}
+	 */
+	private static class Stage{
+		/** The name of the stage */
+		private final String name;
+		/** The number of threads to run the stage on */
+		private final int numThreads;
+		/** The maximum number of items waiting to go into this stage */
+		private final int queueSize;
+		/** The function to run on each item */
+		private final ThrowingFunction<Object, Object, Exception> function;
+		
+		/**
+		 * Creates a new {@link Stage}
+		 *
+		 * @param name The name of the stage
+		 * @param numThreads The number of threads to run the stage on
+		 * @param queueSize The maximum number of items waiting to go into this stage
+		 * @param function The function to run on each item
+		 */
+		private Stage(
+				String name, int numThreads, int queueSize, ThrowingFunction<Object, Object, Exception> function){
+			this.name = name;
+			this.numThreads = numThreads;
+			this.queueSize = queueSize;
+			this.function = function;
+		}
+	}
+	
+	/** The {@link EasyLogger logger} to use for logging */
+	private final EasyLogger logger;
+	/** The stages of the {@link Pipeline}, in order */
+	private final List<Stage> stages;
+	/** The {@link ThreadFactory} used to make the threads for the stages */
+	private final ThreadFactory threadFactory;
+	/** Used to create the {@link Queue queues} between the stages, given the max number of items */
+	private final IntFunction<Queue<Object>> queueCreator;
+	/** The {@link PipelineStageStats stats} for each stage of the current (or last) run */
+	private volatile List<PipelineStageStats> stageStats = Collections.emptyList();
+	
+	/**
+	 * Creates a new {@link Pipeline} (use {@link #builder(EasyLogger)})
+	 *
+	 * @param logger The {@link EasyLogger logger} to use for logging
+	 * @param stages The stages of the {@link Pipeline}, in order
+	 * @param threadFactory The {@link ThreadFactory} used to make the threads for the stages
+	 * @param queueCreator Used to create the {@link Queue queues} between the stages, given the max number of items
+	 */
+	private Pipeline(
+			EasyLogger logger, List<Stage> stages, ThreadFactory threadFactory,
+			IntFunction<Queue<Object>> queueCreator){
+		this.logger = logger;
+		this.stages = new ArrayList<>(stages);
+		this.threadFactory = threadFactory;
+		this.queueCreator = queueCreator;
+	}
+	
+	/**
+	 * Starts building a new {@link Pipeline}
+	 *
+	 * @param <I> The type of the inputs to the first stage
+	 * @param logger The {@link EasyLogger logger} to use for logging
+	 * @return A new {@link PipelineBuilder} to add the stages to
+	 */
+	public static <I> PipelineBuilder<I, I> builder(EasyLogger logger){
+		return new PipelineBuilder<>(logger);
+	}
+	
+	/**
+	 * @return The {@link PipelineStageStats stats} for each stage of the current (or last) run, in order
+	 */
+	public List<PipelineStageStats> getStageStats(){
+		return stageStats;
+	}
+	
+	/**
+	 * Runs all the given inputs through the {@link Pipeline}, handing each output of the last stage to the given
+	 * {@link Consumer} (on the calling thread) as it's made. Since the stages run in parallel, the outputs may not
+	 * be in the same order as the inputs. This returns once every input has made it through the
+	 * {@link Pipeline} (or a stage has failed)
+	 *
+	 * @param inputs The inputs to the first stage
+	 * @param output The {@link Consumer} to hand the outputs of the last stage to
+	 * @throws InterruptedException If the calling thread is interrupted while waiting for outputs
+	 * @throws ExecutionException If a stage fails, with the failure as the cause
+	 */
+	@SuppressWarnings("unchecked")
+	public void run(Iterable<? extends I> inputs, Consumer<? super O> output)
+			throws InterruptedException, ExecutionException{
+		// Create the queues between the stages (the last one is for the outputs)
+		List<Queue<Object>> queues = new ArrayList<>();
+		for(Stage stage: stages){
+			queues.add(queueCreator.apply(stage.queueSize));
+		}
+		queues.add(queueCreator.apply(stages.get(stages.size() - 1).queueSize));
+		
+		List<PipelineStageStats> runStats = new ArrayList<>();
+		List<Thread> threads = new ArrayList<>();
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		// Stops the whole run, by closing all the queues and interrupting all the threads
+		Runnable abort = () -> {
+			queues.forEach(Queue::close);
+			synchronized(threads){
+				threads.forEach(Thread::interrupt);
+			}
+		};
+		
+		// Start the stages
+		for(int i = 0; i < stages.size(); i++){
+			Stage stage = stages.get(i);
+			Queue<Object> in = queues.get(i), out = queues.get(i + 1);
+			PipelineStageStats stats = new PipelineStageStats(stage.name, stage.numThreads);
+			runStats.add(stats);
+			AtomicInteger runningThreads = new AtomicInteger(stage.numThreads);
+			for(int j = 0; j < stage.numThreads; j++){
+				startThread(threads, () -> {
+					try{
+						runStage(stage, in, out, stats);
+					}catch(Throwable t){
+						if(failure.compareAndSet(null, t)){
+							logger.logError("Pipeline stage " + stage.name + " failed", t);
+						}
+						abort.run();
+					}finally{
+						// The last thread of the stage to finish passes the end of the stream on to the next stage
+						if(runningThreads.decrementAndGet() == 0){
+							stats.end();
+							out.close();
+						}
+					}
+				});
+			}
+		}
+		stageStats = Collections.unmodifiableList(runStats);
+		
+		// Feed in the inputs on their own thread, so the outputs can be taken as they're made
+		Queue<Object> first = queues.get(0), last = queues.get(stages.size());
+		startThread(threads, () -> {
+			try{
+				for(I input: inputs){
+					first.enqueue(input);
+				}
+			}catch(InterruptedException | QueueClosedException e){
+				// The run was stopped
+			}catch(Throwable t){
+				failure.compareAndSet(null, t);
+				abort.run();
+			}finally{
+				first.close();
+			}
+		});
+		
+		// Take the outputs until the end of the stream
+		boolean finished = false;
+		try{
+			while(true){
+				Object item;
+				try{
+					item = last.dequeue();
+				}catch(QueueClosedException e){
+					break;
+				}
+				output.accept((O) item);
+			}
+			for(Thread thread: threads){
+				thread.join();
+			}
+			finished = true;
+		}finally{
+			if(!finished){
+				abort.run();
+			}
+		}
+		
+		if(failure.get() != null){
+			throw new ExecutionException("The Pipeline failed", failure.get());
+		}
+	}
+	
+	/**
+	 * Runs a single thread of a stage, taking items off its input {@link Queue} until the end of the stream,
+	 * and putting the results on its output {@link Queue}
+	 *
+	 * @param stage The stage being run
+	 * @param in The {@link Queue} to take items from
+	 * @param out The {@link Queue} to put the results on
+	 * @param stats The {@link PipelineStageStats stats} to record the work in
+	 * @throws Exception If the stage's function fails
+	 */
+	private void runStage(Stage stage, Queue<Object> in, Queue<Object> out, PipelineStageStats stats)
+			throws Exception{
+		try{
+			while(true){
+				Object item = in.dequeue();
+				long start = System.nanoTime();
+				Object result = stage.function.apply(item);
+				long done = System.nanoTime();
+				out.enqueue(result);
+				stats.recordItem(done - start, System.nanoTime() - done);
+			}
+		}catch(QueueClosedException e){
+			// The end of the stream (or the run was stopped)
+		}catch(InterruptedException e){
+			// The run was stopped
+			logger.logDebugFine("Pipeline stage " + stage.name + " was interrupted");
+		}
+	}
+	
+	/**
+	 * Makes and starts a new {@link Thread} to run the given {@link Runnable}, keeping track of it in the given list
+	 *
+	 * @param threads The list of the {@link Thread threads} for the run
+	 * @param runnable The {@link Runnable} to run on the new {@link Thread}
+	 */
+	private void startThread(List<Thread> threads, Runnable runnable){
+		Thread thread = threadFactory.newThread(runnable);
+		synchronized(threads){
+			threads.add(thread);
+		}
+		thread.start();
+	}
+}
@@ -0,0 +1,124 @@
+package com.github.tadukoo.util.parallel;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pipeline Stage Stats keeps track of how a single stage of a {@link Pipeline} is doing during a run, so that
+ * slow stages can be found and given more threads. The stats are updated live while the {@link Pipeline} runs.
+ * <br><br>
+ * The time spent waiting to hand off finished items ({@link #getBlockedNanos()}) is the back-pressure from the
+ * next stage: a stage that spends a lot of time blocked is waiting on a slower stage after it.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public class PipelineStageStats{
+	
+	/** The name of the stage */
+	private final String name;
+	/** The number of threads the stage runs on */
+	private final int numThreads;
+	/** The number of items the stage has finished */
+	private final LongAdder itemsProcessed = new LongAdder();
+	/** The total time (in nanoseconds) spent by the stage's threads doing work */
+	private final LongAdder busyNanos = new LongAdder();
+	/** The total time (in nanoseconds) spent by the stage's threads waiting to hand off finished items */
+	private final LongAdder blockedNanos = new LongAdder();
+	/** The time (from {@link System#nanoTime()}) the run started */
+	private final long startNanos;
+	/** The time (from {@link System#nanoTime()}) the run ended, or 0 if it's still running */
+	private volatile long endNanos = 0;
+	
+	/**
+	 * Creates a new {@link PipelineStageStats} for a run starting now
+	 *
+	 * @param name The name of the stage
+	 * @param numThreads The number of threads the stage runs on
+	 */
+	PipelineStageStats(String name, int numThreads){
+		this.name = name;
+		this.numThreads = numThreads;
+		startNanos = System.nanoTime();
+	}
+	
+	/**
+	 * @return The name of the stage
+	 */
+	public String getName(){
+		return name;
+	}
+	
+	/**
+	 * @return The number of threads the stage runs on
+	 */
+	public int getNumThreads(){
+		return numThreads;
+	}
+	
+	/**
+	 * @return The number of items the stage has finished
+	 */
+	public long getItemsProcessed(){
+		return itemsProcessed.sum();
+	}
+	
+	/**
+	 * @return The total time (in nanoseconds) spent by the stage's threads doing work
+	 */
+	public long getBusyNanos(){
+		return busyNanos.sum();
+	}
+	
+	/**
+	 * @return The total time (in nanoseconds) spent by the stage's threads waiting on the next stage to take
+	 * their finished items
+	 */
+	public long getBlockedNanos(){
+		return blockedNanos.sum();
+	}
+	
+	/**
+	 * @return The time (in nanoseconds) the run has taken so far, or took in total if it's finished
+	 */
+	public long getElapsedNanos(){
+		long end = endNanos;
+		return (end == 0?System.nanoTime():end) - startNanos;
+	}
+	
+	/**
+	 * @return The number of items the stage has finished per second over the run
+	 */
+	public double getItemsPerSecond(){
+		long elapsed = getElapsedNanos();
+		return elapsed <= 0?0:getItemsProcessed() * 1_000_000_000.0 / elapsed;
+	}
+	
+	/**
+	 * Records that the stage finished an item
+	 *
+	 * @param busy The time (in nanoseconds) spent doing the work for the item
+	 * @param blocked The time (in nanoseconds) spent waiting to hand off the finished item
+	 */
+	void recordItem(long busy, long blocked){
+		itemsProcessed.increment();
+		busyNanos.add(busy);
+		blockedNanos.add(blocked);
+	}
+	
+	/**
+	 * Records that the run has ended
+	 */
+	void end(){
+		endNanos = System.nanoTime();
+	}
+	
+	/**
+	 * @return A string representation of the stats, for logging
+	 */
+	@Override
+	public String toString(){
+		return name + " (" + numThreads + " threads): " + getItemsProcessed() + " items, " +
+				String.format("%.1f", getItemsPerSecond()) + " items/s, " +
+				getBusyNanos() / 1_000_000 + " ms busy, " + getBlockedNanos() / 1_000_000 + " ms blocked";
+	}
+}
@@ -1,13 +1,23 @@
 package com.github.tadukoo.util.parallel;
 
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedList;
 
 /**
  * This Queue is used to run parallel code with thread-safe methods for grabbing items off the queue and
  * putting items on the queue.
+ * <br><br>
+ * This implementation synchronizes on a single lock. For heavily contended queues (e.g. many
+ * {@link ParallelWorker workers}), see {@link LockFreeQueue}.
+ * <br><br>
+ * A {@link ParallelMetricsListener} can be set with {@link #setMetricsListener(String, ParallelMetricsListener)}
+ * to see how full the {@link Queue} gets and how long producers and consumers wait on it. When no listener is set,
+ * the {@link Queue} doesn't even check the time.
  *
  * @author Logan Ferree (Tadukoo)
- * @version Beta v.0.6
+ * @version Beta v.0.7
+ * @since Beta v.0.6
  *
  * @param <E> The type of item stored in this {@link Queue}
  */
@@ -19,6 +29,12 @@ public class Queue<E>{
 	private final LinkedList<E> data;
 	/** The maximum number of items that can be in the {@link Queue} */
 	private final int maxItems;
+	/** Whether the {@link Queue} has been closed */
+	private volatile boolean closed = false;
+	/** The name of the {@link Queue} given to the {@link #metricsListener} */
+	private String metricsName = null;
+	/** The {@link ParallelMetricsListener} to report to, or {@code null} if metrics are disabled */
+	private ParallelMetricsListener metricsListener = null;
 	
 	/**
 	 * Creates a new {@link Queue}
@@ -35,17 +51,24 @@ public class Queue<E>{
 	 *
 	 * @param item The item to add to the {@link Queue}
 	 * @throws InterruptedException If something goes wrong in waiting for the lock
+	 * @throws QueueClosedException If the {@link Queue} is closed (or gets closed while waiting for space)
 	 */
 	public void enqueue(E item) throws InterruptedException{
+		long start = startMetricsTimer();
+		int size;
 		synchronized(lock){
 			// Wait until we can add more to the queue
+			checkOpen();
 			while(data.size() == maxItems){
 				lock.wait();
+				checkOpen();
 			}
 			// Add the item to the queue and release the lock
 			data.addLast(item);
+			size = data.size();
 			lock.notifyAll();
 		}
+		recordEnqueued(1, size, start);
 	}
 	
 	/**
@@ -53,17 +76,185 @@ public class Queue<E>{
 	 *
 	 * @return The item taken off the {@link Queue}
 	 * @throws InterruptedException If something goes wrong in waiting for the lock
+	 * @throws QueueClosedException If the {@link Queue} is closed and has no items left in it
 	 */
 	public E dequeue() throws InterruptedException{
+		long start = startMetricsTimer();
+		E item;
+		int size;
 		synchronized(lock){
 			// Wait until there's something in the queue to take out
 			while(data.isEmpty()){
+				checkOpen();
 				lock.wait();
 			}
 			// Grab an item off the queue, release the lock, and return the grabbed item
-			E item = data.removeFirst();
+			item = data.removeFirst();
+			size = data.size();
 			lock.notifyAll();
-			return item;
+		}
+		recordDequeued(1, size, start);
+		return item;
+	}
+	
+	/**
+	 * Adds all the given items to the {@link Queue}, in the order returned by the {@link Collection}'s iterator.
+	 * As many items as fit are added each time the lock is acquired, waiting for space whenever the {@link Queue}
+	 * is full, instead of acquiring the lock once per item
+	 *
+	 * @param items The items to add to the {@link Queue}
+	 * @throws InterruptedException If something goes wrong in waiting for the lock
+	 * @throws QueueClosedException If the {@link Queue} is closed (or gets closed while waiting for space)
+	 */
+	public void enqueueAll(Collection<? extends E> items) throws InterruptedException{
+		long start = startMetricsTimer();
+		Iterator<? extends E> iterator = items.iterator();
+		int count = 0, size = 0;
+		synchronized(lock){
+			checkOpen();
+			while(iterator.hasNext()){
+				// Wait until we can add more to the queue
+				while(data.size() == maxItems){
+					lock.wait();
+					checkOpen();
+				}
+				// Add as many items as we can fit and release the lock
+				while(data.size() < maxItems && iterator.hasNext()){
+					data.addLast(iterator.next());
+					count++;
+				}
+				size = data.size();
+				lock.notifyAll();
+			}
+		}
+		if(count > 0){
+			recordEnqueued(count, size, start);
+		}
+	}
+	
+	/**
+	 * Takes up to the given maximum number of items off the {@link Queue} and adds them to the given
+	 * {@link Collection}, all in one acquisition of the lock. This waits until there's at least one item in
+	 * the {@link Queue}, but will not wait for more than that
+	 *
+	 * @param items The {@link Collection} to add the items taken off the {@link Queue} to
+	 * @param max The maximum number of items to take off the {@link Queue}
+	 * @return The number of items taken off the {@link Queue}
+	 * @throws InterruptedException If something goes wrong in waiting for the lock
+	 * @throws QueueClosedException If the {@link Queue} is closed and has no items left in it
+	 */
+	public int drainTo(Collection<? super E> items, int max) throws InterruptedException{
+		if(max <= 0){
+			return 0;
+		}
+		long start = startMetricsTimer();
+		int count = 0, size;
+		synchronized(lock){
+			// Wait until there's something in the queue to take out
+			while(data.isEmpty()){
+				checkOpen();
+				lock.wait();
+			}
+			// Grab as many items as we can, release the lock, and return how many we grabbed
+			while(count < max && !data.isEmpty()){
+				items.add(data.removeFirst());
+				count++;
+			}
+			size = data.size();
+			lock.notifyAll();
+		}
+		recordDequeued(count, size, start);
+		return count;
+	}
+	
+	/**
+	 * Closes the {@link Queue}. No more items can be added to it, but the items already in it can still be taken
+	 * off. Once it's empty, trying to take an item off it throws a {@link QueueClosedException} instead of waiting.
+	 * Any threads waiting on the {@link Queue} are woken up
+	 */
+	public void close(){
+		synchronized(lock){
+			closed = true;
+			lock.notifyAll();
+		}
+	}
+	
+	/**
+	 * @return Whether the {@link Queue} has been closed
+	 */
+	public boolean isClosed(){
+		return closed;
+	}
+	
+	/**
+	 * @return The number of items currently in the {@link Queue}
+	 */
+	public int size(){
+		synchronized(lock){
+			return data.size();
+		}
+	}
+	
+	/**
+	 * Sets the {@link ParallelMetricsListener} to report the activity of this {@link Queue} to. This should be set
+	 * before the {@link Queue} is shared with other threads
+	 *
+	 * @param name The name of the {@link Queue} given to the {@link ParallelMetricsListener}
+	 * @param metricsListener The {@link ParallelMetricsListener} to report to, or {@code null} to disable metrics
+	 */
+	public void setMetricsListener(String name, ParallelMetricsListener metricsListener){
+		this.metricsName = name;
+		this.metricsListener = metricsListener;
+	}
+	
+	/**
+	 * @return Whether a {@link ParallelMetricsListener} is set on this {@link Queue}
+	 */
+	protected boolean isMetricsEnabled(){
+		return metricsListener != null;
+	}
+	
+	/**
+	 * @return The time to measure waits from, or 0 if metrics are disabled (so the time isn't checked)
+	 */
+	protected long startMetricsTimer(){
+		return metricsListener == null?0:System.nanoTime();
+	}
+	
+	/**
+	 * Reports to the {@link ParallelMetricsListener} (if there is one) that items were added to the {@link Queue}
+	 *
+	 * @param numItems The number of items that were added
+	 * @param size The number of items in the {@link Queue} after they were added
+	 * @param start The time from {@link #startMetricsTimer()} when the producer started waiting
+	 */
+	protected void recordEnqueued(int numItems, int size, long start){
+		if(metricsListener != null){
+			metricsListener.itemsEnqueued(metricsName, numItems, size, System.nanoTime() - start);
+		}
+	}
+	
+	/**
+	 * Reports to the {@link ParallelMetricsListener} (if there is one) that items were taken off the {@link Queue}
+	 *
+	 * @param numItems The number of items that were taken off
+	 * @param size The number of items in the {@link Queue} after they were taken off
+	 * @param start The time from {@link #startMetricsTimer()} when the consumer started waiting
+	 */
+	protected void recordDequeued(int numItems, int size, long start){
+		if(metricsListener != null){
+			metricsListener.itemsDequeued(metricsName, numItems, size, System.nanoTime() - start);
+		}
+	}
+	
+	/**
+	 * Throws a {@link QueueClosedException} if the {@link Queue} has been closed
+	 *
+	 * @throws QueueClosedException If the {@link Queue} has been closed
+	 */
+	protected void checkOpen(){
+		if(closed){
+			throw new QueueClosedException("The queue has been closed");
 		}
 	}
 }
@@ -0,0 +1,22 @@
+package com.github.tadukoo.util.parallel;
+
+/**
+ * Queue Closed Exception is thrown when trying to add an item to a {@link Queue} that has been closed, or when
+ * trying to take an item off a {@link Queue} that has been closed and has no items left in it.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public class QueueClosedException extends IllegalStateException{
+	/** The version of this class, for serialization */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Constructs a new {@link QueueClosedException} with the given message
+	 *
+	 * @param message The message for the exception
+	 */
+	public QueueClosedException(String message){
+		super(message);
+	}
+}
@@ -0,0 +1,149 @@
+package com.github.tadukoo.util.parallel;
+
+import com.github.tadukoo.util.functional.integer.IntFunction;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Sequenced Queue is the todo {@link Queue} used by {@link ParallelRunner} in ordered mode. It tags each item
+ * with a sequence number as it's added, so that the {@link ParallelWorker workers} can put the finished work
+ * in the {@link OrderedQueue} in the right place. Items are numbered in the order they're added, and are taken
+ * off in that same order.
+ *
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ *
+ * @param <E> The type of item stored in this {@link SequencedQueue}
+ */
+class SequencedQueue<E> extends Queue<E>{
+	
+	/**
+	 * An item in the {@link SequencedQueue} along with its sequence number
+	 *
+	 * @param <E> The type of the item
+	 */
+	static class Sequenced<E>{
+		/** The sequence number of the item */
+		private final long sequence;
+		/** The actual item */
+		private final E item;
+		
+		/**
+		 * Creates a new {@link Sequenced} item
+		 *
+		 * @param sequence The sequence number of the item
+		 * @param item The actual item
+		 */
+		private Sequenced(long sequence, E item){
+			this.sequence = sequence;
+			this.item = item;
+		}
+		
+		/**
+		 * @return The sequence number of the item
+		 */
+		long getSequence(){
+			return sequence;
+		}
+		
+		/**
+		 * @return The actual item
+		 */
+		E getItem(){
+			return item;
+		}
+	}
+	
+	/** Used to make sure sequence numbers are given out in the same order the items go into the {@link #queue} */
+	private final Object producerLock = new Object();
+	/** The {@link Queue} actually holding the items and their sequence numbers */
+	private final Queue<Sequenced<E>> queue;
+	/** The sequence number to give to the next item added */
+	private long nextSequence = 0;
+	
+	/**
+	 * Creates a new {@link SequencedQueue}
+	 *
+	 * @param maxItems The maximum number of items that can be in the {@link SequencedQueue}
+	 * @param queueCreator Used to create the {@link Queue} that actually holds the items
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	SequencedQueue(int maxItems, IntFunction<? extends Queue<?>> queueCreator){
+		super(maxItems);
+		queue = (Queue<Sequenced<E>>) (Queue) queueCreator.apply(maxItems);
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public void enqueue(E item) throws InterruptedException{
+		synchronized(producerLock){
+			queue.enqueue(new Sequenced<>(nextSequence, item));
+			nextSequence++;
+		}
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public E dequeue() throws InterruptedException{
+		return queue.dequeue().getItem();
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public void enqueueAll(Collection<? extends E> items) throws InterruptedException{
+		synchronized(producerLock){
+			List<Sequenced<E>> sequencedItems = new ArrayList<>(items.size());
+			for(E item: items){
+				sequencedItems.add(new Sequenced<>(nextSequence + sequencedItems.size(), item));
+			}
+			queue.enqueueAll(sequencedItems);
+			nextSequence += sequencedItems.size();
+		}
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public int drainTo(Collection<? super E> items, int max) throws InterruptedException{
+		List<Sequenced<E>> sequencedItems = new ArrayList<>();
+		int count = queue.drainTo(sequencedItems, max);
+		for(Sequenced<E> sequencedItem: sequencedItems){
+			items.add(sequencedItem.getItem());
+		}
+		return count;
+	}
+	
+	/**
+	 * Takes up to the given maximum number of items off the {@link SequencedQueue}, along with their sequence
+	 * numbers. This waits until there's at least one item, but will not wait for more than that
+	 *
+	 * @param items The {@link Collection} to add the items taken off the {@link SequencedQueue} to
+	 * @param max The maximum number of items to take off the {@link SequencedQueue}
+	 * @return The number of items taken off the {@link SequencedQueue}
+	 * @throws InterruptedException If something goes wrong in waiting for an item
+	 * @throws QueueClosedException If the {@link SequencedQueue} is closed and has no items left in it
+	 */
+	int drainSequencedTo(Collection<? super Sequenced<E>> items, int max) throws InterruptedException{
+		return queue.drainTo(items, max);
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public void close(){
+		queue.close();
+		super.close();
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public int size(){
+		return queue.size();
+	}
+	
+	/** {@inheritDoc} */
+	@Override
+	public void setMetricsListener(String name, ParallelMetricsListener metricsListener){
+		queue.setMetricsListener(name, metricsListener);
+	}
+}
@@ -0,0 +1,441 @@
+package com.github.tadukoo.util.parallel;
+
+import com.github.tadukoo.util.functional.function.Function3;
+import com.github.tadukoo.util.logger.EasyLogger;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Work Stealing Parallel Runner is a variant of {@link ParallelRunner} that runs the work on a {@link ForkJoinPool}
+ * instead of funneling every work object through one shared todo {@link Queue}. Each worker thread owns a local
+ * deque of work, work submitted by a {@link ParallelWorker} (using {@link ParallelWorker#submitWork(Object)}) goes
+ * onto its own deque, and idle worker threads steal work from the others. This keeps all the threads busy
+ * when the work objects take uneven amounts of time.
+ * <br><br>
+ * The {@link ParallelWorker} contract is the same as in {@link ParallelRunner}: each worker thread has its own
+ * {@link ParallelWorker} instance, which gets its work objects passed to {@link ParallelWorker#doWork(Object)}
+ * (unless {@link ParallelWorker#checkToContinueWork(Object)} returns false for them, in which case they're
+ * ignored), and finished work is put on the done {@link Queue}. The {@link ParallelWorker#run()} loop is not
+ * used. Work added to the todo {@link Queue} by {@link #doWork(Queue, Queue)} waits in it until a worker thread
+ * starts it, so the todo {@link Queue} only holds the work that hasn't been started yet.
+ *
+ * @param <E> The type argument for the work object to be used in the {@link Queue queues}
+ * and used by the {@link ParallelWorker}
+ * @author Logan Ferree (Tadukoo)
+ * @version Beta v.0.7
+ */
+public abstract class WorkStealingParallelRunner<E>{
+	/** How often to check whether the workers are stuck waiting on a full done {@link Queue}, in milliseconds */
+	private static final long TERMINATION_CHECK_MILLIS = 100;
+	
+	/** The {@link EasyLogger logger} to use for logging */
+	private final EasyLogger logger;
+	/** The maximum number of items that can be in the queues (not counting work submitted by workers) */
+	private final int maxQueueItems;
+	/** The number of threads to use to run the parallel operation */
+	private final int numThreads;
+	/** The {@link ParallelWorker} class to use for doing the actual work, if no {@link #workerCreator} is set */
+	private final Class<? extends ParallelWorker<E>> workerClass;
+	/** Creates the {@link ParallelWorker workers} from the logger, todo {@link Queue}, and done {@link Queue} */
+	private final Function3<EasyLogger, Queue<E>, Queue<E>, ? extends ParallelWorker<E>> workerCreator;
+	
+	/**
+	 * Constructs a new {@link WorkStealingParallelRunner} with the given parameters
+	 *
+	 * @param logger The {@link EasyLogger logger} to use for logging
+	 * @param maxQueueItems The maximum number of items that can be in the queues (not counting work submitted
+	 * by workers)
+	 * @param numThreads The number of threads to use to run the parallel operation
+	 * @param workerClass The {@link ParallelWorker} class to use for doing the actual work
+	 */
+	protected WorkStealingParallelRunner(
+			EasyLogger logger, int maxQueueItems, int numThreads, Class<? extends ParallelWorker<E>> workerClass){
+		this(logger, maxQueueItems, numThreads, workerClass, null);
+	}
+	
+	/**
+	 * Constructs a new {@link WorkStealingParallelRunner} with the given parameters
+	 *
+	 * @param logger The {@link EasyLogger logger} to use for logging
+	 * @param maxQueueItems The maximum number of items that can be in the queues (not counting work submitted
+	 * by workers)
+	 * @param numThreads The number of threads to use to run the parallel operation
+	 * @param workerCreator Creates the {@link ParallelWorker workers} from the logger, todo {@link Queue}, and
+	 * done {@link Queue} (e.g. {@code MyWorker::new}, or a lambda that passes extra dependencies to the worker)
+	 */
+	protected WorkStealingParallelRunner(
+			EasyLogger logger, int maxQueueItems, int numThreads,
+			Function3<EasyLogger, Queue<E>, Queue<E>, ? extends ParallelWorker<E>> workerCreator){
+		this(logger, maxQueueItems, numThreads, null, workerCreator);
+	}
+	
+	/**
+	 * Constructs a new {@link WorkStealingParallelRunner} with the given parameters. Only one of the worker class
+	 * and worker creator should be set
+	 *
+	 * @param logger The {@link EasyLogger logger} to use for logging
+	 * @param maxQueueItems The maximum number of items that can be in the queues (not counting work submitted
+	 * by workers)
+	 * @param numThreads The number of threads to use to run the parallel operation
+	 * @param workerClass The {@link ParallelWorker} class to use for doing the actual work
+	 * @param workerCreator Creates the {@link ParallelWorker workers} from the logger, todo {@link Queue}, and
+	 * done {@link Queue}
+	 */
+	private WorkStealingParallelRunner(
+			EasyLogger logger, int maxQueueItems, int numThreads, Class<? extends ParallelWorker<E>> workerClass,
+			Function3<EasyLogger, Queue<E>, Queue<E>, ? extends ParallelWorker<E>> workerCreator){
+		this.logger = logger;
+		this.maxQueueItems = maxQueueItems;
+		this.numThreads = numThreads;
+		this.workerClass = workerClass;
+		this.workerCreator = workerCreator;
+	}
+	
+	/**
+	 * This method runs the parallel operation as a whole and handles setting up and shutting down the
+	 * {@link ForkJoinPool}
+	 *
+	 * @throws NoSuchMethodException If your {@link #workerClass} doesn't have a constructor matching the base class
+	 * @throws InvocationTargetException If your {@link #workerClass} constructor throws an exception
+	 * @throws InstantiationException If your {@link #workerClass} fails to instantiate
+	 * @throws IllegalAccessException If your {@link #workerClass} constructor is not public
+	 * @throws InterruptedException If something goes wrong in enqueue/dequeue calls to the {@link Queue queues}
+	 */
+	public void runParallelWork()
+			throws NoSuchMethodException, InvocationTargetException, InstantiationException,
+			IllegalAccessException, InterruptedException{
+		Queue<E> doneQueue = new Queue<>(maxQueueItems);
+		// Workers are handed out to the worker threads as they're started, and handed back when they stop
+		Deque<ParallelWorker<E>> idleWorkers = new ConcurrentLinkedDeque<>();
+		// Async mode, since the work tasks are never joined
+		ForkJoinPool pool = new ForkJoinPool(numThreads, forkJoinPool -> {
+			ParallelWorker<E> worker = idleWorkers.poll();
+			return worker == null?null:new WorkerThread(forkJoinPool, worker, idleWorkers);
+		}, null, true);
+		WorkStealingQueue todoQueue = new WorkStealingQueue(pool, doneQueue);
+		
+		// Create the workers (before any work is submitted, so before any worker thread is started)
+		Constructor<? extends ParallelWorker<E>> workerConstructor = workerCreator != null?null:
+				workerClass.getConstructor(EasyLogger.class, Queue.class, Queue.class);
+		for(int i = 0; i < numThreads; i++){
+			idleWorkers.add(workerConstructor == null?workerCreator.apply(logger, todoQueue, doneQueue):
+					workerConstructor.newInstance(logger, todoQueue, doneQueue));
+		}
+		
+		boolean finished = false;
+		try{
+			// Do the work
+			doWork(todoQueue, doneQueue);
+			finished = true;
+		}finally{
+			// No more work is coming from outside the pool
+			todoQueue.close();
+			if(finished){
+				// Let the remaining work finish
+				pool.shutdown();
+			}else{
+				// Something went wrong, so stop the remaining work
+				doneQueue.close();
+				pool.shutdownNow();
+			}
+			while(!pool.awaitTermination(TERMINATION_CHECK_MILLIS, TimeUnit.MILLISECONDS)){
+				if(!doneQueue.isClosed() && doneQueue.size() >= maxQueueItems){
+					// Nothing is taking finished work off the done queue anymore, so stop workers from waiting on it
+					logger.logWarning("The done queue is full after doWork finished, so the remaining finished work " +
+							"will be dropped");
+					doneQueue.close();
+				}else{
+					logger.logDebugFine("Waiting on work stealing workers to finish");
+				}
+			}
+			doneQueue.close();
+		}
+	}
+	
+	/**
+	 * This method is where the work is performed. In this method, you should add the necessary work to the
+	 * todoQueue, receive the finished work from the doneQueue, and process that completed work.
+	 * <br><br>
+	 * Once this method returns, the {@link ForkJoinPool} is shut down once the remaining work is done, so there's
+	 * no need to send any work to terminate the workers
+	 *
+	 * @param todoQueue The {@link Queue} to send work to that needs to be executed
+	 * @param doneQueue The {@link Queue} to receive work from once it's completed
+	 * @throws InterruptedException If anything goes wrong in enqueue/dequeue calls to the {@link Queue queues}
+	 */
+	protected abstract void doWork(Queue<E> todoQueue, Queue<E> doneQueue) throws InterruptedException;
+	
+	/**
+	 * A {@link ForkJoinWorkerThread} that has its own {@link ParallelWorker} to do the work with
+	 */
+	private static class WorkerThread extends ForkJoinWorkerThread{
+		/** The {@link ParallelWorker} used by this thread */
+		private final ParallelWorker<?> worker;
+		/** Hands the {@link #worker} back to the idle workers when this thread stops */
+		private final Runnable returnWorker;
+		
+		/**
+		 * Creates a new {@link WorkerThread} in the given {@link ForkJoinPool}
+		 *
+		 * @param <E> The type of the work object
+		 * @param pool The {@link ForkJoinPool} this thread works in
+		 * @param worker The {@link ParallelWorker} used by this thread
+		 * @param idleWorkers The idle {@link ParallelWorker workers} to hand the worker back to when this
+		 * thread stops
+		 */
+		private <E> WorkerThread(ForkJoinPool pool, ParallelWorker<E> worker, Deque<ParallelWorker<E>> idleWorkers){
+			super(pool);
+			this.worker = worker;
+			returnWorker = () -> idleWorkers.add(worker);
+		}
+		
+		/**
+		 * Hands the {@link #worker} back to the idle workers so a new thread can use it
+		 *
+		 * @param exception The exception that caused this thread to stop, if any
+		 */
+		@Override
+		protected void onTermination(Throwable exception){
+			returnWorker.run();
+			super.onTermination(exception);
+		}
+	}
+	
+	/**
+	 * The todo {@link Queue} used by a {@link WorkStealingParallelRunner}. Adding work to this {@link Queue} from
+	 * outside the {@link ForkJoinPool} puts it in the {@link Queue} (waiting if there are already
+	 * {@link #maxQueueItems} work objects waiting to start) and submits a task to the pool to take it off and do it,
+	 * while adding work from one of the worker threads pushes it straight onto that thread's local deque.
+	 * <br><br>
+	 * Work waiting to start can still be taken off like with any other {@link Queue}, in which case it won't be done
+	 */
+	private class WorkStealingQueue extends Queue<E>{
+		/** The {@link ForkJoinPool} the work is run in */
+		private final ForkJoinPool pool;
+		/** The {@link Queue} to put finished work into */
+		private final Queue<E> doneQueue;
+		/** The work added from outside the {@link #pool} that hasn't been started yet */
+		private final LinkedList<E> waiting = new LinkedList<>();
+		/** Guards the {@link #waiting} work */
+		private final ReentrantLock lock = new ReentrantLock();
+		/** Signalled when there's space for more work */
+		private final Condition notFull = lock.newCondition();
+		/** Signalled when there's work waiting (or the {@link Queue} is closed) */
+		private final Condition notEmpty = lock.newCondition();
+		
+		/**
+		 * Creates a new {@link WorkStealingQueue}
+		 *
+		 * @param pool The {@link ForkJoinPool} the work is run in
+		 * @param doneQueue The {@link Queue} to put finished work into
+		 */
+		private WorkStealingQueue(ForkJoinPool pool, Queue<E> doneQueue){
+			super(maxQueueItems);
+			this.pool = pool;
+			this.doneQueue = doneQueue;
+		}
+		
+		/**
+		 * Adds the given work to be done. From one of the worker threads, this pushes it onto the thread's local
+		 * deque. Otherwise, it's added to this {@link Queue} (waiting for space if it's full), and a task to take
+		 * it off and do it is submitted to the {@link ForkJoinPool}
+		 *
+		 * @param item The work to be done
+		 * @throws InterruptedException If interrupted while waiting for space for the work
+		 * @throws QueueClosedException If the {@link Queue} is closed (or gets closed while waiting for space)
+		 */
+		@Override
+		public void enqueue(E item) throws InterruptedException{
+			if(Thread.currentThread() instanceof WorkerThread thread && thread.getPool() == pool){
+				// Sub-work goes on the local deque, unbounded so that workers never block each other
+				new WorkTask(item).fork();
+				return;
+			}
+			lock.lockInterruptibly();
+			try{
+				checkOpen();
+				while(waiting.size() >= maxQueueItems){
+					notFull.await();
+					checkOpen();
+				}
+				waiting.addLast(item);
+				notEmpty.signal();
+			}finally{
+				lock.unlock();
+			}
+			pool.execute(new WorkTask());
+		}
+		
+		/** {@inheritDoc} */
+		@Override
+		public void enqueueAll(Collection<? extends E> items) throws InterruptedException{
+			for(E item: items){
+				enqueue(item);
+			}
+		}
+		
+		/**
+		 * Takes work that hasn't been started yet off the {@link Queue}, so it won't be done
+		 *
+		 * @return The work taken off the {@link Queue}
+		 * @throws InterruptedException If interrupted while waiting for work
+		 * @throws QueueClosedException If the {@link Queue} is closed and has no work waiting in it
+		 */
+		@Override
+		public E dequeue() throws InterruptedException{
+			lock.lockInterruptibly();
+			try{
+				while(waiting.isEmpty()){
+					checkOpen();
+					notEmpty.await();
+				}
+				E item = waiting.removeFirst();
+				notFull.signal();
+				return item;
+			}finally{
+				lock.unlock();
+			}
+		}
+		
+		/**
+		 * Takes up to the given maximum number of work objects that haven't been started yet off the {@link Queue},
+		 * so they won't be done. This waits until there's at least one work object waiting, but will not wait for
+		 * more than that
+		 *
+		 * @param items The {@link Collection} to add the work taken off the {@link Queue} to
+		 * @param max The maximum number of work objects to take off the {@link Queue}
+		 * @return The number of work objects taken off the {@link Queue}
+		 * @throws InterruptedException If interrupted while waiting for work
+		 * @throws QueueClosedException If the {@link Queue} is closed and has no work waiting in it
+		 */
+		@Override
+		public int drainTo(Collection<? super E> items, int max) throws InterruptedException{
+			if(max <= 0){
+				return 0;
+			}
+			lock.lockInterruptibly();
+			try{
+				while(waiting.isEmpty()){
+					checkOpen();
+					notEmpty.await();
+				}
+				int count = 0;
+				while(count < max && !waiting.isEmpty()){
+					items.add(waiting.removeFirst());
+					count++;
+				}
+				notFull.signalAll();
+				return count;
+			}finally{
+				lock.unlock();
+			}
+		}
+		
+		/** {@inheritDoc} */
+		@Override
+		public void close(){
+			super.close();
+			lock.lock();
+			try{
+				notFull.signalAll();
+				notEmpty.signalAll();
+			}finally{
+				lock.unlock();
+			}
+		}
+		
+		/**
+		 * @return The number of work objects added from outside the {@link ForkJoinPool} that haven't been started
+		 */
+		@Override
+		public int size(){
+			lock.lock();
+			try{
+				return waiting.size();
+			}finally{
+				lock.unlock();
+			}
+		}
+		
+		/**
+		 * A task to run one work object on the current {@link WorkerThread}'s {@link ParallelWorker}
+		 */
+		private class WorkTask extends RecursiveAction{
+			/** Tasks are never serialized, but {@link RecursiveAction} is {@link java.io.Serializable} */
+			private static final long serialVersionUID = 1L;
+			
+			/** Whether to take the work object off the {@link #waiting} work when the task is run */
+			private final boolean takeWaiting;
+			/** The work object to be done (if not {@link #takeWaiting}) */
+			private final E work;
+			
+			/**
+			 * Creates a new {@link WorkTask} that takes its work object off the {@link #waiting} work when it's run
+			 */
+			private WorkTask(){
+				takeWaiting = true;
+				work = null;
+			}
+			
+			/**
+			 * Creates a new {@link WorkTask} for the given work object
+			 *
+			 * @param work The work object to be done
+			 */
+			private WorkTask(E work){
+				takeWaiting = false;
+				this.work = work;
+			}
+			
+			/**
+			 * Does the work using the current {@link WorkerThread}'s {@link ParallelWorker}, and puts the finished
+			 * work on the {@link #doneQueue}
+			 */
+			@Override
+			@SuppressWarnings("unchecked")
+			protected void compute(){
+				E item = work;
+				if(takeWaiting){
+					lock.lock();
+					try{
+						if(waiting.isEmpty()){
+							// The work was taken off the queue before it was started
+							return;
+						}
+						item = waiting.removeFirst();
+						notFull.signal();
+					}finally{
+						lock.unlock();
+					}
+				}
+				ParallelWorker<E> worker = (ParallelWorker<E>) ((WorkerThread) Thread.currentThread()).worker;
+				try{
+					if(worker.checkToContinueWork(item)){
+						// Do the actual work
+						worker.doWork(item);
+						doneQueue.enqueue(item);
+					}
+				}catch(InterruptedException e){
+					worker.logger.logError(e);
+					Thread.currentThread().interrupt();
+				}catch(QueueClosedException e){
+					// Nothing is taking finished work off the done queue anymore, so it's dropped
+					worker.logger.logDebugFine("Dropped finished work since the done queue was closed");
+				}catch(RuntimeException e){
+					worker.logger.logError("A worker failed while doing work", e);
+				}
+			}
+		}
+	}
+}
@@ -1,13 +1,21 @@
 package com.github.tadukoo.util.stack;
 
+import java.util.Set;
+
 /**
- * Stack Util is used for figuring out information from the stack
+ * Stack Util is used for figuring out information from the stack. It uses a {@link StackWalker} that only walks as
+ * many frames as it needs to, and keeps class references so the calling class doesn't need to be loaded by name.
  *
  * @author Logan Ferree (Tadukoo)
- * @version Beta v.0.6
+ * @version Beta v.0.7
+ * @since Beta v.0.6
  */
 public final class StackUtil{
 	
+	/** The {@link StackWalker} used to find frames (reflection frames are shown, to match stack traces) */
+	private static final StackWalker STACK_WALKER = StackWalker.getInstance(
+			Set.of(StackWalker.Option.RETAIN_CLASS_REFERENCE, StackWalker.Option.SHOW_REFLECT_FRAMES));
+	
 	/** Not allowed to instantiate StackUtil */
 	private StackUtil(){ }
 	
@@ -19,9 +27,20 @@ public final class StackUtil{
 	 * @return The canonical class name of the calling class
 	 */
 	public static String getCallingClassName(){
-		StackTraceElement[] elements = Thread.currentThread().getStackTrace();
-		StackTraceElement element = elements[3];
-		return element.getClassName();
+		StackWalker.StackFrame frame = getCallingFrame(0);
+		return frame == null?null:frame.getClassName();
+	}
+	
+	/**
+	 * Figures out the canonical class name of the class that called the method that called this method, after
+	 * skipping the given number of frames (so e.g. a wrapper method can pass 1 to skip its own frame)
+	 *
+	 * @param depth The number of frames to skip past the method that called this method
+	 * @return The canonical class name of the calling class (or {@code null} if the stack isn't that deep)
+	 */
+	public static String getCallingClassName(int depth){
+		StackWalker.StackFrame frame = getCallingFrame(depth);
+		return frame == null?null:frame.getClassName();
 	}
 	
 	/**
@@ -30,12 +49,22 @@ public final class StackUtil{
 	 * StackUtilTest's method)
 	 *
 	 * @return The calling class
-	 * @throws ClassNotFoundException If the class is not found
 	 */
-	public static Class<?> getCallingClass() throws ClassNotFoundException{
-		StackTraceElement[] elements = Thread.currentThread().getStackTrace();
-		StackTraceElement element = elements[3];
-		return StackUtil.class.getClassLoader().loadClass(element.getClassName());
+	public static Class<?> getCallingClass(){
+		StackWalker.StackFrame frame = getCallingFrame(0);
+		return frame == null?null:frame.getDeclaringClass();
+	}
+	
+	/**
+	 * Figures out the class that called the method that called this method, after skipping the given number of
+	 * frames (so e.g. a wrapper method can pass 1 to skip its own frame)
+	 *
+	 * @param depth The number of frames to skip past the method that called this method
+	 * @return The calling class (or {@code null} if the stack isn't that deep)
+	 */
+	public static Class<?> getCallingClass(int depth){
+		StackWalker.StackFrame frame = getCallingFrame(depth);
+		return frame == null?null:frame.getDeclaringClass();
 	}
 	
 	/**
@@ -46,8 +75,34 @@ public final class StackUtil{
 	 * @return The method name of the calling method
 	 */
 	public static String getCallingMethodName(){
-		StackTraceElement[] elements = Thread.currentThread().getStackTrace();
-		StackTraceElement element = elements[3];
-		return element.getMethodName();
+		StackWalker.StackFrame frame = getCallingFrame(0);
+		return frame == null?null:frame.getMethodName();
+	}
+	
+	/**
+	 * Figures out the method name of the class that called the method that called this method, after skipping the
+	 * given number of frames (so e.g. a wrapper method can pass 1 to skip its own frame)
+	 *
+	 * @param depth The number of frames to skip past the method that called this method
+	 * @return The method name of the calling method (or {@code null} if the stack isn't that deep)
+	 */
+	public static String getCallingMethodName(int depth){
+		StackWalker.StackFrame frame = getCallingFrame(depth);
+		return frame == null?null:frame.getMethodName();
+	}
+	
+	/**
+	 * Finds the frame that called the method that called the public StackUtil method calling this, after skipping
+	 * the given number of frames. This must be called directly from a public StackUtil method
+	 *
+	 * @param depth The number of frames to skip past the method that called StackUtil
+	 * @return The {@link StackWalker.StackFrame frame} of the caller (or {@code null} if the stack isn't that deep)
+	 */
+	private static StackWalker.StackFrame getCallingFrame(int depth){
+		if(depth < 0){
+			throw new IllegalArgumentException("depth can't be negative, but was " + depth);
+		}
+		// Skip this method, the public StackUtil method, and the method that called StackUtil
+		return STACK_WALKER.walk(frames -> frames.skip(3L + depth).findFirst().orElse(null));
 	}
 }